@@ -0,0 +1,89 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeSharedAnalytic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link CloudletSchedulerTimeShared#updateVmProcessing(double, List)} for a VM of four
+ * PEs running a number of cloudlets that do not finish during the benchmark, and the same for
+ * {@link CloudletSchedulerTimeSharedAnalytic}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CloudletSchedulerTimeSharedBenchmark {
+
+	/** The number of cloudlets. */
+	@Param({ "10", "100", "1000", "10000" })
+	public int cloudlets;
+
+	/** The scheduler: "timeshared" or "analytic". */
+	@Param({ "timeshared", "analytic" })
+	public String type;
+
+	/** The scheduler. */
+	private CloudletSchedulerTimeShared scheduler;
+
+	/** The mips share of the VM. */
+	private final List<Double> mipsShare = new ArrayList<Double>();
+
+	/** The time of the last update. */
+	private double time;
+
+	/**
+	 * Creates the scheduler and submits the cloudlets.
+	 */
+	@Setup
+	public void setUp() {
+		for (int i = 0; i < 4; i++) {
+			mipsShare.add(1000.0);
+		}
+		if (type.equals("analytic")) {
+			scheduler = new CloudletSchedulerTimeSharedAnalytic();
+		} else {
+			scheduler = new CloudletSchedulerTimeShared();
+		}
+		scheduler.updateVmProcessing(time, mipsShare);
+		for (int i = 0; i < cloudlets; i++) {
+			scheduler.cloudletSubmit(Fixtures.createCloudlet(i, 1));
+		}
+	}
+
+	/**
+	 * Updates the processing of the cloudlets a millisecond after the previous update.
+	 *
+	 * @return the predicted completion time of the next finishing cloudlet
+	 */
+	@Benchmark
+	public double updateVmProcessing() {
+		time += 0.001;
+		return scheduler.updateVmProcessing(time, mipsShare);
+	}
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.UtilizationModelStochastic;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
+import org.cloudbus.cloudsim.power.PowerHost;
+import org.cloudbus.cloudsim.power.PowerHostUtilizationHistory;
+import org.cloudbus.cloudsim.power.PowerVm;
+import org.cloudbus.cloudsim.power.models.PowerModel;
+import org.cloudbus.cloudsim.power.models.PowerModelSpecPowerHpProLiantMl110G4Xeon3040;
+import org.cloudbus.cloudsim.power.models.PowerModelSpecPowerHpProLiantMl110G5Xeon3075;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+
+/**
+ * Synthetic hosts, VMs and cloudlets for the benchmarks, built like the ones of the random power
+ * examples, so that the benchmarks do not need any workload file.
+ */
+public class Fixtures {
+
+	/** The scheduling interval, as in the power examples. */
+	public static final double SCHEDULING_INTERVAL = 300;
+
+	/** The mips of the host types. */
+	private static final int[] HOST_MIPS = { 1860, 2660 };
+
+	/** The number of PEs of the host types. */
+	private static final int[] HOST_PES = { 2, 2 };
+
+	/** The power models of the host types. */
+	private static final PowerModel[] HOST_POWER = {
+			new PowerModelSpecPowerHpProLiantMl110G4Xeon3040(),
+			new PowerModelSpecPowerHpProLiantMl110G5Xeon3075() };
+
+	/** The mips of the vm types. */
+	private static final int[] VM_MIPS = { 2500, 2000, 1000, 500 };
+
+	/** The ram of the vm types. */
+	private static final int[] VM_RAM = { 870, 1740, 1740, 613 };
+
+	/** The length of the cloudlets, long enough to never finish during a benchmark. */
+	private static final long CLOUDLET_LENGTH = 1000000000000L;
+
+	/**
+	 * Creates power hosts with a utilization history, alternating the two host types of the power
+	 * examples.
+	 *
+	 * @param hostsNumber the number of hosts
+	 * @return the hosts
+	 */
+	public static List<PowerHost> createHosts(int hostsNumber) {
+		List<PowerHost> hosts = new ArrayList<PowerHost>();
+		for (int i = 0; i < hostsNumber; i++) {
+			int hostType = i % HOST_MIPS.length;
+			List<Pe> peList = new ArrayList<Pe>();
+			for (int j = 0; j < HOST_PES[hostType]; j++) {
+				peList.add(new Pe(j, new PeProvisionerSimple(HOST_MIPS[hostType])));
+			}
+			hosts.add(new PowerHostUtilizationHistory(
+					i,
+					new RamProvisionerSimple(16384),
+					new BwProvisionerSimple(10000000),
+					1000000,
+					peList,
+					new VmSchedulerTimeSharedOverSubscription(peList),
+					HOST_POWER[hostType]));
+		}
+		return hosts;
+	}
+
+	/**
+	 * Creates power VMs running a dynamic workload, in equal numbers of each vm type of the power
+	 * examples.
+	 *
+	 * @param vmsNumber the number of vms
+	 * @return the vms
+	 */
+	public static List<Vm> createVms(int vmsNumber) {
+		List<Vm> vms = new ArrayList<Vm>();
+		for (int i = 0; i < vmsNumber; i++) {
+			int vmType = i * VM_MIPS.length / vmsNumber;
+			vms.add(new PowerVm(
+					i,
+					0,
+					VM_MIPS[vmType],
+					1,
+					VM_RAM[vmType],
+					100000,
+					2500,
+					1,
+					"Xen",
+					new CloudletSchedulerDynamicWorkload(VM_MIPS[vmType], 1),
+					SCHEDULING_INTERVAL));
+		}
+		return vms;
+	}
+
+	/**
+	 * Creates a cloudlet with a stochastic utilization.
+	 *
+	 * @param id the id of the cloudlet
+	 * @param pesNumber the number of PEs
+	 * @return the cloudlet
+	 */
+	public static Cloudlet createCloudlet(int id, int pesNumber) {
+		Cloudlet cloudlet = new Cloudlet(
+				id,
+				CLOUDLET_LENGTH,
+				pesNumber,
+				300,
+				300,
+				new UtilizationModelStochastic(id + 1),
+				new UtilizationModelStochastic(id + 1),
+				new UtilizationModelStochastic(id + 1));
+		cloudlet.setUserId(0);
+		cloudlet.setVmId(id);
+		return cloudlet;
+	}
+
+	/**
+	 * Submits one cloudlet to each VM.
+	 *
+	 * @param vms the vms
+	 */
+	public static void submitCloudlets(List<Vm> vms) {
+		for (Vm vm : vms) {
+			vm.getCloudletScheduler().cloudletSubmit(createCloudlet(vm.getId(), vm.getNumberOfPes()));
+		}
+	}
+
+	/**
+	 * Updates the processing of the hosts at the end of a number of scheduling intervals, so that
+	 * the hosts and the VMs get a utilization history.
+	 *
+	 * @param hosts the hosts
+	 * @param intervals the number of scheduling intervals
+	 */
+	public static void runIntervals(List<? extends Host> hosts, int intervals) {
+		for (int i = 1; i <= intervals; i++) {
+			double time = i * SCHEDULING_INTERVAL + 0.1;
+			for (Host host : hosts) {
+				host.updateVmsProcessing(time);
+			}
+		}
+	}
+
+}
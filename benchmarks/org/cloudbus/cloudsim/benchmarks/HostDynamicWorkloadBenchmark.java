@@ -0,0 +1,102 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.HostDynamicWorkload;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link HostDynamicWorkload#updateVmsProcessing(double)} for a host running a number of
+ * power VMs with a stochastic workload. The host and the VMs keep a history of their state, so
+ * each invocation simulates one day of scheduling intervals on a new host; the result is given per
+ * scheduling interval.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HostDynamicWorkloadBenchmark {
+
+	/** The number of scheduling intervals in a day. */
+	private static final int INTERVALS = 288;
+
+	/** The number of vms of the host. */
+	@Param({ "1", "10", "100" })
+	public int vms;
+
+	/** The host. */
+	private HostDynamicWorkload host;
+
+	/**
+	 * Creates a host with enough PEs for its VMs, and submits a cloudlet to each VM.
+	 */
+	@Setup(Level.Invocation)
+	public void setUp() {
+		Log.disable();
+		List<Pe> peList = new ArrayList<Pe>();
+		for (int i = 0; i < vms; i++) {
+			peList.add(new Pe(i, new PeProvisionerSimple(2660)));
+		}
+		host = new HostDynamicWorkload(
+				0,
+				new RamProvisionerSimple(2048 * vms),
+				new BwProvisionerSimple(100000L * vms),
+				1000000,
+				peList,
+				new VmSchedulerTimeSharedOverSubscription(peList));
+		List<Vm> vmList = Fixtures.createVms(vms);
+		for (Vm vm : vmList) {
+			if (!host.vmCreate(vm)) {
+				throw new IllegalStateException("The VM #" + vm.getId() + " cannot be created");
+			}
+		}
+		Fixtures.submitCloudlets(vmList);
+	}
+
+	/**
+	 * Updates the processing of the VMs at the end of each scheduling interval of a day.
+	 *
+	 * @return the predicted completion time of the next finishing cloudlet after the last interval
+	 */
+	@Benchmark
+	@OperationsPerInvocation(INTERVALS)
+	public double updateVmsProcessing() {
+		double nextEvent = 0;
+		for (int i = 1; i <= INTERVALS; i++) {
+			nextEvent = host.updateVmsProcessing(i * Fixtures.SCHEDULING_INTERVAL + 0.1);
+		}
+		return nextEvent;
+	}
+
+}
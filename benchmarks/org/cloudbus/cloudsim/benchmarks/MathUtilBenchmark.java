@@ -0,0 +1,129 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.math3.stat.regression.OLSMultipleLinearRegression;
+import org.cloudbus.cloudsim.util.MathUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the regressions of {@link MathUtil} used by the local regression policies on utilization
+ * histories of the lengths they use, against the commons-math regressions they replace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MathUtilBenchmark {
+
+	/** The length of the history. */
+	@Param({ "5", "10", "15", "30", "100" })
+	public int length;
+
+	/** The history. */
+	private double[] history;
+
+	/** The x values of the history, from 1 to its length. */
+	private double[] x;
+
+	/** The samples of the multiple regression: the CPU, RAM and BW utilization. */
+	private double[][] samples;
+
+	/** The observations of the multiple regression. */
+	private double[] observations;
+
+	/**
+	 * Creates a random utilization history.
+	 */
+	@Setup
+	public void setUp() {
+		Random random = new Random(1);
+		history = new double[length];
+		x = new double[length];
+		samples = new double[length][3];
+		observations = new double[length];
+		for (int i = 0; i < length; i++) {
+			history[i] = random.nextDouble();
+			x[i] = i + 1;
+			for (int j = 0; j < 3; j++) {
+				samples[i][j] = random.nextDouble();
+			}
+			observations[i] = samples[i][0] * samples[i][1] * samples[i][2];
+		}
+	}
+
+	/**
+	 * Estimates the parameters of the local regression.
+	 *
+	 * @return the estimates
+	 */
+	@Benchmark
+	public double[] getLoessParameterEstimates() {
+		return MathUtil.getLoessParameterEstimates(history);
+	}
+
+	/**
+	 * Estimates the parameters of the local regression with a commons-math regression.
+	 *
+	 * @return the estimates
+	 */
+	@Benchmark
+	public double[] getLoessParameterEstimatesCommonsMath() {
+		return MathUtil.createWeigthedLinearRegression(x, history, MathUtil.getTricubeWeigts(length))
+				.regress().getParameterEstimates();
+	}
+
+	/**
+	 * Estimates the parameters of the robust local regression.
+	 *
+	 * @return the estimates
+	 */
+	@Benchmark
+	public double[] getRobustLoessParameterEstimates() {
+		return MathUtil.getRobustLoessParameterEstimates(history);
+	}
+
+	/**
+	 * Estimates the parameters of the multiple regression.
+	 *
+	 * @return the estimates
+	 */
+	@Benchmark
+	public double[] getMultipleLinearRegressionParameterEstimates() {
+		return MathUtil.getMultipleLinearRegressionParameterEstimates(samples, observations);
+	}
+
+	/**
+	 * Estimates the parameters of the multiple regression with a commons-math regression.
+	 *
+	 * @return the estimates
+	 */
+	@Benchmark
+	public double[] getMultipleLinearRegressionParameterEstimatesCommonsMath() {
+		OLSMultipleLinearRegression regression = new OLSMultipleLinearRegression();
+		regression.newSampleData(observations, samples);
+		return regression.estimateRegressionParameters();
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.power.PowerHost;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationInterQuartileRange;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationLocalRegression;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationStaticThreshold;
+import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyMinimumMigrationTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link PowerVmAllocationPolicyMigrationAbstract#optimizeAllocation(List)} on a data
+ * center with as many VMs as hosts, after a few hours of a stochastic workload, with the MMT VM
+ * selection policy. The policy restores the allocation after each optimization, so every
+ * invocation optimizes the same allocation. As the policy keeps the execution times of each
+ * optimization, it is created again before each iteration, so that they do not pile up. Building
+ * the data center takes a while with 5,000 hosts, so it is built once per fork. The threads
+ * parameter measures the scaling of the parallel over-utilization detection with the number of
+ * cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PowerVmAllocationPolicyMigrationBenchmark {
+
+	/** The number of scheduling intervals of workload before the optimization. */
+	private static final int INTERVALS = 24;
+
+	/** The number of hosts. */
+	@Param({ "100", "800", "5000" })
+	public int hosts;
+
+	/** The vm allocation policy: thr, iqr, mad or lr. */
+	@Param({ "thr", "iqr", "mad", "lr" })
+	public String policy;
+
+	/**
+	 * The number of threads checking the hosts for over-utilization, or 0 to check them
+	 * sequentially.
+	 */
+	@Param({ "0", "4" })
+	public int threads;
+
+	/** The pool checking the hosts for over-utilization, or null. */
+	private ForkJoinPool pool;
+
+	/** The hosts. */
+	private List<PowerHost> hostList;
+
+	/** The vms. */
+	private List<Vm> vmList;
+
+	/** The vm allocation policy. */
+	private PowerVmAllocationPolicyMigrationAbstract vmAllocationPolicy;
+
+	/**
+	 * Places the VMs on the hosts and runs the workload.
+	 */
+	@Setup
+	public void setUp() {
+		Log.disable();
+		hostList = Fixtures.createHosts(hosts);
+		vmList = Fixtures.createVms(hosts);
+		vmAllocationPolicy = createPolicy(hostList);
+		if (threads > 0) {
+			pool = new ForkJoinPool(threads);
+		}
+		for (Vm vm : vmList) {
+			if (!vmAllocationPolicy.allocateHostForVm(vm)) {
+				throw new IllegalStateException("The VM #" + vm.getId() + " cannot be placed");
+			}
+		}
+		Fixtures.submitCloudlets(vmList);
+		Fixtures.runIntervals(hostList, INTERVALS);
+	}
+
+	/**
+	 * Creates the vm allocation policy again, with the VMs where they are placed, so that the
+	 * histories of the optimizations of the previous iteration are dropped.
+	 */
+	@Setup(Level.Iteration)
+	public void resetPolicy() {
+		vmAllocationPolicy = createPolicy(hostList);
+		if (pool != null) {
+			vmAllocationPolicy.setParallelOverUtilizationDetection(pool);
+		}
+		for (Vm vm : vmList) {
+			vmAllocationPolicy.getVmTable().put(vm.getKey(), vm.getHost());
+		}
+	}
+
+	/**
+	 * Shuts the pool down.
+	 */
+	@TearDown
+	public void tearDown() {
+		if (pool != null) {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Computes the migrations of the VMs.
+	 *
+	 * @return the migration map
+	 */
+	@Benchmark
+	public List<Map<String, Object>> optimizeAllocation() {
+		return vmAllocationPolicy.optimizeAllocation(vmList);
+	}
+
+	/**
+	 * Creates the vm allocation policy, with the parameters of the power examples.
+	 *
+	 * @param hostList the hosts
+	 * @return the vm allocation policy
+	 */
+	private PowerVmAllocationPolicyMigrationAbstract createPolicy(List<PowerHost> hostList) {
+		PowerVmSelectionPolicyMinimumMigrationTime vmSelectionPolicy = new PowerVmSelectionPolicyMinimumMigrationTime();
+		PowerVmAllocationPolicyMigrationAbstract fallback = new PowerVmAllocationPolicyMigrationStaticThreshold(
+				hostList,
+				vmSelectionPolicy,
+				0.7);
+		if (policy.equals("thr")) {
+			return new PowerVmAllocationPolicyMigrationStaticThreshold(hostList, vmSelectionPolicy, 0.8);
+		} else if (policy.equals("iqr")) {
+			return new PowerVmAllocationPolicyMigrationInterQuartileRange(
+					hostList,
+					vmSelectionPolicy,
+					1.5,
+					fallback);
+		} else if (policy.equals("mad")) {
+			return new PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation(
+					hostList,
+					vmSelectionPolicy,
+					2.5,
+					fallback);
+		} else if (policy.equals("lr")) {
+			return new PowerVmAllocationPolicyMigrationLocalRegression(
+					hostList,
+					vmSelectionPolicy,
+					1.2,
+					Fixtures.SCHEDULING_INTERVAL,
+					fallback);
+		}
+		throw new IllegalArgumentException("Unknown vm allocation policy: " + policy);
+	}
+
+}
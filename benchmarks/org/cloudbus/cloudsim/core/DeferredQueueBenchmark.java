@@ -0,0 +1,116 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the selection of events from the deferred queue. Each entity has a backlog of waiting
+ * events with different tags; each operation adds an event for the next entity and then selects
+ * the first event of the entity, with any tag or with the tag of the new event, as an entity
+ * waiting for a given reply does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeferredQueueBenchmark {
+
+	/** The number of tags of the events. */
+	private static final int TAGS = 8;
+
+	/** The number of entities. */
+	@Param({ "10", "1000" })
+	public int entities;
+
+	/** The number of events waiting for each entity. */
+	@Param({ "1", "100" })
+	public int backlog;
+
+	/** The deferred queue. */
+	private DeferredQueue deferred;
+
+	/** The predicates selecting each tag. */
+	private final Predicate[] predicates = new Predicate[TAGS];
+
+	/** The entity of the next operation. */
+	private int entity;
+
+	/** The time of the next event. */
+	private double time;
+
+	/**
+	 * Fills the queue.
+	 */
+	@Setup
+	public void setUp() {
+		deferred = new DeferredQueue();
+		for (int tag = 0; tag < TAGS; tag++) {
+			predicates[tag] = new PredicateType(tag);
+		}
+		for (int i = 0; i < backlog; i++) {
+			for (int dest = 0; dest < entities; dest++) {
+				deferred.addEvent(new SimEvent(SimEvent.SEND, time, 0, dest, i % TAGS, null));
+			}
+			time++;
+		}
+	}
+
+	/**
+	 * Adds an event and selects the first event of its destination.
+	 *
+	 * @return the selected event
+	 */
+	@Benchmark
+	public SimEvent selectAny() {
+		return addAndSelect(CloudSim.SIM_ANY);
+	}
+
+	/**
+	 * Adds an event and selects the first event of its destination with its tag, which is usually
+	 * not the first event of the destination.
+	 *
+	 * @return the selected event
+	 */
+	@Benchmark
+	public SimEvent selectTag() {
+		return addAndSelect(predicates[(int) time % TAGS]);
+	}
+
+	/**
+	 * Adds an event with the next tag for the next entity and selects an event of the entity.
+	 *
+	 * @param p the predicate of the selected event
+	 * @return the selected event
+	 */
+	private SimEvent addAndSelect(Predicate p) {
+		int dest = entity;
+		entity = (entity + 1) % entities;
+		deferred.addEvent(new SimEvent(SimEvent.SEND, time, 0, dest, (int) time % TAGS, null));
+		time++;
+		return deferred.removeFirst(dest, p);
+	}
+
+}
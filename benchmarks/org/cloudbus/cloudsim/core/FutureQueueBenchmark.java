@@ -0,0 +1,100 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the future event queues in the hold model: the queue holds a fixed number of events,
+ * and each operation polls the first event and adds a new one at a random delay after it, as a
+ * simulation in steady state does. The delays follow an exponential distribution, with a few
+ * events at the same time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FutureQueueBenchmark {
+
+	/** The number of precomputed delays. */
+	private static final int DELAYS = 1 << 16;
+
+	/** The number of events held by the queue. */
+	@Param({ "1000", "10000", "100000", "1000000", "10000000" })
+	public int size;
+
+	/** The queue: heap, calendar or treeset. */
+	@Param({ "heap", "calendar", "treeset" })
+	public String queue;
+
+	/** The queue. */
+	private FutureQueueAbstract future;
+
+	/** The delays between the polled events and the added events. */
+	private final double[] delays = new double[DELAYS];
+
+	/** The position of the next delay. */
+	private int nextDelay;
+
+	/**
+	 * Fills the queue.
+	 */
+	@Setup
+	public void setUp() {
+		if (queue.equals("heap")) {
+			future = new FutureQueueHeap();
+		} else if (queue.equals("calendar")) {
+			future = new FutureQueueCalendar();
+		} else if (queue.equals("treeset")) {
+			future = new FutureQueueTreeSet();
+		} else {
+			throw new IllegalArgumentException("Unknown future queue: " + queue);
+		}
+
+		Random random = new Random(1);
+		for (int i = 0; i < DELAYS; i++) {
+			// round some delays so that some events share their time
+			double delay = -Math.log(1 - random.nextDouble()) * 300;
+			delays[i] = i % 4 == 0 ? Math.floor(delay) : delay;
+		}
+		for (int i = 0; i < size; i++) {
+			future.addEvent(new SimEvent(SimEvent.SEND, delays[i % DELAYS], 0, 1, i % 16, null));
+		}
+	}
+
+	/**
+	 * Polls the first event and adds a new one.
+	 *
+	 * @return the polled event
+	 */
+	@Benchmark
+	public SimEvent pollAndAdd() {
+		SimEvent first = future.poll();
+		double delay = delays[nextDelay];
+		nextDelay = (nextDelay + 1) & (DELAYS - 1);
+		future.addEvent(new SimEvent(SimEvent.SEND, first.eventTime() + delay, 0, 1, first.getTag(), null));
+		return first;
+	}
+
+}
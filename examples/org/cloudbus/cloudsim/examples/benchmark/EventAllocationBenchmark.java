@@ -0,0 +1,196 @@
+package org.cloudbus.cloudsim.examples.benchmark;
+
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation
+ *               of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+import java.lang.management.ManagementFactory;
+import java.util.Calendar;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.core.Simulation;
+
+/**
+ * Measures the memory allocated by the simulation kernel for each event, with and without event
+ * pooling (see {@link Simulation#setEventPooling(boolean)}). A ring of entities passes tokens
+ * around for a given number of events; the entities do not allocate anything themselves, so all
+ * the memory allocated while the simulation runs is allocated by the kernel. The allocated memory
+ * is read with the HotSpot specific {@link com.sun.management.ThreadMXBean}.
+ * <p>
+ * The optional command line parameters are the number of events of each run (default 2,000,000)
+ * and the number of entities of the ring (default 100).
+ */
+public class EventAllocationBenchmark {
+
+	/** The tag of the token events. */
+	private static final int TOKEN = 100001;
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the number of events and the number of entities
+	 */
+	public static void main(String[] args) {
+		long events = args.length >= 1 ? Long.parseLong(args[0]) : 2000000;
+		int entities = args.length >= 2 ? Integer.parseInt(args[1]) : 100;
+
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory
+				.getThreadMXBean();
+		if (!threadMXBean.isThreadAllocatedMemorySupported()) {
+			System.out.println("The JVM does not support measuring the allocated memory");
+			return;
+		}
+		threadMXBean.setThreadAllocatedMemoryEnabled(true);
+		Log.disable();
+
+		// warm up the JIT compiler before measuring
+		run(threadMXBean, events / 10, entities, false);
+		run(threadMXBean, events / 10, entities, true);
+
+		for (boolean pooling : new boolean[] { false, true }) {
+			long[] result = run(threadMXBean, events, entities, pooling);
+			System.out.println(String.format(
+					"event pooling %-3s: %d events in %.2f sec, %.1f bytes allocated per event",
+					pooling ? "on" : "off",
+					result[0],
+					result[2] / 1e9,
+					(double) result[1] / result[0]));
+		}
+	}
+
+	/**
+	 * Runs a simulation of a ring of entities in a new simulation.
+	 *
+	 * @param threadMXBean the thread MX bean
+	 * @param events the number of events
+	 * @param entities the number of entities
+	 * @param pooling whether the events are recycled
+	 * @return the number of processed events, the bytes allocated while the simulation ran and the
+	 *         wall clock time in nanoseconds
+	 */
+	private static long[] run(
+			com.sun.management.ThreadMXBean threadMXBean,
+			long events,
+			int entities,
+			boolean pooling) {
+		Simulation simulation = new Simulation();
+		simulation.setEventPooling(pooling);
+		CloudSim.setSimulation(simulation);
+		try {
+			CloudSim.init(0, Calendar.getInstance(), false);
+			Ring ring = new Ring(events);
+			for (int i = 0; i < entities; i++) {
+				ring.add(new RingEntity("Ring" + i, ring));
+			}
+
+			long threadId = Thread.currentThread().getId();
+			long bytes = threadMXBean.getThreadAllocatedBytes(threadId);
+			long start = System.nanoTime();
+			CloudSim.startSimulation();
+			long time = System.nanoTime() - start;
+			bytes = threadMXBean.getThreadAllocatedBytes(threadId) - bytes;
+			return new long[] { ring.processed, bytes, time };
+		} finally {
+			CloudSim.setSimulation(null);
+		}
+	}
+
+	/**
+	 * A ring of entities, which stops after a given number of events.
+	 */
+	private static class Ring {
+
+		/** The number of events to process. */
+		private final long limit;
+
+		/** The number of processed events. */
+		private long processed;
+
+		/** The id of the first entity. */
+		private int firstId = -1;
+
+		/** The number of entities. */
+		private int size;
+
+		/**
+		 * Instantiates a new ring.
+		 *
+		 * @param limit the number of events to process
+		 */
+		Ring(long limit) {
+			this.limit = limit;
+		}
+
+		/**
+		 * Adds an entity, created after the previous entity of the ring.
+		 *
+		 * @param entity the entity
+		 */
+		void add(SimEntity entity) {
+			if (firstId < 0) {
+				firstId = entity.getId();
+			}
+			size++;
+		}
+
+		/**
+		 * Gets the id of the entity that follows an entity.
+		 *
+		 * @param id the id of the entity
+		 * @return the id of the next entity
+		 */
+		int next(int id) {
+			return firstId + (id - firstId + 1) % size;
+		}
+
+	}
+
+	/**
+	 * An entity that passes the tokens it receives to the next entity of the ring.
+	 */
+	private static class RingEntity extends SimEntity {
+
+		/** The ring. */
+		private final Ring ring;
+
+		/**
+		 * Instantiates a new ring entity.
+		 *
+		 * @param name the name
+		 * @param ring the ring
+		 */
+		RingEntity(String name, Ring ring) {
+			super(name);
+			this.ring = ring;
+		}
+
+		@Override
+		public void startEntity() {
+			// each entity starts two tokens, with different delays so that the event times spread
+			schedule(getId(), 1.0, TOKEN);
+			schedule(getId(), 1.5, TOKEN);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			if (++ring.processed >= ring.limit) {
+				return;
+			}
+			schedule(ring.next(getId()), 1.0, TOKEN);
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+
+	}
+
+}
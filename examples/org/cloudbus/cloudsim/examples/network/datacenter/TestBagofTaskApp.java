@@ -44,11 +44,10 @@ public class TestBagofTaskApp extends AppCloudlet {
 		long outputSize = NetworkConstants.OUTPUT_SIZE;
 		int pesNumber = NetworkConstants.PES_NUMBER;
 		int stgId=0;
-		int t=NetworkConstants.currentCloudletId;
+		int t=NetworkConstants.getCurrentCloudletId();
 	  	for(int i=0;i<numbervm;i++){
     		UtilizationModel utilizationModel = new UtilizationModelFull();
-    		NetworkCloudlet cl = new NetworkCloudlet(NetworkConstants.currentCloudletId, executionTime/numbervm, pesNumber, fileSize, outputSize, memory, utilizationModel, utilizationModel, utilizationModel);
-    		NetworkConstants.currentCloudletId++;
+    		NetworkCloudlet cl = new NetworkCloudlet(NetworkConstants.nextCloudletId(), executionTime/numbervm, pesNumber, fileSize, outputSize, memory, utilizationModel, utilizationModel, utilizationModel);
     		cl.setUserId(userId);
 			cl.submittime=CloudSim.clock();
     		cl.currStagenum=-1;
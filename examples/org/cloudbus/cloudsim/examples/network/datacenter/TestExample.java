@@ -76,7 +76,7 @@ public class TestExample {
 			printCloudletList(newList);
 			System.out.println("numberofcloudlet " + newList.size() + " Cached "
 					+ NetDatacenterBroker.cachedcloudlet + " Data transfered "
-					+ NetworkConstants.totaldatatransfer);
+					+ NetworkConstants.getTotalDataTransfer());
 
 			Log.printLine("CloudSimExample1 finished!");
 		} catch (Exception e) {
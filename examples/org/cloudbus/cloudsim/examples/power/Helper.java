@@ -19,20 +19,41 @@ import org.cloudbus.cloudsim.DatacenterBroker;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.HostDynamicWorkload;
-import org.cloudbus.cloudsim.HostStateHistoryEntry;
+import org.cloudbus.cloudsim.HostStateHistory;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.Storage;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 import org.cloudbus.cloudsim.VmSchedulerTimeSharedOverSubscription;
-import org.cloudbus.cloudsim.VmStateHistoryEntry;
+import org.cloudbus.cloudsim.VmStateHistory;
+import org.cloudbus.cloudsim.power.HostSelectionStrategy;
+import org.cloudbus.cloudsim.power.HostSelectionStrategyClosestUtilization;
+import org.cloudbus.cloudsim.power.HostSelectionStrategyMaximumDotProduct;
+import org.cloudbus.cloudsim.power.HostSelectionStrategyMinimumAvailableMips;
+import org.cloudbus.cloudsim.power.HostSelectionStrategyMinimumPowerIncrease;
+import org.cloudbus.cloudsim.power.HostSelectionStrategyPowerEfficiencyBestFit;
+import org.cloudbus.cloudsim.power.HostSelectionStrategyPowerEfficiencyFirstFit;
 import org.cloudbus.cloudsim.power.PowerDatacenter;
 import org.cloudbus.cloudsim.power.PowerDatacenterBroker;
 import org.cloudbus.cloudsim.power.PowerHost;
 import org.cloudbus.cloudsim.power.PowerHostUtilizationHistory;
 import org.cloudbus.cloudsim.power.PowerVm;
 import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationHybridLocalRegression;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationInterQuartileRange;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationLocalRegression;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationLocalRegressionRobust;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationOneOutOfThreeFactors;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationOrdinaryLeastSquareMultipleRegression;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationStaticThreshold;
+import org.cloudbus.cloudsim.power.PowerVmAllocationPolicySimple;
+import org.cloudbus.cloudsim.power.PowerVmSelectionPolicy;
+import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyMaximumCorrelation;
+import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyMinimumMigrationTime;
+import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyMinimumUtilization;
+import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyRandomSelection;
 import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
 import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
@@ -164,25 +185,215 @@ public class Helper {
 				costPerStorage,
 				costPerBw);
 
-		Datacenter datacenter = null;
-		try {
-			datacenter = datacenterClass.getConstructor(
-					String.class,
-					DatacenterCharacteristics.class,
-					VmAllocationPolicy.class,
-					List.class,
-					Double.TYPE).newInstance(
-					name,
-					characteristics,
-					vmAllocationPolicy,
-					new LinkedList<Storage>(),
-					Constants.SCHEDULING_INTERVAL);
-		} catch (Exception e) {
-			e.printStackTrace();
-			System.exit(0);
+		return datacenterClass.getConstructor(
+				String.class,
+				DatacenterCharacteristics.class,
+				VmAllocationPolicy.class,
+				List.class,
+				Double.TYPE).newInstance(
+				name,
+				characteristics,
+				vmAllocationPolicy,
+				new LinkedList<Storage>(),
+				Constants.SCHEDULING_INTERVAL);
+	}
+
+	/**
+	 * Creates the vm allocation policy.
+	 * 
+	 * @param hostList the host list
+	 * @param vmAllocationPolicyName the vm allocation policy name
+	 * @param vmSelectionPolicyName the vm selection policy name
+	 * @param parameterName the parameter name
+	 * @return the vm allocation policy
+	 * @throws IllegalArgumentException if a policy name or the parameter is not valid
+	 */
+	public static VmAllocationPolicy createVmAllocationPolicy(
+			List<PowerHost> hostList,
+			String vmAllocationPolicyName,
+			String vmSelectionPolicyName,
+			String parameterName) {
+		VmAllocationPolicy vmAllocationPolicy = null;
+		PowerVmSelectionPolicy vmSelectionPolicy = null;
+		if (!vmSelectionPolicyName.isEmpty()) {
+			vmSelectionPolicy = createVmSelectionPolicy(vmSelectionPolicyName);
+		}
+		double parameter = 0;
+		if (!parameterName.isEmpty()) {
+			parameter = Double.valueOf(parameterName);
+		}
+		if (vmAllocationPolicyName.equals("OlsMr")) {
+			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+					hostList,
+					vmSelectionPolicy,
+					0.7);
+			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationOrdinaryLeastSquareMultipleRegression(
+					hostList,
+					vmSelectionPolicy,
+					parameter,
+					Constants.SCHEDULING_INTERVAL,
+					fallbackVmSelectionPolicy);
+		} else if (vmAllocationPolicyName.equals("HLrHod")) {
+			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+					hostList,
+					vmSelectionPolicy,
+					0.7);
+			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationHybridLocalRegression(
+					hostList,
+					vmSelectionPolicy,
+					parameter,
+					Constants.SCHEDULING_INTERVAL,
+					fallbackVmSelectionPolicy); 
+		} else if (vmAllocationPolicyName.equals("LrThreeFactorsMmt")) {
+			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+					hostList,
+					vmSelectionPolicy,
+					0.7);
+			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationOneOutOfThreeFactors(
+					hostList,
+					vmSelectionPolicy,
+					parameter,
+					Constants.SCHEDULING_INTERVAL,
+					fallbackVmSelectionPolicy);  
+		} else if (vmAllocationPolicyName.equals("iqr")) {
+			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+					hostList,
+					vmSelectionPolicy,
+					0.7);
+			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationInterQuartileRange(
+					hostList,
+					vmSelectionPolicy,
+					parameter,
+					fallbackVmSelectionPolicy);
+		} else if (vmAllocationPolicyName.equals("mad")) {
+			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+					hostList,
+					vmSelectionPolicy,
+					parameter);
+			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation(
+					hostList,
+					vmSelectionPolicy,
+					0.03,
+					fallbackVmSelectionPolicy);
+		} else if (vmAllocationPolicyName.equals("lr")) {
+			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+					hostList,
+					vmSelectionPolicy,
+					0.7);
+			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationLocalRegression(
+					hostList,
+					vmSelectionPolicy,
+					parameter,
+					Constants.SCHEDULING_INTERVAL,
+					fallbackVmSelectionPolicy);
+		} else if (vmAllocationPolicyName.equals("lrr")) {
+			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+					hostList,
+					vmSelectionPolicy,
+					0.7);
+			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationLocalRegressionRobust(
+					hostList,
+					vmSelectionPolicy,
+					parameter,
+					Constants.SCHEDULING_INTERVAL,
+					fallbackVmSelectionPolicy);
+		} else if (vmAllocationPolicyName.equals("thr")) {
+			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+					hostList,
+					vmSelectionPolicy,
+					parameter);
+		} else if (vmAllocationPolicyName.equals("dvfs")) {
+			vmAllocationPolicy = new PowerVmAllocationPolicySimple(hostList);
+		} else {
+			throw new IllegalArgumentException("Unknown VM allocation policy: " + vmAllocationPolicyName);
+		}
+		return vmAllocationPolicy;
+	}
+
+	/**
+	 * Creates the vm allocation policy with a host selection strategy.
+	 * 
+	 * @param hostList the host list
+	 * @param vmAllocationPolicyName the vm allocation policy name
+	 * @param vmSelectionPolicyName the vm selection policy name
+	 * @param parameterName the parameter name
+	 * @param hostSelectionStrategyName the host selection strategy name, or an empty string for the
+	 *            default strategy of the policy
+	 * @return the vm allocation policy
+	 * @throws IllegalArgumentException if a policy or strategy name or the parameter is not valid,
+	 *             or if a strategy is given for a policy without migrations
+	 */
+	public static VmAllocationPolicy createVmAllocationPolicy(
+			List<PowerHost> hostList,
+			String vmAllocationPolicyName,
+			String vmSelectionPolicyName,
+			String parameterName,
+			String hostSelectionStrategyName) {
+		VmAllocationPolicy vmAllocationPolicy = createVmAllocationPolicy(
+				hostList,
+				vmAllocationPolicyName,
+				vmSelectionPolicyName,
+				parameterName);
+		if (!hostSelectionStrategyName.isEmpty()) {
+			if (!(vmAllocationPolicy instanceof PowerVmAllocationPolicyMigrationAbstract)) {
+				throw new IllegalArgumentException("The VM allocation policy " + vmAllocationPolicyName
+						+ " does not select hosts for migrations");
+			}
+			((PowerVmAllocationPolicyMigrationAbstract) vmAllocationPolicy)
+					.setHostSelectionStrategy(createHostSelectionStrategy(hostSelectionStrategyName));
 		}
+		return vmAllocationPolicy;
+	}
 
-		return datacenter;
+	/**
+	 * Creates the host selection strategy.
+	 * 
+	 * @param hostSelectionStrategyName the host selection strategy name
+	 * @return the host selection strategy
+	 * @throws IllegalArgumentException if the strategy name is not valid
+	 */
+	public static HostSelectionStrategy createHostSelectionStrategy(String hostSelectionStrategyName) {
+		HostSelectionStrategy hostSelectionStrategy = null;
+		if (hostSelectionStrategyName.equals("pabfd")) {
+			hostSelectionStrategy = new HostSelectionStrategyMinimumPowerIncrease();
+		} else if (hostSelectionStrategyName.equals("mfvmp")) {
+			hostSelectionStrategy = new HostSelectionStrategyMaximumDotProduct();
+		} else if (hostSelectionStrategyName.equals("mbfd")) {
+			hostSelectionStrategy = new HostSelectionStrategyMinimumAvailableMips();
+		} else if (hostSelectionStrategyName.equals("mfped")) {
+			hostSelectionStrategy = new HostSelectionStrategyClosestUtilization();
+		} else if (hostSelectionStrategyName.equals("pebfd")) {
+			hostSelectionStrategy = new HostSelectionStrategyPowerEfficiencyBestFit();
+		} else if (hostSelectionStrategyName.equals("peffd")) {
+			hostSelectionStrategy = new HostSelectionStrategyPowerEfficiencyFirstFit();
+		} else {
+			throw new IllegalArgumentException("Unknown host selection strategy: " + hostSelectionStrategyName);
+		}
+		return hostSelectionStrategy;
+	}
+
+	/**
+	 * Creates the vm selection policy.
+	 * 
+	 * @param vmSelectionPolicyName the vm selection policy name
+	 * @return the vm selection policy
+	 * @throws IllegalArgumentException if the policy name is not valid
+	 */
+	public static PowerVmSelectionPolicy createVmSelectionPolicy(String vmSelectionPolicyName) {
+		PowerVmSelectionPolicy vmSelectionPolicy = null;
+		if (vmSelectionPolicyName.equals("mc")) {
+			vmSelectionPolicy = new PowerVmSelectionPolicyMaximumCorrelation(
+					new PowerVmSelectionPolicyMinimumMigrationTime());
+		} else if (vmSelectionPolicyName.equals("mmt")) {
+			vmSelectionPolicy = new PowerVmSelectionPolicyMinimumMigrationTime();
+		} else if (vmSelectionPolicyName.equals("mu")) {
+			vmSelectionPolicy = new PowerVmSelectionPolicyMinimumUtilization();
+		} else if (vmSelectionPolicyName.equals("rs")) {
+			vmSelectionPolicy = new PowerVmSelectionPolicyRandomSelection();
+		} else {
+			throw new IllegalArgumentException("Unknown VM selection policy: " + vmSelectionPolicyName);
+		}
+		return vmSelectionPolicy;
 	}
 
 	/**
@@ -194,17 +405,7 @@ public class Helper {
 	public static List<Double> getTimesBeforeHostShutdown(List<Host> hosts) {
 		List<Double> timeBeforeShutdown = new LinkedList<Double>();
 		for (Host host : hosts) {
-			boolean previousIsActive = true;
-			double lastTimeSwitchedOn = 0;
-			for (HostStateHistoryEntry entry : ((HostDynamicWorkload) host).getStateHistory()) {
-				if (previousIsActive == true && entry.isActive() == false) {
-					timeBeforeShutdown.add(entry.getTime() - lastTimeSwitchedOn);
-				}
-				if (previousIsActive == false && entry.isActive() == true) {
-					lastTimeSwitchedOn = entry.getTime();
-				}
-				previousIsActive = entry.isActive();
-			}
+			timeBeforeShutdown.addAll(((HostDynamicWorkload) host).getHostStateHistory().getTimesBeforeShutdown());
 		}
 		return timeBeforeShutdown;
 	}
@@ -218,17 +419,7 @@ public class Helper {
 	public static List<Double> getTimesBeforeVmMigration(List<Vm> vms) {
 		List<Double> timeBeforeVmMigration = new LinkedList<Double>();
 		for (Vm vm : vms) {
-			boolean previousIsInMigration = false;
-			double lastTimeMigrationFinished = 0;
-			for (VmStateHistoryEntry entry : vm.getStateHistory()) {
-				if (previousIsInMigration == true && entry.isInMigration() == false) {
-					timeBeforeVmMigration.add(entry.getTime() - lastTimeMigrationFinished);
-				}
-				if (previousIsInMigration == false && entry.isInMigration() == true) {
-					lastTimeMigrationFinished = entry.getTime();
-				}
-				previousIsInMigration = entry.isInMigration();
-			}
+			timeBeforeVmMigration.addAll(vm.getVmStateHistory().getTimesBeforeMigration());
 		}
 		return timeBeforeVmMigration;
 	}
@@ -515,39 +706,9 @@ public class Helper {
 		double totalTime = 0;
 
 		for (Host _host : hosts) {
-			HostDynamicWorkload host = (HostDynamicWorkload) _host;
-			double previousTime = -1;
-			
-			double previousAllocatedRam = 0; 
-			double previousRequestedRam = 0; 
-			
-			double previousAllocatedCpu = 0; 
-			double previousRequestedCpu = 0; 
-			
-			boolean previousIsActive = true;
-
-			for (HostStateHistoryEntry entry : host.getStateHistory()) {
-				if (previousTime != -1 && previousIsActive) {
-					double timeDiff = entry.getTime() - previousTime;
-					totalTime += timeDiff;
-					if (previousAllocatedCpu > previousAllocatedRam && previousAllocatedCpu < previousRequestedCpu) {
-						slaViolationTimePerHost += timeDiff;
-					}
-					
-					if (previousAllocatedRam > previousAllocatedCpu && previousAllocatedRam < previousRequestedRam) {
-						slaViolationTimePerHost += timeDiff;
-					}
-				}
-
-				previousAllocatedRam = entry.getAllocatedRam();
-				previousRequestedRam = entry.getRequestedRam();
-		
-				previousAllocatedCpu = entry.getAllocatedMips();
-				previousRequestedCpu = entry.getRequestedMips();
-				
-				previousTime = entry.getTime();
-				previousIsActive = entry.isActive();
-			}
+			HostStateHistory stateHistory = ((HostDynamicWorkload) _host).getHostStateHistory();
+			slaViolationTimePerHost += stateHistory.getSlaViolationTimeActive();
+			totalTime += stateHistory.getActiveTime();
 		}
 		return slaViolationTimePerHost / totalTime;
 	}
@@ -563,24 +724,9 @@ public class Helper {
 		double totalTime = 0;
 
 		for (Host _host : hosts) {
-			HostDynamicWorkload host = (HostDynamicWorkload) _host;
-			double previousTime = -1;
-			double previousAllocated = 0;
-			double previousRequested = 0;
-
-			for (HostStateHistoryEntry entry : host.getStateHistory()) {
-				if (previousTime != -1) {
-					double timeDiff = entry.getTime() - previousTime;
-					totalTime += timeDiff;
-					if (previousAllocated < previousRequested) {
-						slaViolationTimePerHost += timeDiff;
-					}
-				}
-
-				previousAllocated = entry.getAllocatedMips();
-				previousRequested = entry.getRequestedMips();
-				previousTime = entry.getTime();
-			}
+			HostStateHistory stateHistory = ((HostDynamicWorkload) _host).getHostStateHistory();
+			slaViolationTimePerHost += stateHistory.getSlaViolationTime();
+			totalTime += stateHistory.getTotalTime();
 		}
 
 		return slaViolationTimePerHost / totalTime;
@@ -594,83 +740,26 @@ public class Helper {
 	 */
 	protected static Map<String, Double> getSlaMetrics(List<Vm> vms) {
 		Map<String, Double> metrics = new HashMap<String, Double>();
-		List<Double> slaViolation = new LinkedList<Double>();
+		double slaViolationSum = 0;
+		int slaViolationCount = 0;
 		double totalAllocated = 0;
 		double totalRequested = 0;
 		double totalUnderAllocatedDueToMigration = 0;
 
 		for (Vm vm : vms) {
-			double vmTotalAllocated = 0;
-			double vmTotalRequested = 0;
-			double vmUnderAllocatedDueToMigration = 0;
-			double previousTime = -1;
-			
-			double previousAllocatedRam = 0;
-			double previousRequestedRam = 0;
-			double previousAllocatedCpu = 0;
-			double previousRequestedCpu = 0;
-			
-			boolean previousIsInMigration = false;
-
-			for (VmStateHistoryEntry entry : vm.getStateHistory()) {
-				if (previousTime != -1) {
-					double timeDiff = entry.getTime() - previousTime;
-					if (previousAllocatedCpu > previousAllocatedRam && previousAllocatedCpu < previousRequestedCpu) {
-					vmTotalAllocated += previousAllocatedCpu * timeDiff;
-					vmTotalRequested += previousRequestedCpu * timeDiff;
-					slaViolation.add((previousRequestedCpu - previousAllocatedCpu) / previousAllocatedCpu);
-					if (previousIsInMigration) {
-						vmUnderAllocatedDueToMigration += (previousRequestedCpu - previousAllocatedCpu)
-								* timeDiff;
-						}
-					}
-					
-					if (previousAllocatedRam > previousAllocatedCpu && previousAllocatedRam < previousRequestedRam) {
-						vmTotalAllocated += previousAllocatedCpu * timeDiff;
-						vmTotalRequested += previousRequestedCpu * timeDiff;
-						
-						slaViolation.add((previousRequestedRam - previousAllocatedRam) / previousRequestedRam);
-						if (previousIsInMigration) {
-							vmUnderAllocatedDueToMigration += (previousRequestedRam - previousAllocatedRam)
-									* timeDiff;
-						}
-					}
-					
-				}
-
-				
-				previousAllocatedRam = entry.getAllocatedRam();
-				previousRequestedRam = entry.getRequestedRam();
-
-				previousAllocatedCpu = entry.getAllocatedMips();
-				previousRequestedCpu = entry.getRequestedMips();
-				
-				
-				
-				
-				//previousAllocated = entry.getAllocatedMips() + entry.getAllocatedRam();
-				//previousRequested = entry.getRequestedMips() + entry.getRequestedRam();
-				
-				//previousAllocated = entry.getAllocatedRam();
-				//previousRequested = entry.getRequestedRam();
-				
-				//previousAllocated = entry.getAllocatedMips();
-				//previousRequested = entry.getRequestedMips();
-				
-				previousTime = entry.getTime();
-				previousIsInMigration = entry.isInMigration();
-			}
-
-			totalAllocated += vmTotalAllocated;
-			totalRequested += vmTotalRequested;
-			totalUnderAllocatedDueToMigration += vmUnderAllocatedDueToMigration;
+			VmStateHistory stateHistory = vm.getVmStateHistory();
+			totalAllocated += stateHistory.getUnderAllocatedStateAllocatedMips();
+			totalRequested += stateHistory.getUnderAllocatedStateRequestedMips();
+			totalUnderAllocatedDueToMigration += stateHistory.getUnderAllocatedDueToMigration();
+			slaViolationSum += stateHistory.getSlaViolationSum();
+			slaViolationCount += stateHistory.getSlaViolationCount();
 		}
 
 		metrics.put("overall", (totalRequested - totalAllocated) / totalRequested);
-		if (slaViolation.isEmpty()) {
+		if (slaViolationCount == 0) {
 			metrics.put("average", 0.);
 		} else {
-			metrics.put("average", MathUtil.mean(slaViolation));
+			metrics.put("average", slaViolationSum / slaViolationCount);
 		}
 		metrics.put("underallocated_migration", totalUnderAllocatedDueToMigration / totalRequested);
 		//metrics.put("sla_time_per_vm_with_migration", slaViolationTimePerVmWithMigration / totalTime);
@@ -5,6 +5,7 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.DatacenterBroker;
@@ -15,20 +16,7 @@ import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.power.PowerDatacenter;
 import org.cloudbus.cloudsim.power.PowerHost;
 import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract;
-import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationHybridLocalRegression;
-import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationInterQuartileRange;
-import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationLocalRegression;
-import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationLocalRegressionRobust;
-import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation;
-import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationOneOutOfThreeFactors;
-import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationOrdinaryLeastSquareMultipleRegression;
-import org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationStaticThreshold;
-import org.cloudbus.cloudsim.power.PowerVmAllocationPolicySimple;
 import org.cloudbus.cloudsim.power.PowerVmSelectionPolicy;
-import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyMaximumCorrelation;
-import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyMinimumMigrationTime;
-import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyMinimumUtilization;
-import org.cloudbus.cloudsim.power.PowerVmSelectionPolicyRandomSelection;
 
 /**
  * The Class RunnerAbstract.
@@ -60,6 +48,12 @@ public abstract class RunnerAbstract {
 	/** The host list. */
 	protected static List<PowerHost> hostList;
 
+	/** The pool used to check the hosts for over-utilization in parallel, or null. */
+	private static ForkJoinPool overUtilizationDetectionPool;
+
+	/** Whether the data centers skip the steady scheduling intervals. */
+	private static boolean fastForward;
+
 	/**
 	 * Run.
 	 * 
@@ -81,6 +75,42 @@ public abstract class RunnerAbstract {
 			String vmAllocationPolicy,
 			String vmSelectionPolicy,
 			String parameter) {
+		this(
+				enableOutput,
+				outputToFile,
+				inputFolder,
+				outputFolder,
+				workload,
+				vmAllocationPolicy,
+				vmSelectionPolicy,
+				parameter,
+				"");
+	}
+
+	/**
+	 * Run with a host selection strategy.
+	 * 
+	 * @param enableOutput the enable output
+	 * @param outputToFile the output to file
+	 * @param inputFolder the input folder
+	 * @param outputFolder the output folder
+	 * @param workload the workload
+	 * @param vmAllocationPolicy the vm allocation policy
+	 * @param vmSelectionPolicy the vm selection policy
+	 * @param parameter the parameter
+	 * @param hostSelectionStrategy the host selection strategy, or an empty string for the default
+	 *            strategy of the policy
+	 */
+	public RunnerAbstract(
+			boolean enableOutput,
+			boolean outputToFile,
+			String inputFolder,
+			String outputFolder,
+			String workload,
+			String vmAllocationPolicy,
+			String vmSelectionPolicy,
+			String parameter,
+			String hostSelectionStrategy) {
 		try {
 			initLogOutput(
 					enableOutput,
@@ -89,7 +119,8 @@ public abstract class RunnerAbstract {
 					workload,
 					vmAllocationPolicy,
 					vmSelectionPolicy,
-					parameter);
+					parameter,
+					hostSelectionStrategy);
 		} catch (Exception e) {
 			e.printStackTrace();
 			System.exit(0);
@@ -97,9 +128,9 @@ public abstract class RunnerAbstract {
 
 		init(inputFolder + "/" + workload);
 		start(
-				getExperimentName(workload, vmAllocationPolicy, vmSelectionPolicy, parameter),
+				getExperimentName(workload, vmAllocationPolicy, vmSelectionPolicy, parameter, hostSelectionStrategy),
 				outputFolder,
-				getVmAllocationPolicy(vmAllocationPolicy, vmSelectionPolicy, parameter));
+				getVmAllocationPolicy(vmAllocationPolicy, vmSelectionPolicy, parameter, hostSelectionStrategy));
 	}
 
 	/**
@@ -112,6 +143,7 @@ public abstract class RunnerAbstract {
 	 * @param vmAllocationPolicy the vm allocation policy
 	 * @param vmSelectionPolicy the vm selection policy
 	 * @param parameter the parameter
+	 * @param hostSelectionStrategy the host selection strategy
 	 * @throws IOException Signals that an I/O exception has occurred.
 	 * @throws FileNotFoundException the file not found exception
 	 */
@@ -122,7 +154,8 @@ public abstract class RunnerAbstract {
 			String workload,
 			String vmAllocationPolicy,
 			String vmSelectionPolicy,
-			String parameter) throws IOException, FileNotFoundException {
+			String parameter,
+			String hostSelectionStrategy) throws IOException, FileNotFoundException {
 		setEnableOutput(enableOutput);
 		Log.setDisabled(!isEnableOutput());
 		if (isEnableOutput() && outputToFile) {
@@ -137,7 +170,8 @@ public abstract class RunnerAbstract {
 			}
 
 			File file = new File(outputFolder + "/log/"
-					+ getExperimentName(workload, vmAllocationPolicy, vmSelectionPolicy, parameter) + ".txt");
+					+ getExperimentName(workload, vmAllocationPolicy, vmSelectionPolicy, parameter, hostSelectionStrategy)
+					+ ".txt");
 			file.createNewFile();
 			Log.setOutput(new FileOutputStream(file));
 		}
@@ -168,6 +202,7 @@ public abstract class RunnerAbstract {
 					vmAllocationPolicy);
 
 			datacenter.setDisableMigrations(false);
+			datacenter.setFastForward(fastForward);
 
 			broker.submitVmList(vmList);
 			broker.submitCloudletList(cloudletList);
@@ -231,101 +266,39 @@ public abstract class RunnerAbstract {
 			String vmAllocationPolicyName,
 			String vmSelectionPolicyName,
 			String parameterName) {
+		return getVmAllocationPolicy(vmAllocationPolicyName, vmSelectionPolicyName, parameterName, "");
+	}
+
+	/**
+	 * Gets the vm allocation policy with a host selection strategy.
+	 * 
+	 * @param vmAllocationPolicyName the vm allocation policy name
+	 * @param vmSelectionPolicyName the vm selection policy name
+	 * @param parameterName the parameter name
+	 * @param hostSelectionStrategyName the host selection strategy name, or an empty string
+	 * @return the vm allocation policy
+	 */
+	protected VmAllocationPolicy getVmAllocationPolicy(
+			String vmAllocationPolicyName,
+			String vmSelectionPolicyName,
+			String parameterName,
+			String hostSelectionStrategyName) {
 		VmAllocationPolicy vmAllocationPolicy = null;
-		PowerVmSelectionPolicy vmSelectionPolicy = null;
-		if (!vmSelectionPolicyName.isEmpty()) {
-			vmSelectionPolicy = getVmSelectionPolicy(vmSelectionPolicyName);
-		}
-		double parameter = 0;
-		if (!parameterName.isEmpty()) {
-			parameter = Double.valueOf(parameterName);
-		}
-		if (vmAllocationPolicyName.equals("OlsMr")) {
-			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
-					hostList,
-					vmSelectionPolicy,
-					0.7);
-			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationOrdinaryLeastSquareMultipleRegression(
-					hostList,
-					vmSelectionPolicy,
-					parameter,
-					Constants.SCHEDULING_INTERVAL,
-					fallbackVmSelectionPolicy);
-		} else if (vmAllocationPolicyName.equals("HLrHod")) {
-			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
-					hostList,
-					vmSelectionPolicy,
-					0.7);
-			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationHybridLocalRegression(
-					hostList,
-					vmSelectionPolicy,
-					parameter,
-					Constants.SCHEDULING_INTERVAL,
-					fallbackVmSelectionPolicy); 
-		} else if (vmAllocationPolicyName.equals("LrThreeFactorsMmt")) {
-			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
-					hostList,
-					vmSelectionPolicy,
-					0.7);
-			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationOneOutOfThreeFactors(
-					hostList,
-					vmSelectionPolicy,
-					parameter,
-					Constants.SCHEDULING_INTERVAL,
-					fallbackVmSelectionPolicy);  
-		} else if (vmAllocationPolicyName.equals("iqr")) {
-			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
-					hostList,
-					vmSelectionPolicy,
-					0.7);
-			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationInterQuartileRange(
-					hostList,
-					vmSelectionPolicy,
-					parameter,
-					fallbackVmSelectionPolicy);
-		} else if (vmAllocationPolicyName.equals("mad")) {
-			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
-					hostList,
-					vmSelectionPolicy,
-					parameter);
-			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation(
-					hostList,
-					vmSelectionPolicy,
-					0.03,
-					fallbackVmSelectionPolicy);
-		} else if (vmAllocationPolicyName.equals("lr")) {
-			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
-					hostList,
-					vmSelectionPolicy,
-					0.7);
-			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationLocalRegression(
-					hostList,
-					vmSelectionPolicy,
-					parameter,
-					Constants.SCHEDULING_INTERVAL,
-					fallbackVmSelectionPolicy);
-		} else if (vmAllocationPolicyName.equals("lrr")) {
-			PowerVmAllocationPolicyMigrationAbstract fallbackVmSelectionPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
-					hostList,
-					vmSelectionPolicy,
-					0.7);
-			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationLocalRegressionRobust(
-					hostList,
-					vmSelectionPolicy,
-					parameter,
-					Constants.SCHEDULING_INTERVAL,
-					fallbackVmSelectionPolicy);
-		} else if (vmAllocationPolicyName.equals("thr")) {
-			vmAllocationPolicy = new PowerVmAllocationPolicyMigrationStaticThreshold(
+		try {
+			vmAllocationPolicy = Helper.createVmAllocationPolicy(
 					hostList,
-					vmSelectionPolicy,
-					parameter);
-		} else if (vmAllocationPolicyName.equals("dvfs")) {
-			vmAllocationPolicy = new PowerVmAllocationPolicySimple(hostList);
-		} else {
-			System.out.println("Unknown VM allocation policy: " + vmAllocationPolicyName);
+					vmAllocationPolicyName,
+					vmSelectionPolicyName,
+					parameterName,
+					hostSelectionStrategyName);
+		} catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage());
 			System.exit(0);
 		}
+		if (vmAllocationPolicy instanceof PowerVmAllocationPolicyMigrationAbstract) {
+			((PowerVmAllocationPolicyMigrationAbstract) vmAllocationPolicy)
+					.setParallelOverUtilizationDetection(overUtilizationDetectionPool);
+		}
 		return vmAllocationPolicy;
 	}
 
@@ -337,17 +310,10 @@ public abstract class RunnerAbstract {
 	 */
 	protected PowerVmSelectionPolicy getVmSelectionPolicy(String vmSelectionPolicyName) {
 		PowerVmSelectionPolicy vmSelectionPolicy = null;
-		if (vmSelectionPolicyName.equals("mc")) {
-			vmSelectionPolicy = new PowerVmSelectionPolicyMaximumCorrelation(
-					new PowerVmSelectionPolicyMinimumMigrationTime());
-		} else if (vmSelectionPolicyName.equals("mmt")) {
-			vmSelectionPolicy = new PowerVmSelectionPolicyMinimumMigrationTime();
-		} else if (vmSelectionPolicyName.equals("mu")) {
-			vmSelectionPolicy = new PowerVmSelectionPolicyMinimumUtilization();
-		} else if (vmSelectionPolicyName.equals("rs")) {
-			vmSelectionPolicy = new PowerVmSelectionPolicyRandomSelection();
-		} else {
-			System.out.println("Unknown VM selection policy: " + vmSelectionPolicyName);
+		try {
+			vmSelectionPolicy = Helper.createVmSelectionPolicy(vmSelectionPolicyName);
+		} catch (IllegalArgumentException e) {
+			System.out.println(e.getMessage());
 			System.exit(0);
 		}
 		return vmSelectionPolicy;
@@ -371,4 +337,27 @@ public abstract class RunnerAbstract {
 		return enableOutput;
 	}
 
+	/**
+	 * Sets the pool used by the migration policies of the runs started from now on to check the
+	 * hosts for over-utilization in parallel, or <tt>null</tt> to check them sequentially, which is
+	 * the default. The results are the same either way.
+	 * 
+	 * @param pool the pool, or <tt>null</tt>
+	 * @see PowerVmAllocationPolicyMigrationAbstract#setParallelOverUtilizationDetection(ForkJoinPool)
+	 */
+	public static void setParallelOverUtilizationDetection(ForkJoinPool pool) {
+		overUtilizationDetectionPool = pool;
+	}
+
+	/**
+	 * Sets whether the data centers of the runs started from now on skip the scheduling intervals
+	 * in which nothing changes. The default is not to skip them.
+	 * 
+	 * @param fastForward whether the steady scheduling intervals are skipped
+	 * @see PowerDatacenter#setFastForward(boolean)
+	 */
+	public static void setFastForward(boolean fastForward) {
+		RunnerAbstract.fastForward = fastForward;
+	}
+
 }
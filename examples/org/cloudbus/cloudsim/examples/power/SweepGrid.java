@@ -0,0 +1,347 @@
+package org.cloudbus.cloudsim.examples.power;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * The grid of a parameter sweep: the cross product of a set of workloads, a set of VM allocation
+ * policies (each with its parameter) and a set of VM selection policies, each run with or without
+ * fast-forward (see {@link org.cloudbus.cloudsim.power.PowerDatacenter#setFastForward(boolean)}).
+ * The grid can be read from a properties file, e.g.:
+ *
+ * <pre>
+ * inputFolder = examples/workload/planetlab
+ * outputFolder = output
+ * # the sub-folders of the input folder, or * for all of them
+ * workloads = 20110303, 20110306
+ * # policy:parameter
+ * vmAllocationPolicies = thr:0.8, iqr:1.5, mad:2.5, lr:1.2, lrr:1.2, dvfs
+ * vmSelectionPolicies = mc, mmt, mu, rs
+ * # false, true to run each combination both without and with fast-forward
+ * fastForward = false
+ * # the number of runs executed concurrently
+ * threads = 4
+ * </pre>
+ *
+ * The VM allocation policies that do not migrate VMs, i.e. dvfs, are run once per workload, without
+ * VM selection policy. Fast-forward is only allowed with the policies whose decisions do not depend
+ * on the history of the hosts, i.e. thr and dvfs (see
+ * {@link org.cloudbus.cloudsim.VmAllocationPolicy#supportsFastForward()}). The workload {@value #RANDOM_WORKLOAD} is the random workload of the random
+ * examples.
+ *
+ * If you are using any algorithms, policies or workload included in the power package, please cite
+ * the following paper:
+ *
+ * Anton Beloglazov, and Rajkumar Buyya, "Optimal Online Deterministic Algorithms and Adaptive
+ * Heuristics for Energy and Performance Efficient Dynamic Consolidation of Virtual Machines in
+ * Cloud Data Centers", Concurrency and Computation: Practice and Experience (CCPE), Volume 24,
+ * Issue 13, Pages: 1397-1420, John Wiley & Sons, Ltd, New York, USA, 2012
+ *
+ * @see SweepRunner
+ */
+public class SweepGrid {
+
+	/** The name of the random workload. */
+	public static final String RANDOM_WORKLOAD = "random";
+
+	/** The VM allocation policies that do not use a VM selection policy. */
+	private static final List<String> NON_MIGRATING_POLICIES = Arrays.asList("dvfs");
+
+	/** The VM allocation policies that support fast-forward. */
+	private static final List<String> FAST_FORWARD_POLICIES = Arrays.asList("thr", "dvfs");
+
+	/** The input folder. */
+	private String inputFolder = "examples/workload/planetlab";
+
+	/** The output folder. */
+	private String outputFolder = "output";
+
+	/** The workloads, or * for all the sub-folders of the input folder. */
+	private List<String> workloads = Arrays.asList("*");
+
+	/** The vm allocation policies, as policy:parameter. */
+	private List<String> vmAllocationPolicies = Arrays.asList(
+			"thr:0.8",
+			"iqr:1.5",
+			"mad:2.5",
+			"lr:1.2",
+			"lrr:1.2");
+
+	/** The vm selection policies. */
+	private List<String> vmSelectionPolicies = Arrays.asList("mc", "mmt", "mu", "rs");
+
+	/** Whether the runs skip the steady scheduling intervals, one run per value. */
+	private List<Boolean> fastForward = Arrays.asList(false);
+
+	/** The number of runs executed concurrently. */
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Reads a grid from a properties file. The missing properties keep their default values.
+	 *
+	 * @param fileName the file name
+	 * @return the grid
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static SweepGrid load(String fileName) throws IOException {
+		Properties properties = new Properties();
+		InputStream input = new FileInputStream(fileName);
+		try {
+			properties.load(input);
+		} finally {
+			input.close();
+		}
+
+		SweepGrid grid = new SweepGrid();
+		if (properties.containsKey("inputFolder")) {
+			grid.setInputFolder(properties.getProperty("inputFolder").trim());
+		}
+		if (properties.containsKey("outputFolder")) {
+			grid.setOutputFolder(properties.getProperty("outputFolder").trim());
+		}
+		if (properties.containsKey("workloads")) {
+			grid.setWorkloads(split(properties.getProperty("workloads")));
+		}
+		if (properties.containsKey("vmAllocationPolicies")) {
+			grid.setVmAllocationPolicies(split(properties.getProperty("vmAllocationPolicies")));
+		}
+		if (properties.containsKey("vmSelectionPolicies")) {
+			grid.setVmSelectionPolicies(split(properties.getProperty("vmSelectionPolicies")));
+		}
+		if (properties.containsKey("fastForward")) {
+			List<Boolean> fastForward = new ArrayList<Boolean>();
+			for (String value : split(properties.getProperty("fastForward"))) {
+				fastForward.add(Boolean.parseBoolean(value));
+			}
+			grid.setFastForward(fastForward);
+		}
+		if (properties.containsKey("threads")) {
+			grid.setThreads(Integer.parseInt(properties.getProperty("threads").trim()));
+		}
+		return grid;
+	}
+
+	/**
+	 * Gets the runs of the grid, ordered by workload, vm allocation policy, vm selection policy and
+	 * fast-forward.
+	 *
+	 * @return the runs
+	 * @throws IllegalArgumentException if fast-forward is combined with a VM allocation policy that
+	 *             does not support it
+	 */
+	public List<SweepRun> getRuns() {
+		List<SweepRun> runs = new ArrayList<SweepRun>();
+		for (String workload : getWorkloadNames()) {
+			for (String vmAllocationPolicy : getVmAllocationPolicies()) {
+				String parameter = "";
+				int separator = vmAllocationPolicy.indexOf(':');
+				if (separator >= 0) {
+					parameter = vmAllocationPolicy.substring(separator + 1);
+					vmAllocationPolicy = vmAllocationPolicy.substring(0, separator);
+				}
+				if (getFastForward().contains(true)
+						&& !FAST_FORWARD_POLICIES.contains(vmAllocationPolicy)) {
+					throw new IllegalArgumentException("The VM allocation policy " + vmAllocationPolicy
+							+ " does not support fast-forward, which is only allowed with "
+							+ FAST_FORWARD_POLICIES);
+				}
+				if (NON_MIGRATING_POLICIES.contains(vmAllocationPolicy)) {
+					for (boolean fastForward : getFastForward()) {
+						runs.add(new SweepRun(workload, vmAllocationPolicy, "", parameter, fastForward));
+					}
+					continue;
+				}
+				for (String vmSelectionPolicy : getVmSelectionPolicies()) {
+					for (boolean fastForward : getFastForward()) {
+						runs.add(new SweepRun(
+								workload,
+								vmAllocationPolicy,
+								vmSelectionPolicy,
+								parameter,
+								fastForward));
+					}
+				}
+			}
+		}
+		return runs;
+	}
+
+	/**
+	 * Gets the names of the workloads, replacing * by the sub-folders of the input folder.
+	 *
+	 * @return the workload names
+	 */
+	protected List<String> getWorkloadNames() {
+		List<String> names = new ArrayList<String>();
+		for (String workload : getWorkloads()) {
+			if (!workload.equals("*")) {
+				names.add(workload);
+				continue;
+			}
+			File[] folders = new File(getInputFolder()).listFiles();
+			if (folders == null) {
+				continue;
+			}
+			Arrays.sort(folders);
+			for (File folder : folders) {
+				if (folder.isDirectory()) {
+					names.add(folder.getName());
+				}
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Splits a comma separated list.
+	 *
+	 * @param value the value
+	 * @return the list
+	 */
+	private static List<String> split(String value) {
+		List<String> list = new ArrayList<String>();
+		for (String item : value.split(",")) {
+			if (!item.trim().isEmpty()) {
+				list.add(item.trim());
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Gets the input folder.
+	 *
+	 * @return the input folder
+	 */
+	public String getInputFolder() {
+		return inputFolder;
+	}
+
+	/**
+	 * Sets the input folder.
+	 *
+	 * @param inputFolder the new input folder
+	 */
+	public void setInputFolder(String inputFolder) {
+		this.inputFolder = inputFolder;
+	}
+
+	/**
+	 * Gets the output folder.
+	 *
+	 * @return the output folder
+	 */
+	public String getOutputFolder() {
+		return outputFolder;
+	}
+
+	/**
+	 * Sets the output folder.
+	 *
+	 * @param outputFolder the new output folder
+	 */
+	public void setOutputFolder(String outputFolder) {
+		this.outputFolder = outputFolder;
+	}
+
+	/**
+	 * Gets the workloads.
+	 *
+	 * @return the workloads
+	 */
+	public List<String> getWorkloads() {
+		return workloads;
+	}
+
+	/**
+	 * Sets the workloads.
+	 *
+	 * @param workloads the workloads, where * stands for all the sub-folders of the input folder
+	 */
+	public void setWorkloads(List<String> workloads) {
+		this.workloads = workloads;
+	}
+
+	/**
+	 * Gets the vm allocation policies.
+	 *
+	 * @return the vm allocation policies
+	 */
+	public List<String> getVmAllocationPolicies() {
+		return vmAllocationPolicies;
+	}
+
+	/**
+	 * Sets the vm allocation policies.
+	 *
+	 * @param vmAllocationPolicies the vm allocation policies, as policy:parameter
+	 */
+	public void setVmAllocationPolicies(List<String> vmAllocationPolicies) {
+		this.vmAllocationPolicies = vmAllocationPolicies;
+	}
+
+	/**
+	 * Gets the vm selection policies.
+	 *
+	 * @return the vm selection policies
+	 */
+	public List<String> getVmSelectionPolicies() {
+		return vmSelectionPolicies;
+	}
+
+	/**
+	 * Sets the vm selection policies.
+	 *
+	 * @param vmSelectionPolicies the vm selection policies
+	 */
+	public void setVmSelectionPolicies(List<String> vmSelectionPolicies) {
+		this.vmSelectionPolicies = vmSelectionPolicies;
+	}
+
+	/**
+	 * Gets whether the runs skip the steady scheduling intervals.
+	 *
+	 * @return the fast-forward values, one run per value
+	 */
+	public List<Boolean> getFastForward() {
+		return fastForward;
+	}
+
+	/**
+	 * Sets whether the runs skip the steady scheduling intervals.
+	 *
+	 * @param fastForward the fast-forward values, one run per value: e.g. false and true to run each
+	 *            combination both without and with fast-forward
+	 */
+	public void setFastForward(List<Boolean> fastForward) {
+		this.fastForward = fastForward;
+	}
+
+	/**
+	 * Gets the number of runs executed concurrently.
+	 *
+	 * @return the number of threads
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the number of runs executed concurrently.
+	 *
+	 * @param threads the number of threads
+	 */
+	public void setThreads(int threads) {
+		if (threads <= 0) {
+			throw new IllegalArgumentException("The number of threads should be positive, but is: " + threads);
+		}
+		this.threads = threads;
+	}
+
+}
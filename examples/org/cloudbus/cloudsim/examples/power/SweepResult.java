@@ -0,0 +1,247 @@
+package org.cloudbus.cloudsim.examples.power;
+
+/**
+ * The result of a {@link SweepRun}: the main metrics of a completed run, or the error of a failed
+ * one. A result is written as one line of the CSV output of a {@link SweepRunner}.
+ *
+ * If you are using any algorithms, policies or workload included in the power package, please cite
+ * the following paper:
+ *
+ * Anton Beloglazov, and Rajkumar Buyya, "Optimal Online Deterministic Algorithms and Adaptive
+ * Heuristics for Energy and Performance Efficient Dynamic Consolidation of Virtual Machines in
+ * Cloud Data Centers", Concurrency and Computation: Practice and Experience (CCPE), Volume 24,
+ * Issue 13, Pages: 1397-1420, John Wiley & Sons, Ltd, New York, USA, 2012
+ */
+public class SweepResult {
+
+	/** The header of the CSV output. */
+	public static final String CSV_HEADER = "experiment,workload,vm_allocation_policy,vm_selection_policy,"
+			+ "parameter,fast_forward,status,hosts,vms,simulation_time,energy,migrations,slatah,pdm,sla,slav,esv,"
+			+ "wall_clock_time,error";
+
+	/** The run. */
+	private final SweepRun run;
+
+	/** The error of a failed run, or <tt>null</tt> if the run completed. */
+	private final Throwable error;
+
+	/** The wall clock time of the run, in seconds. */
+	private final double wallClockTime;
+
+	/** The number of hosts. */
+	private int numberOfHosts;
+
+	/** The number of vms. */
+	private int numberOfVms;
+
+	/** The simulation time. */
+	private double simulationTime;
+
+	/** The energy consumption, in kWh. */
+	private double energy;
+
+	/** The number of migrations. */
+	private int numberOfMigrations;
+
+	/** The SLA time per active host. */
+	private double slaTimePerActiveHost;
+
+	/** The performance degradation due to migration. */
+	private double slaDegradationDueToMigration;
+
+	/**
+	 * Instantiates the result of a completed run.
+	 *
+	 * @param run the run
+	 * @param wallClockTime the wall clock time of the run, in seconds
+	 * @param numberOfHosts the number of hosts
+	 * @param numberOfVms the number of vms
+	 * @param simulationTime the simulation time
+	 * @param energy the energy consumption, in kWh
+	 * @param numberOfMigrations the number of migrations
+	 * @param slaTimePerActiveHost the SLA time per active host (SLATAH)
+	 * @param slaDegradationDueToMigration the performance degradation due to migration (PDM)
+	 */
+	public SweepResult(
+			SweepRun run,
+			double wallClockTime,
+			int numberOfHosts,
+			int numberOfVms,
+			double simulationTime,
+			double energy,
+			int numberOfMigrations,
+			double slaTimePerActiveHost,
+			double slaDegradationDueToMigration) {
+		this.run = run;
+		this.error = null;
+		this.wallClockTime = wallClockTime;
+		this.numberOfHosts = numberOfHosts;
+		this.numberOfVms = numberOfVms;
+		this.simulationTime = simulationTime;
+		this.energy = energy;
+		this.numberOfMigrations = numberOfMigrations;
+		this.slaTimePerActiveHost = slaTimePerActiveHost;
+		this.slaDegradationDueToMigration = slaDegradationDueToMigration;
+	}
+
+	/**
+	 * Instantiates the result of a failed run.
+	 *
+	 * @param run the run
+	 * @param wallClockTime the wall clock time of the run, in seconds
+	 * @param error the error that made the run fail
+	 */
+	public SweepResult(SweepRun run, double wallClockTime, Throwable error) {
+		this.run = run;
+		this.error = error;
+		this.wallClockTime = wallClockTime;
+	}
+
+	/**
+	 * Converts the result to a line of the CSV output, without the line separator.
+	 *
+	 * @return the CSV line
+	 * @see #CSV_HEADER
+	 */
+	public String toCsv() {
+		StringBuilder data = new StringBuilder();
+		String delimeter = ",";
+
+		data.append(run.getExperimentName() + delimeter);
+		data.append(run.getWorkload() + delimeter);
+		data.append(run.getVmAllocationPolicy() + delimeter);
+		data.append(run.getVmSelectionPolicy() + delimeter);
+		data.append(run.getParameter() + delimeter);
+		data.append(run.isFastForward() + delimeter);
+		if (isFailed()) {
+			data.append("failed" + delimeter);
+			data.append(",,,,,,,,,,");
+			data.append(String.format("%.3f", wallClockTime) + delimeter);
+			data.append(quote(error.toString()));
+		} else {
+			data.append("completed" + delimeter);
+			data.append(String.format("%d", numberOfHosts) + delimeter);
+			data.append(String.format("%d", numberOfVms) + delimeter);
+			data.append(String.format("%.2f", simulationTime) + delimeter);
+			data.append(String.format("%.5f", energy) + delimeter);
+			data.append(String.format("%d", numberOfMigrations) + delimeter);
+			data.append(String.format("%.10f", slaTimePerActiveHost) + delimeter);
+			data.append(String.format("%.10f", slaDegradationDueToMigration) + delimeter);
+			data.append(String.format("%.10f", getSla()) + delimeter);
+			data.append(String.format("%.10f", getSlav()) + delimeter);
+			data.append(String.format("%.10f", getEsv()) + delimeter);
+			data.append(String.format("%.3f", wallClockTime) + delimeter);
+		}
+		return data.toString();
+	}
+
+	/**
+	 * Quotes a field of the CSV output.
+	 *
+	 * @param field the field
+	 * @return the quoted field
+	 */
+	private static String quote(String field) {
+		return "\"" + field.replace("\"", "\"\"").replace('\n', ' ').replace('\r', ' ') + "\"";
+	}
+
+	/**
+	 * Checks if the run failed.
+	 *
+	 * @return true, if the run failed
+	 */
+	public boolean isFailed() {
+		return error != null;
+	}
+
+	/**
+	 * Gets the run.
+	 *
+	 * @return the run
+	 */
+	public SweepRun getRun() {
+		return run;
+	}
+
+	/**
+	 * Gets the error that made the run fail.
+	 *
+	 * @return the error, or <tt>null</tt> if the run completed
+	 */
+	public Throwable getError() {
+		return error;
+	}
+
+	/**
+	 * Gets the wall clock time of the run.
+	 *
+	 * @return the wall clock time, in seconds
+	 */
+	public double getWallClockTime() {
+		return wallClockTime;
+	}
+
+	/**
+	 * Gets the energy consumption.
+	 *
+	 * @return the energy consumption, in kWh
+	 */
+	public double getEnergy() {
+		return energy;
+	}
+
+	/**
+	 * Gets the number of migrations.
+	 *
+	 * @return the number of migrations
+	 */
+	public int getNumberOfMigrations() {
+		return numberOfMigrations;
+	}
+
+	/**
+	 * Gets the SLA time per active host (SLATAH).
+	 *
+	 * @return the SLA time per active host
+	 */
+	public double getSlaTimePerActiveHost() {
+		return slaTimePerActiveHost;
+	}
+
+	/**
+	 * Gets the performance degradation due to migration (PDM).
+	 *
+	 * @return the performance degradation due to migration
+	 */
+	public double getSlaDegradationDueToMigration() {
+		return slaDegradationDueToMigration;
+	}
+
+	/**
+	 * Gets the SLA, i.e. SLATAH * PDM.
+	 *
+	 * @return the SLA
+	 */
+	public double getSla() {
+		return slaTimePerActiveHost * slaDegradationDueToMigration;
+	}
+
+	/**
+	 * Gets the SLA violation (SLAV), in percent.
+	 *
+	 * @return the SLA violation
+	 */
+	public double getSlav() {
+		return (slaTimePerActiveHost * 100) * (slaDegradationDueToMigration * 100);
+	}
+
+	/**
+	 * Gets the energy and SLA violation (ESV).
+	 *
+	 * @return the energy and SLA violation
+	 */
+	public double getEsv() {
+		return energy * getSlav();
+	}
+
+}
@@ -0,0 +1,135 @@
+package org.cloudbus.cloudsim.examples.power;
+
+/**
+ * One run of a parameter sweep: a workload simulated with a VM allocation policy, a VM selection
+ * policy and a policy parameter, with or without skipping the steady scheduling intervals.
+ *
+ * If you are using any algorithms, policies or workload included in the power package, please cite
+ * the following paper:
+ *
+ * Anton Beloglazov, and Rajkumar Buyya, "Optimal Online Deterministic Algorithms and Adaptive
+ * Heuristics for Energy and Performance Efficient Dynamic Consolidation of Virtual Machines in
+ * Cloud Data Centers", Concurrency and Computation: Practice and Experience (CCPE), Volume 24,
+ * Issue 13, Pages: 1397-1420, John Wiley & Sons, Ltd, New York, USA, 2012
+ *
+ * @see SweepGrid
+ * @see SweepRunner
+ */
+public class SweepRun {
+
+	/** The workload. */
+	private final String workload;
+
+	/** The vm allocation policy. */
+	private final String vmAllocationPolicy;
+
+	/** The vm selection policy. */
+	private final String vmSelectionPolicy;
+
+	/** The parameter. */
+	private final String parameter;
+
+	/** Whether the data center skips the steady scheduling intervals. */
+	private final boolean fastForward;
+
+	/**
+	 * Instantiates a new sweep run.
+	 *
+	 * @param workload the workload
+	 * @param vmAllocationPolicy the vm allocation policy
+	 * @param vmSelectionPolicy the vm selection policy, or an empty string
+	 * @param parameter the parameter, or an empty string
+	 */
+	public SweepRun(String workload, String vmAllocationPolicy, String vmSelectionPolicy, String parameter) {
+		this(workload, vmAllocationPolicy, vmSelectionPolicy, parameter, false);
+	}
+
+	/**
+	 * Instantiates a new sweep run.
+	 *
+	 * @param workload the workload
+	 * @param vmAllocationPolicy the vm allocation policy
+	 * @param vmSelectionPolicy the vm selection policy, or an empty string
+	 * @param parameter the parameter, or an empty string
+	 * @param fastForward whether the data center skips the steady scheduling intervals
+	 * @see org.cloudbus.cloudsim.power.PowerDatacenter#setFastForward(boolean)
+	 */
+	public SweepRun(
+			String workload,
+			String vmAllocationPolicy,
+			String vmSelectionPolicy,
+			String parameter,
+			boolean fastForward) {
+		this.workload = workload;
+		this.vmAllocationPolicy = vmAllocationPolicy;
+		this.vmSelectionPolicy = vmSelectionPolicy;
+		this.parameter = parameter;
+		this.fastForward = fastForward;
+	}
+
+	/**
+	 * Gets the experiment name, built as in {@link RunnerAbstract}.
+	 *
+	 * @return the experiment name
+	 */
+	public String getExperimentName() {
+		String[] args = { workload, vmAllocationPolicy, vmSelectionPolicy, parameter };
+		StringBuilder experimentName = new StringBuilder();
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].isEmpty()) {
+				continue;
+			}
+			if (i != 0) {
+				experimentName.append("_");
+			}
+			experimentName.append(args[i]);
+		}
+		return experimentName.toString();
+	}
+
+	/**
+	 * Gets the workload.
+	 *
+	 * @return the workload
+	 */
+	public String getWorkload() {
+		return workload;
+	}
+
+	/**
+	 * Gets the vm allocation policy.
+	 *
+	 * @return the vm allocation policy
+	 */
+	public String getVmAllocationPolicy() {
+		return vmAllocationPolicy;
+	}
+
+	/**
+	 * Gets the vm selection policy.
+	 *
+	 * @return the vm selection policy
+	 */
+	public String getVmSelectionPolicy() {
+		return vmSelectionPolicy;
+	}
+
+	/**
+	 * Gets the parameter.
+	 *
+	 * @return the parameter
+	 */
+	public String getParameter() {
+		return parameter;
+	}
+
+	/**
+	 * Checks if the data center skips the steady scheduling intervals.
+	 *
+	 * @return true, if the data center skips the steady scheduling intervals
+	 */
+	public boolean isFastForward() {
+		return fastForward;
+	}
+
+}
@@ -0,0 +1,317 @@
+package org.cloudbus.cloudsim.examples.power;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.UtilizationModel;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
+import org.cloudbus.cloudsim.examples.power.planetlab.PlanetLabConstants;
+import org.cloudbus.cloudsim.examples.power.planetlab.PlanetLabHelper;
+import org.cloudbus.cloudsim.examples.power.random.RandomConstants;
+import org.cloudbus.cloudsim.examples.power.random.RandomHelper;
+import org.cloudbus.cloudsim.power.PowerDatacenter;
+import org.cloudbus.cloudsim.power.PowerDatacenterBroker;
+import org.cloudbus.cloudsim.power.PowerHost;
+
+/**
+ * Runs the runs of a {@link SweepGrid} on a fixed number of threads, each run in its own
+ * {@link Simulation}. The traces of each workload are read once and shared by all the runs of the
+ * workload. The result of each run is written to a single CSV file as soon as the run finishes; a
+ * run that fails is reported as failed and does not stop the other runs. The progress of the runs
+ * is written to the progress output, if any (see {@link #setProgress(Writer)}).
+ *
+ * If you are using any algorithms, policies or workload included in the power package, please cite
+ * the following paper:
+ *
+ * Anton Beloglazov, and Rajkumar Buyya, "Optimal Online Deterministic Algorithms and Adaptive
+ * Heuristics for Energy and Performance Efficient Dynamic Consolidation of Virtual Machines in
+ * Cloud Data Centers", Concurrency and Computation: Practice and Experience (CCPE), Volume 24,
+ * Issue 13, Pages: 1397-1420, John Wiley & Sons, Ltd, New York, USA, 2012
+ *
+ * @see SweepGrid
+ * @see SweepResult
+ */
+public class SweepRunner {
+
+	/** The grid. */
+	private final SweepGrid grid;
+
+	/** The utilization models of the cloudlets of each workload, read once. */
+	private final ConcurrentMap<String, FutureTask<List<UtilizationModel[]>>> workloads = new ConcurrentHashMap<String, FutureTask<List<UtilizationModel[]>>>();
+
+	/** The output of the progress of the runs, or null for no progress. */
+	private Writer progress;
+
+	/**
+	 * Instantiates a new sweep runner.
+	 *
+	 * @param grid the grid
+	 */
+	public SweepRunner(SweepGrid grid) {
+		this.grid = grid;
+	}
+
+	/**
+	 * Runs all the runs of the grid, and writes their results to the file sweep.csv of the output
+	 * folder.
+	 *
+	 * @return the results, in completion order
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @throws InterruptedException if the thread is interrupted while waiting for the runs
+	 */
+	public List<SweepResult> run() throws IOException, InterruptedException {
+		return run(grid.getRuns());
+	}
+
+	/**
+	 * Runs the given runs, and writes their results to the file sweep.csv of the output folder of
+	 * the grid.
+	 *
+	 * @param runs the runs
+	 * @return the results, in completion order
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @throws InterruptedException if the thread is interrupted while waiting for the runs
+	 * @see #run(List, Writer)
+	 */
+	public List<SweepResult> run(List<SweepRun> runs) throws IOException, InterruptedException {
+		File folder = new File(grid.getOutputFolder());
+		if (!folder.exists()) {
+			folder.mkdirs();
+		}
+		Writer output = new BufferedWriter(new FileWriter(new File(folder, "sweep.csv")));
+		try {
+			return run(runs, output);
+		} finally {
+			output.close();
+		}
+	}
+
+	/**
+	 * Runs all the runs of the grid, and writes their results as CSV. The runs write to the
+	 * {@link Log}, which is shared by all the threads: the caller should disable it before, as the
+	 * output of runs in parallel is interleaved.
+	 *
+	 * @param output the output of the results, flushed after each result
+	 * @return the results, in completion order
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @throws InterruptedException if the thread is interrupted while waiting for the runs
+	 */
+	public List<SweepResult> run(Writer output) throws IOException, InterruptedException {
+		return run(grid.getRuns(), output);
+	}
+
+	/**
+	 * Runs the given runs, with the input folder and the number of threads of the grid, and writes
+	 * their results as CSV. The runs are not checked against the grid, e.g. a run can combine
+	 * fast-forward with any VM allocation policy.
+	 *
+	 * @param runs the runs
+	 * @param output the output of the results, flushed after each result
+	 * @return the results, in completion order
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @throws InterruptedException if the thread is interrupted while waiting for the runs
+	 * @see #run(Writer)
+	 */
+	public List<SweepResult> run(List<SweepRun> runs, Writer output) throws IOException, InterruptedException {
+		List<SweepResult> results = new ArrayList<SweepResult>(runs.size());
+
+		output.write(SweepResult.CSV_HEADER + "\n");
+		output.flush();
+
+		ExecutorService executor = Executors.newFixedThreadPool(grid.getThreads());
+		try {
+			CompletionService<SweepResult> completionService = new ExecutorCompletionService<SweepResult>(
+					executor);
+			for (final SweepRun run : runs) {
+				completionService.submit(new Callable<SweepResult>() {
+
+					@Override
+					public SweepResult call() {
+						return execute(run);
+					}
+				});
+			}
+
+			for (int i = 0; i < runs.size(); i++) {
+				SweepResult result;
+				try {
+					result = completionService.take().get();
+				} catch (ExecutionException e) {
+					// execute() reports its own failures
+					throw new IllegalStateException(e.getCause());
+				}
+				results.add(result);
+				output.write(result.toCsv() + "\n");
+				output.flush();
+				if (getProgress() != null) {
+					getProgress().write(String.format(
+							"[%d/%d] %s: %s in %.1f sec%n",
+							i + 1,
+							runs.size(),
+							result.getRun().getExperimentName(),
+							result.isFailed() ? "failed (" + result.getError() + ")" : "completed",
+							result.getWallClockTime()));
+					getProgress().flush();
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return results;
+	}
+
+	/**
+	 * Executes a run in a new simulation bound to the calling thread.
+	 *
+	 * @param run the run
+	 * @return the result of the run
+	 */
+	protected SweepResult execute(SweepRun run) {
+		long start = System.nanoTime();
+		CloudSim.setSimulation(new Simulation());
+		try {
+			CloudSim.init(1, Calendar.getInstance(), false);
+
+			DatacenterBroker broker = new PowerDatacenterBroker("Broker");
+			int brokerId = broker.getId();
+
+			List<Cloudlet> cloudletList;
+			List<PowerHost> hostList;
+			if (run.getWorkload().equals(SweepGrid.RANDOM_WORKLOAD)) {
+				cloudletList = RandomHelper.createCloudletList(brokerId, RandomConstants.NUMBER_OF_VMS);
+				hostList = Helper.createHostList(RandomConstants.NUMBER_OF_HOSTS);
+			} else {
+				cloudletList = PlanetLabHelper.createCloudletListPlanetLab(
+						brokerId,
+						getUtilizationModels(run.getWorkload()));
+				hostList = Helper.createHostList(PlanetLabConstants.NUMBER_OF_HOSTS);
+			}
+			List<Vm> vmList = Helper.createVmList(brokerId, cloudletList.size());
+
+			VmAllocationPolicy vmAllocationPolicy = Helper.createVmAllocationPolicy(
+					hostList,
+					run.getVmAllocationPolicy(),
+					run.getVmSelectionPolicy(),
+					run.getParameter());
+			PowerDatacenter datacenter = (PowerDatacenter) Helper.createDatacenter(
+					"Datacenter",
+					PowerDatacenter.class,
+					hostList,
+					vmAllocationPolicy);
+			datacenter.setDisableMigrations(false);
+			datacenter.setFastForward(run.isFastForward());
+
+			broker.submitVmList(vmList);
+			broker.submitCloudletList(cloudletList);
+
+			CloudSim.terminateSimulation(Constants.SIMULATION_LIMIT);
+			double lastClock = CloudSim.startSimulation();
+			CloudSim.stopSimulation();
+
+			List<Host> hosts = datacenter.getHostList();
+			Map<String, Double> slaMetrics = Helper.getSlaMetrics(vmList);
+			return new SweepResult(
+					run,
+					(System.nanoTime() - start) / 1e9,
+					hosts.size(),
+					vmList.size(),
+					lastClock,
+					datacenter.getPower() / (3600 * 1000),
+					datacenter.getMigrationCount(),
+					Helper.getSlaTimePerActiveHost(hosts),
+					slaMetrics.get("underallocated_migration"));
+		} catch (Throwable e) {
+			return new SweepResult(run, (System.nanoTime() - start) / 1e9, e);
+		} finally {
+			CloudSim.setSimulation(null);
+		}
+	}
+
+	/**
+	 * Gets the utilization models of the cloudlets of a PlanetLab workload. The traces of a
+	 * workload are read by the first run that needs them, and shared with all the other runs.
+	 *
+	 * @param workload the workload
+	 * @return the cpu, ram and bw utilization models of each cloudlet
+	 * @throws Exception if the traces cannot be read
+	 */
+	protected List<UtilizationModel[]> getUtilizationModels(final String workload) throws Exception {
+		FutureTask<List<UtilizationModel[]>> task = workloads.get(workload);
+		if (task == null) {
+			FutureTask<List<UtilizationModel[]>> newTask = new FutureTask<List<UtilizationModel[]>>(
+					new Callable<List<UtilizationModel[]>>() {
+
+						@Override
+						public List<UtilizationModel[]> call() throws Exception {
+							return PlanetLabHelper.createUtilizationModels(grid.getInputFolder() + "/" + workload);
+						}
+					});
+			task = workloads.putIfAbsent(workload, newTask);
+			if (task == null) {
+				task = newTask;
+				task.run();
+			}
+		}
+
+		try {
+			return task.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the grid.
+	 *
+	 * @return the grid
+	 */
+	public SweepGrid getGrid() {
+		return grid;
+	}
+
+	/**
+	 * Gets the output of the progress of the runs.
+	 *
+	 * @return the output of the progress, or null for no progress
+	 */
+	public Writer getProgress() {
+		return progress;
+	}
+
+	/**
+	 * Sets the output of the progress of the runs. A line is written, and the output flushed, as
+	 * each run finishes. The output is not closed by the runner.
+	 *
+	 * @param progress the output of the progress, or null for no progress
+	 */
+	public void setProgress(Writer progress) {
+		this.progress = progress;
+	}
+
+}
@@ -0,0 +1,152 @@
+package org.cloudbus.cloudsim.examples.power.planetlab;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.examples.power.SweepGrid;
+import org.cloudbus.cloudsim.examples.power.SweepResult;
+import org.cloudbus.cloudsim.examples.power.SweepRun;
+import org.cloudbus.cloudsim.examples.power.SweepRunner;
+
+/**
+ * Checks that skipping the steady scheduling intervals does not change the results of the
+ * simulations (see {@link org.cloudbus.cloudsim.power.PowerDatacenter#setFastForward(boolean)}).
+ * Each run of a grid is run both without and with fast-forward, and the energy consumption, the
+ * number of migrations, the SLATAH and the PDM of the two runs are compared. The runs with
+ * fast-forward are not restricted to the VM allocation policies that support it, so that the check
+ * also covers the data center falling back to updating at every scheduling interval for the other
+ * policies. The only, optional, command line parameter is the properties file of the grid (see
+ * {@link SweepGrid}), whose fastForward property is ignored. Without it, the THR, IQR, MAD, LR and
+ * LRR policies with the MMT VM selection policy are checked on all the workloads of the
+ * workload/planetlab folder. The exit status is 1 if the results of any run differ.
+ *
+ * If you are using any algorithms, policies or workload included in the power package please cite
+ * the following paper:
+ *
+ * Anton Beloglazov, and Rajkumar Buyya, "Optimal Online Deterministic Algorithms and Adaptive
+ * Heuristics for Energy and Performance Efficient Dynamic Consolidation of Virtual Machines in
+ * Cloud Data Centers", Concurrency and Computation: Practice and Experience (CCPE), Volume 24,
+ * Issue 13, Pages: 1397-1420, John Wiley & Sons, Ltd, New York, USA, 2012
+ */
+public class PlanetLabFastForwardCheck {
+
+	/**
+	 * The relative difference allowed between the metrics of the two runs, as the energy of a
+	 * skipped period is summed in a different order.
+	 */
+	private static final double TOLERANCE = 1e-9;
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @throws InterruptedException if the check is interrupted
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		SweepGrid grid;
+		if (args.length >= 1) {
+			grid = SweepGrid.load(args[0]);
+		} else {
+			grid = new SweepGrid();
+			grid.setInputFolder(PlanetLabFastForwardCheck.class.getClassLoader()
+					.getResource("workload/planetlab").getPath());
+			grid.setVmSelectionPolicies(Arrays.asList("mmt"));
+		}
+		grid.setFastForward(Arrays.asList(false));
+		List<SweepRun> runs = new ArrayList<SweepRun>();
+		for (SweepRun run : grid.getRuns()) {
+			runs.add(run);
+			runs.add(new SweepRun(
+					run.getWorkload(),
+					run.getVmAllocationPolicy(),
+					run.getVmSelectionPolicy(),
+					run.getParameter(),
+					true));
+		}
+
+		Log.disable();
+		SweepRunner runner = new SweepRunner(grid);
+		runner.setProgress(new OutputStreamWriter(System.out));
+		List<SweepResult> results = runner.run(runs);
+
+		Map<String, SweepResult> withoutFastForward = new HashMap<String, SweepResult>();
+		for (SweepResult result : results) {
+			if (!result.getRun().isFastForward()) {
+				withoutFastForward.put(result.getRun().getExperimentName(), result);
+			}
+		}
+
+		int failed = 0;
+		for (SweepResult result : results) {
+			if (!result.getRun().isFastForward()) {
+				continue;
+			}
+			String experimentName = result.getRun().getExperimentName();
+			SweepResult expected = withoutFastForward.get(experimentName);
+			String difference = getDifference(expected, result);
+			if (difference != null) {
+				failed++;
+				System.out.println(experimentName + ": " + difference);
+			}
+		}
+		System.out.println("Fast-forward check finished: " + failed + " of "
+				+ withoutFastForward.size() + " runs differ");
+		if (failed > 0) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Gets the difference between the results of a run without and with fast-forward.
+	 *
+	 * @param expected the result without fast-forward
+	 * @param actual the result with fast-forward
+	 * @return the description of the difference, or null if the results are the same
+	 */
+	private static String getDifference(SweepResult expected, SweepResult actual) {
+		if (expected.isFailed() || actual.isFailed()) {
+			return "failed (" + (expected.isFailed() ? expected.getError() : actual.getError()) + ")";
+		}
+		if (!isClose(expected.getEnergy(), actual.getEnergy())) {
+			return String.format("energy %.5f instead of %.5f kWh", actual.getEnergy(), expected.getEnergy());
+		}
+		if (expected.getNumberOfMigrations() != actual.getNumberOfMigrations()) {
+			return String.format(
+					"%d migrations instead of %d",
+					actual.getNumberOfMigrations(),
+					expected.getNumberOfMigrations());
+		}
+		if (!isClose(expected.getSlaTimePerActiveHost(), actual.getSlaTimePerActiveHost())) {
+			return String.format(
+					"SLATAH %.10f instead of %.10f",
+					actual.getSlaTimePerActiveHost(),
+					expected.getSlaTimePerActiveHost());
+		}
+		if (!isClose(expected.getSlaDegradationDueToMigration(), actual.getSlaDegradationDueToMigration())) {
+			return String.format(
+					"PDM %.10f instead of %.10f",
+					actual.getSlaDegradationDueToMigration(),
+					expected.getSlaDegradationDueToMigration());
+		}
+		return null;
+	}
+
+	/**
+	 * Checks if two metrics are equal up to the tolerance.
+	 *
+	 * @param expected the expected value
+	 * @param actual the actual value
+	 * @return true, if the values are equal up to the tolerance
+	 */
+	private static boolean isClose(double expected, double actual) {
+		return Math.abs(expected - actual) <= TOLERANCE * Math.max(Math.abs(expected), Math.abs(actual));
+	}
+
+}
@@ -2,10 +2,12 @@ package org.cloudbus.cloudsim.examples.power.planetlab;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.UtilizationModel;
 import org.cloudbus.cloudsim.UtilizationModelOfBW;
 import org.cloudbus.cloudsim.UtilizationModelOfRam;
 import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
@@ -37,34 +39,44 @@ public class PlanetLabHelper {
 	 */
 	public static List<Cloudlet> createCloudletListPlanetLab(int brokerId, String inputFolderName)
 			throws FileNotFoundException {
+		List<UtilizationModel[]> utilizationModels = null;
+		try {
+			utilizationModels = createUtilizationModels(inputFolderName);
+		} catch (Exception e) {
+			e.printStackTrace();
+			System.exit(0);
+		}
+		return createCloudletListPlanetLab(brokerId, utilizationModels);
+	}
+
+	/**
+	 * Creates the cloudlet list planet lab from the utilization models of a workload. The
+	 * utilization models are only read by the cloudlets, so the same models can be shared by the
+	 * cloudlets of several simulations, even if they run concurrently.
+	 * 
+	 * @param brokerId the broker id
+	 * @param utilizationModels the cpu, ram and bw utilization models of each cloudlet
+	 * @return the list
+	 * @see #createUtilizationModels(String)
+	 */
+	public static List<Cloudlet> createCloudletListPlanetLab(
+			int brokerId,
+			List<UtilizationModel[]> utilizationModels) {
 		List<Cloudlet> list = new ArrayList<Cloudlet>();
 		long fileSize = 300;
 		long outputSize = 300;
 
-		File inputFolder = new File(inputFolderName);
-		File[] files = inputFolder.listFiles();
-		for (int i = 0; i < files.length; i++) {
-			Cloudlet cloudlet = null;
-			try {
-				cloudlet = new Cloudlet(
-						i,
-						Constants.CLOUDLET_LENGTH,
-						Constants.CLOUDLET_PES,
-						fileSize,
-						outputSize,
-						new UtilizationModelPlanetLabInMemory(
-								files[i].getAbsolutePath(),
-								Constants.SCHEDULING_INTERVAL),
-						new UtilizationModelOfRam(
-								files[i].getAbsolutePath(),
-								Constants.SCHEDULING_INTERVAL),
-						new UtilizationModelOfBW(
-								files[i].getAbsolutePath(),
-								Constants.SCHEDULING_INTERVAL));
-			} catch (Exception e) {
-				e.printStackTrace();
-				System.exit(0);
-			}
+		for (int i = 0; i < utilizationModels.size(); i++) {
+			UtilizationModel[] models = utilizationModels.get(i);
+			Cloudlet cloudlet = new Cloudlet(
+					i,
+					Constants.CLOUDLET_LENGTH,
+					Constants.CLOUDLET_PES,
+					fileSize,
+					outputSize,
+					models[0],
+					models[1],
+					models[2]);
 			cloudlet.setUserId(brokerId);
 			cloudlet.setVmId(i);
 			list.add(cloudlet);
@@ -73,4 +85,37 @@ public class PlanetLabHelper {
 		return list;
 	}
 
+	/**
+	 * Reads the cpu, ram and bw utilization models of the cloudlets of a workload, one cloudlet
+	 * per file of the input folder.
+	 * 
+	 * @param inputFolderName the input folder name
+	 * @return the cpu, ram and bw utilization models of each cloudlet
+	 * @throws IOException if a file of the workload cannot be read
+	 * @throws FileNotFoundException if the input folder does not exist
+	 */
+	public static List<UtilizationModel[]> createUtilizationModels(String inputFolderName)
+			throws IOException {
+		File inputFolder = new File(inputFolderName);
+		File[] files = inputFolder.listFiles();
+		if (files == null) {
+			throw new FileNotFoundException("Workload folder not found: " + inputFolderName);
+		}
+
+		List<UtilizationModel[]> list = new ArrayList<UtilizationModel[]>();
+		for (int i = 0; i < files.length; i++) {
+			list.add(new UtilizationModel[] {
+					new UtilizationModelPlanetLabInMemory(
+							files[i].getAbsolutePath(),
+							Constants.SCHEDULING_INTERVAL),
+					new UtilizationModelOfRam(
+							files[i].getAbsolutePath(),
+							Constants.SCHEDULING_INTERVAL),
+					new UtilizationModelOfBW(
+							files[i].getAbsolutePath(),
+							Constants.SCHEDULING_INTERVAL) });
+		}
+		return list;
+	}
+
 }
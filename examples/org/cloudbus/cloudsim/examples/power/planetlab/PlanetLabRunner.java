@@ -55,6 +55,41 @@ public class PlanetLabRunner extends RunnerAbstract {
 				parameter);
 	}
 
+	/**
+	 * Instantiates a new planet lab runner with a host selection strategy.
+	 * 
+	 * @param enableOutput the enable output
+	 * @param outputToFile the output to file
+	 * @param inputFolder the input folder
+	 * @param outputFolder the output folder
+	 * @param workload the workload
+	 * @param vmAllocationPolicy the vm allocation policy
+	 * @param vmSelectionPolicy the vm selection policy
+	 * @param parameter the parameter
+	 * @param hostSelectionStrategy the host selection strategy, or an empty string
+	 */
+	public PlanetLabRunner(
+			boolean enableOutput,
+			boolean outputToFile,
+			String inputFolder,
+			String outputFolder,
+			String workload,
+			String vmAllocationPolicy,
+			String vmSelectionPolicy,
+			String parameter,
+			String hostSelectionStrategy) {
+		super(
+				enableOutput,
+				outputToFile,
+				inputFolder,
+				outputFolder,
+				workload,
+				vmAllocationPolicy,
+				vmSelectionPolicy,
+				parameter,
+				hostSelectionStrategy);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -43,6 +43,13 @@ public class PlanetLabRunnerConsole {
 		if (args.length >= 7 && args[6] != null && !args[6].isEmpty()) {
 			parameter = args[6];
 		}
+		String hostSelectionStrategy = "";
+		if (args.length >= 8 && args[7] != null && !args[7].isEmpty()) {
+			hostSelectionStrategy = args[7];
+		}
+		if (args.length >= 9 && args[8].equals("1")) {
+			PlanetLabRunner.setFastForward(true);
+		}
 
 		new PlanetLabRunner(
 				enableOutput,
@@ -52,7 +59,8 @@ public class PlanetLabRunnerConsole {
 				workload,
 				vmAllocationPolicy,
 				vmSelectionPolicy,
-				parameter);
+				parameter,
+				hostSelectionStrategy);
 	}
 
 }
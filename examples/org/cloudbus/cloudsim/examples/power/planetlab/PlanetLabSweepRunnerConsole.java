@@ -0,0 +1,57 @@
+package org.cloudbus.cloudsim.examples.power.planetlab;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.examples.power.SweepGrid;
+import org.cloudbus.cloudsim.examples.power.SweepResult;
+import org.cloudbus.cloudsim.examples.power.SweepRunner;
+
+/**
+ * A console runner for parameter sweeps over the PlanetLab workloads. The only, optional, command
+ * line parameter is the properties file of the grid (see {@link SweepGrid}). Without it, all the
+ * combinations of the THR, IQR, MAD, LR and LRR VM allocation policies with the MC, MMT, MU and RS
+ * VM selection policies are run on all the workloads of the workload/planetlab folder. The results
+ * are written to output/sweep.csv.
+ *
+ * If you are using any algorithms, policies or workload included in the power package please cite
+ * the following paper:
+ *
+ * Anton Beloglazov, and Rajkumar Buyya, "Optimal Online Deterministic Algorithms and Adaptive
+ * Heuristics for Energy and Performance Efficient Dynamic Consolidation of Virtual Machines in
+ * Cloud Data Centers", Concurrency and Computation: Practice and Experience (CCPE), Volume 24,
+ * Issue 13, Pages: 1397-1420, John Wiley & Sons, Ltd, New York, USA, 2012
+ */
+public class PlanetLabSweepRunnerConsole {
+
+	/**
+	 * The main method.
+	 *
+	 * @param args the arguments
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @throws InterruptedException if the sweep is interrupted
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		SweepGrid grid;
+		if (args.length >= 1) {
+			grid = SweepGrid.load(args[0]);
+		} else {
+			grid = new SweepGrid();
+			grid.setInputFolder(PlanetLabSweepRunnerConsole.class.getClassLoader()
+					.getResource("workload/planetlab").getPath());
+		}
+
+		Log.disable();
+		int failed = 0;
+		SweepRunner runner = new SweepRunner(grid);
+		runner.setProgress(new OutputStreamWriter(System.out));
+		for (SweepResult result : runner.run()) {
+			if (result.isFailed()) {
+				failed++;
+			}
+		}
+		System.out.println("Sweep finished: " + failed + " failed runs");
+	}
+
+}
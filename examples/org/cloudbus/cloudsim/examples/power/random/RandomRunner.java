@@ -53,6 +53,39 @@ public class RandomRunner extends RunnerAbstract {
 				parameter);
 	}
 
+	/**
+	 * @param enableOutput
+	 * @param outputToFile
+	 * @param inputFolder
+	 * @param outputFolder
+	 * @param workload
+	 * @param vmAllocationPolicy
+	 * @param vmSelectionPolicy
+	 * @param parameter
+	 * @param hostSelectionStrategy
+	 */
+	public RandomRunner(
+			boolean enableOutput,
+			boolean outputToFile,
+			String inputFolder,
+			String outputFolder,
+			String workload,
+			String vmAllocationPolicy,
+			String vmSelectionPolicy,
+			String parameter,
+			String hostSelectionStrategy) {
+		super(
+				enableOutput,
+				outputToFile,
+				inputFolder,
+				outputFolder,
+				workload,
+				vmAllocationPolicy,
+				vmSelectionPolicy,
+				parameter,
+				hostSelectionStrategy);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -14,6 +14,7 @@ import java.util.LinkedList;
 import java.util.List;
 
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
 
 /**
  * Cloudlet is an extension to the cloudlet. It stores, despite all the information encapsulated in
@@ -91,6 +92,12 @@ public class Cloudlet {
 	/** The ToS for sending Cloudlet over the network. */
 	private int netToS;
 
+	/** The length requested by the user for a Pe, as an estimate of the cloudlet length (in MI). */
+	private long requestedLength;
+
+	/** The simulation the cloudlet was created in. */
+	private final Simulation simulation = CloudSim.getSimulation();
+
 	// //////////////////////////////////////////
 	// Below are CONSTANTS attributes
 	/** The Cloudlet has been created and added to the CloudletList object. */
@@ -336,6 +343,7 @@ public class Cloudlet {
 		finishTime = -1.0;    // meaning this Cloudlet hasn't finished yet
 		classType = 0;
 		netToS = 0;
+		requestedLength = 0;
 
 		// Cloudlet length, Input and Output size should be at least 1 byte.
 		this.cloudletLength = Math.max(1, cloudletLength);
@@ -481,6 +489,36 @@ public class Cloudlet {
 		return netToS;
 	}
 
+	/**
+	 * Sets the length (in MI) requested by the user for 1 Pe, as an estimate of the cloudlet length
+	 * made before its execution, such as the requested run time of a job in a workload trace. It is
+	 * used by schedulers that plan ahead, such as {@link CloudletSchedulerSpaceSharedQueued}.
+	 * 
+	 * @param requestedLength the requested length (in MI), or 0 if it is unknown
+	 * @return <tt>true</tt> if it is successful, <tt>false</tt> otherwise
+	 * @pre requestedLength >= 0
+	 * @post $none
+	 */
+	public boolean setRequestedLength(final long requestedLength) {
+		if (requestedLength < 0) {
+			return false;
+		}
+
+		this.requestedLength = requestedLength;
+		return true;
+	}
+
+	/**
+	 * Gets the length (in MI) requested by the user for 1 Pe.
+	 * 
+	 * @return the requested length, or 0 if it is unknown
+	 * @pre $none
+	 * @post $result >= 0
+	 */
+	public long getRequestedLength() {
+		return requestedLength;
+	}
+
 	/**
 	 * Gets the waiting time of this cloudlet executed on a resource.
 	 * 
@@ -658,7 +696,7 @@ public class Cloudlet {
 	public void setUserId(final int id) {
 		userId = id;
 		if (record) {
-			write("Assigns the Cloudlet to " + CloudSim.getEntityName(id) + " (ID #" + id + ")");
+			write("Assigns the Cloudlet to " + simulation.getEntityName(id) + " (ID #" + id + ")");
 		}
 	}
 
@@ -725,7 +763,7 @@ public class Cloudlet {
 		final Resource res = new Resource();
 		res.resourceId = resourceID;
 		res.costPerSec = cost;
-		res.resourceName = CloudSim.getEntityName(resourceID);
+		res.resourceName = simulation.getEntityName(resourceID);
 
 		// add into a list if moving to a new grid resource
 		resList.add(res);
@@ -852,7 +890,7 @@ public class Cloudlet {
 		}
 
 		if (newStatus == Cloudlet.SUCCESS) {
-			finishTime = CloudSim.clock();
+			finishTime = simulation.clock();
 		}
 
 		if (record) {
@@ -1188,12 +1226,12 @@ public class Cloudlet {
 			history.append(System.getProperty("line.separator"));
 			history.append("------------------------------------------");
 			history.append(System.getProperty("line.separator"));
-			history.append(num.format(CloudSim.clock()));
+			history.append(num.format(simulation.clock()));
 			history.append("   Creates Cloudlet ID #" + cloudletId);
 			history.append(System.getProperty("line.separator"));
 		}
 
-		history.append(num.format(CloudSim.clock()));
+		history.append(num.format(simulation.clock()));
 		history.append("   " + str + newline);
 	}
 
@@ -1463,4 +1501,42 @@ public class Cloudlet {
 		return getUtilizationModelBw().getUtilization(time);
 	}
 
+	/**
+	 * Gets the time until which the utilization of cpu, memory and bw stays the same as at a given
+	 * time.
+	 * 
+	 * @param time the time
+	 * @return the time until which the utilization does not change, or the given time if one of
+	 *         the utilization models is not {@link UtilizationModelPredictable predictable}
+	 * @see UtilizationModelPredictable#getSteadyUntil(double)
+	 */
+	public double getUtilizationSteadyUntil(final double time) {
+		double steadyUntil = getSteadyUntil(getUtilizationModelCpu(), time);
+		steadyUntil = Math.min(steadyUntil, getSteadyUntil(getUtilizationModelRam(), time));
+		return Math.min(steadyUntil, getSteadyUntil(getUtilizationModelBw(), time));
+	}
+
+	/**
+	 * Gets the time until which a utilization model stays the same as at a given time.
+	 * 
+	 * @param utilizationModel the utilization model
+	 * @param time the time
+	 * @return the time until which the utilization does not change
+	 */
+	private static double getSteadyUntil(final UtilizationModel utilizationModel, final double time) {
+		if (utilizationModel instanceof UtilizationModelPredictable) {
+			return ((UtilizationModelPredictable) utilizationModel).getSteadyUntil(time);
+		}
+		return time;
+	}
+
+	/**
+	 * Gets the simulation the cloudlet was created in, whose clock the cloudlet reads.
+	 * 
+	 * @return the simulation
+	 */
+	public Simulation getSimulation() {
+		return simulation;
+	}
+
 }
@@ -10,6 +10,9 @@ package org.cloudbus.cloudsim;
 
 import java.util.List;
 
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
+
 /**
  * CloudletScheduler is an abstract class that represents the policy of scheduling performed by a
  * virtual machine. So, classes extending this must execute Cloudlets. Also, the interface for
@@ -25,7 +28,10 @@ public abstract class CloudletScheduler {
 	private double previousTime;
 
 	/** The current mips share. */
-	private List<Double> currentMipsShare;
+	private MipsShare currentMipsShare;
+
+	/** The simulation the scheduler was created in. */
+	private final Simulation simulation = CloudSim.getSimulation();
 
 	/**
 	 * Creates a new CloudletScheduler object. This method must be invoked before starting the
@@ -250,6 +256,19 @@ public abstract class CloudletScheduler {
 	 */
 	public abstract double getCurrentRequestedUtilizationOfBw();
 
+	/**
+	 * Gets the time until which the utilization of the running cloudlets stays the same as at a
+	 * given time, if no cloudlet is submitted, finishes or is cancelled in the meantime. The
+	 * default implementation cannot tell and returns the given time.
+	 * 
+	 * @param time the time
+	 * @return the time until which the utilization does not change
+	 * @see Cloudlet#getUtilizationSteadyUntil(double)
+	 */
+	public double getSteadyUntil(double time) {
+		return time;
+	}
+
 	/**
 	 * Gets the previous time.
 	 * 
@@ -271,10 +290,11 @@ public abstract class CloudletScheduler {
 	/**
 	 * Sets the current mips share.
 	 * 
-	 * @param currentMipsShare the new current mips share
+	 * @param currentMipsShare the new current mips share, which is copied into a {@link MipsShare}
+	 *            if it is not one
 	 */
 	protected void setCurrentMipsShare(List<Double> currentMipsShare) {
-		this.currentMipsShare = currentMipsShare;
+		this.currentMipsShare = currentMipsShare == null ? null : MipsShare.of(currentMipsShare);
 	}
 
 	/**
@@ -286,4 +306,25 @@ public abstract class CloudletScheduler {
 		return currentMipsShare;
 	}
 
+	/**
+	 * Gets the current mips share as a {@link MipsShare}, whose total and number of active PEs are
+	 * read without going over the list. The share returned by {@link #getCurrentMipsShare()} is
+	 * copied into a new one if a subclass returns another list.
+	 * 
+	 * @return the current mips share, or null if it has not been set
+	 */
+	protected MipsShare getCurrentMipsShareValue() {
+		List<Double> mipsShare = getCurrentMipsShare();
+		return mipsShare == null ? null : MipsShare.of(mipsShare);
+	}
+
+	/**
+	 * Gets the simulation the scheduler was created in, whose clock the scheduler reads.
+	 * 
+	 * @return the simulation
+	 */
+	protected Simulation getSimulation() {
+		return simulation;
+	}
+
 }
@@ -12,8 +12,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.cloudbus.cloudsim.core.CloudSim;
-
 /**
  * CloudletSchedulerDynamicWorkload implements a policy of scheduling performed by a virtual machine
  * assuming that there is just one cloudlet which is working as an online service.
@@ -86,8 +84,8 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 				continue;
 			} else { // not finish: estimate the finish time
 				double estimatedFinishTime = getEstimatedFinishTime(rcl, currentTime);
-				if (estimatedFinishTime - currentTime < CloudSim.getMinTimeBetweenEvents()) {
-					estimatedFinishTime = currentTime + CloudSim.getMinTimeBetweenEvents();
+				if (estimatedFinishTime - currentTime < getSimulation().getMinTimeBetweenEvents()) {
+					estimatedFinishTime = currentTime + getSimulation().getMinTimeBetweenEvents();
 				}
 				if (estimatedFinishTime < nextEvent) {
 					nextEvent = estimatedFinishTime;
@@ -183,13 +181,9 @@ public class CloudletSchedulerDynamicWorkload extends CloudletSchedulerTimeShare
 		if (getCachePreviousTime() == getPreviousTime()) {
 			return getCacheCurrentRequestedMips();
 		}
-		List<Double> currentMips = new ArrayList<Double>();
 		double totalMips = getTotalUtilizationOfCpu(getPreviousTime()) * getTotalMips();
 		double mipsForPe = totalMips / getNumberOfPes();
-
-		for (int i = 0; i < getNumberOfPes(); i++) {
-			currentMips.add(mipsForPe);
-		}
+		List<Double> currentMips = MipsShare.uniform(getNumberOfPes(), mipsForPe);
 
 		setCachePreviousTime(getPreviousTime());
 		setCacheCurrentRequestedMips(currentMips);
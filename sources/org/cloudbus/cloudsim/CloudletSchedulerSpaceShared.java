@@ -11,8 +11,6 @@ package org.cloudbus.cloudsim;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.cloudbus.cloudsim.core.CloudSim;
-
 /**
  * CloudletSchedulerSpaceShared implements a policy of scheduling performed by a virtual machine. It
  * consider that there will be only one cloudlet per VM. Other cloudlets will be in a waiting list.
@@ -136,8 +134,8 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 		for (ResCloudlet rcl : getCloudletExecList()) {
 			double remainingLength = rcl.getRemainingCloudletLength();
 			double estimatedFinishTime = currentTime + (remainingLength / (capacity * rcl.getNumberOfPes()));
-			if (estimatedFinishTime - currentTime < CloudSim.getMinTimeBetweenEvents()) {
-				estimatedFinishTime = currentTime + CloudSim.getMinTimeBetweenEvents();
+			if (estimatedFinishTime - currentTime < getSimulation().getMinTimeBetweenEvents()) {
+				estimatedFinishTime = currentTime + getSimulation().getMinTimeBetweenEvents();
 			}
 			if (estimatedFinishTime < nextEvent) {
 				nextEvent = estimatedFinishTime;
@@ -328,7 +326,7 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 				capacity /= cpus;
 
 				long remainingLength = rcl.getRemainingCloudletLength();
-				double estimatedFinishTime = CloudSim.clock()
+				double estimatedFinishTime = getSimulation().clock()
 						+ (remainingLength / (capacity * rcl.getNumberOfPes()));
 
 				return estimatedFinishTime;
@@ -454,6 +452,19 @@ public class CloudletSchedulerSpaceShared extends CloudletScheduler {
 		return totalUtilization;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.CloudletScheduler#getSteadyUntil(double)
+	 */
+	@Override
+	public double getSteadyUntil(double time) {
+		double steadyUntil = Double.MAX_VALUE;
+		for (ResCloudlet rcl : getCloudletExecList()) {
+			steadyUntil = Math.min(steadyUntil, rcl.getCloudlet().getUtilizationSteadyUntil(time));
+		}
+		return steadyUntil;
+	}
+
 	/**
 	 * Informs about completion of some cloudlet in the VM managed by this scheduler.
 	 * 
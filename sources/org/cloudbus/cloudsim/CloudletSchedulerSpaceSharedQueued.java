@@ -0,0 +1,679 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+import org.cloudbus.cloudsim.util.LongObjectMap;
+
+/**
+ * A space-shared cloudlet scheduler for bag-of-tasks workloads, such as the jobs of a trace read by
+ * {@link org.cloudbus.cloudsim.util.WorkloadFileReader}. Each cloudlet runs alone on its PEs, which
+ * are taken from a free list of PEs; the other cloudlets wait in a ready queue ordered by
+ * submission or, optionally, by class type (see {@link Cloudlet#getClassType()}), lower classes
+ * first. Whenever PEs are freed, the cloudlets at the head of the queue are started while there are
+ * enough PEs for them.
+ * <p>
+ * As all the cloudlets in execution get the same MIPS per PE, the scheduler keeps a single virtual
+ * progress, the MI executed so far by a PE of any cloudlet in execution, and finds the finished
+ * cloudlets and the next event from a queue of finish tags, as
+ * {@link CloudletSchedulerTimeSharedAnalytic} does. The cloudlets are also indexed by id, so that
+ * submitting, finishing, pausing, resuming and canceling a cloudlet take O(log n) time in the
+ * number of waiting cloudlets.
+ * <p>
+ * With backfilling, the scheduler follows the EASY policy: when the cloudlet at the head of the
+ * queue does not fit in the free PEs, it gets a reservation at the time the cloudlets in execution
+ * are expected to free enough PEs for it, and the cloudlets behind it may be started first if they
+ * fit in the free PEs and either are expected to finish before the reservation or use only the PEs
+ * that the head of the queue will leave free. The expected lengths are the requested lengths of the
+ * cloudlets (see {@link Cloudlet#getRequestedLength()}), or their actual lengths when they have none.
+ * A backfilling pass scans the queue until the free PEs are used.
+ * <p>
+ * The waiting cloudlets are kept in the ready queue rather than in the waiting list of
+ * {@link CloudletSchedulerSpaceShared}. Subclasses must not modify the cloudlet lists directly.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class CloudletSchedulerSpaceSharedQueued extends CloudletSchedulerSpaceShared {
+
+	/** Whether the scheduler backfills the ready queue. */
+	private final boolean backfilling;
+
+	/** The waiting cloudlets, in the order in which they are started. */
+	private final TreeSet<QueuedCloudlet> readyQueue;
+
+	/** The cloudlets in execution, by finish tag. */
+	private final PriorityQueue<QueuedCloudlet> finishQueue;
+
+	/** The cloudlets in execution, waiting or paused, by id. */
+	private final LongObjectMap<QueuedCloudlet> cloudlets;
+
+	/** The ids of the free PEs; the first {@link #freePeCount} are valid. */
+	private int[] freePes;
+
+	/** The number of free PEs. */
+	private int freePeCount;
+
+	/** Whether each PE is used by a cloudlet in execution. */
+	private boolean[] busyPes;
+
+	/** The MI executed so far by a PE of any cloudlet in execution. */
+	private double virtualProgress;
+
+	/** The MIPS of each PE. */
+	private double capacity;
+
+	/** The number of cloudlets submitted, used to order the cloudlets of the same class. */
+	private long submitted;
+
+	/**
+	 * Creates a new first-come first-served scheduler without backfilling. This method must be
+	 * invoked before starting the actual simulation.
+	 *
+	 * @pre $none
+	 * @post $none
+	 */
+	public CloudletSchedulerSpaceSharedQueued() {
+		this(false, false);
+	}
+
+	/**
+	 * Creates a new CloudletSchedulerSpaceSharedQueued object. This method must be invoked before
+	 * starting the actual simulation.
+	 *
+	 * @param byClassType whether the waiting cloudlets are ordered by class type before submission
+	 * @param backfilling whether the scheduler backfills the ready queue with the EASY policy
+	 * @pre $none
+	 * @post $none
+	 */
+	public CloudletSchedulerSpaceSharedQueued(final boolean byClassType, boolean backfilling) {
+		super();
+		this.backfilling = backfilling;
+		readyQueue = new TreeSet<QueuedCloudlet>(new Comparator<QueuedCloudlet>() {
+
+			@Override
+			public int compare(QueuedCloudlet a, QueuedCloudlet b) {
+				if (byClassType && a.getCloudletClassType() != b.getCloudletClassType()) {
+					return a.getCloudletClassType() < b.getCloudletClassType() ? -1 : 1;
+				}
+				return a.sequence < b.sequence ? -1 : a.sequence == b.sequence ? 0 : 1;
+			}
+
+		});
+		finishQueue = new PriorityQueue<QueuedCloudlet>(11, new Comparator<QueuedCloudlet>() {
+
+			@Override
+			public int compare(QueuedCloudlet a, QueuedCloudlet b) {
+				int result = Double.compare(a.finishTag, b.finishTag);
+				if (result == 0) {
+					result = a.sequence < b.sequence ? -1 : a.sequence == b.sequence ? 0 : 1;
+				}
+				return result;
+			}
+
+		});
+		cloudlets = new LongObjectMap<QueuedCloudlet>();
+		freePes = new int[0];
+		busyPes = new boolean[0];
+	}
+
+	/**
+	 * Checks whether the scheduler backfills the ready queue.
+	 *
+	 * @return true, if the scheduler uses the EASY backfilling policy
+	 */
+	public boolean isBackfilling() {
+		return backfilling;
+	}
+
+	/**
+	 * Updates the processing of cloudlets running under management of this scheduler.
+	 *
+	 * @param currentTime current simulation time
+	 * @param mipsShare array with MIPS share of each processor available to the scheduler
+	 * @return time predicted completion time of the earliest finishing cloudlet, or 0 if there is
+	 *         no next events
+	 * @pre currentTime >= 0
+	 * @post $none
+	 */
+	@Override
+	public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
+		setCurrentMipsShare(mipsShare);
+		double timeSpam = currentTime - getPreviousTime(); // time since last update
+		setPreviousTime(currentTime);
+
+		updateCapacity();
+		if (!finishQueue.isEmpty()) {
+			virtualProgress += capacity * timeSpam;
+		}
+
+		// mark the due cloudlets, then finish them in a single pass in the order of the exec list
+		int due = 0;
+		while (!finishQueue.isEmpty() && finishQueue.peek().isDue(virtualProgress)) {
+			finishQueue.poll().due = true;
+			due++;
+		}
+		if (due > 0) {
+			finishDueCloudlets();
+		}
+		if (finishQueue.isEmpty()) {
+			// start again from zero, so that the virtual progress does not lose precision
+			virtualProgress = 0;
+		}
+
+		startCloudlets();
+
+		if (finishQueue.isEmpty()) {
+			return 0.0;
+		}
+
+		// the head of the queue is the earliest finishing cloudlet, as all get the same MIPS per PE
+		QueuedCloudlet next = finishQueue.peek();
+		double estimatedFinishTime = currentTime + next.getRemainingLength(virtualProgress) / capacity;
+		if (estimatedFinishTime - currentTime < getSimulation().getMinTimeBetweenEvents()) {
+			estimatedFinishTime = currentTime + getSimulation().getMinTimeBetweenEvents();
+		}
+		return estimatedFinishTime;
+	}
+
+	/**
+	 * Finishes the due cloudlets and removes them from the exec list, in a single pass.
+	 */
+	private void finishDueCloudlets() {
+		List<QueuedCloudlet> execList = getCloudletExecList();
+		int size = execList.size();
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			QueuedCloudlet rcl = execList.get(i);
+			if (rcl.due) {
+				rcl.due = false;
+				rcl.synchronize(virtualProgress);
+				releasePes(rcl);
+				cloudletFinish(rcl);
+			} else {
+				execList.set(kept++, rcl);
+			}
+		}
+		while (size > kept) {
+			execList.remove(--size);
+		}
+	}
+
+	/**
+	 * Cancels execution of a cloudlet.
+	 *
+	 * @param cloudletId ID of the cloudlet being cancealed
+	 * @return the canceled cloudlet, $null if not found
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public Cloudlet cloudletCancel(int cloudletId) {
+		// First, looks in the finished queue
+		for (ResCloudlet rcl : getCloudletFinishedList()) {
+			if (rcl.getCloudletId() == cloudletId) {
+				getCloudletFinishedList().remove(rcl);
+				return rcl.getCloudlet();
+			}
+		}
+
+		QueuedCloudlet rcl = cloudlets.remove(cloudletId);
+		if (rcl == null) {
+			return null;
+		}
+		switch (rcl.getCloudletStatus()) {
+			case Cloudlet.INEXEC:
+				removeFromExecution(rcl);
+				if (rcl.getRemainingCloudletLength() == 0) {
+					cloudletFinish(rcl);
+				} else {
+					rcl.setCloudletStatus(Cloudlet.CANCELED);
+				}
+				break;
+			case Cloudlet.PAUSED:
+				getCloudletPausedList().remove(rcl);
+				break;
+			default:
+				readyQueue.remove(rcl);
+				rcl.setCloudletStatus(Cloudlet.CANCELED);
+				break;
+		}
+		return rcl.getCloudlet();
+	}
+
+	/**
+	 * Pauses execution of a cloudlet.
+	 *
+	 * @param cloudletId ID of the cloudlet being paused
+	 * @return $true if cloudlet paused, $false otherwise
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public boolean cloudletPause(int cloudletId) {
+		QueuedCloudlet rcl = cloudlets.get(cloudletId);
+		if (rcl == null || rcl.getCloudletStatus() == Cloudlet.PAUSED) {
+			return false;
+		}
+
+		if (rcl.getCloudletStatus() == Cloudlet.INEXEC) {
+			removeFromExecution(rcl);
+		} else {
+			readyQueue.remove(rcl);
+		}
+
+		// moves to the paused list
+		if (rcl.getRemainingCloudletLength() == 0) {
+			cloudletFinish(rcl);
+		} else {
+			rcl.setCloudletStatus(Cloudlet.PAUSED);
+			getCloudletPausedList().add(rcl);
+		}
+		return true;
+	}
+
+	/**
+	 * Processes a finished cloudlet.
+	 *
+	 * @param rcl finished cloudlet
+	 * @pre rgl != $null
+	 * @post $none
+	 */
+	@Override
+	public void cloudletFinish(ResCloudlet rcl) {
+		rcl.setCloudletStatus(Cloudlet.SUCCESS);
+		rcl.finalizeCloudlet();
+		getCloudletFinishedList().add(rcl);
+		cloudlets.remove(rcl.getCloudletId());
+	}
+
+	/**
+	 * Resumes execution of a paused cloudlet. The cloudlet goes back to its place in the ready
+	 * queue.
+	 *
+	 * @param cloudletId ID of the cloudlet being resumed
+	 * @return expected finish time of the cloudlet, 0.0 if queued
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public double cloudletResume(int cloudletId) {
+		QueuedCloudlet rcl = cloudlets.get(cloudletId);
+		if (rcl == null || rcl.getCloudletStatus() != Cloudlet.PAUSED) {
+			return 0.0;
+		}
+
+		getCloudletPausedList().remove(rcl);
+		rcl.setCloudletStatus(Cloudlet.QUEUED);
+		readyQueue.add(rcl);
+		startCloudlets();
+
+		if (rcl.getCloudletStatus() != Cloudlet.INEXEC) {
+			return 0.0;
+		}
+		return getSimulation().clock() + rcl.getRemainingLength(virtualProgress) / capacity;
+	}
+
+	/**
+	 * Receives an cloudlet to be executed in the VM managed by this scheduler.
+	 *
+	 * @param cloudlet the submited cloudlet
+	 * @param fileTransferTime time required to move the required files from the SAN to the VM
+	 * @return expected finish time of this cloudlet, or 0 if it is in the waiting queue
+	 * @pre gl != null
+	 * @post $none
+	 */
+	@Override
+	public double cloudletSubmit(Cloudlet cloudlet, double fileTransferTime) {
+		QueuedCloudlet rcl = new QueuedCloudlet(cloudlet);
+		rcl.sequence = submitted++;
+		rcl.setCloudletStatus(Cloudlet.QUEUED);
+		cloudlets.put(cloudlet.getCloudletId(), rcl);
+		readyQueue.add(rcl);
+
+		if (getCurrentMipsShare() != null) {
+			updateCapacity();
+		}
+		startCloudlets();
+
+		if (rcl.getCloudletStatus() != Cloudlet.INEXEC) {
+			return 0.0;
+		}
+
+		// the file transfer happens while the cloudlet waits, so only a cloudlet that starts at once
+		// has the extra amount of time to file transferring added to its length, and to the
+		// estimate that bounds the reservation of the head of the ready queue
+		long extraSize = (long) (capacity * fileTransferTime);
+		if (extraSize > 0) {
+			finishQueue.remove(rcl);
+			cloudlet.setCloudletLength(cloudlet.getCloudletLength() + extraSize);
+			rcl.finishTag += extraSize;
+			rcl.estimatedTag += extraSize;
+			finishQueue.add(rcl);
+		}
+		return cloudlet.getCloudletLength() / capacity;
+	}
+
+	/**
+	 * Gets the status of a cloudlet.
+	 *
+	 * @param cloudletId ID of the cloudlet
+	 * @return status of the cloudlet, -1 if cloudlet not found
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public int getCloudletStatus(int cloudletId) {
+		QueuedCloudlet rcl = cloudlets.get(cloudletId);
+		if (rcl == null) {
+			return -1;
+		}
+		return rcl.getCloudletStatus();
+	}
+
+	/**
+	 * Returns one cloudlet to migrate to another vm.
+	 *
+	 * @return one running cloudlet
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public Cloudlet migrateCloudlet() {
+		QueuedCloudlet rcl = this.<QueuedCloudlet> getCloudletExecList().get(0);
+		removeFromExecution(rcl);
+		cloudlets.remove(rcl.getCloudletId());
+		rcl.finalizeCloudlet();
+		return rcl.getCloudlet();
+	}
+
+	/**
+	 * Gets the number of cloudlets in the ready queue.
+	 *
+	 * @return the number of waiting cloudlets
+	 */
+	public int getWaitingCloudlets() {
+		return readyQueue.size();
+	}
+
+	/**
+	 * Updates the capacity of each PE and the free list of PEs from the current MIPS share.
+	 */
+	private void updateCapacity() {
+		MipsShare share = getCurrentMipsShareValue();
+		int cpus = share.getActivePes();
+		capacity = cpus > 0 ? share.getTotal() / cpus : 0.0; // average capacity of each cpu
+		if (cpus == currentCpus) {
+			return;
+		}
+
+		currentCpus = cpus;
+		if (busyPes.length < cpus) {
+			busyPes = Arrays.copyOf(busyPes, cpus);
+			freePes = new int[cpus];
+		}
+		freePeCount = 0;
+		for (int pe = cpus - 1; pe >= 0; pe--) {
+			if (!busyPes[pe]) {
+				freePes[freePeCount++] = pe;
+			}
+		}
+	}
+
+	/**
+	 * Starts the cloudlets at the head of the ready queue while there are enough free PEs for them,
+	 * and then, with backfilling, the cloudlets behind the head that do not delay it.
+	 */
+	private void startCloudlets() {
+		if (currentCpus == 0) {
+			return;
+		}
+		QueuedCloudlet head = nextStartable();
+		while (head != null && head.getNumberOfPes() <= freePeCount) {
+			readyQueue.remove(head);
+			start(head);
+			head = nextStartable();
+		}
+		if (backfilling && head != null && freePeCount > 0) {
+			backfill(head);
+		}
+	}
+
+	/**
+	 * Gets the first cloudlet of the ready queue that the VM has enough PEs for. The cloudlets that
+	 * need more PEs than the VM has wait without blocking the others.
+	 *
+	 * @return the cloudlet, or null if there is none
+	 */
+	private QueuedCloudlet nextStartable() {
+		for (QueuedCloudlet rcl : readyQueue) {
+			if (rcl.getNumberOfPes() <= currentCpus) {
+				return rcl;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Starts the cloudlets behind the head of the ready queue that fit in the free PEs and do not
+	 * delay the reservation of the head, as the EASY backfilling policy does.
+	 *
+	 * @param head the head of the ready queue, which does not fit in the free PEs
+	 */
+	private void backfill(QueuedCloudlet head) {
+		// the reservation: when the cloudlets in execution are expected to free enough PEs
+		List<QueuedCloudlet> execList = getCloudletExecList();
+		double[] releaseTags = new double[execList.size()];
+		for (int i = 0; i < releaseTags.length; i++) {
+			releaseTags[i] = Math.max(execList.get(i).estimatedTag, virtualProgress);
+		}
+		QueuedCloudlet[] releasing = execList.toArray(new QueuedCloudlet[execList.size()]);
+		sortByTag(releasing, releaseTags);
+
+		double shadowTag = Double.MAX_VALUE;
+		int extraPes = 0;
+		int available = freePeCount;
+		for (int i = 0; i < releasing.length; i++) {
+			available += releasing[i].getNumberOfPes();
+			if (available >= head.getNumberOfPes()) {
+				shadowTag = releaseTags[i];
+				extraPes = available - head.getNumberOfPes();
+				break;
+			}
+		}
+
+		Iterator<QueuedCloudlet> iterator = readyQueue.tailSet(head, false).iterator();
+		while (freePeCount > 0 && iterator.hasNext()) {
+			QueuedCloudlet rcl = iterator.next();
+			int pes = rcl.getNumberOfPes();
+			if (pes > freePeCount) {
+				continue;
+			}
+			if (virtualProgress + rcl.getEstimatedLength() <= shadowTag) {
+				iterator.remove();
+				start(rcl);
+			} else if (pes <= extraPes) {
+				iterator.remove();
+				start(rcl);
+				extraPes -= pes;
+			}
+		}
+	}
+
+	/**
+	 * Sorts the cloudlets by the tags at which they are expected to free their PEs.
+	 *
+	 * @param rcls the cloudlets
+	 * @param tags the tags of the cloudlets, sorted with them
+	 */
+	private static void sortByTag(QueuedCloudlet[] rcls, double[] tags) {
+		// there are at most as many cloudlets in execution as PEs
+		for (int i = 1; i < rcls.length; i++) {
+			QueuedCloudlet rcl = rcls[i];
+			double tag = tags[i];
+			int j = i - 1;
+			for (; j >= 0 && tags[j] > tag; j--) {
+				rcls[j + 1] = rcls[j];
+				tags[j + 1] = tags[j];
+			}
+			rcls[j + 1] = rcl;
+			tags[j + 1] = tag;
+		}
+	}
+
+	/**
+	 * Starts a cloudlet on PEs of the free list.
+	 *
+	 * @param rcl the cloudlet
+	 */
+	private void start(QueuedCloudlet rcl) {
+		rcl.setCloudletStatus(Cloudlet.INEXEC);
+		int pes = rcl.getNumberOfPes();
+		rcl.pes = new int[pes];
+		for (int i = 0; i < pes; i++) {
+			int pe = freePes[--freePeCount];
+			busyPes[pe] = true;
+			rcl.pes[i] = pe;
+			rcl.setMachineAndPeId(0, pe);
+		}
+		usedPes += pes;
+
+		double remaining = (double) rcl.getRemainingCloudletLength() / pes;
+		double estimated = remaining;
+		long requested = rcl.getCloudlet().getRequestedLength();
+		if (requested > 0) {
+			// the requested length is for a PE, as the cloudlet length, some of which may have run
+			// already
+			estimated = Math.max(0.0, requested - (rcl.getCloudletLength() - remaining));
+		}
+		rcl.synchronizedProgress = virtualProgress;
+		rcl.finishTag = virtualProgress + remaining;
+		rcl.estimatedTag = virtualProgress + estimated;
+
+		getCloudletExecList().add(rcl);
+		finishQueue.add(rcl);
+	}
+
+	/**
+	 * Takes a cloudlet out of execution, with its progress up to date, and frees its PEs.
+	 *
+	 * @param rcl the cloudlet
+	 */
+	private void removeFromExecution(QueuedCloudlet rcl) {
+		getCloudletExecList().remove(rcl);
+		finishQueue.remove(rcl);
+		rcl.synchronize(virtualProgress);
+		releasePes(rcl);
+	}
+
+	/**
+	 * Returns the PEs of a cloudlet to the free list.
+	 *
+	 * @param rcl the cloudlet
+	 */
+	private void releasePes(QueuedCloudlet rcl) {
+		for (int pe : rcl.pes) {
+			busyPes[pe] = false;
+			if (pe < currentCpus) {
+				freePes[freePeCount++] = pe;
+			}
+		}
+		usedPes -= rcl.pes.length;
+		rcl.pes = null;
+	}
+
+	/**
+	 * A cloudlet in the scheduler, with its place in the queues.
+	 */
+	private static final class QueuedCloudlet extends ResCloudlet {
+
+		/** The order in which the cloudlet was submitted. */
+		private long sequence;
+
+		/** The virtual progress at which the cloudlet completes, while in execution. */
+		private double finishTag;
+
+		/** The virtual progress at which the cloudlet is expected to complete, while in execution. */
+		private double estimatedTag;
+
+		/** The virtual progress up to which the progress of the cloudlet has been counted. */
+		private double synchronizedProgress;
+
+		/** The PEs of the cloudlet, while in execution. */
+		private int[] pes;
+
+		/** Whether the cloudlet has to be finished by the current update. */
+		private boolean due;
+
+		/**
+		 * Instantiates a new cloudlet of the scheduler.
+		 *
+		 * @param cloudlet the cloudlet
+		 */
+		QueuedCloudlet(Cloudlet cloudlet) {
+			super(cloudlet);
+		}
+
+		/**
+		 * Gets the length of the cloudlet for a PE that it is expected to have, before it starts.
+		 *
+		 * @return the requested length, or the remaining length if there is none
+		 */
+		double getEstimatedLength() {
+			long requested = getCloudlet().getRequestedLength();
+			if (requested > 0) {
+				return requested;
+			}
+			return (double) getRemainingCloudletLength() / getNumberOfPes();
+		}
+
+		/**
+		 * Gets the remaining length of a PE of the cloudlet at a virtual progress, in whole MI as
+		 * {@link ResCloudlet#getRemainingCloudletLength()} counts them for all the PEs.
+		 *
+		 * @param virtualProgress the virtual progress
+		 * @return the remaining length for a PE in MI
+		 */
+		double getRemainingLength(double virtualProgress) {
+			if (virtualProgress >= finishTag) {
+				return 0;
+			}
+			long instructions = Math.round((finishTag - virtualProgress) * getNumberOfPes() * Consts.MILLION);
+			return (double) (instructions / Consts.MILLION) / getNumberOfPes();
+		}
+
+		/**
+		 * Checks whether the cloudlet is finished at a virtual progress, that is whether less than
+		 * one MI is left.
+		 *
+		 * @param virtualProgress the virtual progress
+		 * @return true, if the cloudlet is finished
+		 */
+		boolean isDue(double virtualProgress) {
+			return getRemainingLength(virtualProgress) == 0;
+		}
+
+		/**
+		 * Counts the progress of the cloudlet up to a virtual progress.
+		 *
+		 * @param virtualProgress the virtual progress
+		 */
+		void synchronize(double virtualProgress) {
+			updateCloudletFinishedSoFar((long) ((virtualProgress - synchronizedProgress) * getNumberOfPes() * Consts.MILLION));
+			synchronizedProgress = virtualProgress;
+		}
+
+	}
+
+}
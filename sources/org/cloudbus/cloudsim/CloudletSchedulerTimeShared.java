@@ -10,8 +10,6 @@ package org.cloudbus.cloudsim;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.cloudbus.cloudsim.core.CloudSim;
-
 /**
  * CloudletSchedulerTimeShared implements a policy of scheduling performed by a virtual machine.
  * Cloudlets execute time-shared in VM.
@@ -64,8 +62,10 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 		setCurrentMipsShare(mipsShare);
 		double timeSpam = currentTime - getPreviousTime();
 
+		// the capacity only changes when the cloudlets in execution change
+		double capacity = getCapacity(getCurrentMipsShare());
 		for (ResCloudlet rcl : getCloudletExecList()) {
-			rcl.updateCloudletFinishedSoFar((long) (getCapacity(mipsShare) * timeSpam * rcl.getNumberOfPes() * Consts.MILLION));
+			rcl.updateCloudletFinishedSoFar((long) (capacity * timeSpam * rcl.getNumberOfPes() * Consts.MILLION));
 		}
 
 		if (getCloudletExecList().size() == 0) {
@@ -87,11 +87,12 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 		getCloudletExecList().removeAll(toRemove);
 
 		// estimate finish time of cloudlets
+		capacity = getCapacity(getCurrentMipsShare());
 		for (ResCloudlet rcl : getCloudletExecList()) {
 			double estimatedFinishTime = currentTime
-					+ (rcl.getRemainingCloudletLength() / (getCapacity(mipsShare) * rcl.getNumberOfPes()));
-			if (estimatedFinishTime - currentTime < CloudSim.getMinTimeBetweenEvents()) {
-				estimatedFinishTime = currentTime + CloudSim.getMinTimeBetweenEvents();
+					+ (rcl.getRemainingCloudletLength() / (capacity * rcl.getNumberOfPes()));
+			if (estimatedFinishTime - currentTime < getSimulation().getMinTimeBetweenEvents()) {
+				estimatedFinishTime = currentTime + getSimulation().getMinTimeBetweenEvents();
 			}
 
 			if (estimatedFinishTime < nextEvent) {
@@ -110,15 +111,9 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	 * @return the capacity
 	 */
 	protected double getCapacity(List<Double> mipsShare) {
-		double capacity = 0.0;
-		int cpus = 0;
-		for (Double mips : mipsShare) {
-			capacity += mips;
-			if (mips > 0.0) {
-				cpus++;
-			}
-		}
-		currentCPUs = cpus;
+		MipsShare share = MipsShare.of(mipsShare);
+		double capacity = share.getTotal();
+		currentCPUs = share.getActivePes();
 
 		int pesInUse = 0;
 		for (ResCloudlet rcl : getCloudletExecList()) {
@@ -279,7 +274,7 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 			// first: how many PEs do we have?
 
 			double remainingLength = rgl.getRemainingCloudletLength();
-			double estimatedFinishTime = CloudSim.clock()
+			double estimatedFinishTime = getSimulation().clock()
 					+ (remainingLength / (getCapacity(getCurrentMipsShare()) * rgl.getNumberOfPes()));
 
 			return estimatedFinishTime;
@@ -363,6 +358,19 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 		return totalUtilization;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.CloudletScheduler#getSteadyUntil(double)
+	 */
+	@Override
+	public double getSteadyUntil(double time) {
+		double steadyUntil = Double.MAX_VALUE;
+		for (ResCloudlet rcl : getCloudletExecList()) {
+			steadyUntil = Math.min(steadyUntil, rcl.getCloudlet().getUtilizationSteadyUntil(time));
+		}
+		return steadyUntil;
+	}
+
 	/* ---------------------------------------------------------- */
 	/**
 	 * Get utilization created by all cloudlets.
@@ -556,7 +564,7 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	public double getCurrentRequestedUtilizationOfRam() {
 		double ram = 0;
 		for (ResCloudlet cloudlet : cloudletExecList) {
-			ram += cloudlet.getCloudlet().getUtilizationOfRam(CloudSim.clock());
+			ram += cloudlet.getCloudlet().getUtilizationOfRam(getSimulation().clock());
 		}
 		return ram;
 	}
@@ -565,7 +573,7 @@ public class CloudletSchedulerTimeShared extends CloudletScheduler {
 	public double getCurrentRequestedUtilizationOfBw() {
 		double bw = 0;
 		for (ResCloudlet cloudlet : cloudletExecList) {
-			bw += cloudlet.getCloudlet().getUtilizationOfBw(CloudSim.clock());
+			bw += cloudlet.getCloudlet().getUtilizationOfBw(getSimulation().clock());
 		}
 		return bw;
 	}
@@ -0,0 +1,397 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A time-shared cloudlet scheduler that updates the cloudlets analytically. Since all the cloudlets
+ * of a time-shared VM get the same MIPS per PE, the scheduler keeps a single virtual progress, the
+ * MI executed so far by a PE of any cloudlet, and gives each cloudlet a finish tag: the virtual
+ * progress at which it completes. The cloudlets are kept in a queue ordered by finish tag, so that
+ * an update advances the virtual progress, completes the due cloudlets from the head of the queue
+ * and takes the next event from the new head, instead of updating, checking and estimating every
+ * cloudlet. The number of PEs in use is kept as a counter, so the capacity is computed in constant
+ * time.
+ * <p>
+ * The output of the scheduler is identical to that of {@link CloudletSchedulerTimeShared}: the
+ * remaining length of a cloudlet is counted in whole MI, as
+ * {@link ResCloudlet#getRemainingCloudletLength()} counts it, so the cloudlets finish and the next
+ * events are estimated at the same times. The progress of the cloudlets in {@link ResCloudlet} is
+ * brought up to date only when a cloudlet is paused, canceled, migrated or finished. Subclasses
+ * must not modify the cloudlet lists directly.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class CloudletSchedulerTimeSharedAnalytic extends CloudletSchedulerTimeShared {
+
+	/** The cloudlets in execution, by finish tag. */
+	private final PriorityQueue<TimeSharedCloudlet> finishQueue;
+
+	/** The MI executed so far by a PE of any cloudlet in execution. */
+	private double virtualProgress;
+
+	/** The number of PEs used by the cloudlets in execution. */
+	private int pesInUse;
+
+	/** The number of cloudlets admitted, used to order the cloudlets with the same finish tag. */
+	private long admitted;
+
+	/**
+	 * Creates a new CloudletSchedulerTimeSharedAnalytic object. This method must be invoked before
+	 * starting the actual simulation.
+	 *
+	 * @pre $none
+	 * @post $none
+	 */
+	public CloudletSchedulerTimeSharedAnalytic() {
+		super();
+		finishQueue = new PriorityQueue<TimeSharedCloudlet>(11, new Comparator<TimeSharedCloudlet>() {
+
+			@Override
+			public int compare(TimeSharedCloudlet a, TimeSharedCloudlet b) {
+				int result = Double.compare(a.finishTag, b.finishTag);
+				if (result == 0) {
+					result = a.sequence < b.sequence ? -1 : a.sequence == b.sequence ? 0 : 1;
+				}
+				return result;
+			}
+
+		});
+	}
+
+	/**
+	 * Updates the processing of cloudlets running under management of this scheduler.
+	 *
+	 * @param currentTime current simulation time
+	 * @param mipsShare array with MIPS share of each processor available to the scheduler
+	 * @return time predicted completion time of the earliest finishing cloudlet, or 0 if there is
+	 *         no next events
+	 * @pre currentTime >= 0
+	 * @post $none
+	 */
+	@Override
+	public double updateVmProcessing(double currentTime, List<Double> mipsShare) {
+		setCurrentMipsShare(mipsShare);
+		double timeSpam = currentTime - getPreviousTime();
+		setPreviousTime(currentTime);
+
+		if (finishQueue.isEmpty()) {
+			return 0.0;
+		}
+
+		virtualProgress += getCapacity(getCurrentMipsShare()) * timeSpam;
+
+		// mark the due cloudlets, then finish them in a single pass in the order of the exec list
+		int due = 0;
+		while (!finishQueue.isEmpty() && finishQueue.peek().isDue(virtualProgress)) {
+			TimeSharedCloudlet rcl = finishQueue.poll();
+			rcl.due = true;
+			pesInUse -= rcl.getNumberOfPes();
+			due++;
+		}
+		if (due > 0) {
+			finishDueCloudlets();
+		}
+
+		if (finishQueue.isEmpty()) {
+			// start again from zero, so that the virtual progress does not lose precision
+			virtualProgress = 0;
+			return 0.0;
+		}
+
+		// the head of the queue is the earliest finishing cloudlet, as all get the same MIPS per PE
+		TimeSharedCloudlet next = finishQueue.peek();
+		long remainingLength = next.getRemainingLength(virtualProgress);
+		double estimatedFinishTime = currentTime
+				+ remainingLength / (getCapacity(getCurrentMipsShare()) * next.getNumberOfPes());
+		if (estimatedFinishTime - currentTime < getSimulation().getMinTimeBetweenEvents()) {
+			estimatedFinishTime = currentTime + getSimulation().getMinTimeBetweenEvents();
+		}
+		return estimatedFinishTime;
+	}
+
+	/**
+	 * Finishes the due cloudlets and removes them from the exec list, in a single pass.
+	 */
+	private void finishDueCloudlets() {
+		List<TimeSharedCloudlet> execList = getCloudletExecList();
+		int size = execList.size();
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			TimeSharedCloudlet rcl = execList.get(i);
+			if (rcl.due) {
+				rcl.due = false;
+				rcl.synchronize(virtualProgress);
+				cloudletFinish(rcl);
+			} else {
+				execList.set(kept++, rcl);
+			}
+		}
+		while (size > kept) {
+			execList.remove(--size);
+		}
+	}
+
+	/**
+	 * Gets the capacity, from the number of PEs in use kept by the scheduler.
+	 *
+	 * @param mipsShare the mips share
+	 * @return the capacity
+	 */
+	@Override
+	protected double getCapacity(List<Double> mipsShare) {
+		MipsShare share = MipsShare.of(mipsShare);
+		currentCPUs = share.getActivePes();
+		if (pesInUse > currentCPUs) {
+			return share.getTotal() / pesInUse;
+		}
+		return share.getTotal() / currentCPUs;
+	}
+
+	/**
+	 * Cancels execution of a cloudlet.
+	 *
+	 * @param cloudletId ID of the cloudlet being cancealed
+	 * @return the canceled cloudlet, $null if not found
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public Cloudlet cloudletCancel(int cloudletId) {
+		int position = indexOf(getCloudletFinishedList(), cloudletId);
+		if (position >= 0) {
+			return getCloudletFinishedList().remove(position).getCloudlet();
+		}
+
+		position = indexOf(getCloudletExecList(), cloudletId);
+		if (position >= 0) {
+			TimeSharedCloudlet rcl = removeFromExecution(position);
+			if (rcl.getRemainingCloudletLength() == 0) {
+				cloudletFinish(rcl);
+			} else {
+				rcl.setCloudletStatus(Cloudlet.CANCELED);
+			}
+			return rcl.getCloudlet();
+		}
+
+		position = indexOf(getCloudletPausedList(), cloudletId);
+		if (position >= 0) {
+			ResCloudlet rcl = getCloudletPausedList().remove(position);
+			rcl.setCloudletStatus(Cloudlet.CANCELED);
+			return rcl.getCloudlet();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Pauses execution of a cloudlet.
+	 *
+	 * @param cloudletId ID of the cloudlet being paused
+	 * @return $true if cloudlet paused, $false otherwise
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public boolean cloudletPause(int cloudletId) {
+		int position = indexOf(getCloudletExecList(), cloudletId);
+		if (position < 0) {
+			return false;
+		}
+
+		// remove cloudlet from the exec list and put it in the paused list
+		TimeSharedCloudlet rcl = removeFromExecution(position);
+		if (rcl.getRemainingCloudletLength() == 0) {
+			cloudletFinish(rcl);
+		} else {
+			rcl.setCloudletStatus(Cloudlet.PAUSED);
+			getCloudletPausedList().add(rcl);
+		}
+		return true;
+	}
+
+	/**
+	 * Resumes execution of a paused cloudlet.
+	 *
+	 * @param cloudletId ID of the cloudlet being resumed
+	 * @return expected finish time of the cloudlet, 0.0 if queued
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public double cloudletResume(int cloudletId) {
+		int position = indexOf(getCloudletPausedList(), cloudletId);
+		if (position < 0) {
+			return 0.0;
+		}
+
+		TimeSharedCloudlet rcl = this.<TimeSharedCloudlet> getCloudletPausedList().remove(position);
+		rcl.setCloudletStatus(Cloudlet.INEXEC);
+		addToExecution(rcl);
+
+		return getSimulation().clock()
+				+ rcl.getRemainingCloudletLength() / (getCapacity(getCurrentMipsShare()) * rcl.getNumberOfPes());
+	}
+
+	/**
+	 * Receives an cloudlet to be executed in the VM managed by this scheduler.
+	 *
+	 * @param cloudlet the submited cloudlet
+	 * @param fileTransferTime time required to move the required files from the SAN to the VM
+	 * @return expected finish time of this cloudlet
+	 * @pre gl != null
+	 * @post $none
+	 */
+	@Override
+	public double cloudletSubmit(Cloudlet cloudlet, double fileTransferTime) {
+		TimeSharedCloudlet rcl = new TimeSharedCloudlet(cloudlet);
+		rcl.setCloudletStatus(Cloudlet.INEXEC);
+		for (int i = 0; i < cloudlet.getNumberOfPes(); i++) {
+			rcl.setMachineAndPeId(0, i);
+		}
+
+		// use the capacity with the new cloudlet to estimate the extra amount of time to file
+		// transferring. It must be added to the cloudlet length before the finish tag is computed
+		pesInUse += rcl.getNumberOfPes();
+		double capacity = getCapacity(getCurrentMipsShare());
+		pesInUse -= rcl.getNumberOfPes();
+		long length = (long) (cloudlet.getCloudletLength() + capacity * fileTransferTime);
+		cloudlet.setCloudletLength(length);
+
+		addToExecution(rcl);
+
+		return cloudlet.getCloudletLength() / capacity;
+	}
+
+	/**
+	 * Returns one cloudlet to migrate to another vm.
+	 *
+	 * @return one running cloudlet
+	 * @pre $none
+	 * @post $none
+	 */
+	@Override
+	public Cloudlet migrateCloudlet() {
+		TimeSharedCloudlet rcl = removeFromExecution(0);
+		rcl.finalizeCloudlet();
+		return rcl.getCloudlet();
+	}
+
+	/**
+	 * Puts a cloudlet in execution, with the finish tag of its remaining length.
+	 *
+	 * @param rcl the cloudlet
+	 */
+	private void addToExecution(TimeSharedCloudlet rcl) {
+		rcl.synchronizedProgress = virtualProgress;
+		rcl.finishTag = virtualProgress + (double) rcl.getRemainingCloudletLength() / rcl.getNumberOfPes();
+		rcl.sequence = admitted++;
+		getCloudletExecList().add(rcl);
+		finishQueue.add(rcl);
+		pesInUse += rcl.getNumberOfPes();
+	}
+
+	/**
+	 * Takes a cloudlet out of execution, with its progress up to date.
+	 *
+	 * @param position the position of the cloudlet in the exec list
+	 * @return the cloudlet
+	 */
+	private TimeSharedCloudlet removeFromExecution(int position) {
+		TimeSharedCloudlet rcl = this.<TimeSharedCloudlet> getCloudletExecList().remove(position);
+		finishQueue.remove(rcl);
+		pesInUse -= rcl.getNumberOfPes();
+		rcl.synchronize(virtualProgress);
+		return rcl;
+	}
+
+	/**
+	 * Gets the position of a cloudlet in a list.
+	 *
+	 * @param list the list
+	 * @param cloudletId the id of the cloudlet
+	 * @return the position, or -1 if the cloudlet is not in the list
+	 */
+	private static int indexOf(List<? extends ResCloudlet> list, int cloudletId) {
+		for (int i = 0; i < list.size(); i++) {
+			if (list.get(i).getCloudletId() == cloudletId) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * A cloudlet in the scheduler, with its finish tag.
+	 */
+	private static final class TimeSharedCloudlet extends ResCloudlet {
+
+		/** The virtual progress at which the cloudlet completes. */
+		private double finishTag;
+
+		/** The virtual progress up to which the progress of the cloudlet has been counted. */
+		private double synchronizedProgress;
+
+		/** The order in which the cloudlet was put in execution. */
+		private long sequence;
+
+		/** Whether the cloudlet has to be finished by the current update. */
+		private boolean due;
+
+		/**
+		 * Instantiates a new cloudlet of the scheduler.
+		 *
+		 * @param cloudlet the cloudlet
+		 */
+		TimeSharedCloudlet(Cloudlet cloudlet) {
+			super(cloudlet);
+		}
+
+		/**
+		 * Gets the remaining length of the cloudlet at a virtual progress, in whole MI as
+		 * {@link ResCloudlet#getRemainingCloudletLength()} counts it. The instructions are rounded
+		 * first, so that the rounding errors of the virtual progress do not lose an MI.
+		 *
+		 * @param virtualProgress the virtual progress
+		 * @return the remaining length in MI
+		 */
+		long getRemainingLength(double virtualProgress) {
+			if (virtualProgress >= finishTag) {
+				return 0;
+			}
+			return Math.round((finishTag - virtualProgress) * getNumberOfPes() * Consts.MILLION) / Consts.MILLION;
+		}
+
+		/**
+		 * Checks whether the cloudlet is finished at a virtual progress, that is whether less than
+		 * one MI is left.
+		 *
+		 * @param virtualProgress the virtual progress
+		 * @return true, if the cloudlet is finished
+		 */
+		boolean isDue(double virtualProgress) {
+			return getRemainingLength(virtualProgress) == 0;
+		}
+
+		/**
+		 * Counts the progress of the cloudlet up to a virtual progress.
+		 *
+		 * @param virtualProgress the virtual progress
+		 */
+		void synchronize(double virtualProgress) {
+			updateCloudletFinishedSoFar((long) ((virtualProgress - synchronizedProgress) * getNumberOfPes() * Consts.MILLION));
+			synchronizedProgress = virtualProgress;
+		}
+
+	}
+
+}
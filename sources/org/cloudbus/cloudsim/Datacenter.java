@@ -8,6 +8,7 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -17,6 +18,7 @@ import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.lists.VmList;
 
 /**
  * Datacenter class is a CloudResource whose hostList are virtualized. It deals with processing of
@@ -52,6 +54,9 @@ public class Datacenter extends SimEntity {
 	/** The scheduling interval. */
 	private double schedulingInterval;
 
+	/** The completion times of the hosts, or null if all the hosts are updated in each update. */
+	private HostCompletionIndex completionIndex;
+
 	/**
 	 * Allocates a new PowerDatacenter object.
 	 * 
@@ -84,7 +89,7 @@ public class Datacenter extends SimEntity {
 		setVmAllocationPolicy(vmAllocationPolicy);
 		setLastProcessTime(0.0);
 		setStorageList(storageList);
-		setVmList(new ArrayList<Vm>());
+		setVmList(VmList.<Vm> createIndexedList());
 		setSchedulingInterval(schedulingInterval);
 
 		for (Host host : getCharacteristics().getHostList()) {
@@ -101,6 +106,31 @@ public class Datacenter extends SimEntity {
 		getCharacteristics().setId(super.getId());
 	}
 
+	/**
+	 * Allocates a new Datacenter object that may keep an index of the predicted completion times
+	 * of the cloudlets of its hosts.
+	 * 
+	 * @param name the name to be associated with this entity
+	 * @param characteristics an object of DatacenterCharacteristics
+	 * @param vmAllocationPolicy the vmAllocationPolicy
+	 * @param storageList a LinkedList of storage elements, for data simulation
+	 * @param schedulingInterval the scheduling interval
+	 * @param completionIndex whether the data center uses a completion index
+	 * @throws Exception when the data center cannot be created, as for
+	 *             {@link #Datacenter(String, DatacenterCharacteristics, VmAllocationPolicy, List, double)}
+	 * @see #setCompletionIndex(boolean)
+	 */
+	public Datacenter(
+			String name,
+			DatacenterCharacteristics characteristics,
+			VmAllocationPolicy vmAllocationPolicy,
+			List<Storage> storageList,
+			double schedulingInterval,
+			boolean completionIndex) throws Exception {
+		this(name, characteristics, vmAllocationPolicy, storageList, schedulingInterval);
+		setCompletionIndex(completionIndex);
+	}
+
 	/**
 	 * Overrides this method when making a new and different type of resource. <br>
 	 * <b>NOTE:</b> You do not need to override {@link #body()} method, if you use this method.
@@ -317,7 +347,7 @@ public class Datacenter extends SimEntity {
 
 		/******
 		 * // DEBUG Log.printLine(super.get_name() + ".addMasterFile(): " + file.getName() +
-		 * " from " + CloudSim.getEntityName(sentFrom));
+		 * " from " + getSimulation().getEntityName(sentFrom));
 		 *******/
 
 		Object[] data = new Object[3];
@@ -429,6 +459,9 @@ public class Datacenter extends SimEntity {
 		Vm vm = (Vm) ev.getData();
 
 		boolean result = getVmAllocationPolicy().allocateHostForVm(vm);
+		if (result && completionIndex != null) {
+			completionIndex.hostChanged(vm.getHost());
+		}
 
 		if (ack) {
 			int[] data = new int[3];
@@ -440,7 +473,7 @@ public class Datacenter extends SimEntity {
 			} else {
 				data[2] = CloudSimTags.FALSE;
 			}
-			send(vm.getUserId(), CloudSim.getMinTimeBetweenEvents(), CloudSimTags.VM_CREATE_ACK, data);
+			send(vm.getUserId(), getSimulation().getMinTimeBetweenEvents(), CloudSimTags.VM_CREATE_ACK, data);
 		}
 
 		if (result) {
@@ -450,7 +483,7 @@ public class Datacenter extends SimEntity {
 				vm.setBeingInstantiated(false);
 			}
 
-			vm.updateVmProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(vm).getVmScheduler()
+			vm.updateVmProcessing(getSimulation().clock(), getVmAllocationPolicy().getHost(vm).getVmScheduler()
 					.getAllocatedMipsForVm(vm));
 		}
 
@@ -468,6 +501,7 @@ public class Datacenter extends SimEntity {
 	 */
 	protected void processVmDestroy(SimEvent ev, boolean ack) {
 		Vm vm = (Vm) ev.getData();
+		updateHostProcessing(vm.getHost());
 		getVmAllocationPolicy().deallocateHostForVm(vm);
 
 		if (ack) {
@@ -502,12 +536,14 @@ public class Datacenter extends SimEntity {
 		Vm vm = (Vm) migrate.get("vm");
 		Host host = (Host) migrate.get("host");
 
+		updateHostProcessing(vm.getHost());
+		updateHostProcessing(host);
 		getVmAllocationPolicy().deallocateHostForVm(vm);
 		host.removeMigratingInVm(vm);
 		boolean result = getVmAllocationPolicy().allocateHostForVm(vm, host);
 		if (!result) {
-			Log.printLine("[Datacenter.processVmMigrate] VM allocation to the destination host failed");
-			System.exit(0);
+			throw new IllegalStateException(
+					"[Datacenter.processVmMigrate] VM allocation to the destination host failed");
 		}
 
 		if (ack) {
@@ -524,8 +560,10 @@ public class Datacenter extends SimEntity {
 		}
 
 		Log.formatLine(
+				Log.Category.CORE,
+				Log.Level.DEBUG,
 				"%.2f: Migration of VM #%d to Host #%d is completed",
-				CloudSim.clock(),
+				getSimulation().clock(),
 				vm.getId(),
 				host.getId());
 		vm.setInMigration(false);
@@ -617,8 +655,9 @@ public class Datacenter extends SimEntity {
 		int destId = array[4];
 
 		// get the cloudlet
-		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getVm(vmId,userId)
-				.getCloudletScheduler().cloudletCancel(cloudletId);
+		Host host = getVmAllocationPolicy().getHost(vmId, userId);
+		updateHostProcessing(host);
+		Cloudlet cl = host.getVm(vmId,userId).getCloudletScheduler().cloudletCancel(cloudletId);
 
 		boolean failed = false;
 		if (cl == null) {// cloudlet doesn't exist
@@ -639,7 +678,9 @@ public class Datacenter extends SimEntity {
 
 			// the cloudlet will migrate from one vm to another does the destination VM exist?
 			if (destId == getId()) {
-				Vm vm = getVmAllocationPolicy().getHost(vmDestId, userId).getVm(vmDestId,userId);
+				Host destHost = getVmAllocationPolicy().getHost(vmDestId, userId);
+				updateHostProcessing(destHost);
+				Vm vm = destHost.getVm(vmDestId,userId);
 				if (vm == null) {
 					failed = true;
 				} else {
@@ -684,7 +725,7 @@ public class Datacenter extends SimEntity {
 
 			// checks whether this Cloudlet has finished or not
 			if (cl.isFinished()) {
-				String name = CloudSim.getEntityName(cl.getUserId());
+				String name = getSimulation().getEntityName(cl.getUserId());
 				Log.printLine(getName() + ": Warning - Cloudlet #" + cl.getCloudletId() + " owned by " + name
 						+ " is already completed/finished.");
 				Log.printLine("Therefore, it is not being executed again");
@@ -722,6 +763,7 @@ public class Datacenter extends SimEntity {
 			double fileTransferTime = predictFileTransferTime(cl.getRequiredFiles());
 
 			Host host = getVmAllocationPolicy().getHost(vmId, userId);
+			updateHostProcessing(host);
 			Vm vm = host.getVm(vmId, userId);
 			CloudletScheduler scheduler = vm.getCloudletScheduler();
 			double estimatedFinishTime = scheduler.cloudletSubmit(cl, fileTransferTime);
@@ -788,13 +830,14 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletResume(int cloudletId, int userId, int vmId, boolean ack) {
-		double eventTime = getVmAllocationPolicy().getHost(vmId, userId).getVm(vmId,userId)
-				.getCloudletScheduler().cloudletResume(cloudletId);
+		Host host = getVmAllocationPolicy().getHost(vmId, userId);
+		updateHostProcessing(host);
+		double eventTime = host.getVm(vmId,userId).getCloudletScheduler().cloudletResume(cloudletId);
 
 		boolean status = false;
 		if (eventTime > 0.0) { // if this cloudlet is in the exec queue
 			status = true;
-			if (eventTime > CloudSim.clock()) {
+			if (eventTime > getSimulation().clock()) {
 				schedule(getId(), eventTime, CloudSimTags.VM_DATACENTER_EVENT);
 			}
 		}
@@ -823,8 +866,9 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletPause(int cloudletId, int userId, int vmId, boolean ack) {
-		boolean status = getVmAllocationPolicy().getHost(vmId, userId).getVm(vmId,userId)
-				.getCloudletScheduler().cloudletPause(cloudletId);
+		Host host = getVmAllocationPolicy().getHost(vmId, userId);
+		updateHostProcessing(host);
+		boolean status = host.getVm(vmId,userId).getCloudletScheduler().cloudletPause(cloudletId);
 
 		if (ack) {
 			int[] data = new int[3];
@@ -849,8 +893,9 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void processCloudletCancel(int cloudletId, int userId, int vmId) {
-		Cloudlet cl = getVmAllocationPolicy().getHost(vmId, userId).getVm(vmId,userId)
-				.getCloudletScheduler().cloudletCancel(cloudletId);
+		Host host = getVmAllocationPolicy().getHost(vmId, userId);
+		updateHostProcessing(host);
+		Cloudlet cl = host.getVm(vmId,userId).getCloudletScheduler().cloudletCancel(cloudletId);
 		sendNow(userId, CloudSimTags.CLOUDLET_CANCEL, cl);
 	}
 
@@ -866,27 +911,38 @@ public class Datacenter extends SimEntity {
 		// if some time passed since last processing
 		// R: for term is to allow loop at simulation start. Otherwise, one initial
 		// simulation step is skipped and schedulers are not properly initialized
-		if (CloudSim.clock() < 0.111 || CloudSim.clock() > getLastProcessTime() + CloudSim.getMinTimeBetweenEvents()) {
-			List<? extends Host> list = getVmAllocationPolicy().getHostList();
+		if (getSimulation().clock() < 0.111 || getSimulation().clock() > getLastProcessTime() + getSimulation().getMinTimeBetweenEvents()) {
 			double smallerTime = Double.MAX_VALUE;
-			// for each host...
-			for (int i = 0; i < list.size(); i++) {
-				Host host = list.get(i);
-				// inform VMs to update processing
-				double time = host.updateVmsProcessing(CloudSim.clock());
-				// what time do we expect that the next cloudlet will finish?
-				if (time < smallerTime) {
-					smallerTime = time;
+			if (completionIndex != null) {
+				// only the hosts that changed or have cloudlets due
+				BitSet hosts = completionIndex.pollHostsToUpdate(getSimulation().clock()
+						+ getSimulation().getMinTimeBetweenEvents());
+				for (int i = hosts.nextSetBit(0); i >= 0; i = hosts.nextSetBit(i + 1)) {
+					double time = completionIndex.getHost(i).updateVmsProcessing(getSimulation().clock());
+					completionIndex.hostUpdated(i, time);
+				}
+				smallerTime = completionIndex.getCompletionTime();
+			} else {
+				List<? extends Host> list = getVmAllocationPolicy().getHostList();
+				// for each host...
+				for (int i = 0; i < list.size(); i++) {
+					Host host = list.get(i);
+					// inform VMs to update processing
+					double time = host.updateVmsProcessing(getSimulation().clock());
+					// what time do we expect that the next cloudlet will finish?
+					if (time < smallerTime) {
+						smallerTime = time;
+					}
 				}
 			}
 			// gurantees a minimal interval before scheduling the event
-			if (smallerTime < CloudSim.clock() + CloudSim.getMinTimeBetweenEvents() + 0.01) {
-				smallerTime = CloudSim.clock() + CloudSim.getMinTimeBetweenEvents() + 0.01;
+			if (smallerTime < getSimulation().clock() + getSimulation().getMinTimeBetweenEvents() + 0.01) {
+				smallerTime = getSimulation().clock() + getSimulation().getMinTimeBetweenEvents() + 0.01;
 			}
 			if (smallerTime != Double.MAX_VALUE) {
-				schedule(getId(), (smallerTime - CloudSim.clock()), CloudSimTags.VM_DATACENTER_EVENT);
+				schedule(getId(), (smallerTime - getSimulation().clock()), CloudSimTags.VM_DATACENTER_EVENT);
 			}
-			setLastProcessTime(CloudSim.clock());
+			setLastProcessTime(getSimulation().clock());
 		}
 	}
 
@@ -898,20 +954,92 @@ public class Datacenter extends SimEntity {
 	 * @post $none
 	 */
 	protected void checkCloudletCompletion() {
+		if (completionIndex != null) {
+			// cloudlets finish only in the hosts that have been updated
+			BitSet hosts = completionIndex.pollUpdatedHosts();
+			for (int i = hosts.nextSetBit(0); i >= 0; i = hosts.nextSetBit(i + 1)) {
+				checkCloudletCompletion(completionIndex.getHost(i));
+			}
+			return;
+		}
 		List<? extends Host> list = getVmAllocationPolicy().getHostList();
 		for (int i = 0; i < list.size(); i++) {
-			Host host = list.get(i);
-			for (Vm vm : host.getVmList()) {
-				while (vm.getCloudletScheduler().isFinishedCloudlets()) {
-					Cloudlet cl = vm.getCloudletScheduler().getNextFinishedCloudlet();
-					if (cl != null) {
-						sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
-					}
+			checkCloudletCompletion(list.get(i));
+		}
+	}
+
+	/**
+	 * Sends the finished cloudlets of the VMs of a host to their User/Broker.
+	 * 
+	 * @param host the host
+	 */
+	private void checkCloudletCompletion(Host host) {
+		for (Vm vm : host.getVmList()) {
+			while (vm.getCloudletScheduler().isFinishedCloudlets()) {
+				Cloudlet cl = vm.getCloudletScheduler().getNextFinishedCloudlet();
+				if (cl != null) {
+					sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, cl);
 				}
 			}
 		}
 	}
 
+	/**
+	 * Updates the processing of a host whose VMs or cloudlets are about to change, when the data
+	 * center uses a completion index (see {@link #setCompletionIndex(boolean)}). The host is
+	 * updated up to the current time, so that the change applies from now on, and is updated
+	 * again in the next update of the data center. Without completion index, all the hosts are
+	 * updated in each update and this method does nothing.
+	 * 
+	 * @param host the host, or null
+	 */
+	protected void updateHostProcessing(Host host) {
+		if (completionIndex == null || host == null) {
+			return;
+		}
+		completionIndex.hostUpdated(host, host.updateVmsProcessing(getSimulation().clock()));
+		completionIndex.hostChanged(host);
+	}
+
+	/**
+	 * Checks if the data center uses a completion index.
+	 * 
+	 * @return true, if the data center uses a completion index
+	 * @see #setCompletionIndex(boolean)
+	 */
+	public boolean isCompletionIndex() {
+		return completionIndex != null;
+	}
+
+	/**
+	 * Sets whether the data center keeps an index of the predicted completion times of the
+	 * cloudlets of its hosts. With the index, each update of the data center updates only the
+	 * hosts that have a cloudlet predicted to finish and the hosts whose VMs or cloudlets changed
+	 * since the previous update, instead of all the hosts; the cost of an update is then
+	 * proportional to the activity rather than to the size of the data center. The progress of
+	 * the cloudlets of a host that is not updated is accounted for when it is updated, as it
+	 * depends only on the time elapsed since its last update as long as its VMs and cloudlets do
+	 * not change.
+	 * <p>
+	 * The index only applies to hosts whose processing does not depend on the other hosts, and to
+	 * data centers that change the VMs and cloudlets of their hosts through the event processing
+	 * methods of this class. Subclasses that change them otherwise must call
+	 * {@link #updateHostProcessing(Host)} before each change. The index has to be set before the
+	 * simulation starts. The data centers that support it set it from their constructor, as the
+	 * {@link #Datacenter(String, DatacenterCharacteristics, VmAllocationPolicy, List, double, boolean)}
+	 * constructor does; the ones whose hosts depend on each other, such as the power and the network
+	 * data centers, do not.
+	 * 
+	 * @param completionIndex whether the data center uses a completion index
+	 */
+	protected void setCompletionIndex(boolean completionIndex) {
+		if (completionIndex) {
+			this.completionIndex = new HostCompletionIndex(getVmAllocationPolicy().getHostList());
+		} else {
+			this.completionIndex = null;
+		}
+	}
+
 	/**
 	 * Adds a file into the resource's storage before the experiment starts. If the file is a master
 	 * file, then it will be registered to the RC when the experiment begins.
@@ -1028,9 +1156,9 @@ public class Datacenter extends SimEntity {
 		// this resource should register to regional GIS.
 		// However, if not specified, then register to system GIS (the
 		// default CloudInformationService) entity.
-		int gisID = CloudSim.getEntityId(regionalCisName);
+		int gisID = getSimulation().getEntityId(regionalCisName);
 		if (gisID == -1) {
-			gisID = CloudSim.getCloudInfoServiceEntityId();
+			gisID = getSimulation().getCloudInfoServiceEntityId();
 		}
 
 		// send the registration to GIS
@@ -10,11 +10,11 @@ package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
@@ -82,9 +82,9 @@ public class DatacenterBroker extends SimEntity {
 	public DatacenterBroker(String name) throws Exception {
 		super(name);
 
-		setVmList(new ArrayList<Vm>());
-		setVmsCreatedList(new ArrayList<Vm>());
-		setCloudletList(new ArrayList<Cloudlet>());
+		setVmList(VmList.<Vm> createIndexedList());
+		setVmsCreatedList(VmList.<Vm> createIndexedList());
+		setCloudletList(CloudletList.<Cloudlet> createIndexedList());
 		setCloudletSubmittedList(new ArrayList<Cloudlet>());
 		setCloudletReceivedList(new ArrayList<Cloudlet>());
 
@@ -197,10 +197,10 @@ public class DatacenterBroker extends SimEntity {
 	 * @post $none
 	 */
 	protected void processResourceCharacteristicsRequest(SimEvent ev) {
-		setDatacenterIdsList(CloudSim.getCloudResourceList());
+		setDatacenterIdsList(getSimulation().getCloudResourceList());
 		setDatacenterCharacteristicsList(new HashMap<Integer, DatacenterCharacteristics>());
 
-		Log.printLine(CloudSim.clock() + ": " + getName() + ": Cloud Resource List received with "
+		Log.printLine(getSimulation().clock() + ": " + getName() + ": Cloud Resource List received with "
 				+ getDatacenterIdsList().size() + " resource(s)");
 
 		for (Integer datacenterId : getDatacenterIdsList()) {
@@ -224,12 +224,14 @@ public class DatacenterBroker extends SimEntity {
 		if (result == CloudSimTags.TRUE) {
 			getVmsToDatacentersMap().put(vmId, datacenterId);
 			getVmsCreatedList().add(VmList.getById(getVmList(), vmId));
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": VM #" + vmId
-					+ " has been created in Datacenter #" + datacenterId + ", Host #"
-					+ VmList.getById(getVmsCreatedList(), vmId).getHost().getId());
+			if (Log.isEnabled(Log.Category.CORE, Log.Level.DEBUG)) {
+				Log.printLine(getSimulation().clock() + ": " + getName() + ": VM #" + vmId
+						+ " has been created in Datacenter #" + datacenterId + ", Host #"
+						+ VmList.getById(getVmsCreatedList(), vmId).getHost().getId());
+			}
 		} else {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Creation of VM #" + vmId
-					+ " failed in Datacenter #" + datacenterId);
+			Log.printConcatLine(Log.Category.CORE, Log.Level.DEBUG, getSimulation().clock(), ": ", getName(),
+					": Creation of VM #", vmId, " failed in Datacenter #", datacenterId);
 		}
 
 		incrementVmsAcks();
@@ -252,7 +254,7 @@ public class DatacenterBroker extends SimEntity {
 				if (getVmsCreatedList().size() > 0) { // if some vm were created
 					submitCloudlets();
 				} else { // no vms created. abort
-					Log.printLine(CloudSim.clock() + ": " + getName()
+					Log.printLine(getSimulation().clock() + ": " + getName()
 							+ ": none of the required VMs could be created. Aborting");
 					finishExecution();
 				}
@@ -270,11 +272,11 @@ public class DatacenterBroker extends SimEntity {
 	protected void processCloudletReturn(SimEvent ev) {
 		Cloudlet cloudlet = (Cloudlet) ev.getData();
 		getCloudletReceivedList().add(cloudlet);
-		Log.printLine(CloudSim.clock() + ": " + getName() + ": Cloudlet " + cloudlet.getCloudletId()
-				+ " received");
+		Log.printConcatLine(Log.Category.CORE, Log.Level.DEBUG, getSimulation().clock(), ": ", getName(),
+				": Cloudlet ", cloudlet.getCloudletId(), " received");
 		cloudletsSubmitted--;
 		if (getCloudletList().size() == 0 && cloudletsSubmitted == 0) { // all cloudlets executed
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": All Cloudlets executed. Finishing...");
+			Log.printLine(getSimulation().clock() + ": " + getName() + ": All Cloudlets executed. Finishing...");
 			clearDatacenters();
 			finishExecution();
 		} else { // some cloudlets haven't finished yet
@@ -316,11 +318,11 @@ public class DatacenterBroker extends SimEntity {
 	protected void createVmsInDatacenter(int datacenterId) {
 		// send as much vms as possible for this datacenter before trying the next one
 		int requestedVms = 0;
-		String datacenterName = CloudSim.getEntityName(datacenterId);
+		String datacenterName = getSimulation().getEntityName(datacenterId);
 		for (Vm vm : getVmList()) {
 			if (!getVmsToDatacentersMap().containsKey(vm.getId())) {
-				Log.printLine(CloudSim.clock() + ": " + getName() + ": Trying to Create VM #" + vm.getId()
-						+ " in " + datacenterName);
+				Log.printConcatLine(Log.Category.CORE, Log.Level.DEBUG, getSimulation().clock(), ": ", getName(),
+						": Trying to Create VM #", vm.getId(), " in ", datacenterName);
 				sendNow(datacenterId, CloudSimTags.VM_CREATE_ACK, vm);
 				requestedVms++;
 			}
@@ -348,14 +350,15 @@ public class DatacenterBroker extends SimEntity {
 			} else { // submit to the specific vm
 				vm = VmList.getById(getVmsCreatedList(), cloudlet.getVmId());
 				if (vm == null) { // vm was not created
-					Log.printLine(CloudSim.clock() + ": " + getName() + ": Postponing execution of cloudlet "
-							+ cloudlet.getCloudletId() + ": bount VM not available");
+					Log.printConcatLine(Log.Category.CORE, Log.Level.DEBUG, getSimulation().clock(), ": ", getName(),
+							": Postponing execution of cloudlet ", cloudlet.getCloudletId(),
+							": bount VM not available");
 					continue;
 				}
 			}
 
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Sending cloudlet "
-					+ cloudlet.getCloudletId() + " to VM #" + vm.getId());
+			Log.printConcatLine(Log.Category.CORE, Log.Level.DEBUG, getSimulation().clock(), ": ", getName(),
+					": Sending cloudlet ", cloudlet.getCloudletId(), " to VM #", vm.getId());
 			cloudlet.setVmId(vm.getId());
 			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
 			cloudletsSubmitted++;
@@ -363,10 +366,8 @@ public class DatacenterBroker extends SimEntity {
 			getCloudletSubmittedList().add(cloudlet);
 		}
 
-		// remove submitted cloudlets from waiting list
-		for (Cloudlet cloudlet : getCloudletSubmittedList()) {
-			getCloudletList().remove(cloudlet);
-		}
+		// remove submitted cloudlets from waiting list, in a single pass
+		getCloudletList().removeAll(new HashSet<Cloudlet>(getCloudletSubmittedList()));
 	}
 
 	/**
@@ -377,7 +378,8 @@ public class DatacenterBroker extends SimEntity {
 	 */
 	protected void clearDatacenters() {
 		for (Vm vm : getVmsCreatedList()) {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Destroying VM #" + vm.getId());
+			Log.printConcatLine(Log.Category.CORE, Log.Level.DEBUG, getSimulation().clock(), ": ", getName(),
+					": Destroying VM #", vm.getId());
 			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.VM_DESTROY, vm);
 		}
 
@@ -11,7 +11,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
 import org.cloudbus.cloudsim.lists.PeList;
+import org.cloudbus.cloudsim.lists.VmList;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
 
@@ -42,7 +44,7 @@ public class Host {
 	private VmScheduler vmScheduler;
 
 	/** The vm list. */
-	private final List<? extends Vm> vmList = new ArrayList<Vm>();
+	private final List<? extends Vm> vmList = VmList.<Vm> createIndexedList();
 
 	/** The pe list. */
 	private List<? extends Pe> peList;
@@ -56,6 +58,45 @@ public class Host {
 	/** The datacenter where the host is placed. */
 	private Datacenter datacenter;
 
+	/** The number of changes of the VMs of the host or of their allocations. */
+	private long allocationChanges;
+
+	/** The number of changes when the potential allocated resources were computed, or -1. */
+	private long potentialAllocationComputedAt = -1;
+
+	/** The potential allocated MIPS. */
+	private double potentialAllocatedMips;
+
+	/** The potential allocated RAM. */
+	private double potentialAllocatedRam;
+
+	/** The potential allocated BW. */
+	private double potentialAllocatedBw;
+
+	/** The VM tentatively created in the host, or null. */
+	private Vm tentativeVm;
+
+	/** The RAM the VM tentatively created in the host would be allocated. */
+	private int tentativeRam;
+
+	/** The BW the VM tentatively created in the host would be allocated. */
+	private long tentativeBw;
+
+	/** The number of changes before the VM was tentatively created in the host. */
+	private long tentativeAllocationChanges;
+
+	/** The potential allocation computed before the VM was tentatively created in the host. */
+	private long savedPotentialAllocationComputedAt;
+
+	/** The potential allocated MIPS before the VM was tentatively created in the host. */
+	private double savedPotentialAllocatedMips;
+
+	/** The potential allocated RAM before the VM was tentatively created in the host. */
+	private double savedPotentialAllocatedRam;
+
+	/** The potential allocated BW before the VM was tentatively created in the host. */
+	private double savedPotentialAllocatedBw;
+
 	/**
 	 * Instantiates a new host.
 	 * 
@@ -109,43 +150,41 @@ public class Host {
 	 * Adds the migrating in vm.
 	 * 
 	 * @param vm the vm
+	 * @throws IllegalStateException if the resources of the vm cannot be allocated on the host
 	 */
 	public void addMigratingInVm(Vm vm) {
 		vm.setInMigration(true);
 
 		if (!getVmsMigratingIn().contains(vm)) {
 			if (getStorage() < vm.getSize()) {
-				Log.printLine("[VmScheduler.addMigratingInVm] Allocation of VM #" + vm.getId() + " to Host #"
-						+ getId() + " failed by storage");
-				System.exit(0);
+				throw new IllegalStateException("[VmScheduler.addMigratingInVm] Allocation of VM #"
+						+ vm.getId() + " to Host #" + getId() + " failed by storage");
 			}
 
 			if (!getRamProvisioner().allocateRamForVm(vm, vm.getCurrentRequestedRam())) {
 							
-				Log.printLine("[VmScheduler.addMigratingInVm] Allocation of VM #" + vm.getId() + " to Host #"
-						+ getId() + " failed by RAM");
-				System.exit(0);
+				throw new IllegalStateException("[VmScheduler.addMigratingInVm] Allocation of VM #"
+						+ vm.getId() + " to Host #" + getId() + " failed by RAM");
 			}
 
 			if (!getBwProvisioner().allocateBwForVm(vm, vm.getCurrentRequestedBw())) {
-				Log.printLine("[VmScheduler.addMigratingInVm] Allocation of VM #" + vm.getId() + " to Host #"
-						+ getId() + " failed by BW");
-				System.exit(0);
+				throw new IllegalStateException("[VmScheduler.addMigratingInVm] Allocation of VM #"
+						+ vm.getId() + " to Host #" + getId() + " failed by BW");
 			}
 
 			getVmScheduler().getVmsMigratingIn().add(vm.getUid());
 			if (!getVmScheduler().allocatePesForVm(vm, vm.getCurrentRequestedMips())) {
-				Log.printLine("[VmScheduler.addMigratingInVm] Allocation of VM #" + vm.getId() + " to Host #"
-						+ getId() + " failed by MIPS");
-				System.exit(0);
+				throw new IllegalStateException("[VmScheduler.addMigratingInVm] Allocation of VM #"
+						+ vm.getId() + " to Host #" + getId() + " failed by MIPS");
 			}
 
 			setStorage(getStorage() - vm.getSize());
 
 			getVmsMigratingIn().add(vm);
 			getVmList().add(vm);
-			updateVmsProcessing(CloudSim.clock());
-			vm.getHost().updateVmsProcessing(CloudSim.clock());
+			allocationChanged();
+			updateVmsProcessing(getSimulation().clock());
+			vm.getHost().updateVmsProcessing(getSimulation().clock());
 		}
 	}
 
@@ -160,6 +199,7 @@ public class Host {
 		getVmList().remove(vm);
 		getVmScheduler().getVmsMigratingIn().remove(vm.getUid());
 		vm.setInMigration(false);
+		allocationChanged();
 	}
 
 	/**
@@ -178,6 +218,27 @@ public class Host {
 			getVmScheduler().allocatePesForVm(vm, vm.getCurrentRequestedMips());
 			setStorage(getStorage() - vm.getSize());
 		}
+		allocationChanged();
+	}
+
+	/**
+	 * Allocates again to the VMs of the host the RAM and BW they currently request, in the order of
+	 * the VMs, as creating them again after {@link #vmDestroyAll()} would. The PEs allocated to the
+	 * VMs are left as they are.
+	 * 
+	 * @return $true if the VMs could be allocated the RAM and BW; $false otherwise
+	 */
+	public boolean reallocateRamAndBwForVms() {
+		getRamProvisioner().deallocateRamForAllVms();
+		getBwProvisioner().deallocateBwForAllVms();
+		allocationChanged();
+		for (Vm vm : getVmList()) {
+			if (!getRamProvisioner().allocateRamForVm(vm, vm.getCurrentRequestedRam())
+					|| !getBwProvisioner().allocateBwForVm(vm, vm.getCurrentRequestedBw())) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
@@ -203,27 +264,27 @@ public class Host {
 	 */
 	public boolean vmCreate(Vm vm) {
 		if (getStorage() < vm.getSize()) {
-			Log.printLine("[VmScheduler.vmCreate] Allocation of VM #" + vm.getId() + " to Host #" + getId()
-					+ " failed by storage");
+			Log.printConcatLine(Log.Category.CORE, Log.Level.DEBUG, "[VmScheduler.vmCreate] Allocation of VM #",
+					vm.getId(), " to Host #", getId(), " failed by storage");
 			return false;
 		}
 
 		if (!getRamProvisioner().allocateRamForVm(vm, vm.getCurrentRequestedRam())) {
-			Log.printLine("[VmScheduler.vmCreate] Allocation of VM #" + vm.getId() + " to Host #" + getId()
-					+ " failed by RAM");
+			Log.printConcatLine(Log.Category.CORE, Log.Level.DEBUG, "[VmScheduler.vmCreate] Allocation of VM #",
+					vm.getId(), " to Host #", getId(), " failed by RAM");
 			return false;
 		}
 
 		if (!getBwProvisioner().allocateBwForVm(vm, vm.getCurrentRequestedBw())) {
-			Log.printLine("[VmScheduler.vmCreate] Allocation of VM #" + vm.getId() + " to Host #" + getId()
-					+ " failed by BW");
+			Log.printConcatLine(Log.Category.CORE, Log.Level.DEBUG, "[VmScheduler.vmCreate] Allocation of VM #",
+					vm.getId(), " to Host #", getId(), " failed by BW");
 			getRamProvisioner().deallocateRamForVm(vm);
 			return false;
 		}
 
 		if (!getVmScheduler().allocatePesForVm(vm, vm.getCurrentRequestedMips())) {
-			Log.printLine("[VmScheduler.vmCreate] Allocation of VM #" + vm.getId() + " to Host #" + getId()
-					+ " failed by MIPS");
+			Log.printConcatLine(Log.Category.CORE, Log.Level.DEBUG, "[VmScheduler.vmCreate] Allocation of VM #",
+					vm.getId(), " to Host #", getId(), " failed by MIPS");
 			getRamProvisioner().deallocateRamForVm(vm);
 			getBwProvisioner().deallocateBwForVm(vm);
 			return false;
@@ -232,6 +293,7 @@ public class Host {
 		setStorage(getStorage() - vm.getSize());
 		getVmList().add(vm);
 		vm.setHost(this);
+		allocationChanged();
 		return true;
 	}
 
@@ -247,9 +309,99 @@ public class Host {
 			vmDeallocate(vm);
 			getVmList().remove(vm);
 			vm.setHost(null);
+			allocationChanged();
+		}
+	}
+
+	/**
+	 * Tentatively creates a VM in the host, to check the state of the host with the VM. The VM is
+	 * only added to the VM list of the host if {@link #vmCreate(Vm)} would succeed, which is checked
+	 * against the provisioners and the scheduler without allocating anything: the RAM and BW the VM
+	 * requests, the RAM up to the one of the VM, are only counted in the potential allocation of the
+	 * host and in {@link #getAllocatedRamForVm(Vm)}, and the VM keeps its current host. Hence checks
+	 * that read the VMs of the host see the VM, while the resources available and allocated in the
+	 * host do not change. Only one VM at a time can be tentatively created in a host;
+	 * {@link #vmDestroyTentative(Vm)} rolls it back.
+	 *
+	 * @param vm the VM
+	 * @return $true if the VM could be created in the host; $false otherwise
+	 */
+	public boolean vmCreateTentative(Vm vm) {
+		if (tentativeVm != null) {
+			throw new IllegalStateException("VM #" + tentativeVm.getId()
+					+ " is already tentatively created in host #" + getId());
+		}
+		if (getStorage() < vm.getSize()) {
+			return false;
+		}
+		if (!getRamProvisioner().isSuitableForVm(vm, vm.getCurrentRequestedRam())) {
+			return false;
+		}
+		if (!getBwProvisioner().isSuitableForVm(vm, vm.getCurrentRequestedBw())) {
+			return false;
+		}
+		if (!getVmScheduler().isSuitableForVm(vm, vm.getCurrentRequestedMips())) {
+			return false;
+		}
+		tentativeVm = vm;
+		tentativeRam = Math.min(vm.getCurrentRequestedRam(), vm.getRam());
+		tentativeBw = vm.getCurrentRequestedBw();
+		tentativeAllocationChanges = allocationChanges;
+		savedPotentialAllocationComputedAt = potentialAllocationComputedAt;
+		savedPotentialAllocatedMips = potentialAllocatedMips;
+		savedPotentialAllocatedRam = potentialAllocatedRam;
+		savedPotentialAllocatedBw = potentialAllocatedBw;
+		getVmList().add(vm);
+		allocationChanged();
+		return true;
+	}
+
+	/**
+	 * Rolls back a VM tentatively created in the host by {@link #vmCreateTentative(Vm)}. Unless the
+	 * VMs of the host or their allocations changed in the meantime, the potential allocation of the
+	 * host kept before the VM was created is restored, rather than computed again when next read.
+	 *
+	 * @param vm the VM
+	 */
+	public void vmDestroyTentative(Vm vm) {
+		if (vm != tentativeVm) {
+			throw new IllegalArgumentException("VM #" + vm.getId()
+					+ " is not tentatively created in host #" + getId());
+		}
+		tentativeVm = null;
+		int last = getVmList().size() - 1;
+		if (getVmList().get(last) == vm) {
+			getVmList().remove(last);
+		} else {
+			getVmList().remove(vm);
+		}
+		if (allocationChanges == tentativeAllocationChanges + 1) {
+			// nothing else changed since the VM was created: the host is as it was before
+			allocationChanges = tentativeAllocationChanges;
+			potentialAllocationComputedAt = savedPotentialAllocationComputedAt;
+			potentialAllocatedMips = savedPotentialAllocatedMips;
+			potentialAllocatedRam = savedPotentialAllocatedRam;
+			potentialAllocatedBw = savedPotentialAllocatedBw;
+		} else {
+			allocationChanged();
 		}
 	}
 
+	/**
+	 * Gets the RAM allocated to a VM of the host, as the VM tells it. For the VM tentatively created
+	 * in the host, which is not allocated RAM there, it is the RAM the VM would be allocated.
+	 * 
+	 * @param vm the vm
+	 * @return the ram allocated to the vm
+	 * @see #vmCreateTentative(Vm)
+	 */
+	public int getAllocatedRamForVm(Vm vm) {
+		if (vm == tentativeVm) {
+			return tentativeRam;
+		}
+		return vm.getCurrentAllocatedRam();
+	}
+
 	/**
 	 * Destroys all VMs running in the host.
 	 * 
@@ -263,6 +415,7 @@ public class Host {
 			setStorage(getStorage() + vm.getSize());
 		}
 		getVmList().clear();
+		allocationChanged();
 	}
 
 	/**
@@ -296,12 +449,7 @@ public class Host {
 	 * @post $none
 	 */
 	public Vm getVm(int vmId, int userId) {
-		for (Vm vm : getVmList()) {
-			if (vm.getId() == vmId && vm.getUserId() == userId) {
-				return vm;
-			}
-		}
-		return null;
+		return VmList.getByIdAndUserId(getVmList(), vmId, userId);
 	}
 
 	/**
@@ -350,7 +498,9 @@ public class Host {
 	 * @post $none
 	 */
 	public boolean allocatePesForVm(Vm vm, List<Double> mipsShare) {
-		return getVmScheduler().allocatePesForVm(vm, mipsShare);
+		boolean result = getVmScheduler().allocatePesForVm(vm, mipsShare);
+		allocationChanged();
+		return result;
 	}
 
 	/**
@@ -362,6 +512,7 @@ public class Host {
 	 */
 	public void deallocatePesForVm(Vm vm) {
 		getVmScheduler().deallocatePesForVm(vm);
+		allocationChanged();
 	}
 
 	/**
@@ -386,6 +537,100 @@ public class Host {
 		return getVmScheduler().getTotalAllocatedMipsForVm(vm);
 	}
 
+	/**
+	 * Gets the MIPS allocated to the VMs of the host, plus the MIPS that the VMs migrating in may
+	 * use once migrated: while migrating, a VM is only allocated a tenth of its MIPS on its
+	 * destination host. Like the RAM and BW counterparts of this method, the total is computed once
+	 * and kept until the VMs of the host or their allocations change, through the methods of the
+	 * host or {@link #allocationChanged()}.
+	 * 
+	 * @return the potential allocated mips
+	 */
+	public double getPotentialAllocatedMips() {
+		updatePotentialAllocation();
+		return potentialAllocatedMips;
+	}
+
+	/**
+	 * Gets the RAM allocated to the VMs of the host, plus the RAM that the VMs migrating in may use
+	 * once migrated.
+	 * 
+	 * @return the potential allocated ram
+	 * @see #getPotentialAllocatedMips()
+	 */
+	public double getPotentialAllocatedRam() {
+		updatePotentialAllocation();
+		return potentialAllocatedRam;
+	}
+
+	/**
+	 * Gets the BW allocated to the VMs of the host, plus the BW that the VMs migrating in may use
+	 * once migrated.
+	 * 
+	 * @return the potential allocated bw
+	 * @see #getPotentialAllocatedMips()
+	 */
+	public double getPotentialAllocatedBw() {
+		updatePotentialAllocation();
+		return potentialAllocatedBw;
+	}
+
+	/**
+	 * Computes the potential allocated resources again if the VMs of the host or their allocations
+	 * changed since they were last computed.
+	 */
+	private void updatePotentialAllocation() {
+		if (potentialAllocationComputedAt == allocationChanges) {
+			return;
+		}
+		double mips = 0;
+		double ram = 0;
+		double bw = 0;
+		for (Vm vm : getVmList()) {
+			double vmMips = getTotalAllocatedMipsForVm(vm);
+			double vmRam;
+			double vmBw;
+			if (vm == tentativeVm) {
+				vmRam = tentativeRam;
+				vmBw = tentativeBw;
+			} else {
+				vmRam = getRamProvisioner().getAllocatedRamForVm(vm);
+				vmBw = getBwProvisioner().getAllocatedBwForVm(vm);
+			}
+			if (vm.isInMigration() && getVmsMigratingIn().contains(vm)) {
+				// additional potential usage of a migrating in VM
+				mips += vmMips * 0.9 / 0.1;
+				ram += vmRam * 0.9 / 0.1;
+				bw += vmBw * 0.9 / 0.1;
+			}
+			mips += vmMips;
+			ram += vmRam;
+			bw += vmBw;
+		}
+		potentialAllocatedMips = mips;
+		potentialAllocatedRam = ram;
+		potentialAllocatedBw = bw;
+		potentialAllocationComputedAt = allocationChanges;
+	}
+
+	/**
+	 * Gets the number of changes of the VMs of the host or of their allocations so far. The host did
+	 * not change between two reads that give the same number.
+	 * 
+	 * @return the number of allocation changes
+	 */
+	public long getAllocationChanges() {
+		return allocationChanges;
+	}
+
+	/**
+	 * Tells the host that its VMs or their allocations changed other than through its methods, for
+	 * instance when the allocations are updated directly through the {@link VmScheduler}.
+	 */
+	protected void allocationChanged() {
+		allocationChanges++;
+	}
+
 	/**
 	 * Returns maximum available MIPS among all the PEs.
 	 * 
@@ -475,6 +720,7 @@ public class Host {
 	 */
 	protected void setRamProvisioner(RamProvisioner ramProvisioner) {
 		this.ramProvisioner = ramProvisioner;
+		allocationChanged();
 	}
 
 	/**
@@ -493,6 +739,7 @@ public class Host {
 	 */
 	protected void setBwProvisioner(BwProvisioner bwProvisioner) {
 		this.bwProvisioner = bwProvisioner;
+		allocationChanged();
 	}
 
 	/**
@@ -511,6 +758,7 @@ public class Host {
 	 */
 	protected void setVmScheduler(VmScheduler vmScheduler) {
 		this.vmScheduler = vmScheduler;
+		allocationChanged();
 	}
 
 	/**
@@ -633,4 +881,17 @@ public class Host {
 		this.datacenter = datacenter;
 	}
 
+	/**
+	 * Gets the simulation the host runs in: the one of its data center, or the simulation of the
+	 * current thread if the host is not in a data center yet.
+	 * 
+	 * @return the simulation
+	 */
+	public Simulation getSimulation() {
+		if (getDatacenter() != null) {
+			return getDatacenter().getSimulation();
+		}
+		return CloudSim.getSimulation();
+	}
+
 }
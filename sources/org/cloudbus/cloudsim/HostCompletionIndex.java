@@ -0,0 +1,197 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * This class keeps, for each host of a {@link Datacenter}, the predicted completion time of its
+ * earliest finishing cloudlet, so that the data center updates only the hosts that have cloudlets
+ * due and the hosts whose VMs or cloudlets changed. The completion times are kept in a priority
+ * queue; an entry of the queue becomes stale when the host is updated again, and the stale entries
+ * are dropped when they reach the head of the queue. The hosts are identified by their position in
+ * the host list, so that they are always updated in the order of the list.
+ * 
+ * @see Datacenter#setCompletionIndex(boolean)
+ * @since CloudSim Toolkit 3.1
+ */
+final class HostCompletionIndex {
+
+	/** The hosts. */
+	private final List<? extends Host> hosts;
+
+	/** The positions of the hosts in the host list. */
+	private final Map<Host, Integer> positions = new IdentityHashMap<Host, Integer>();
+
+	/** The predicted completion time of each host, or {@link Double#MAX_VALUE} if none. */
+	private final double[] completionTimes;
+
+	/** The predicted completion times, including stale ones. */
+	private final PriorityQueue<Entry> queue = new PriorityQueue<Entry>();
+
+	/** The hosts to update in the next update, because their VMs or cloudlets changed. */
+	private final BitSet changed = new BitSet();
+
+	/** The hosts updated or changed since the last check for finished cloudlets. */
+	private final BitSet updated = new BitSet();
+
+	/**
+	 * Creates an index of the hosts of a data center. All the hosts are updated in the first
+	 * update.
+	 * 
+	 * @param hosts the hosts
+	 */
+	HostCompletionIndex(List<? extends Host> hosts) {
+		this.hosts = hosts;
+		completionTimes = new double[hosts.size()];
+		Arrays.fill(completionTimes, Double.MAX_VALUE);
+		for (int i = 0; i < hosts.size(); i++) {
+			positions.put(hosts.get(i), i);
+		}
+		changed.set(0, hosts.size());
+	}
+
+	/**
+	 * Marks a host to be updated in the next update, and to be checked for finished cloudlets.
+	 * 
+	 * @param host the host
+	 */
+	void hostChanged(Host host) {
+		Integer position = positions.get(host);
+		if (position != null) {
+			changed.set(position);
+			updated.set(position);
+		}
+	}
+
+	/**
+	 * Gets the hosts to update: the hosts that changed and the hosts with a cloudlet predicted to
+	 * finish by a given time. The returned hosts are not changed hosts anymore.
+	 * 
+	 * @param time the time
+	 * @return the positions of the hosts in the host list
+	 */
+	BitSet pollHostsToUpdate(double time) {
+		BitSet result = (BitSet) changed.clone();
+		changed.clear();
+		while (!queue.isEmpty() && queue.peek().time <= time) {
+			Entry entry = queue.poll();
+			if (completionTimes[entry.position] == entry.time) {
+				result.set(entry.position);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets a host of the index.
+	 * 
+	 * @param position the position of the host in the host list
+	 * @return the host
+	 */
+	Host getHost(int position) {
+		return hosts.get(position);
+	}
+
+	/**
+	 * Records the predicted completion time of a host that has just been updated.
+	 * 
+	 * @param position the position of the host in the host list
+	 * @param time the predicted completion time of the earliest finishing cloudlet of the host, or
+	 *            {@link Double#MAX_VALUE} if none
+	 */
+	void hostUpdated(int position, double time) {
+		completionTimes[position] = time;
+		if (time != Double.MAX_VALUE) {
+			queue.add(new Entry(time, position));
+		}
+		updated.set(position);
+	}
+
+	/**
+	 * Records the predicted completion time of a host that has just been updated.
+	 * 
+	 * @param host the host
+	 * @param time the predicted completion time of the earliest finishing cloudlet of the host, or
+	 *            {@link Double#MAX_VALUE} if none
+	 */
+	void hostUpdated(Host host, double time) {
+		Integer position = positions.get(host);
+		if (position != null) {
+			hostUpdated(position, time);
+		}
+	}
+
+	/**
+	 * Gets the earliest predicted completion time of all the hosts.
+	 * 
+	 * @return the earliest completion time, or {@link Double#MAX_VALUE} if no cloudlet is running
+	 */
+	double getCompletionTime() {
+		while (!queue.isEmpty()) {
+			Entry entry = queue.peek();
+			if (completionTimes[entry.position] == entry.time) {
+				return entry.time;
+			}
+			queue.poll();
+		}
+		return Double.MAX_VALUE;
+	}
+
+	/**
+	 * Gets the hosts updated or changed since the last call, which are the only hosts that can
+	 * have finished cloudlets.
+	 * 
+	 * @return the positions of the hosts in the host list
+	 */
+	BitSet pollUpdatedHosts() {
+		BitSet result = (BitSet) updated.clone();
+		updated.clear();
+		return result;
+	}
+
+	/**
+	 * A predicted completion time of a host.
+	 */
+	private static final class Entry implements Comparable<Entry> {
+
+		/** The completion time. */
+		final double time;
+
+		/** The position of the host in the host list. */
+		final int position;
+
+		/**
+		 * Instantiates a new entry.
+		 * 
+		 * @param time the completion time
+		 * @param position the position of the host
+		 */
+		Entry(double time, int position) {
+			this.time = time;
+			this.position = position;
+		}
+
+		@Override
+		public int compareTo(Entry other) {
+			int result = Double.compare(time, other.time);
+			if (result == 0) {
+				result = position - other.position;
+			}
+			return result;
+		}
+
+	}
+
+}
@@ -9,10 +9,8 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.provisioners.BwProvisioner;
 import org.cloudbus.cloudsim.provisioners.RamProvisioner;
@@ -38,7 +36,7 @@ public class HostDynamicWorkload extends Host {
 	private double previousUtilizationRam;
 	
 	/** The state history. */
-	private final List<HostStateHistoryEntry> stateHistory = new LinkedList<HostStateHistoryEntry>();
+	private final HostStateHistory stateHistory = new HostStateHistory();
 
 	/**
 	 * Instantiates a new host.
@@ -91,6 +89,7 @@ public class HostDynamicWorkload extends Host {
 			getVmScheduler().allocatePesForVm(vm, vm.getCurrentRequestedMips());
 			getVmScheduler().allocateRamForVm(vm, vm.getCurrentAllocatedRam());
 		}
+		allocationChanged();
 
 		for (Vm vm : getVmList()) {
 			double totalRequestedMips = vm.getCurrentRequestedTotalMips();
@@ -100,12 +99,12 @@ public class HostDynamicWorkload extends Host {
 			int totalRequestedRam = vm.getCurrentRequestedRam();
 			double totalAllocatedRam = vm.getCurrentAllocatedRam();
 		
-			if (!Log.isDisabled()) {
+			if (Log.isEnabled(Log.Category.CORE, Log.Level.DEBUG)) {
 				Log.formatLine(
 						"%.2f: [Host #" + getId() + "] Total allocated MIPS for VM #" + vm.getId()
 								+ " (Host #" + vm.getHost().getId()
 								+ ") is %.2f, was requested %.2f out of total %.2f (%.2f%%)",
-						CloudSim.clock(),
+						getSimulation().clock(),
 						totalAllocatedMips,
 						totalRequestedMips,
 						vm.getMips(),
@@ -121,16 +120,28 @@ public class HostDynamicWorkload extends Host {
 						"%.2f: [Host #" + getId() + "] MIPS for VM #" + vm.getId() + " by PEs ("
 								+ getNumberOfPes() + " * " + getVmScheduler().getPeCapacity() + ")."
 								+ pesString,
-						CloudSim.clock());
+						getSimulation().clock());
 			}
 
 			if (getVmsMigratingIn().contains(vm)) {
-				Log.formatLine("%.2f: [Host #" + getId() + "] VM #" + vm.getId()
-						+ " is being migrated to Host #" + getId(), CloudSim.clock());
+				Log.formatLine(
+						Log.Category.CORE,
+						Log.Level.DEBUG,
+						"%.2f: [Host #%d] VM #%d is being migrated to Host #%d",
+						getSimulation().clock(),
+						getId(),
+						vm.getId(),
+						getId());
 			} else {
 				if (totalAllocatedMips + 0.1 < totalRequestedMips) {
-					Log.formatLine("%.2f: [Host #" + getId() + "] Under allocated MIPS for VM #" + vm.getId()
-							+ ": %.2f", CloudSim.clock(), totalRequestedMips - totalAllocatedMips);
+					Log.formatLine(
+							Log.Category.CORE,
+							Log.Level.DEBUG,
+							"%.2f: [Host #%d] Under allocated MIPS for VM #%d: %.2f",
+							getSimulation().clock(),
+							getId(),
+							vm.getId(),
+							totalRequestedMips - totalAllocatedMips);
 				}
 
 				vm.addStateHistoryEntry(
@@ -143,8 +154,12 @@ public class HostDynamicWorkload extends Host {
 
 				if (vm.isInMigration()) {
 					Log.formatLine(
-							"%.2f: [Host #" + getId() + "] VM #" + vm.getId() + " is in migration",
-							CloudSim.clock());
+							Log.Category.CORE,
+							Log.Level.DEBUG,
+							"%.2f: [Host #%d] VM #%d is in migration",
+							getSimulation().clock(),
+							getId(),
+							vm.getId());
 					totalAllocatedMips /= 0.9; // performance degradation due to migration - 10%
 				}
 			}
@@ -340,12 +355,35 @@ public class HostDynamicWorkload extends Host {
 	/**
 	 * Gets the state history.
 	 * 
-	 * @return the state history
+	 * @return the state history, as a list of entries
+	 * @see #getHostStateHistory()
 	 */
 	public List<HostStateHistoryEntry> getStateHistory() {
 		return stateHistory;
 	}
 
+	/**
+	 * Gets the state history, with the aggregates of the states over the whole simulation.
+	 * 
+	 * @return the state history
+	 */
+	public HostStateHistory getHostStateHistory() {
+		return stateHistory;
+	}
+
+	/**
+	 * Adds to the state histories of the host and of its VMs the same state as their last state,
+	 * at a time at which the host was not updated because its state did not change.
+	 * 
+	 * @param time the time
+	 */
+	public void addSkippedStateHistoryEntry(double time) {
+		for (Vm vm : getVmList()) {
+			vm.getVmStateHistory().addLast(time);
+		}
+		getHostStateHistory().addLast(time);
+	}
+
 	/**
 	 * Adds the state history entry.
 	 * 
@@ -357,22 +395,7 @@ public class HostDynamicWorkload extends Host {
 	public
 			void
 			addStateHistoryEntry(double time, double allocatedMips, double requestedMips,double allocatedRam, int requestedRam, boolean isActive) {
-
-		HostStateHistoryEntry newState = new HostStateHistoryEntry(
-				time,
-				allocatedMips,
-				requestedMips,
-				allocatedRam, 
-				requestedRam,
-				isActive);
-		if (!getStateHistory().isEmpty()) {
-			HostStateHistoryEntry previousState = getStateHistory().get(getStateHistory().size() - 1);
-			if (previousState.getTime() == time) {
-				getStateHistory().set(getStateHistory().size() - 1, newState);
-				return;
-			}
-		}
-		getStateHistory().add(newState);
+		getHostStateHistory().add(time, allocatedMips, requestedMips, allocatedRam, requestedRam, isActive);
 	}
 
 }
@@ -0,0 +1,196 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The state history of a host, whose flag tells whether the host is active. Along with the states,
+ * the history accumulates the SLA metrics of the host over the whole simulation: the time it was
+ * active and, out of it, the time its CPU or RAM was under-allocated (SLATAH); the total time and,
+ * out of it, the time its MIPS were under-allocated; and the times it was active before each
+ * shutdown.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class HostStateHistory extends StateHistory<HostStateHistoryEntry> {
+
+	/** The time the host was active. */
+	private double activeTime;
+
+	/** The time the host was active with its CPU or RAM under-allocated. */
+	private double slaViolationTimeActive;
+
+	/** The total time of the history. */
+	private double totalTime;
+
+	/** The time the MIPS of the host were under-allocated. */
+	private double slaViolationTime;
+
+	/** Whether the host was active in the last final state. */
+	private boolean previousIsActive = true;
+
+	/** The time at which the host was last switched on. */
+	private double lastTimeSwitchedOn;
+
+	/** The times the host was active before each shutdown. */
+	private final List<Double> timesBeforeShutdown = new ArrayList<Double>();
+
+	/**
+	 * Adds a state entry.
+	 *
+	 * @param entry the entry
+	 * @return true
+	 */
+	@Override
+	public boolean add(HostStateHistoryEntry entry) {
+		add(entry.getTime(),
+				entry.getAllocatedMips(),
+				entry.getRequestedMips(),
+				entry.getAllocatedRam(),
+				entry.getRequestedRam(),
+				entry.isActive());
+		return true;
+	}
+
+	/**
+	 * Replaces a state entry. The aggregates are not updated.
+	 *
+	 * @param index the index of the entry
+	 * @param entry the entry
+	 * @return the replaced entry
+	 */
+	@Override
+	public HostStateHistoryEntry set(int index, HostStateHistoryEntry entry) {
+		HostStateHistoryEntry previous = get(index);
+		set(index,
+				entry.getTime(),
+				entry.getAllocatedMips(),
+				entry.getRequestedMips(),
+				entry.getAllocatedRam(),
+				entry.getRequestedRam(),
+				entry.isActive());
+		return previous;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.StateHistory#accumulate(int, double)
+	 */
+	@Override
+	protected void accumulate(int slot, double timeDiff) {
+		double allocatedMips = getAllocatedMips(slot);
+		double requestedMips = getRequestedMips(slot);
+		double allocatedRam = getAllocatedRam(slot);
+		double requestedRam = getRequestedRam(slot);
+		boolean isActive = getFlag(slot);
+
+		if (isActive) {
+			activeTime += timeDiff;
+			if (allocatedMips > allocatedRam && allocatedMips < requestedMips) {
+				slaViolationTimeActive += timeDiff;
+			}
+			if (allocatedRam > allocatedMips && allocatedRam < requestedRam) {
+				slaViolationTimeActive += timeDiff;
+			}
+		}
+
+		totalTime += timeDiff;
+		if (allocatedMips < requestedMips) {
+			slaViolationTime += timeDiff;
+		}
+
+		addShutdownTime(slot, timesBeforeShutdown);
+		if (!previousIsActive && isActive) {
+			lastTimeSwitchedOn = getTime(slot);
+		}
+		previousIsActive = isActive;
+	}
+
+	/**
+	 * Gets the time the host was active.
+	 *
+	 * @return the active time
+	 */
+	public double getActiveTime() {
+		return activeTime;
+	}
+
+	/**
+	 * Gets the time the host was active with its CPU or RAM under-allocated.
+	 *
+	 * @return the SLA violation time while active
+	 */
+	public double getSlaViolationTimeActive() {
+		return slaViolationTimeActive;
+	}
+
+	/**
+	 * Gets the time covered by the final states of the history.
+	 *
+	 * @return the total time
+	 */
+	public double getTotalTime() {
+		return totalTime;
+	}
+
+	/**
+	 * Gets the time the MIPS of the host were under-allocated, whether it was active or not.
+	 *
+	 * @return the SLA violation time
+	 */
+	public double getSlaViolationTime() {
+		return slaViolationTime;
+	}
+
+	/**
+	 * Gets the times the host was active before each shutdown, including a shutdown in the last
+	 * state recorded.
+	 *
+	 * @return the times before the shutdowns
+	 */
+	public List<Double> getTimesBeforeShutdown() {
+		List<Double> times = new ArrayList<Double>(timesBeforeShutdown);
+		int last = getLastSlot();
+		if (last >= 0) {
+			addShutdownTime(last, times);
+		}
+		return Collections.unmodifiableList(times);
+	}
+
+	/**
+	 * Adds the time the host was active to a list if a state shuts it down.
+	 *
+	 * @param slot the slot of the state
+	 * @param times the list
+	 */
+	private void addShutdownTime(int slot, List<Double> times) {
+		if (previousIsActive && !getFlag(slot)) {
+			times.add(getTime(slot) - lastTimeSwitchedOn);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.StateHistory#createEntry(int)
+	 */
+	@Override
+	protected HostStateHistoryEntry createEntry(int slot) {
+		return new HostStateHistoryEntry(
+				getTime(slot),
+				getAllocatedMips(slot),
+				getRequestedMips(slot),
+				getAllocatedRam(slot),
+				(int) getRequestedRam(slot),
+				getFlag(slot));
+	}
+
+}
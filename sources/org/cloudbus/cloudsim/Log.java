@@ -14,12 +14,46 @@ import java.io.OutputStream;
 /**
  * The Log class used for performing loggin of the simulation process. It provides the ability to
  * substitute the output stream by any OutputStream subclass.
+ * <p>
+ * The messages printed on the paths run for each event, each host or each VM have a
+ * {@link Category} and a {@link Level}, and are only printed if their level is enabled for their
+ * category. Their text is only built then: the methods taking a category and a level concatenate or
+ * format their arguments after checking the level, and the call sites whose arguments are costly to
+ * compute check {@link #isEnabled(Category, Level)} first. All the levels are enabled by default,
+ * so that the simulation prints the same messages as the methods without a level. The methods
+ * without a level print their message whatever the levels, unless the output is disabled.
  * 
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
  */
 public class Log {
 
+	/**
+	 * The levels of the messages, from the most important to the least important.
+	 */
+	public enum Level {
+		/** The errors. */
+		ERROR,
+		/** The warnings. */
+		WARNING,
+		/** The messages on the progress of the simulation. */
+		INFO,
+		/** The messages printed for each event, host or VM. */
+		DEBUG
+	}
+
+	/**
+	 * The categories of the messages, after the part of the simulator that prints them.
+	 */
+	public enum Category {
+		/** The messages of the core classes. */
+		CORE,
+		/** The messages of the power package. */
+		POWER,
+		/** The messages of the network package. */
+		NETWORK
+	}
+
 	/** The Constant LINE_SEPARATOR. */
 	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
 
@@ -29,6 +63,13 @@ public class Log {
 	/** The disable output flag. */
 	private static boolean disabled;
 
+	/** The least important level enabled for each category. */
+	private static final Level[] levels = new Level[Category.values().length];
+
+	static {
+		setLevel(Level.DEBUG);
+	}
+
 	/**
 	 * Prints the message.
 	 * 
@@ -110,6 +151,108 @@ public class Log {
 		}
 	}
 
+	/**
+	 * Prints a message made of the string representations of a number of objects, if the level is
+	 * enabled for the category.
+	 * 
+	 * @param category the category
+	 * @param level the level
+	 * @param messages the objects
+	 */
+	public static void printConcat(Category category, Level level, Object... messages) {
+		if (isEnabled(category, level)) {
+			print(concat(messages));
+		}
+	}
+
+	/**
+	 * Prints a line made of the string representations of a number of objects, if the level is
+	 * enabled for the category.
+	 * 
+	 * @param category the category
+	 * @param level the level
+	 * @param messages the objects
+	 */
+	public static void printConcatLine(Category category, Level level, Object... messages) {
+		if (isEnabled(category, level)) {
+			printLine(concat(messages));
+		}
+	}
+
+	/**
+	 * Prints a line formated as in String.format(), if the level is enabled for the category.
+	 * 
+	 * @param category the category
+	 * @param level the level
+	 * @param format the format
+	 * @param args the args
+	 */
+	public static void formatLine(Category category, Level level, String format, Object... args) {
+		if (isEnabled(category, level)) {
+			printLine(String.format(format, args));
+		}
+	}
+
+	/**
+	 * Checks whether the messages of a level are printed for a category.
+	 * 
+	 * @param category the category
+	 * @param level the level
+	 * @return true, if the output is enabled and the level is at least as important as the least
+	 *         important level enabled for the category
+	 */
+	public static boolean isEnabled(Category category, Level level) {
+		return !disabled && level.compareTo(levels[category.ordinal()]) <= 0;
+	}
+
+	/**
+	 * Sets the least important level enabled for a category.
+	 * 
+	 * @param category the category
+	 * @param level the level
+	 */
+	public static void setLevel(Category category, Level level) {
+		if (level == null) {
+			throw new IllegalArgumentException("The level should not be null");
+		}
+		levels[category.ordinal()] = level;
+	}
+
+	/**
+	 * Sets the least important level enabled for all the categories.
+	 * 
+	 * @param level the level
+	 */
+	public static void setLevel(Level level) {
+		for (Category category : Category.values()) {
+			setLevel(category, level);
+		}
+	}
+
+	/**
+	 * Gets the least important level enabled for a category.
+	 * 
+	 * @param category the category
+	 * @return the level
+	 */
+	public static Level getLevel(Category category) {
+		return levels[category.ordinal()];
+	}
+
+	/**
+	 * Concatenates the string representations of a number of objects.
+	 * 
+	 * @param messages the objects
+	 * @return the concatenation
+	 */
+	private static String concat(Object... messages) {
+		StringBuilder buffer = new StringBuilder();
+		for (Object message : messages) {
+			buffer.append(message);
+		}
+		return buffer.toString();
+	}
+
 	/**
 	 * Sets the output.
 	 * 
@@ -0,0 +1,169 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The MIPS of each PE of a VM, as requested by the VM or allocated to it by the {@link VmScheduler}.
+ * A MIPS share is immutable: it keeps the MIPS in a primitive array with their total, the largest
+ * of them and the number of PEs with MIPS, which are computed once when the share is created.
+ * <p>
+ * MIPS shares still travel as <tt>List&lt;Double&gt;</tt> through the VM schedulers, the VMs and
+ * the cloudlet schedulers, so that the classes written against lists keep working. The classes of
+ * the simulator create their shares as MIPS shares, and use {@link #of(List)} to read a list as a
+ * MIPS share without copying it when it already is one.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public final class MipsShare extends AbstractList<Double> implements RandomAccess {
+
+	/** The MIPS share without PEs. */
+	public static final MipsShare EMPTY = new MipsShare(new double[0]);
+
+	/** The MIPS of each PE. */
+	private final double[] mips;
+
+	/** The total MIPS. */
+	private final double total;
+
+	/** The largest MIPS of a PE. */
+	private final double max;
+
+	/** The number of PEs with MIPS. */
+	private final int activePes;
+
+	/**
+	 * Instantiates a new MIPS share.
+	 *
+	 * @param mips the MIPS of each PE, which are copied
+	 */
+	public MipsShare(double... mips) {
+		this.mips = mips.clone();
+		double total = 0;
+		double max = 0;
+		int activePes = 0;
+		for (double peMips : this.mips) {
+			total += peMips;
+			if (peMips > max) {
+				max = peMips;
+			}
+			if (peMips > 0.0) {
+				activePes++;
+			}
+		}
+		this.total = total;
+		this.max = max;
+		this.activePes = activePes;
+	}
+
+	/**
+	 * Gets a list of MIPS as a MIPS share.
+	 *
+	 * @param list the MIPS of each PE
+	 * @return the list itself if it is a MIPS share, otherwise a new MIPS share with its MIPS
+	 */
+	public static MipsShare of(List<Double> list) {
+		if (list instanceof MipsShare) {
+			return (MipsShare) list;
+		}
+		double[] mips = new double[list.size()];
+		int i = 0;
+		for (Double peMips : list) {
+			mips[i++] = peMips;
+		}
+		return new MipsShare(mips);
+	}
+
+	/**
+	 * Creates a MIPS share with the same MIPS for each PE.
+	 *
+	 * @param pes the number of PEs
+	 * @param mipsPerPe the MIPS of each PE
+	 * @return the MIPS share
+	 */
+	public static MipsShare uniform(int pes, double mipsPerPe) {
+		double[] mips = new double[pes];
+		Arrays.fill(mips, mipsPerPe);
+		return new MipsShare(mips);
+	}
+
+	/**
+	 * Gets the MIPS of a PE.
+	 *
+	 * @param pe the index of the PE
+	 * @return the MIPS
+	 */
+	public double getMips(int pe) {
+		return mips[pe];
+	}
+
+	/**
+	 * Gets the total MIPS of the PEs.
+	 *
+	 * @return the total MIPS
+	 */
+	public double getTotal() {
+		return total;
+	}
+
+	/**
+	 * Gets the largest MIPS of a PE.
+	 *
+	 * @return the largest MIPS, or 0 if there are no PEs
+	 */
+	public double getMax() {
+		return max;
+	}
+
+	/**
+	 * Gets the number of PEs with MIPS.
+	 *
+	 * @return the number of PEs with more than 0 MIPS
+	 */
+	public int getActivePes() {
+		return activePes;
+	}
+
+	/**
+	 * Gets a copy of the MIPS of each PE.
+	 *
+	 * @return a new array with the MIPS
+	 */
+	public double[] toDoubleArray() {
+		return mips.clone();
+	}
+
+	@Override
+	public Double get(int index) {
+		return mips[index];
+	}
+
+	@Override
+	public int size() {
+		return mips.length;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o instanceof MipsShare) {
+			return Arrays.equals(mips, ((MipsShare) o).mips);
+		}
+		return super.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode();
+	}
+
+}
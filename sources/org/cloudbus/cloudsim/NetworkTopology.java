@@ -13,6 +13,8 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
 import org.cloudbus.cloudsim.network.DelayMatrix_Float;
 import org.cloudbus.cloudsim.network.GraphReaderBrite;
 import org.cloudbus.cloudsim.network.TopologicalGraph;
@@ -29,6 +31,8 @@ import org.cloudbus.cloudsim.network.TopologicalNode;
  * Nevertheless, each CloudSim entity must be mapped to one (and only one) BRITE node to allow
  * proper work of the network simulation. Each BRITE node can be mapped to only one entity at a
  * time.
+ * <p>
+ * The topology belongs to the current simulation, so each simulation has its own topology.
  * 
  * @author Rodrigo N. Calheiros
  * @author Anton Beloglazov
@@ -36,17 +40,21 @@ import org.cloudbus.cloudsim.network.TopologicalNode;
  */
 public class NetworkTopology {
 
-	protected static int nextIdx = 0;
-
-	private static boolean networkEnabled = false;
-
-	protected static DelayMatrix_Float delayMatrix = null;
-
-	protected static double[][] bwMatrix = null;
-
-	protected static TopologicalGraph graph = null;
-
-	protected static Map<Integer, Integer> map = null;
+	/**
+	 * Gets the network topology of the current simulation, creating it if needed.
+	 * 
+	 * @return the network topology
+	 * @see CloudSim#getSimulation()
+	 */
+	private static Topology getTopology() {
+		Simulation simulation = CloudSim.getSimulation();
+		Topology topology = simulation.getAttribute(Topology.class);
+		if (topology == null) {
+			topology = new Topology();
+			simulation.setAttribute(Topology.class, topology);
+		}
+		return topology;
+	}
 
 	/**
 	 * Creates the network topology if file exists and if file can be succesfully parsed. File is
@@ -63,9 +71,10 @@ public class NetworkTopology {
 		GraphReaderBrite reader = new GraphReaderBrite();
 
 		try {
-			graph = reader.readGraphFile(fileName);
-			map = new HashMap<Integer, Integer>();
-			generateMatrices();
+			Topology topology = getTopology();
+			topology.graph = reader.readGraphFile(fileName);
+			topology.map = new HashMap<Integer, Integer>();
+			generateMatrices(topology);
 		} catch (IOException e) {
 			// problem with the file. Does not simulate network
 			Log.printLine("Problem in processing BRITE file. Network simulation is disabled. Error: "
@@ -76,15 +85,17 @@ public class NetworkTopology {
 
 	/**
 	 * Generates the matrices used internally to set latency and bandwidth between elements
+	 * 
+	 * @param topology the network topology
 	 */
-	private static void generateMatrices() {
+	private static void generateMatrices(Topology topology) {
 		// creates the delay matrix
-		delayMatrix = new DelayMatrix_Float(graph, false);
+		topology.delayMatrix = new DelayMatrix_Float(topology.graph, false);
 
 		// creates the bw matrix
-		bwMatrix = createBwMatrix(graph, false);
+		topology.bwMatrix = createBwMatrix(topology.graph, false);
 
-		networkEnabled = true;
+		topology.networkEnabled = true;
 	}
 
 	/**
@@ -99,32 +110,34 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void addLink(int srcId, int destId, double bw, double lat) {
+		Topology topology = getTopology();
 
-		if (graph == null) {
-			graph = new TopologicalGraph();
+		if (topology.graph == null) {
+			topology.graph = new TopologicalGraph();
 		}
 
-		if (map == null) {
-			map = new HashMap<Integer, Integer>();
+		if (topology.map == null) {
+			topology.map = new HashMap<Integer, Integer>();
 		}
 
 		// maybe add the nodes
-		if (!map.containsKey(srcId)) {
-			graph.addNode(new TopologicalNode(nextIdx));
-			map.put(srcId, nextIdx);
-			nextIdx++;
+		if (!topology.map.containsKey(srcId)) {
+			topology.graph.addNode(new TopologicalNode(topology.nextIdx));
+			topology.map.put(srcId, topology.nextIdx);
+			topology.nextIdx++;
 		}
 
-		if (!map.containsKey(destId)) {
-			graph.addNode(new TopologicalNode(nextIdx));
-			map.put(destId, nextIdx);
-			nextIdx++;
+		if (!topology.map.containsKey(destId)) {
+			topology.graph.addNode(new TopologicalNode(topology.nextIdx));
+			topology.map.put(destId, topology.nextIdx);
+			topology.nextIdx++;
 		}
 
 		// generate a new link
-		graph.addLink(new TopologicalLink(map.get(srcId), map.get(destId), (float) lat, (float) bw));
+		topology.graph.addLink(new TopologicalLink(topology.map.get(srcId), topology.map.get(destId),
+				(float) lat, (float) bw));
 
-		generateMatrices();
+		generateMatrices(topology);
 
 	}
 
@@ -171,7 +184,9 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void mapNode(int cloudSimEntityID, int briteID) {
-		if (networkEnabled) {
+		Topology topology = getTopology();
+		if (topology.networkEnabled) {
+			Map<Integer, Integer> map = topology.map;
 			try {
 				// this CloudSim entity was already mapped?
 				if (!map.containsKey(cloudSimEntityID)) {
@@ -199,9 +214,10 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static void unmapNode(int cloudSimEntityID) {
-		if (networkEnabled) {
+		Topology topology = getTopology();
+		if (topology.networkEnabled) {
 			try {
-				map.remove(cloudSimEntityID);
+				topology.map.remove(cloudSimEntityID);
 			} catch (Exception e) {
 				Log.printLine("Error in network unmapping. CloudSim node: " + cloudSimEntityID);
 			}
@@ -219,10 +235,12 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static double getDelay(int srcID, int destID) {
-		if (networkEnabled) {
+		Topology topology = getTopology();
+		if (topology.networkEnabled) {
 			try {
 				// add the network latency
-				double delay = delayMatrix.getDelay(map.get(srcID), map.get(destID));
+				double delay = topology.delayMatrix.getDelay(topology.map.get(srcID),
+						topology.map.get(destID));
 
 				return delay;
 			} catch (Exception e) {
@@ -242,7 +260,27 @@ public class NetworkTopology {
 	 * @post $none
 	 */
 	public static boolean isNetworkEnabled() {
-		return networkEnabled;
+		return getTopology().networkEnabled;
+	}
+
+	/**
+	 * The network topology of one simulation.
+	 */
+	private static final class Topology {
+
+		private int nextIdx = 0;
+
+		private boolean networkEnabled = false;
+
+		private DelayMatrix_Float delayMatrix = null;
+
+		@SuppressWarnings("unused")
+		private double[][] bwMatrix = null;
+
+		private TopologicalGraph graph = null;
+
+		private Map<Integer, Integer> map = null;
+
 	}
 
 }
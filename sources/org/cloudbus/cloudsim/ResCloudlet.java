@@ -8,7 +8,6 @@
 
 package org.cloudbus.cloudsim;
 
-import org.cloudbus.cloudsim.core.CloudSim;
 
 /**
  * CloudSim ResCloudlet represents a Cloudlet submitted to CloudResource for processing. This class
@@ -203,7 +202,7 @@ public class ResCloudlet {
 			peArrayId = new int[pesNumber];
 		}
 
-		arrivalTime = CloudSim.clock();
+		arrivalTime = cloudlet.getSimulation().clock();
 		cloudlet.setSubmissionTime(arrivalTime);
 
 		// default values
@@ -293,7 +292,7 @@ public class ResCloudlet {
 
 		boolean success = true;
 		try {
-			double clock = CloudSim.clock();   // gets the current clock
+			double clock = cloudlet.getSimulation().clock();   // gets the current clock
 
 			// sets Cloudlet's current status
 			cloudlet.setCloudletStatus(status);
@@ -455,7 +454,7 @@ public class ResCloudlet {
 	 */
 	public void finalizeCloudlet() {
 		// Sets the wall clock time and actual CPU time
-		double wallClockTime = CloudSim.clock() - arrivalTime;
+		double wallClockTime = cloudlet.getSimulation().clock() - arrivalTime;
 		cloudlet.setExecParam(wallClockTime, totalCompletionTime);
 
 		long finished = 0;
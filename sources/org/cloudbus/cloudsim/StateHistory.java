@@ -0,0 +1,435 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
+
+/**
+ * The state history of a VM or a host: the MIPS and RAM allocated to it and requested by it over
+ * time, with a flag, such as whether the VM is in migration or whether the host is active. Instead
+ * of an entry object for each state, the states are kept in primitive arrays, one for each field,
+ * used as a ring buffer. The entries returned by the list are created when they are read.
+ * <p>
+ * A state recorded at the same time as the last state replaces it. When a state is recorded at a
+ * later time, the last state becomes final and {@link #accumulate(int, double)} lets subclasses
+ * update their aggregates with it, so that the aggregates cover the whole simulation even when
+ * the history only retains its last states.
+ * <p>
+ * By default the history retains all the states. With a retention window, it only retains the
+ * states of the last window of time, and always the last state.
+ * <p>
+ * The states can be replaced with {@link #set(int, Object)} and removed with
+ * {@link #remove(int)}, as in the lists the histories used to be; the aggregates already updated
+ * with the final states are not computed again. A state can only be inserted at the end.
+ *
+ * @param <E> the type of the entries
+ * @since CloudSim Toolkit 3.1
+ */
+public abstract class StateHistory<E> extends AbstractList<E> implements RandomAccess {
+
+	/** The smallest capacity of the arrays. */
+	private static final int MIN_CAPACITY = 16;
+
+	/** The times of the states. */
+	private double[] times = new double[MIN_CAPACITY];
+
+	/** The allocated MIPS. */
+	private double[] allocatedMips = new double[MIN_CAPACITY];
+
+	/** The requested MIPS. */
+	private double[] requestedMips = new double[MIN_CAPACITY];
+
+	/** The allocated RAM. */
+	private double[] allocatedRam = new double[MIN_CAPACITY];
+
+	/** The requested RAM. */
+	private double[] requestedRam = new double[MIN_CAPACITY];
+
+	/** The flags. */
+	private boolean[] flags = new boolean[MIN_CAPACITY];
+
+	/** The slot of the oldest retained state. */
+	private int head;
+
+	/** The number of retained states. */
+	private int size;
+
+	/** The retention window. */
+	private double retention = getDefaultRetention();
+
+	/**
+	 * Sets the retention window of the histories created from now on in the current simulation.
+	 * The window is discarded when the simulation is initialised, so it has to be set after
+	 * {@link CloudSim#init(int, java.util.Calendar, boolean)}.
+	 *
+	 * @param retention the length of time of the retained states, or
+	 *            {@link Double#POSITIVE_INFINITY} to retain all of them
+	 */
+	public static void setDefaultRetention(double retention) {
+		checkRetention(retention);
+		CloudSim.getSimulation().setAttribute(DefaultRetention.class, new DefaultRetention(retention));
+	}
+
+	/**
+	 * Gets the retention window of the histories created from now on in the current simulation.
+	 *
+	 * @return the length of time of the retained states
+	 */
+	public static double getDefaultRetention() {
+		DefaultRetention defaultRetention = CloudSim.getSimulation().getAttribute(DefaultRetention.class);
+		if (defaultRetention == null) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return defaultRetention.retention;
+	}
+
+	/**
+	 * Sets the retention window of the history. The states older than the window are dropped from
+	 * the next state recorded on.
+	 *
+	 * @param retention the length of time of the retained states, or
+	 *            {@link Double#POSITIVE_INFINITY} to retain all of them
+	 */
+	public void setRetention(double retention) {
+		checkRetention(retention);
+		this.retention = retention;
+	}
+
+	/**
+	 * Gets the retention window of the history.
+	 *
+	 * @return the length of time of the retained states
+	 */
+	public double getRetention() {
+		return retention;
+	}
+
+	/**
+	 * Records a state.
+	 *
+	 * @param time the time
+	 * @param allocatedMips the allocated mips
+	 * @param requestedMips the requested mips
+	 * @param allocatedRam the allocated ram
+	 * @param requestedRam the requested ram
+	 * @param flag the flag
+	 */
+	public void add(
+			double time,
+			double allocatedMips,
+			double requestedMips,
+			double allocatedRam,
+			double requestedRam,
+			boolean flag) {
+		if (size > 0 && times[slot(size - 1)] == time) {
+			setSlot(slot(size - 1), time, allocatedMips, requestedMips, allocatedRam, requestedRam, flag);
+			return;
+		}
+
+		if (size > 0) {
+			int last = slot(size - 1);
+			accumulate(last, time - times[last]);
+		}
+		if (size == times.length) {
+			grow();
+		}
+		setSlot(slot(size), time, allocatedMips, requestedMips, allocatedRam, requestedRam, flag);
+		size++;
+		modCount++;
+
+		while (size > 1 && time - times[head] > retention) {
+			head = (head + 1) % times.length;
+			size--;
+		}
+	}
+
+	/**
+	 * Records the same state as the last one at a later time. Nothing is recorded if the history is
+	 * empty.
+	 *
+	 * @param time the time
+	 */
+	public void addLast(double time) {
+		if (size > 0) {
+			int last = slot(size - 1);
+			add(time, allocatedMips[last], requestedMips[last], allocatedRam[last], requestedRam[last], flags[last]);
+		}
+	}
+
+	/**
+	 * Replaces a retained state. The aggregates are not updated.
+	 *
+	 * @param index the index of the state in the history
+	 * @param time the time
+	 * @param allocatedMips the allocated mips
+	 * @param requestedMips the requested mips
+	 * @param allocatedRam the allocated ram
+	 * @param requestedRam the requested ram
+	 * @param flag the flag
+	 */
+	protected void set(
+			int index,
+			double time,
+			double allocatedMips,
+			double requestedMips,
+			double allocatedRam,
+			double requestedRam,
+			boolean flag) {
+		checkIndex(index);
+		setSlot(slot(index), time, allocatedMips, requestedMips, allocatedRam, requestedRam, flag);
+	}
+
+	/**
+	 * Updates the aggregates of the history with a state that has become final.
+	 *
+	 * @param slot the slot of the state
+	 * @param timeDiff the time the state lasted
+	 */
+	protected abstract void accumulate(int slot, double timeDiff);
+
+	/**
+	 * Creates the entry of a state.
+	 *
+	 * @param slot the slot of the state
+	 * @return the entry
+	 */
+	protected abstract E createEntry(int slot);
+
+	/**
+	 * Gets the time of a state.
+	 *
+	 * @param slot the slot of the state
+	 * @return the time
+	 */
+	protected double getTime(int slot) {
+		return times[slot];
+	}
+
+	/**
+	 * Gets the allocated MIPS of a state.
+	 *
+	 * @param slot the slot of the state
+	 * @return the allocated mips
+	 */
+	protected double getAllocatedMips(int slot) {
+		return allocatedMips[slot];
+	}
+
+	/**
+	 * Gets the requested MIPS of a state.
+	 *
+	 * @param slot the slot of the state
+	 * @return the requested mips
+	 */
+	protected double getRequestedMips(int slot) {
+		return requestedMips[slot];
+	}
+
+	/**
+	 * Gets the allocated RAM of a state.
+	 *
+	 * @param slot the slot of the state
+	 * @return the allocated ram
+	 */
+	protected double getAllocatedRam(int slot) {
+		return allocatedRam[slot];
+	}
+
+	/**
+	 * Gets the requested RAM of a state.
+	 *
+	 * @param slot the slot of the state
+	 * @return the requested ram
+	 */
+	protected double getRequestedRam(int slot) {
+		return requestedRam[slot];
+	}
+
+	/**
+	 * Gets the flag of a state.
+	 *
+	 * @param slot the slot of the state
+	 * @return the flag
+	 */
+	protected boolean getFlag(int slot) {
+		return flags[slot];
+	}
+
+	/**
+	 * Gets the slot of the last state, which is not final yet.
+	 *
+	 * @return the slot, or -1 if the history is empty
+	 */
+	protected int getLastSlot() {
+		return size > 0 ? slot(size - 1) : -1;
+	}
+
+	@Override
+	public E get(int index) {
+		checkIndex(index);
+		return createEntry(slot(index));
+	}
+
+	/**
+	 * Removes a retained state, moving the later states back. The aggregates are not updated.
+	 *
+	 * @param index the index of the state in the history
+	 * @return the entry of the removed state
+	 */
+	@Override
+	public E remove(int index) {
+		E entry = get(index);
+		for (int i = index + 1; i < size; i++) {
+			int from = slot(i);
+			setSlot(slot(i - 1),
+					times[from],
+					allocatedMips[from],
+					requestedMips[from],
+					allocatedRam[from],
+					requestedRam[from],
+					flags[from]);
+		}
+		size--;
+		modCount++;
+		return entry;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Drops the retained states. The aggregates are kept.
+	 */
+	@Override
+	public void clear() {
+		head = 0;
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Checks the index of a retained state.
+	 *
+	 * @param index the index of the state in the history
+	 */
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	/**
+	 * Gets the slot of a retained state.
+	 *
+	 * @param index the index of the state in the history
+	 * @return the slot
+	 */
+	private int slot(int index) {
+		return (head + index) % times.length;
+	}
+
+	/**
+	 * Sets the fields of a slot.
+	 *
+	 * @param slot the slot
+	 * @param time the time
+	 * @param allocatedMips the allocated mips
+	 * @param requestedMips the requested mips
+	 * @param allocatedRam the allocated ram
+	 * @param requestedRam the requested ram
+	 * @param flag the flag
+	 */
+	private void setSlot(
+			int slot,
+			double time,
+			double allocatedMips,
+			double requestedMips,
+			double allocatedRam,
+			double requestedRam,
+			boolean flag) {
+		times[slot] = time;
+		this.allocatedMips[slot] = allocatedMips;
+		this.requestedMips[slot] = requestedMips;
+		this.allocatedRam[slot] = allocatedRam;
+		this.requestedRam[slot] = requestedRam;
+		flags[slot] = flag;
+	}
+
+	/**
+	 * Doubles the capacity of the arrays, moving the oldest state to the first slot.
+	 */
+	private void grow() {
+		boolean[] newFlags = new boolean[flags.length * 2];
+		for (int i = 0; i < size; i++) {
+			newFlags[i] = flags[slot(i)];
+		}
+		flags = newFlags;
+		times = unwrap(times);
+		allocatedMips = unwrap(allocatedMips);
+		requestedMips = unwrap(requestedMips);
+		allocatedRam = unwrap(allocatedRam);
+		requestedRam = unwrap(requestedRam);
+		head = 0;
+	}
+
+	/**
+	 * Copies the retained values of a full array into an array twice as large, from the oldest.
+	 *
+	 * @param values the values
+	 * @return the new array
+	 */
+	private double[] unwrap(double[] values) {
+		double[] result = Arrays.copyOf(values, values.length * 2);
+		if (head > 0) {
+			System.arraycopy(values, head, result, 0, values.length - head);
+			System.arraycopy(values, 0, result, values.length - head, head);
+		}
+		return result;
+	}
+
+	/**
+	 * Checks a retention window.
+	 *
+	 * @param retention the retention window
+	 */
+	private static void checkRetention(double retention) {
+		if (!(retention >= 0)) {
+			throw new IllegalArgumentException("The retention window should not be negative, but is: "
+					+ retention);
+		}
+	}
+
+	/**
+	 * The retention window of the histories created in a simulation, kept as an attribute of the
+	 * simulation.
+	 */
+	private static final class DefaultRetention {
+
+		/** The retention window. */
+		private final double retention;
+
+		/**
+		 * Instantiates a new default retention.
+		 *
+		 * @param retention the retention window
+		 */
+		private DefaultRetention(double retention) {
+			this.retention = retention;
+		}
+
+	}
+
+}
@@ -15,7 +15,7 @@ package org.cloudbus.cloudsim;
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
  */
-public class UtilizationModelFull implements UtilizationModel {
+public class UtilizationModelFull implements UtilizationModelPredictable {
 
 	/*
 	 * (non-Javadoc)
@@ -26,4 +26,13 @@ public class UtilizationModelFull implements UtilizationModel {
 		return 1;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.UtilizationModelPredictable#getSteadyUntil(double)
+	 */
+	@Override
+	public double getSteadyUntil(double time) {
+		return Double.MAX_VALUE;
+	}
+
 }
@@ -15,7 +15,7 @@ package org.cloudbus.cloudsim;
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
  */
-public class UtilizationModelNull implements UtilizationModel {
+public class UtilizationModelNull implements UtilizationModelPredictable {
 
 	/*
 	 * (non-Javadoc)
@@ -25,4 +25,14 @@ public class UtilizationModelNull implements UtilizationModel {
 	public double getUtilization(double time) {
 		return 0;
 	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.UtilizationModelPredictable#getSteadyUntil(double)
+	 */
+	@Override
+	public double getSteadyUntil(double time) {
+		return Double.MAX_VALUE;
+	}
+
 }
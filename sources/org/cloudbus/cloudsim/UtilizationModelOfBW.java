@@ -24,7 +24,7 @@ import java.io.InputStreamReader;
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
  */
-public class UtilizationModelOfBW implements UtilizationModel {
+public class UtilizationModelOfBW implements UtilizationModelPredictable {
 
 	
 	/** The scheduling interval. */
@@ -32,6 +32,9 @@ public class UtilizationModelOfBW implements UtilizationModel {
 
 	/** The data (5 min * 288 = 24 hours). */
 	private double[] data;
+
+	/** The index of the last sample of the run of equal samples that starts with each sample. */
+	private int[] runEnds;
 	  
 	public UtilizationModelOfBW(String inputPath, double schedulingInterval) throws NumberFormatException, IOException {
 		
@@ -52,6 +55,7 @@ public class UtilizationModelOfBW implements UtilizationModel {
 	    }
   
 	    data[n - 1] = data[n - 2];
+	    runEnds = UtilizationModelPlanetLabInMemory.getRunEnds(data);
 	    input.close();
 	}
 
@@ -71,6 +75,15 @@ public class UtilizationModelOfBW implements UtilizationModel {
 		
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.UtilizationModelPredictable#getSteadyUntil(double)
+	 */
+	@Override
+	public double getSteadyUntil(double time) {
+		return UtilizationModelPlanetLabInMemory.getSteadyUntil(runEnds, getSchedulingInterval(), time);
+	}
+
 	/**
 	 * Sets the scheduling interval.
 	 * 
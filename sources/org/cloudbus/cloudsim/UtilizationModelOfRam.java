@@ -21,7 +21,7 @@ import java.io.InputStreamReader;
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
  */
-public class UtilizationModelOfRam implements UtilizationModel {
+public class UtilizationModelOfRam implements UtilizationModelPredictable {
 
 	
 	/** The scheduling interval. */
@@ -29,6 +29,9 @@ public class UtilizationModelOfRam implements UtilizationModel {
 
 	/** The data (5 min * 288 = 24 hours). */
 	private double[] data;
+
+	/** The index of the last sample of the run of equal samples that starts with each sample. */
+	private int[] runEnds;
 	  
 	
 	public UtilizationModelOfRam(String inputPath, double schedulingInterval) throws NumberFormatException, IOException {
@@ -47,6 +50,7 @@ public class UtilizationModelOfRam implements UtilizationModel {
 		}
 		    
 	    data[n - 1] = data[n - 2];
+	    runEnds = UtilizationModelPlanetLabInMemory.getRunEnds(data);
 	    input.close();
 	}
 
@@ -67,6 +71,15 @@ public class UtilizationModelOfRam implements UtilizationModel {
 		
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.UtilizationModelPredictable#getSteadyUntil(double)
+	 */
+	@Override
+	public double getSteadyUntil(double time) {
+		return UtilizationModelPlanetLabInMemory.getSteadyUntil(runEnds, getSchedulingInterval(), time);
+	}
+
 	/**
 	 * Sets the scheduling interval.
 	 * 
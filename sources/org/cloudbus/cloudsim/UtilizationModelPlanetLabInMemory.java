@@ -9,13 +9,16 @@ import java.io.InputStreamReader;
 /**
  * The Class UtilizationModelPlanetLab.
  */
-public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
+public class UtilizationModelPlanetLabInMemory implements UtilizationModelPredictable {
 	
 	/** The scheduling interval. */
 	private double schedulingInterval;
 
 	/** The data (5 min * 288 = 24 hours). */
 	private double[] data;
+
+	/** The index of the last sample of the run of equal samples that starts with each sample. */
+	private int[] runEnds;
 	  
 	public UtilizationModelPlanetLabInMemory(String inputPath, double schedulingInterval) throws NumberFormatException, IOException {
 	  	
@@ -35,6 +38,7 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 		}	  
 		
 	    data[n - 1] = data[n - 2]; 
+		runEnds = getRunEnds(data);
 		input.close();
 	}
 	
@@ -57,6 +61,15 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.UtilizationModelPredictable#getSteadyUntil(double)
+	 */
+	@Override
+	public double getSteadyUntil(double time) {
+		return getSteadyUntil(runEnds, getSchedulingInterval(), time);
+	}
+
 	/**
 	 * Sets the scheduling interval.
 	 * 
@@ -74,4 +87,41 @@ public class UtilizationModelPlanetLabInMemory implements UtilizationModel {
 	public double getSchedulingInterval() {
 		return schedulingInterval;
 	}
+
+	/**
+	 * Gets, for each sample of a trace, the index of the last sample of the run of equal samples
+	 * that starts with it.
+	 * 
+	 * @param data the samples
+	 * @return the indexes of the ends of the runs
+	 */
+	static int[] getRunEnds(double[] data) {
+		int[] runEnds = new int[data.length];
+		for (int i = data.length - 1; i >= 0; i--) {
+			if (i + 1 < data.length && data[i + 1] == data[i]) {
+				runEnds[i] = runEnds[i + 1];
+			} else {
+				runEnds[i] = i;
+			}
+		}
+		return runEnds;
+	}
+
+	/**
+	 * Gets the time until which a trace, linearly interpolated between its samples, stays equal to
+	 * its value at a given time.
+	 * 
+	 * @param runEnds the ends of the runs of equal samples of the trace
+	 * @param schedulingInterval the time between the samples
+	 * @param time the time
+	 * @return the time until which the trace does not change
+	 */
+	static double getSteadyUntil(int[] runEnds, double schedulingInterval, double time) {
+		int index = (int) Math.floor(time / schedulingInterval);
+		if (index < 0 || index >= runEnds.length - 1 || runEnds[index] == index) {
+			return time;
+		}
+		return runEnds[index] * schedulingInterval;
+	}
+
 }
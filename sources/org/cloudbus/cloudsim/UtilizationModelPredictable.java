@@ -0,0 +1,30 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+/**
+ * A utilization model that can tell in advance how long the utilization stays the same. The power
+ * data center uses it to skip the scheduling intervals in which nothing changes (see
+ * {@link org.cloudbus.cloudsim.power.PowerDatacenter#setFastForward(boolean)}).
+ * 
+ * @since CloudSim Toolkit 3.1
+ */
+public interface UtilizationModelPredictable extends UtilizationModel {
+
+	/**
+	 * Gets the time until which the utilization stays equal to the utilization at a given time.
+	 * 
+	 * @param time the time
+	 * @return the last time at which the utilization is the same as at the given time, the given
+	 *         time itself if the utilization changes right after it, or {@link Double#MAX_VALUE}
+	 *         if the utilization never changes
+	 */
+	double getSteadyUntil(double time);
+
+}
@@ -7,8 +7,6 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -74,7 +72,7 @@ public class Vm {
 	private boolean beingInstantiated;
 
 	/** The mips allocation history. */
-	private final List<VmStateHistoryEntry> stateHistory = new LinkedList<VmStateHistoryEntry>();
+	private final VmStateHistory stateHistory = new VmStateHistory();
 
 	/**
 	 * Creates a new VMCharacteristics object.
@@ -153,10 +151,7 @@ public class Vm {
 	public List<Double> getCurrentRequestedMips() {
 		List<Double> currentRequestedMips = getCloudletScheduler().getCurrentRequestedMips();
 		if (isBeingInstantiated()) {
-			currentRequestedMips = new ArrayList<Double>();
-			for (int i = 0; i < getNumberOfPes(); i++) {
-				currentRequestedMips.add(getMips());
-			}
+			currentRequestedMips = MipsShare.uniform(getNumberOfPes(), getMips());
 		}
 		return currentRequestedMips;
 	}
@@ -168,11 +163,7 @@ public class Vm {
 	 * @return the current requested total mips
 	 */
 	public double getCurrentRequestedTotalMips() {
-		double totalRequestedMips = 0;
-		for (double mips : getCurrentRequestedMips()) {
-			totalRequestedMips += mips;
-		}
-		return totalRequestedMips;
+		return MipsShare.of(getCurrentRequestedMips()).getTotal();
 	}
 	
 	
@@ -183,13 +174,7 @@ public class Vm {
 	 * @return the current requested max mips
 	 */
 	public double getCurrentRequestedMaxMips() {
-		double maxMips = 0;
-		for (double mips : getCurrentRequestedMips()) {
-			if (mips > maxMips) {
-				maxMips = mips;
-			}
-		}
-		return maxMips;
+		return MipsShare.of(getCurrentRequestedMips()).getMax();
 	}
 
 	/**
@@ -315,6 +300,61 @@ public class Vm {
 		return userId + "-" + vmId;
 	}
 
+	/**
+	 * Generate unique string identificator of the VM with a given key.
+	 *
+	 * @param key the key of the VM, see {@link #getKey(int, int)}
+	 * @return string uid
+	 */
+	public static String getUid(long key) {
+		return getUid((int) (key >> 32), (int) key);
+	}
+
+	/**
+	 * Gets the unique key of the VM, which identifies it in the allocation tables of the schedulers,
+	 * the provisioners and the allocation policies like the uid, without building nor hashing a
+	 * string.
+	 *
+	 * @return the key
+	 */
+	public long getKey() {
+		return getKey(getUserId(), getId());
+	}
+
+	/**
+	 * Generate the unique key of a VM: the user id in the high 32 bits and the vm id in the low 32
+	 * bits.
+	 *
+	 * @param userId the user id
+	 * @param vmId the vm id
+	 * @return the key
+	 */
+	public static long getKey(int userId, int vmId) {
+		return (long) userId << 32 | vmId & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * Generate the unique key of the VM with a given uid.
+	 *
+	 * @param uid the uid, see {@link #getUid(int, int)}
+	 * @return the key
+	 * @throws IllegalArgumentException if the uid is not made of a user id and a vm id
+	 */
+	public static long getKey(String uid) {
+		// the user id may be negative, so its sign is not taken for the separator
+		int separator = uid.indexOf('-', 1);
+		if (separator < 0) {
+			throw new IllegalArgumentException("Not a VM uid: " + uid);
+		}
+		try {
+			return getKey(
+					Integer.parseInt(uid.substring(0, separator)),
+					Integer.parseInt(uid.substring(separator + 1)));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Not a VM uid: " + uid);
+		}
+	}
+
 	/**
 	 * Gets the id.
 	 * 
@@ -625,12 +665,22 @@ public class Vm {
 	/**
 	 * Gets the state history.
 	 * 
-	 * @return the state history
+	 * @return the state history, as a list of entries
+	 * @see #getVmStateHistory()
 	 */
 	public List<VmStateHistoryEntry> getStateHistory() {
 		return stateHistory;
 	}
 
+	/**
+	 * Gets the state history, with the aggregates of the states over the whole simulation.
+	 * 
+	 * @return the state history
+	 */
+	public VmStateHistory getVmStateHistory() {
+		return stateHistory;
+	}
+
 	/**
 	 * Adds the state history entry.
 	 * 
@@ -648,21 +698,7 @@ public class Vm {
 			double requestedRam,
 			int allocatedRam,
 			boolean isInMigration) {
-		VmStateHistoryEntry newState = new VmStateHistoryEntry(
-				time,
-				allocatedMips,
-				requestedMips,
-				requestedRam,
-				allocatedRam,
-				isInMigration);
-		if (!getStateHistory().isEmpty()) {
-			VmStateHistoryEntry previousState = getStateHistory().get(getStateHistory().size() - 1);
-			if (previousState.getTime() == time) {
-				getStateHistory().set(getStateHistory().size() - 1, newState);
-				return;
-			}
-		}
-		getStateHistory().add(newState);
+		getVmStateHistory().add(time, allocatedMips, requestedMips, requestedRam, allocatedRam, isInMigration);
 	}
 
 }
@@ -67,6 +67,20 @@ public abstract class VmAllocationPolicy {
 	 */
 	public abstract List<Map<String, Object>> optimizeAllocation(List<? extends Vm> vmList);
 
+	/**
+	 * Checks whether the decisions of {@link #optimizeAllocation(List)} depend only on the current
+	 * utilization of the hosts and VMs, so that a data center can skip calling it while the
+	 * utilization does not change. A policy that keeps a history of the hosts, or whose decisions
+	 * depend on the time or on the number of calls, must return <tt>false</tt>, which is the
+	 * default.
+	 * 
+	 * @return true, if the policy can be skipped while the utilization does not change
+	 * @see org.cloudbus.cloudsim.power.PowerDatacenter#setFastForward(boolean)
+	 */
+	public boolean supportsFastForward() {
+		return false;
+	}
+
 	/**
 	 * Releases the host used by a VM.
 	 * 
@@ -0,0 +1,300 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.util.LongObjectMap;
+
+/**
+ * A map from VMs to values, such as the allocation tables of the VM schedulers, the provisioners
+ * and the VM allocation policies. The VMs are identified by their primitive key (see
+ * {@link Vm#getKey()}), so that the lookups neither hash a string nor box the key. The map is
+ * also a map keyed by the uids of the VMs (see {@link Vm#getUid()}), for the code written against
+ * the string keys; these methods convert the uids into keys. The few strings that are not uids,
+ * such as the keys some subclasses of the schedulers and policies may put in their tables, are
+ * kept apart in a plain map, so that the map accepts any string key as the maps it replaces did.
+ *
+ * @param <V> the type of the values
+ * @since CloudSim Toolkit 3.1
+ */
+public class VmMap<V> extends AbstractMap<String, V> {
+
+	/** The values by key of the VM. */
+	private final LongObjectMap<V> map = new LongObjectMap<V>();
+
+	/** The values of the keys that are not VM uids, created when first used. */
+	private Map<String, V> otherMap;
+
+	/** The entries keyed by uid, created when first used. */
+	private Set<Map.Entry<String, V>> entrySet;
+
+	/**
+	 * Instantiates a new empty map.
+	 */
+	public VmMap() {
+	}
+
+	/**
+	 * Instantiates a new map with the mappings of a map keyed by uids.
+	 *
+	 * @param map the map
+	 */
+	public VmMap(Map<String, ? extends V> map) {
+		putAll(map);
+	}
+
+	/**
+	 * Gets a map as a map from VMs to values.
+	 *
+	 * @param <V> the type of the values
+	 * @param map the map keyed by uids
+	 * @return the map itself if it is a {@link VmMap}, otherwise a new map with its mappings
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> VmMap<V> of(Map<String, V> map) {
+		if (map instanceof VmMap) {
+			return (VmMap<V>) map;
+		}
+		return new VmMap<V>(map);
+	}
+
+	/**
+	 * Gets the value of a VM.
+	 *
+	 * @param vmKey the key of the VM
+	 * @return the value, or null if there is none
+	 */
+	public V get(long vmKey) {
+		return map.get(vmKey);
+	}
+
+	/**
+	 * Checks whether a VM has a value.
+	 *
+	 * @param vmKey the key of the VM
+	 * @return true, if there is a value
+	 */
+	public boolean containsKey(long vmKey) {
+		return map.containsKey(vmKey);
+	}
+
+	/**
+	 * Sets the value of a VM.
+	 *
+	 * @param vmKey the key of the VM
+	 * @param value the value, not null
+	 * @return the previous value, or null if there was none
+	 */
+	public V put(long vmKey, V value) {
+		return map.put(vmKey, value);
+	}
+
+	/**
+	 * Removes the value of a VM.
+	 *
+	 * @param vmKey the key of the VM
+	 * @return the removed value, or null if there was none
+	 */
+	public V remove(long vmKey) {
+		return map.remove(vmKey);
+	}
+
+	/**
+	 * Gets the keys of the VMs that have a value.
+	 *
+	 * @return a new array with the keys
+	 */
+	public long[] keys() {
+		return map.keys();
+	}
+
+	@Override
+	public V get(Object uid) {
+		if (!isUid(uid)) {
+			return otherMap == null ? null : otherMap.get(uid);
+		}
+		return map.get(Vm.getKey((String) uid));
+	}
+
+	@Override
+	public boolean containsKey(Object uid) {
+		if (!isUid(uid)) {
+			return otherMap != null && otherMap.containsKey(uid);
+		}
+		return map.containsKey(Vm.getKey((String) uid));
+	}
+
+	@Override
+	public V put(String uid, V value) {
+		if (!isUid(uid)) {
+			if (otherMap == null) {
+				otherMap = new HashMap<String, V>();
+			}
+			return otherMap.put(uid, value);
+		}
+		return map.put(Vm.getKey(uid), value);
+	}
+
+	@Override
+	public V remove(Object uid) {
+		if (!isUid(uid)) {
+			return otherMap == null ? null : otherMap.remove(uid);
+		}
+		return map.remove(Vm.getKey((String) uid));
+	}
+
+	@Override
+	public int size() {
+		return map.size() + (otherMap == null ? 0 : otherMap.size());
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public void clear() {
+		map.clear();
+		otherMap = null;
+	}
+
+	@Override
+	public Set<Map.Entry<String, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new AbstractSet<Map.Entry<String, V>>() {
+
+				@Override
+				public Iterator<Map.Entry<String, V>> iterator() {
+					return new EntryIterator();
+				}
+
+				@Override
+				public int size() {
+					return VmMap.this.size();
+				}
+
+				@Override
+				public void clear() {
+					VmMap.this.clear();
+				}
+
+			};
+		}
+		return entrySet;
+	}
+
+	/**
+	 * Checks whether an object is a VM uid.
+	 *
+	 * @param uid the object
+	 * @return true, if it is a string made of a user id and a vm id, written as
+	 *         {@link Vm#getUid(int, int)} writes it
+	 */
+	private static boolean isUid(Object uid) {
+		if (!(uid instanceof String)) {
+			return false;
+		}
+		try {
+			return Vm.getUid(Vm.getKey((String) uid)).equals(uid);
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * An iterator over the entries keyed by uid, which iterates over the keys the map had when it
+	 * was created, then over the entries of the keys that are not uids.
+	 */
+	private final class EntryIterator implements Iterator<Map.Entry<String, V>> {
+
+		/** The keys. */
+		private final long[] keys = map.keys();
+
+		/** The position of the next key. */
+		private int next;
+
+		/** The position of the last key returned, or -1 if there is none or it has been removed. */
+		private int lastReturned = -1;
+
+		/** The iterator over the entries of the keys that are not uids, once the keys are done. */
+		private Iterator<Map.Entry<String, V>> others;
+
+		/** Whether the last entry returned is one of a key that is not a uid. */
+		private boolean lastOther;
+
+		@Override
+		public boolean hasNext() {
+			if (next < keys.length) {
+				return true;
+			}
+			return getOthers().hasNext();
+		}
+
+		@Override
+		public Map.Entry<String, V> next() {
+			if (next >= keys.length) {
+				Map.Entry<String, V> entry = getOthers().next();
+				lastOther = true;
+				return entry;
+			}
+			lastReturned = next;
+			final long key = keys[next++];
+			return new AbstractMap.SimpleEntry<String, V>(Vm.getUid(key), map.get(key)) {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public V setValue(V value) {
+					map.put(key, value);
+					return super.setValue(value);
+				}
+
+			};
+		}
+
+		@Override
+		public void remove() {
+			if (lastOther) {
+				others.remove();
+				return;
+			}
+			if (lastReturned < 0) {
+				throw new IllegalStateException();
+			}
+			map.remove(keys[lastReturned]);
+			lastReturned = -1;
+		}
+
+		/**
+		 * Gets the iterator over the entries of the keys that are not uids.
+		 *
+		 * @return the iterator
+		 */
+		private Iterator<Map.Entry<String, V>> getOthers() {
+			if (others == null) {
+				if (otherMap == null) {
+					others = Collections.<Map.Entry<String, V>> emptyIterator();
+				} else {
+					others = otherMap.entrySet().iterator();
+				}
+			}
+			return others;
+		}
+
+	}
+
+}
@@ -8,7 +8,6 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -28,10 +27,10 @@ public abstract class VmScheduler {
 	private List<? extends Pe> peList;
 
 	/** The map of VMs to PEs. */
-	private Map<String, List<Pe>> peMap;
+	private VmMap<List<Pe>> peMap;
 
 	/** The MIPS that are currently allocated to the VMs. */
-	private Map<String, List<Double>> mipsMap;
+	private VmMap<List<Double>> mipsMap;
 
 	/** The total available mips. */
 	private double availableMips;
@@ -51,8 +50,8 @@ public abstract class VmScheduler {
 	 */
 	public VmScheduler(List<? extends Pe> pelist) {
 		setPeList(pelist);
-		setPeMap(new HashMap<String, List<Pe>>());
-		setMipsMap(new HashMap<String, List<Double>>());
+		setPeMap(new VmMap<List<Pe>>());
+		setMipsMap(new VmMap<List<Double>>());
 		setAvailableMips(PeList.getTotalMips(getPeList()));
 		setVmsMigratingIn(new ArrayList<String>());
 		setVmsMigratingOut(new ArrayList<String>());
@@ -69,6 +68,29 @@ public abstract class VmScheduler {
 	 */
 	public abstract boolean allocatePesForVm(Vm vm, List<Double> mipsShare);
 
+	/**
+	 * Checks whether PEs could be allocated for a VM, without keeping them allocated. This
+	 * implementation allocates the PEs and releases them again; the subclasses that can tell it from
+	 * their state, as the schedulers of this package do, override it to leave the allocation
+	 * untouched. A VM that already holds PEs of this scheduler is not reallocated and is taken as
+	 * suitable.
+	 * 
+	 * @param vm the vm
+	 * @param mipsShare the mips share
+	 * @return $true if {@link #allocatePesForVm(Vm, List)} would allow the VM in the host, $false
+	 *         otherwise
+	 */
+	public boolean isSuitableForVm(Vm vm, List<Double> mipsShare) {
+		if (getAllocatedMipsForVm(vm) != null) {
+			return true;
+		}
+		if (!allocatePesForVm(vm, mipsShare)) {
+			return false;
+		}
+		deallocatePesForVm(vm);
+		return true;
+	}
+
 	/**
 	 * Releases PEs allocated to a VM.
 	 * 
@@ -121,7 +143,7 @@ public abstract class VmScheduler {
 	 * @return the pes allocated for vm
 	 */
 	public List<Pe> getPesAllocatedForVM(Vm vm) {
-		return getPeMap().get(vm.getUid());
+		return getPeMap().get(vm.getKey());
 	}
 
 	/**
@@ -133,7 +155,7 @@ public abstract class VmScheduler {
 	 * @post $none
 	 */
 	public List<Double> getAllocatedMipsForVm(Vm vm) {
-		return getMipsMap().get(vm.getUid());
+		return getMipsMap().get(vm.getKey());
 	}
 
 	/**
@@ -143,14 +165,11 @@ public abstract class VmScheduler {
 	 * @return the allocated mips for vm
 	 */
 	public double getTotalAllocatedMipsForVm(Vm vm) {
-		double allocated = 0;
-		List<Double> mipsMap = getAllocatedMipsForVm(vm);
-		if (mipsMap != null) {
-			for (double mips : mipsMap) {
-				allocated += mips;
-			}
+		List<Double> mipsShare = getAllocatedMipsForVm(vm);
+		if (mipsShare == null) {
+			return 0;
 		}
-		return allocated;
+		return MipsShare.of(mipsShare).getTotal();
 	}
 
 	/**
@@ -214,17 +233,18 @@ public abstract class VmScheduler {
 	 * 
 	 * @return the mips map
 	 */
-	protected Map<String, List<Double>> getMipsMap() {
+	protected VmMap<List<Double>> getMipsMap() {
 		return mipsMap;
 	}
 
 	/**
-	 * Sets the mips map.
+	 * Sets the mips map. A map that is not a {@link VmMap} is copied into a new one, so that the
+	 * changes made to it afterwards are not seen here.
 	 * 
 	 * @param mipsMap the mips map
 	 */
 	protected void setMipsMap(Map<String, List<Double>> mipsMap) {
-		this.mipsMap = mipsMap;
+		this.mipsMap = VmMap.of(mipsMap);
 	}
 
 	/**
@@ -281,22 +301,45 @@ public abstract class VmScheduler {
 		this.vmsMigratingIn = vmsMigratingIn;
 	}
 
+	/**
+	 * Checks whether a VM is migrating in. The uid of the VM is only built when some VMs are
+	 * migrating in.
+	 * 
+	 * @param vmKey the key of the VM
+	 * @return true, if the VM is migrating in
+	 */
+	protected boolean isVmMigratingIn(long vmKey) {
+		return !getVmsMigratingIn().isEmpty() && getVmsMigratingIn().contains(Vm.getUid(vmKey));
+	}
+
+	/**
+	 * Checks whether a VM is migrating out. The uid of the VM is only built when some VMs are
+	 * migrating out.
+	 * 
+	 * @param vmKey the key of the VM
+	 * @return true, if the VM is migrating out
+	 */
+	protected boolean isVmMigratingOut(long vmKey) {
+		return !getVmsMigratingOut().isEmpty() && getVmsMigratingOut().contains(Vm.getUid(vmKey));
+	}
+
 	/**
 	 * Gets the pe map.
 	 * 
 	 * @return the pe map
 	 */
-	public Map<String, List<Pe>> getPeMap() {
+	public VmMap<List<Pe>> getPeMap() {
 		return peMap;
 	}
 
 	/**
-	 * Sets the pe map.
+	 * Sets the pe map. A map that is not a {@link VmMap} is copied into a new one, so that the
+	 * changes made to it afterwards are not seen here.
 	 * 
 	 * @param peMap the pe map
 	 */
 	protected void setPeMap(Map<String, List<Pe>> peMap) {
-		this.peMap = peMap;
+		this.peMap = VmMap.of(peMap);
 	}
 
 }
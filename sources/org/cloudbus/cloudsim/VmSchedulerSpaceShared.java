@@ -9,7 +9,6 @@
 package org.cloudbus.cloudsim;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -26,7 +25,7 @@ import java.util.Map;
 public class VmSchedulerSpaceShared extends VmScheduler {
 
 	/** Map containing VM ID and a vector of PEs allocated to this VM. */
-	private Map<String, List<Pe>> peAllocationMap;
+	private VmMap<List<Pe>> peAllocationMap;
 
 	/** The free pes vector. */
 	private List<Pe> freePes;
@@ -38,7 +37,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 */
 	public VmSchedulerSpaceShared(List<? extends Pe> pelist) {
 		super(pelist);
-		setPeAllocationMap(new HashMap<String, List<Pe>>());
+		setPeAllocationMap(new VmMap<List<Pe>>());
 		setFreePes(new ArrayList<Pe>());
 		getFreePes().addAll(pelist);
 	}
@@ -75,37 +74,64 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 
 		getFreePes().removeAll(selectedPes);
 
-		getPeAllocationMap().put(vm.getUid(), selectedPes);
-		getMipsMap().put(vm.getUid(), mipsShare);
+		getPeAllocationMap().put(vm.getKey(), selectedPes);
+		getMipsMap().put(vm.getKey(), MipsShare.of(mipsShare));
 		setAvailableMips(getAvailableMips() - totalMips);
 		return true;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.VmScheduler#isSuitableForVm(org.cloudbus.cloudsim.Vm,
+	 * java.util.List)
+	 */
+	@Override
+	public boolean isSuitableForVm(Vm vm, List<Double> mipsShare) {
+		if (getFreePes().size() < mipsShare.size()) {
+			return false;
+		}
+
+		// the same selection of free PEs as allocatePesForVm, only counted
+		int selectedPes = 0;
+		Iterator<Pe> peIterator = getFreePes().iterator();
+		Pe pe = peIterator.next();
+		for (Double mips : mipsShare) {
+			if (mips <= pe.getMips()) {
+				selectedPes++;
+				if (!peIterator.hasNext()) {
+					break;
+				}
+				pe = peIterator.next();
+			}
+		}
+		return mipsShare.size() <= selectedPes;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.cloudbus.cloudsim.VmScheduler#deallocatePesForVm(org.cloudbus.cloudsim.Vm)
 	 */
 	@Override
 	public void deallocatePesForVm(Vm vm) {
-		getFreePes().addAll(getPeAllocationMap().get(vm.getUid()));
-		getPeAllocationMap().remove(vm.getUid());
+		getFreePes().addAll(getPeAllocationMap().remove(vm.getKey()));
 
 		double totalMips = 0;
-		for (double mips : getMipsMap().get(vm.getUid())) {
+		for (double mips : getMipsMap().get(vm.getKey())) {
 			totalMips += mips;
 		}
 		setAvailableMips(getAvailableMips() + totalMips);
 
-		getMipsMap().remove(vm.getUid());
+		getMipsMap().remove(vm.getKey());
 	}
 
 	/**
-	 * Sets the pe allocation map.
+	 * Sets the pe allocation map. A map that is not a {@link VmMap} is copied into a new one, so
+	 * that the changes made to it afterwards are not seen here.
 	 * 
 	 * @param peAllocationMap the pe allocation map
 	 */
 	protected void setPeAllocationMap(Map<String, List<Pe>> peAllocationMap) {
-		this.peAllocationMap = peAllocationMap;
+		this.peAllocationMap = VmMap.of(peAllocationMap);
 	}
 
 	/**
@@ -113,7 +139,7 @@ public class VmSchedulerSpaceShared extends VmScheduler {
 	 * 
 	 * @return the pe allocation map
 	 */
-	protected Map<String, List<Pe>> getPeAllocationMap() {
+	protected VmMap<List<Pe>> getPeAllocationMap() {
 		return peAllocationMap;
 	}
 
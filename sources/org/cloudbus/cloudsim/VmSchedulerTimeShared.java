@@ -7,8 +7,6 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -29,7 +27,7 @@ import org.cloudbus.cloudsim.provisioners.PeProvisioner;
 public class VmSchedulerTimeShared extends VmScheduler {
 
 	/** The mips map requested. */
-	private Map<String, List<Double>> mipsMapRequested;
+	private VmMap<List<Double>> mipsMapRequested;
 
 	/** The pes in use. */
 	private int pesInUse;
@@ -41,7 +39,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 */
 	public VmSchedulerTimeShared(List<? extends Pe> pelist) {
 		super(pelist);
-		setMipsMapRequested(new HashMap<String, List<Double>>());
+		setMipsMapRequested(new VmMap<List<Double>>());
 	}
 
 	/*
@@ -62,27 +60,50 @@ public class VmSchedulerTimeShared extends VmScheduler {
 				getVmsMigratingOut().remove(vm.getUid());
 			}
 		}
-		boolean result = allocatePesForVm(vm.getUid(), mipsShareRequested);
+		boolean result = allocatePesForVm(vm.getKey(), mipsShareRequested);
 		updatePeProvisioning();
 		return result;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.VmScheduler#isSuitableForVm(org.cloudbus.cloudsim.Vm,
+	 * java.util.List)
+	 */
+	@Override
+	public boolean isSuitableForVm(Vm vm, List<Double> mipsShareRequested) {
+		MipsShare requested = MipsShare.of(mipsShareRequested);
+		if (requested.getMax() > getPeCapacity()) {
+			return false;
+		}
+		return getAvailableMips() >= requested.getTotal();
+	}
+
 	/**
-	 * Allocate pes for vm.
+	 * Allocate pes for vm. The subclasses override {@link #allocatePesForVm(long, List)}, which
+	 * this method calls.
 	 * 
 	 * @param vmUid the vm uid
 	 * @param mipsShareRequested the mips share requested
 	 * @return true, if successful
 	 */
 	protected boolean allocatePesForVm(String vmUid, List<Double> mipsShareRequested) {
-		double totalRequestedMips = 0;
-		double peMips = getPeCapacity();
-		for (Double mips : mipsShareRequested) {
-			// each virtual PE of a VM must require not more than the capacity of a physical PE
-			if (mips > peMips) {
-				return false;
-			}
-			totalRequestedMips += mips;
+		return allocatePesForVm(Vm.getKey(vmUid), mipsShareRequested);
+	}
+
+	/**
+	 * Allocate pes for vm.
+	 * 
+	 * @param vmKey the key of the vm
+	 * @param mipsShareRequested the mips share requested
+	 * @return true, if successful
+	 */
+	protected boolean allocatePesForVm(long vmKey, List<Double> mipsShareRequested) {
+		MipsShare requested = MipsShare.of(mipsShareRequested);
+		double totalRequestedMips = requested.getTotal();
+		// each virtual PE of a VM must require not more than the capacity of a physical PE
+		if (requested.getMax() > getPeCapacity()) {
+			return false;
 		}
 
 		// This scheduler does not allow over-subscription
@@ -90,27 +111,28 @@ public class VmSchedulerTimeShared extends VmScheduler {
 			return false;
 		}
 
-		getMipsMapRequested().put(vmUid, mipsShareRequested);
-		setPesInUse(getPesInUse() + mipsShareRequested.size());
+		getMipsMapRequested().put(vmKey, requested);
+		setPesInUse(getPesInUse() + requested.size());
 
-		if (getVmsMigratingIn().contains(vmUid)) {
+		boolean migratingIn = isVmMigratingIn(vmKey);
+		boolean migratingOut = isVmMigratingOut(vmKey);
+		if (migratingIn) {
 			// the destination host only experience 10% of the migrating VM's MIPS
 			totalRequestedMips *= 0.1;
 		}
 
-		List<Double> mipsShareAllocated = new ArrayList<Double>();
-		for (Double mipsRequested : mipsShareRequested) {
-			if (getVmsMigratingOut().contains(vmUid)) {
+		double[] mipsShareAllocated = requested.toDoubleArray();
+		for (int i = 0; i < mipsShareAllocated.length; i++) {
+			if (migratingOut) {
 				// performance degradation due to migration = 10% MIPS
-				mipsRequested *= 0.9;
-			} else if (getVmsMigratingIn().contains(vmUid)) {
+				mipsShareAllocated[i] *= 0.9;
+			} else if (migratingIn) {
 				// the destination host only experience 10% of the migrating VM's MIPS
-				mipsRequested *= 0.1;
+				mipsShareAllocated[i] *= 0.1;
 			}
-			mipsShareAllocated.add(mipsRequested);
 		}
 
-		getMipsMap().put(vmUid, mipsShareAllocated);
+		getMipsMap().put(vmKey, new MipsShare(mipsShareAllocated));
 		setAvailableMips(getAvailableMips() - totalRequestedMips);
 
 		return true;
@@ -130,26 +152,27 @@ public class VmSchedulerTimeShared extends VmScheduler {
 		PeProvisioner peProvisioner = pe.getPeProvisioner();
 		double availableMips = peProvisioner.getAvailableMips();
 
-		for (Map.Entry<String, List<Double>> entry : getMipsMap().entrySet()) {
-			String vmUid = entry.getKey();
-			getPeMap().put(vmUid, new LinkedList<Pe>());
+		for (long vmKey : getMipsMap().keys()) {
+			List<Pe> pes = new LinkedList<Pe>();
+			getPeMap().put(vmKey, pes);
 
-			for (double mips : entry.getValue()) {
+			for (double mips : getMipsMap().get(vmKey)) {
 				while (mips >= 0.1) {
 					if (availableMips >= mips) {
-						peProvisioner.allocateMipsForVm(vmUid, mips);
-						getPeMap().get(vmUid).add(pe);
+						peProvisioner.allocateMipsForVm(vmKey, mips);
+						pes.add(pe);
 						availableMips -= mips;
 						break;
 					} else {
-						peProvisioner.allocateMipsForVm(vmUid, availableMips);
-						getPeMap().get(vmUid).add(pe);
+						peProvisioner.allocateMipsForVm(vmKey, availableMips);
+						pes.add(pe);
 						mips -= availableMips;
 						if (mips <= 0.1) {
 							break;
 						}
 						if (!peIterator.hasNext()) {
-							Log.printLine("There is no enough MIPS (" + mips + ") to accommodate VM " + vmUid);
+							Log.printConcatLine(Log.Category.CORE, Log.Level.WARNING, "There is no enough MIPS (",
+									mips, ") to accommodate VM ", Vm.getUid(vmKey));
 							// System.exit(0);
 						}
 						pe = peIterator.next();
@@ -167,7 +190,7 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 */
 	@Override
 	public void deallocatePesForVm(Vm vm) {
-		getMipsMapRequested().remove(vm.getUid());
+		getMipsMapRequested().remove(vm.getKey());
 		setPesInUse(0);
 		getMipsMap().clear();
 		setAvailableMips(PeList.getTotalMips(getPeList()));
@@ -176,8 +199,8 @@ public class VmSchedulerTimeShared extends VmScheduler {
 			pe.getPeProvisioner().deallocateMipsForVm(vm);
 		}
 
-		for (Map.Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
-			allocatePesForVm(entry.getKey(), entry.getValue());
+		for (long vmKey : getMipsMapRequested().keys()) {
+			allocatePesForVm(vmKey, getMipsMapRequested().get(vmKey));
 		}
 
 		updatePeProvisioning();
@@ -230,17 +253,18 @@ public class VmSchedulerTimeShared extends VmScheduler {
 	 * 
 	 * @return the mips map requested
 	 */
-	protected Map<String, List<Double>> getMipsMapRequested() {
+	protected VmMap<List<Double>> getMipsMapRequested() {
 		return mipsMapRequested;
 	}
 
 	/**
-	 * Sets the mips map requested.
+	 * Sets the mips map requested. A map that is not a {@link VmMap} is copied into a new one, so
+	 * that the changes made to it afterwards are not seen here.
 	 * 
 	 * @param mipsMapRequested the mips map requested
 	 */
 	protected void setMipsMapRequested(Map<String, List<Double>> mipsMapRequested) {
-		this.mipsMapRequested = mipsMapRequested;
+		this.mipsMapRequested = VmMap.of(mipsMapRequested);
 	}
 
 	@Override
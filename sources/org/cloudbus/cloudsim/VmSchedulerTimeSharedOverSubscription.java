@@ -7,11 +7,7 @@
 
 package org.cloudbus.cloudsim;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 
 import org.cloudbus.cloudsim.lists.PeList;
 
@@ -35,56 +31,64 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		super(pelist);
 	}
 
+	/**
+	 * Checks whether PEs could be allocated for a VM. As the policy allows over-subscription, they
+	 * always could.
+	 * 
+	 * @param vm the vm
+	 * @param mipsShareRequested the mips share requested
+	 * @return true
+	 */
+	@Override
+	public boolean isSuitableForVm(Vm vm, List<Double> mipsShareRequested) {
+		return true;
+	}
+
 	/**
 	 * Allocate pes for vm. The policy allows over-subscription. In other words, the policy still
 	 * allows the allocation of VMs that require more CPU capacity that is available.
 	 * Oversubscription results in performance degradation. Each virtual PE cannot be allocated more
 	 * CPU capacity than MIPS of a single PE.
 	 * 
-	 * @param vmUid the vm uid
+	 * @param vmKey the key of the vm
 	 * @param mipsShareRequested the mips share requested
 	 * @return true, if successful
 	 */
 	@Override
-	protected boolean allocatePesForVm(String vmUid, List<Double> mipsShareRequested) {
-		double totalRequestedMips = 0;
+	protected boolean allocatePesForVm(long vmKey, List<Double> mipsShareRequested) {
+		MipsShare requested = MipsShare.of(mipsShareRequested);
 
 		// if the requested mips is bigger than the capacity of a single PE, we cap
 		// the request to the PE's capacity
-		List<Double> mipsShareRequestedCapped = new ArrayList<Double>();
-		double peMips = getPeCapacity();
-		for (Double mips : mipsShareRequested) {
-			if (mips > peMips) {
-				mipsShareRequestedCapped.add(peMips);
-				totalRequestedMips += peMips;
-			} else {
-				mipsShareRequestedCapped.add(mips);
-				totalRequestedMips += mips;
-			}
+		double[] mipsShareRequestedCapped = getCappedMips(requested);
+		double totalRequestedMips = 0;
+		for (double mips : mipsShareRequestedCapped) {
+			totalRequestedMips += mips;
 		}
 
-		getMipsMapRequested().put(vmUid, mipsShareRequested);
-		setPesInUse(getPesInUse() + mipsShareRequested.size());
+		getMipsMapRequested().put(vmKey, requested);
+		setPesInUse(getPesInUse() + requested.size());
 
-		if (getVmsMigratingIn().contains(vmUid)) {
+		boolean migratingIn = isVmMigratingIn(vmKey);
+		boolean migratingOut = isVmMigratingOut(vmKey);
+		if (migratingIn) {
 			// the destination host only experience 10% of the migrating VM's MIPS
 			totalRequestedMips *= 0.1;
 		}
 
 		if (getAvailableMips() >= totalRequestedMips) {
-			List<Double> mipsShareAllocated = new ArrayList<Double>();
-			for (Double mipsRequested : mipsShareRequestedCapped) {
-				if (getVmsMigratingOut().contains(vmUid)) {
+			double[] mipsShareAllocated = mipsShareRequestedCapped;
+			for (int i = 0; i < mipsShareAllocated.length; i++) {
+				if (migratingOut) {
 					// performance degradation due to migration = 10% MIPS
-					mipsRequested *= 0.9;
-				} else if (getVmsMigratingIn().contains(vmUid)) {
+					mipsShareAllocated[i] *= 0.9;
+				} else if (migratingIn) {
 					// the destination host only experience 10% of the migrating VM's MIPS
-					mipsRequested *= 0.1;
+					mipsShareAllocated[i] *= 0.1;
 				}
-				mipsShareAllocated.add(mipsRequested);
 			}
 
-			getMipsMap().put(vmUid, mipsShareAllocated);
+			getMipsMap().put(vmKey, new MipsShare(mipsShareAllocated));
 			setAvailableMips(getAvailableMips() - totalRequestedMips);
 		} else {
 			redistributeMipsDueToOverSubscription();
@@ -102,27 +106,19 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		// proportionally
 		double totalRequiredMipsByAllVms = 0;
 
-		Map<String, List<Double>> mipsMapCapped = new HashMap<String, List<Double>>();
-		for (Entry<String, List<Double>> entry : getMipsMapRequested().entrySet()) {
-
+		long[] vmKeys = getMipsMapRequested().keys();
+		double[][] mipsMapCapped = new double[vmKeys.length][];
+		for (int i = 0; i < vmKeys.length; i++) {
+			long vmKey = vmKeys[i];
+			double[] mipsShareRequestedCapped = getCappedMips(MipsShare.of(getMipsMapRequested().get(vmKey)));
 			double requiredMipsByThisVm = 0.0;
-			String vmId = entry.getKey();
-			List<Double> mipsShareRequested = entry.getValue();
-			List<Double> mipsShareRequestedCapped = new ArrayList<Double>();
-			double peMips = getPeCapacity();
-			for (Double mips : mipsShareRequested) {
-				if (mips > peMips) {
-					mipsShareRequestedCapped.add(peMips);
-					requiredMipsByThisVm += peMips;
-				} else {
-					mipsShareRequestedCapped.add(mips);
-					requiredMipsByThisVm += mips;
-				}
+			for (double mips : mipsShareRequestedCapped) {
+				requiredMipsByThisVm += mips;
 			}
 
-			mipsMapCapped.put(vmId, mipsShareRequestedCapped);
+			mipsMapCapped[i] = mipsShareRequestedCapped;
 
-			if (getVmsMigratingIn().contains(entry.getKey())) {
+			if (isVmMigratingIn(vmKey)) {
 				// the destination host only experience 10% of the migrating VM's MIPS
 				requiredMipsByThisVm *= 0.1;
 			}
@@ -136,18 +132,20 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		getMipsMap().clear();
 
 		// Update the actual MIPS allocated to the VMs
-		for (Entry<String, List<Double>> entry : mipsMapCapped.entrySet()) {
-			String vmUid = entry.getKey();
-			List<Double> requestedMips = entry.getValue();
-
-			List<Double> updatedMipsAllocation = new ArrayList<Double>();
-			for (Double mips : requestedMips) {
-				if (getVmsMigratingOut().contains(vmUid)) {
+		for (int i = 0; i < vmKeys.length; i++) {
+			long vmKey = vmKeys[i];
+			double[] updatedMipsAllocation = mipsMapCapped[i];
+			boolean migratingIn = isVmMigratingIn(vmKey);
+			boolean migratingOut = isVmMigratingOut(vmKey);
+
+			for (int pe = 0; pe < updatedMipsAllocation.length; pe++) {
+				double mips = updatedMipsAllocation[pe];
+				if (migratingOut) {
 					// the original amount is scaled
 					mips *= scalingFactor;
 					// performance degradation due to migration = 10% MIPS
 					mips *= 0.9;
-				} else if (getVmsMigratingIn().contains(vmUid)) {
+				} else if (migratingIn) {
 					// the destination host only experiences 10% of the migrating VM's MIPS
 					mips *= 0.1;
 					// the final 10% of the requested MIPS are scaled
@@ -156,11 +154,11 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 					mips *= scalingFactor;
 				}
 
-				updatedMipsAllocation.add(Math.floor(mips));
+				updatedMipsAllocation[pe] = Math.floor(mips);
 			}
 
 			// add in the new map
-			getMipsMap().put(vmUid, updatedMipsAllocation);
+			getMipsMap().put(vmKey, new MipsShare(updatedMipsAllocation));
 
 		}
 
@@ -168,4 +166,21 @@ public class VmSchedulerTimeSharedOverSubscription extends VmSchedulerTimeShared
 		setAvailableMips(0);
 	}
 
+	/**
+	 * Gets the requested MIPS of each PE, capped to the capacity of a single PE.
+	 * 
+	 * @param mipsShareRequested the mips share requested
+	 * @return a new array with the capped MIPS
+	 */
+	private double[] getCappedMips(MipsShare mipsShareRequested) {
+		double[] mips = mipsShareRequested.toDoubleArray();
+		double peMips = getPeCapacity();
+		for (int i = 0; i < mips.length; i++) {
+			if (mips[i] > peMips) {
+				mips[i] = peMips;
+			}
+		}
+		return mips;
+	}
+
 }
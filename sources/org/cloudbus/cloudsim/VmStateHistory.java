@@ -0,0 +1,214 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The state history of a VM, whose flag tells whether the VM is in migration. Along with the
+ * states, the history accumulates the SLA metrics of the VM over the whole simulation: while the
+ * CPU or the RAM of the VM is under-allocated, the time-weighted allocated and requested MIPS, the
+ * relative under-allocation of each state and the under-allocation due to migration; and the
+ * durations of its migrations.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class VmStateHistory extends StateHistory<VmStateHistoryEntry> {
+
+	/** The time-weighted MIPS allocated while under-allocated. */
+	private double underAllocatedStateAllocatedMips;
+
+	/** The time-weighted MIPS requested while under-allocated. */
+	private double underAllocatedStateRequestedMips;
+
+	/** The sum of the relative under-allocations of the under-allocated states. */
+	private double slaViolationSum;
+
+	/** The number of the relative under-allocations. */
+	private int slaViolationCount;
+
+	/** The time-weighted under-allocation while in migration. */
+	private double underAllocatedDueToMigration;
+
+	/** Whether the VM was in migration in the last final state. */
+	private boolean previousIsInMigration;
+
+	/** The time at which the last migration started. */
+	private double lastTimeMigrationStarted;
+
+	/** The times between the start and the end of the migrations. */
+	private final List<Double> timesBeforeMigration = new ArrayList<Double>();
+
+	/**
+	 * Adds a state entry.
+	 *
+	 * @param entry the entry
+	 * @return true
+	 */
+	@Override
+	public boolean add(VmStateHistoryEntry entry) {
+		add(entry.getTime(),
+				entry.getAllocatedMips(),
+				entry.getRequestedMips(),
+				entry.getAllocatedRam(),
+				entry.getRequestedRam(),
+				entry.isInMigration());
+		return true;
+	}
+
+	/**
+	 * Replaces a state entry. The aggregates are not updated.
+	 *
+	 * @param index the index of the entry
+	 * @param entry the entry
+	 * @return the replaced entry
+	 */
+	@Override
+	public VmStateHistoryEntry set(int index, VmStateHistoryEntry entry) {
+		VmStateHistoryEntry previous = get(index);
+		set(index,
+				entry.getTime(),
+				entry.getAllocatedMips(),
+				entry.getRequestedMips(),
+				entry.getAllocatedRam(),
+				entry.getRequestedRam(),
+				entry.isInMigration());
+		return previous;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.StateHistory#accumulate(int, double)
+	 */
+	@Override
+	protected void accumulate(int slot, double timeDiff) {
+		double allocatedMips = getAllocatedMips(slot);
+		double requestedMips = getRequestedMips(slot);
+		double allocatedRam = getAllocatedRam(slot);
+		double requestedRam = getRequestedRam(slot);
+		boolean isInMigration = getFlag(slot);
+
+		if (allocatedMips > allocatedRam && allocatedMips < requestedMips) {
+			underAllocatedStateAllocatedMips += allocatedMips * timeDiff;
+			underAllocatedStateRequestedMips += requestedMips * timeDiff;
+			slaViolationSum += (requestedMips - allocatedMips) / allocatedMips;
+			slaViolationCount++;
+			if (isInMigration) {
+				underAllocatedDueToMigration += (requestedMips - allocatedMips) * timeDiff;
+			}
+		}
+
+		if (allocatedRam > allocatedMips && allocatedRam < requestedRam) {
+			underAllocatedStateAllocatedMips += allocatedMips * timeDiff;
+			underAllocatedStateRequestedMips += requestedMips * timeDiff;
+			slaViolationSum += (requestedRam - allocatedRam) / requestedRam;
+			slaViolationCount++;
+			if (isInMigration) {
+				underAllocatedDueToMigration += (requestedRam - allocatedRam) * timeDiff;
+			}
+		}
+
+		addMigrationTime(slot, timesBeforeMigration);
+		if (!previousIsInMigration && isInMigration) {
+			lastTimeMigrationStarted = getTime(slot);
+		}
+		previousIsInMigration = isInMigration;
+	}
+
+	/**
+	 * Gets the time-weighted MIPS allocated to the VM while its CPU or RAM was under-allocated.
+	 *
+	 * @return the allocated MIPS times the duration of the under-allocated states
+	 */
+	public double getUnderAllocatedStateAllocatedMips() {
+		return underAllocatedStateAllocatedMips;
+	}
+
+	/**
+	 * Gets the time-weighted MIPS requested by the VM while its CPU or RAM was under-allocated.
+	 *
+	 * @return the requested MIPS times the duration of the under-allocated states
+	 */
+	public double getUnderAllocatedStateRequestedMips() {
+		return underAllocatedStateRequestedMips;
+	}
+
+	/**
+	 * Gets the sum of the relative under-allocations of the CPU and the RAM of the VM, one for each
+	 * under-allocated state.
+	 *
+	 * @return the sum of the relative under-allocations
+	 */
+	public double getSlaViolationSum() {
+		return slaViolationSum;
+	}
+
+	/**
+	 * Gets the number of relative under-allocations summed by {@link #getSlaViolationSum()}.
+	 *
+	 * @return the number of relative under-allocations
+	 */
+	public int getSlaViolationCount() {
+		return slaViolationCount;
+	}
+
+	/**
+	 * Gets the time-weighted under-allocation of the VM while it was in migration.
+	 *
+	 * @return the under-allocated MIPS or RAM times the duration of the states in migration
+	 */
+	public double getUnderAllocatedDueToMigration() {
+		return underAllocatedDueToMigration;
+	}
+
+	/**
+	 * Gets the durations of the migrations of the VM, from the first state in migration to the
+	 * first state out of it, including the last state recorded.
+	 *
+	 * @return the durations of the migrations
+	 */
+	public List<Double> getTimesBeforeMigration() {
+		List<Double> times = new ArrayList<Double>(timesBeforeMigration);
+		int last = getLastSlot();
+		if (last >= 0) {
+			addMigrationTime(last, times);
+		}
+		return Collections.unmodifiableList(times);
+	}
+
+	/**
+	 * Adds the duration of a migration to a list if a state ends it.
+	 *
+	 * @param slot the slot of the state
+	 * @param times the list
+	 */
+	private void addMigrationTime(int slot, List<Double> times) {
+		if (previousIsInMigration && !getFlag(slot)) {
+			times.add(getTime(slot) - lastTimeMigrationStarted);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.StateHistory#createEntry(int)
+	 */
+	@Override
+	protected VmStateHistoryEntry createEntry(int slot) {
+		return new VmStateHistoryEntry(
+				getTime(slot),
+				getAllocatedMips(slot),
+				getRequestedMips(slot),
+				getAllocatedRam(slot),
+				(int) getRequestedRam(slot),
+				getFlag(slot));
+	}
+
+}
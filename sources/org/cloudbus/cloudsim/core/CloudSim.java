@@ -8,16 +8,10 @@
 
 package org.cloudbus.cloudsim.core;
 
-import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
-import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.predicates.Predicate;
 import org.cloudbus.cloudsim.core.predicates.PredicateAny;
 import org.cloudbus.cloudsim.core.predicates.PredicateNone;
@@ -36,63 +30,53 @@ import org.cloudbus.cloudsim.core.predicates.PredicateNone;
  */
 public class CloudSim {
 
-	/** The Constant CLOUDSIM_VERSION_STRING. */
-	private static final String CLOUDSIM_VERSION_STRING = "3.0";
-
-	/** The id of CIS entity. */
-	private static int cisId = -1;
-
-	/** The id of CloudSimShutdown entity. */
-	@SuppressWarnings("unused")
-	private static int shutdownId = -1;
-
-	/** The CIS object. */
-	private static CloudInformationService cis = null;
+	/** A standard predicate that matches any event. */
+	public final static PredicateAny SIM_ANY = new PredicateAny();
 
-	/** The Constant NOT_FOUND. */
-	private static final int NOT_FOUND = -1;
+	/** A standard predicate that does not match any events. */
+	public final static PredicateNone SIM_NONE = new PredicateNone();
 
-	/** The trace flag. */
-	@SuppressWarnings("unused")
-	private static boolean traceFlag = false;
+	/** The default simulation, used by the threads not bound to a simulation. */
+	private static final Simulation defaultSimulation = new Simulation();
 
-	/** The calendar. */
-	private static Calendar calendar = null;
+	/** The simulation bound to each thread. */
+	private static final ThreadLocal<Simulation> currentSimulation = new ThreadLocal<Simulation>();
 
-	/** The termination time. */
-	private static double terminateAt = -1;
+	/**
+	 * Gets the simulation the static methods of this class delegate to: the simulation bound to
+	 * the calling thread, or the default simulation if the thread is not bound to any.
+	 * 
+	 * @return the current simulation
+	 */
+	public static Simulation getSimulation() {
+		Simulation simulation = currentSimulation.get();
+		if (simulation == null) {
+			return defaultSimulation;
+		}
+		return simulation;
+	}
 
-	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
-	private static double minTimeBetweenEvents = 0.1;
-	
 	/**
-	 * Initialises all the common attributes.
+	 * Gets the default simulation, used by the threads not bound to a simulation.
 	 * 
-	 * @param _calendar the _calendar
-	 * @param _traceFlag the _trace flag
-	 * @param numUser number of users
-	 * @throws Exception This happens when creating this entity before initialising CloudSim package
-	 *             or this entity name is <tt>null</tt> or empty
-	 * @pre $none
-	 * @post $none
+	 * @return the default simulation
 	 */
-	private static void initCommonVariable(Calendar _calendar, boolean _traceFlag, int numUser)
-			throws Exception {
-		initialize();
-		// NOTE: the order for the below 3 lines are important
-		traceFlag = _traceFlag;
+	public static Simulation getDefaultSimulation() {
+		return defaultSimulation;
+	}
 
-		// Set the current Wall clock time as the starting time of
-		// simulation
-		if (_calendar == null) {
-			calendar = Calendar.getInstance();
+	/**
+	 * Binds a simulation to the calling thread. From then on, the static methods of this class
+	 * called from the thread, and the entities created by the thread, use this simulation.
+	 * 
+	 * @param simulation the simulation, or <tt>null</tt> to use the default simulation
+	 */
+	public static void setSimulation(Simulation simulation) {
+		if (simulation == null || simulation == defaultSimulation) {
+			currentSimulation.remove();
 		} else {
-			calendar = _calendar;
+			currentSimulation.set(simulation);
 		}
-
-		// creates a CloudSimShutdown object
-		CloudSimShutdown shutdown = new CloudSimShutdown("CloudSimShutdown", numUser);
-		shutdownId = shutdown.getId();
 	}
 
 	/**
@@ -117,21 +101,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void init(int numUser, Calendar cal, boolean traceFlag) {
-		try {
-			initCommonVariable(cal, traceFlag, numUser);
-
-			// create a GIS object
-			cis = new CloudInformationService("CloudInformationService");
-
-			// set all the above entity IDs
-			cisId = cis.getId();
-		} catch (IllegalArgumentException s) {
-			Log.printLine("CloudSim.init(): The simulation has been terminated due to an unexpected error");
-			Log.printLine(s.getMessage());
-		} catch (Exception e) {
-			Log.printLine("CloudSim.init(): The simulation has been terminated due to an unexpected error");
-			Log.printLine(e.getMessage());
-		}
+		getSimulation().init(numUser, cal, traceFlag);
 	}
 
 	/**
@@ -158,16 +128,79 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void init(int numUser, Calendar cal, boolean traceFlag, double periodBetweenEvents) {
-	    if (periodBetweenEvents <= 0) {
-		throw new IllegalArgumentException("The minimal time between events should be positive, but is:" + periodBetweenEvents);
-	    }
-	    
-	    init(numUser, cal, traceFlag);
-	    minTimeBetweenEvents = periodBetweenEvents;
+		getSimulation().init(numUser, cal, traceFlag, periodBetweenEvents);
+	}
+
+	/**
+	 * Initialises CloudSim parameters with a given future event queue. This method should be
+	 * called before creating any entities.
+	 * <p>
+	 * By default, the future events are kept in a {@link FutureQueueHeap}. A
+	 * {@link FutureQueueCalendar} is usually faster when many events are spread densely over the
+	 * event horizon, and a {@link FutureQueueTreeSet} is the queue used by previous versions of
+	 * CloudSim. All of them deliver the events in the same order.
+	 * 
+	 * @param numUser the number of User Entities created
+	 * @param cal starting time for this simulation. If it is <tt>null</tt>, then the time will be
+	 *            taken from <tt>Calendar.getInstance()</tt>
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @param futureQueue the empty future event queue to be used by the simulation
+	 * @see #init(int, Calendar, boolean)
+	 * @pre numUser >= 0
+	 * @pre futureQueue != null
+	 * @post $none
+	 */
+	public static void init(
+			int numUser,
+			Calendar cal,
+			boolean traceFlag,
+			FutureQueueAbstract futureQueue) {
+		getSimulation().init(numUser, cal, traceFlag, futureQueue);
+	}
+
+	/**
+	 * Sets the pool used to run the parallelizable entities of the current simulation in parallel
+	 * within a clock tick, or <tt>null</tt> to run them sequentially, which is the default. The
+	 * results are the same in both cases.
+	 * 
+	 * @param pool the pool, or <tt>null</tt>
+	 * @see Simulation#setParallelTick(ForkJoinPool)
+	 * @see SimEntity#isParallelizable()
+	 */
+	public static void setParallelTick(ForkJoinPool pool) {
+		getSimulation().setParallelTick(pool);
+	}
+
+	/**
+	 * Sets whether the current simulation recycles its events, which is disabled by default.
+	 * 
+	 * @param pooling true, to recycle the events
+	 * @see Simulation#setEventPooling(boolean)
+	 */
+	public static void setEventPooling(boolean pooling) {
+		getSimulation().setEventPooling(pooling);
+	}
+
+	/**
+	 * Sets the metrics recorded by the kernel of the current simulation, or <tt>null</tt> to not
+	 * record any, which is the default.
+	 * 
+	 * @param metrics the metrics, or <tt>null</tt>
+	 * @see Simulation#setMetrics(SimulationMetrics)
+	 */
+	public static void setMetrics(SimulationMetrics metrics) {
+		getSimulation().setMetrics(metrics);
+	}
+
+	/**
+	 * Gets the metrics recorded by the kernel of the current simulation.
+	 * 
+	 * @return the metrics, or <tt>null</tt> if they are not recorded
+	 */
+	public static SimulationMetrics getMetrics() {
+		return getSimulation().getMetrics();
 	}
-	
-	
-	
+
 	/**
 	 * Starts the execution of CloudSim simulation. It waits for complete execution of all entities,
 	 * i.e. until all entities threads reach non-RUNNABLE state or there are no more events in the
@@ -183,23 +216,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static double startSimulation() throws NullPointerException {
-		Log.printLine("Starting CloudSim version " + CLOUDSIM_VERSION_STRING);
-		try {
-			double clock = run();
-
-			// reset all static variables
-			cisId = -1;
-			shutdownId = -1;
-			cis = null;
-			calendar = null;
-			traceFlag = false;
-
-			return clock;
-		} catch (IllegalArgumentException e) {
-			e.printStackTrace();
-			throw new NullPointerException("CloudSim.startCloudSimulation() :"
-					+ " Error - you haven't initialized CloudSim.");
-		}
+		return getSimulation().startSimulation();
 	}
 
 	/**
@@ -215,12 +232,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static void stopSimulation() throws NullPointerException {
-		try {
-			runStop();
-		} catch (IllegalArgumentException e) {
-			throw new NullPointerException("CloudSim.stopCloudSimulation() : "
-					+ "Error - can't stop Cloud Simulation.");
-		}
+		getSimulation().stopSimulation();
 	}
 
 	/**
@@ -229,9 +241,7 @@ public class CloudSim {
 	 * @return true, if successful; false otherwise.
 	 */
 	public static boolean terminateSimulation() {
-		running = false;
-		printMessage("Simulation: Reached termination time.");
-		return true;
+		return getSimulation().terminateSimulation();
 	}
 
 	/**
@@ -241,21 +251,24 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean terminateSimulation(double time) {
-		if (time <= clock) {
-			return false;
-		} else {
-			terminateAt = time;
-		}
-		return true;
+		return getSimulation().terminateSimulation(time);
+	}
+
+	/**
+	 * Gets the time at which the simulation has to be terminated.
+	 * 
+	 * @return the termination time, or -1 if the simulation runs until there are no more events
+	 */
+	public static double getTerminationTime() {
+		return getSimulation().getTerminationTime();
 	}
 
-	
 	/**
 	 * Returns the minimum time between events. Events within shorter periods after the last event are discarded. 
 	 * @return the minimum time between events.
 	 */
 	public static double getMinTimeBetweenEvents() {
-	    return minTimeBetweenEvents;
+		return getSimulation().getMinTimeBetweenEvents();
 	}
 
 	/**
@@ -268,13 +281,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static Calendar getSimulationCalendar() {
-		// make a new copy
-		Calendar clone = calendar;
-		if (calendar != null) {
-			clone = (Calendar) calendar.clone();
-		}
-
-		return clone;
+		return getSimulation().getSimulationCalendar();
 	}
 
 	/**
@@ -285,7 +292,7 @@ public class CloudSim {
 	 * @post $result >= -1
 	 */
 	public static int getCloudInfoServiceEntityId() {
-		return cisId;
+		return getSimulation().getCloudInfoServiceEntityId();
 	}
 
 	/**
@@ -298,78 +305,24 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static List<Integer> getCloudResourceList() {
-		if (cis == null) {
-			return null;
-		}
-
-		return cis.getList();
+		return getSimulation().getCloudResourceList();
 	}
 
-	// ======== SIMULATION METHODS ===============//
-
-	/** The entities. */
-	private static List<SimEntity> entities;
-
-	/** The future event queue. */
-	protected static FutureQueue future;
-
-	/** The deferred event queue. */
-	protected static DeferredQueue deferred;
-
-	/** The simulation clock. */
-	private static double clock;
-
-	/** Flag for checking if the simulation is running. */
-	private static boolean running;
-
-	/** The entities by name. */
-	private static Map<String, SimEntity> entitiesByName;
-
-	// The predicates used in entity wait methods
-	/** The wait predicates. */
-	private static Map<Integer, Predicate> waitPredicates;
-
-	/** The paused. */
-	private static boolean paused = false;
-
-	/** The pause at. */
-	private static long pauseAt = -1;
-
-	/** The abrupt terminate. */
-	private static boolean abruptTerminate = false;
-
 	/**
 	 * Initialise the simulation for stand alone simulations. This function should be called at the
 	 * start of the simulation.
 	 */
 	protected static void initialize() {
-		Log.printLine("Initialising...");
-		entities = new ArrayList<SimEntity>();
-		entitiesByName = new LinkedHashMap<String, SimEntity>();
-		future = new FutureQueue();
-		deferred = new DeferredQueue();
-		waitPredicates = new HashMap<Integer, Predicate>();
-		clock = 0;
-		running = false;
+		getSimulation().initialize();
 	}
 
-	// The two standard predicates
-
-	/** A standard predicate that matches any event. */
-	public final static PredicateAny SIM_ANY = new PredicateAny();
-
-	/** A standard predicate that does not match any events. */
-	public final static PredicateNone SIM_NONE = new PredicateNone();
-
-	// Public access methods
-
 	/**
 	 * Get the current simulation time.
 	 * 
 	 * @return the simulation time
 	 */
 	public static double clock() {
-		return clock;
+		return getSimulation().clock();
 	}
 
 	/**
@@ -378,7 +331,7 @@ public class CloudSim {
 	 * @return The number of entities
 	 */
 	public static int getNumEntities() {
-		return entities.size();
+		return getSimulation().getNumEntities();
 	}
 
 	/**
@@ -388,7 +341,7 @@ public class CloudSim {
 	 * @return The entity, or if it could not be found
 	 */
 	public static SimEntity getEntity(int id) {
-		return entities.get(id);
+		return getSimulation().getEntity(id);
 	}
 
 	/**
@@ -398,7 +351,7 @@ public class CloudSim {
 	 * @return The entity
 	 */
 	public static SimEntity getEntity(String name) {
-		return entitiesByName.get(name);
+		return getSimulation().getEntity(name);
 	}
 
 	/**
@@ -408,12 +361,7 @@ public class CloudSim {
 	 * @return The entity's unique id number
 	 */
 	public static int getEntityId(String name) {
-		SimEntity obj = entitiesByName.get(name);
-		if (obj == null) {
-			return NOT_FOUND;
-		} else {
-			return obj.getId();
-		}
+		return getSimulation().getEntityId(name);
 	}
 
 	/**
@@ -425,13 +373,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static String getEntityName(int entityID) {
-		try {
-			return getEntity(entityID).getName();
-		} catch (IllegalArgumentException e) {
-			return null;
-		} catch (Exception e) {
-			return null;
-		}
+		return getSimulation().getEntityName(entityID);
 	}
 
 	/**
@@ -443,10 +385,7 @@ public class CloudSim {
 	 * @post $none
 	 */
 	public static String getEntityName(Integer entityID) {
-		if (entityID != null) {
-			return getEntityName(entityID.intValue());
-		}
-		return null;
+		return getSimulation().getEntityName(entityID);
 	}
 
 	/**
@@ -455,15 +394,9 @@ public class CloudSim {
 	 * @return the entity iterator
 	 */
 	public static List<SimEntity> getEntityList() {
-		// create a new list to prevent the user from changing
-		// the list of entities used by Simulation
-		List<SimEntity> list = new LinkedList<SimEntity>();
-		list.addAll(entities);
-		return list;
+		return getSimulation().getEntityList();
 	}
 
-	// Public update methods
-
 	/**
 	 * Add a new entity to the simulation. This is present for compatibility with existing
 	 * simulations since entities are automatically added to the simulation upon instantiation.
@@ -471,18 +404,7 @@ public class CloudSim {
 	 * @param e The new entity
 	 */
 	public static void addEntity(SimEntity e) {
-		SimEvent evt;
-		if (running) {
-			// Post an event to make this entity
-			evt = new SimEvent(SimEvent.CREATE, clock, 1, 0, 0, e);
-			future.addEvent(evt);
-		}
-		if (e.getId() == -1) { // Only add once!
-			int id = entities.size();
-			e.setId(id);
-			entities.add(e);
-			entitiesByName.put(e.getName(), e);
-		}
+		getSimulation().addEntity(e);
 	}
 
 	/**
@@ -492,12 +414,7 @@ public class CloudSim {
 	 * @param e The new entity
 	 */
 	protected static void addEntityDynamically(SimEntity e) {
-		if (e == null) {
-			throw new IllegalArgumentException("Adding null entity.");
-		} else {
-			printMessage("Adding: " + e.getName());
-		}
-		e.startEntity();
+		getSimulation().addEntityDynamically(e);
 	}
 
 	/**
@@ -507,58 +424,14 @@ public class CloudSim {
 	 * @return true, if successful otherwise
 	 */
 	public static boolean runClockTick() {
-		SimEntity ent;
-		boolean queue_empty;
-		
-		int entities_size = entities.size();
-
-		for (int i = 0; i < entities_size; i++) {
-			ent = entities.get(i);
-			if (ent.getState() == SimEntity.RUNNABLE) {
-				ent.run();
-			}
-		}
-				
-		// If there are more future events then deal with them
-		if (future.size() > 0) {
-			List<SimEvent> toRemove = new ArrayList<SimEvent>();
-			Iterator<SimEvent> fit = future.iterator();
-			queue_empty = false;
-			SimEvent first = fit.next();
-			processEvent(first);
-			future.remove(first);
-
-			fit = future.iterator();
-
-			// Check if next events are at same time...
-			boolean trymore = fit.hasNext();
-			while (trymore) {
-				SimEvent next = fit.next();
-				if (next.eventTime() == first.eventTime()) {
-					processEvent(next);
-					toRemove.add(next);
-					trymore = fit.hasNext();
-				} else {
-					trymore = false;
-				}
-			}
-
-			future.removeAll(toRemove);
-
-		} else {
-			queue_empty = true;
-			running = false;
-			printMessage("Simulation: No more future events");
-		}
-
-		return queue_empty;
+		return getSimulation().runClockTick();
 	}
 
 	/**
 	 * Internal method used to stop the simulation. This method should <b>not</b> be used directly.
 	 */
 	public static void runStop() {
-		printMessage("Simulation completed.");
+		getSimulation().runStop();
 	}
 
 	/**
@@ -568,9 +441,7 @@ public class CloudSim {
 	 * @param delay the delay
 	 */
 	public static void hold(int src, long delay) {
-		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, src);
-		future.addEvent(e);
-		entities.get(src).setState(SimEntity.HOLDING);
+		getSimulation().hold(src, delay);
 	}
 
 	/**
@@ -580,9 +451,7 @@ public class CloudSim {
 	 * @param delay the delay
 	 */
 	public static void pause(int src, double delay) {
-		SimEvent e = new SimEvent(SimEvent.HOLD_DONE, clock + delay, src);
-		future.addEvent(e);
-		entities.get(src).setState(SimEntity.HOLDING);
+		getSimulation().pause(src, delay);
 	}
 
 	/**
@@ -595,12 +464,7 @@ public class CloudSim {
 	 * @param data the data
 	 */
 	public static void send(int src, int dest, double delay, int tag, Object data) {
-		if (delay < 0) {
-			throw new IllegalArgumentException("Send delay can't be negative.");
-		}
-
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
-		future.addEvent(e);
+		getSimulation().send(src, dest, delay, tag, data);
 	}
 
 	/**
@@ -613,12 +477,7 @@ public class CloudSim {
 	 * @param data the data
 	 */
 	public static void sendFirst(int src, int dest, double delay, int tag, Object data) {
-		if (delay < 0) {
-			throw new IllegalArgumentException("Send delay can't be negative.");
-		}
-
-		SimEvent e = new SimEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
-		future.addEventFirst(e);
+		getSimulation().sendFirst(src, dest, delay, tag, data);
 	}
 
 	/**
@@ -630,11 +489,7 @@ public class CloudSim {
 	 * @param p the p
 	 */
 	public static void wait(int src, Predicate p) {
-		entities.get(src).setState(SimEntity.WAITING);
-		if (p != SIM_ANY) {
-			// If a predicate has been used store it in order to check it
-			waitPredicates.put(src, p);
-		}
+		getSimulation().wait(src, p);
 	}
 
 	/**
@@ -645,16 +500,7 @@ public class CloudSim {
 	 * @return the int
 	 */
 	public static int waiting(int d, Predicate p) {
-		int count = 0;
-		SimEvent event;
-		Iterator<SimEvent> iterator = deferred.iterator();
-		while (iterator.hasNext()) {
-			event = iterator.next();
-			if ((event.getDestination() == d) && (p.match(event))) {
-				count++;
-			}
-		}
-		return count;
+		return getSimulation().waiting(d, p);
 	}
 
 	/**
@@ -662,19 +508,10 @@ public class CloudSim {
 	 * 
 	 * @param src the src
 	 * @param p the p
-	 * @return the sim event
+	 * @return the sim event, or <tt>null</tt> if none matches
 	 */
 	public static SimEvent select(int src, Predicate p) {
-		SimEvent ev = null;
-		Iterator<SimEvent> iterator = deferred.iterator();
-		while (iterator.hasNext()) {
-			ev = iterator.next();
-			if (ev.getDestination() == src && p.match(ev)) {
-				iterator.remove();
-				break;
-			}
-		}
-		return ev;
+		return getSimulation().select(src, p);
 	}
 
 	/**
@@ -682,18 +519,10 @@ public class CloudSim {
 	 * 
 	 * @param src the src
 	 * @param p the p
-	 * @return the sim event
+	 * @return the sim event, or <tt>null</tt> if none matches
 	 */
 	public static SimEvent findFirstDeferred(int src, Predicate p) {
-		SimEvent ev = null;
-		Iterator<SimEvent> iterator = deferred.iterator();
-		while (iterator.hasNext()) {
-			ev = iterator.next();
-			if (ev.getDestination() == src && p.match(ev)) {
-				break;
-			}
-		}
-		return ev;
+		return getSimulation().findFirstDeferred(src, p);
 	}
 
 	/**
@@ -701,107 +530,36 @@ public class CloudSim {
 	 * 
 	 * @param src the src
 	 * @param p the p
-	 * @return the sim event
+	 * @return the first matching event in temporal order, or <tt>null</tt> if none matches
 	 */
 	public static SimEvent cancel(int src, Predicate p) {
-		SimEvent ev = null;
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSource() == src && p.match(ev)) {
-				iter.remove();
-				break;
-			}
-		}
-
-		return ev;
+		return getSimulation().cancel(src, p);
 	}
 
 	/**
 	 * Removes all events that match a given predicate from the future event queue returns true if
-	 * at least one event has been cancelled; false otherwise.
+	 * at least one event has been cancelled; false otherwise. Only the pending events sent by
+	 * <tt>src</tt> are examined.
 	 * 
 	 * @param src the src
 	 * @param p the p
 	 * @return true, if successful
 	 */
 	public static boolean cancelAll(int src, Predicate p) {
-		SimEvent ev = null;
-		int previousSize = future.size();
-		Iterator<SimEvent> iter = future.iterator();
-		while (iter.hasNext()) {
-			ev = iter.next();
-			if (ev.getSource() == src && p.match(ev)) {
-				iter.remove();
-			}
-		}
-		return previousSize < future.size();
+		return getSimulation().cancelAll(src, p);
 	}
 
-	//
-	// Private internal methods
-	//
-
 	/**
-	 * Processes an event.
+	 * Removes all events with a given tag sent by an entity from the future event queue. This is
+	 * equivalent to <tt>cancelAll(src, new PredicateType(tag))</tt>, but does not create a
+	 * predicate and takes constant time for each cancelled event.
 	 * 
-	 * @param e the e
+	 * @param src the src
+	 * @param tag the tag
+	 * @return true, if at least one event has been cancelled
 	 */
-	private static void processEvent(SimEvent e) {
-		int dest, src;
-		SimEntity dest_ent;
-		// Update the system's clock
-		if (e.eventTime() < clock) {
-			throw new IllegalArgumentException("Past event detected.");
-		}
-		clock = e.eventTime();
-
-		// Ok now process it
-		switch (e.getType()) {
-			case SimEvent.ENULL:
-				throw new IllegalArgumentException("Event has a null type.");
-
-			case SimEvent.CREATE:
-				SimEntity newe = (SimEntity) e.getData();
-				addEntityDynamically(newe);
-				break;
-
-			case SimEvent.SEND:
-				// Check for matching wait
-				dest = e.getDestination();
-				if (dest < 0) {
-					throw new IllegalArgumentException("Attempt to send to a null entity detected.");
-				} else {
-					int tag = e.getTag();
-					dest_ent = entities.get(dest);
-					if (dest_ent.getState() == SimEntity.WAITING) {
-						Integer destObj = Integer.valueOf(dest);
-						Predicate p = waitPredicates.get(destObj);
-						if ((p == null) || (tag == 9999) || (p.match(e))) {
-							dest_ent.setEventBuffer((SimEvent) e.clone());
-							dest_ent.setState(SimEntity.RUNNABLE);
-							waitPredicates.remove(destObj);
-						} else {
-							deferred.addEvent(e);
-						}
-					} else {
-						deferred.addEvent(e);
-					}
-				}
-				break;
-
-			case SimEvent.HOLD_DONE:
-				src = e.getSource();
-				if (src < 0) {
-					throw new IllegalArgumentException("Null entity holding.");
-				} else {
-					entities.get(src).setState(SimEntity.RUNNABLE);
-				}
-				break;
-
-			default:
-				break;
-		}
+	public static boolean cancelAll(int src, int tag) {
+		return getSimulation().cancelAll(src, tag);
 	}
 
 	/**
@@ -809,13 +567,7 @@ public class CloudSim {
 	 * simulations.
 	 */
 	public static void runStart() {
-		running = true;
-		// Start all the entities
-		for (SimEntity ent : entities) {
-			ent.startEntity();
-		}
-
-		printMessage("Entities started.");
+		getSimulation().runStart();
 	}
 
 	/**
@@ -825,7 +577,7 @@ public class CloudSim {
 	 * @return if the simulation is still running, otherwise
 	 */
 	public static boolean running() {
-		return running;
+		return getSimulation().running();
 	}
 
 	/**
@@ -834,8 +586,7 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation() {
-		paused = true;
-		return paused;
+		return getSimulation().pauseSimulation();
 	}
 
 	/**
@@ -845,12 +596,7 @@ public class CloudSim {
 	 * @return true, if successful otherwise.
 	 */
 	public static boolean pauseSimulation(long time) {
-		if (time <= clock) {
-			return false;
-		} else {
-			pauseAt = time;
-		}
-		return true;
+		return getSimulation().pauseSimulation(time);
 	}
 
 	/**
@@ -859,13 +605,7 @@ public class CloudSim {
 	 * @return if the simulation has been restarted or or otherwise.
 	 */
 	public static boolean resumeSimulation() {
-		paused = false;
-
-		if (pauseAt <= clock) {
-			pauseAt = -1;
-		}
-
-		return !paused;
+		return getSimulation().resumeSimulation();
 	}
 
 	/**
@@ -875,43 +615,7 @@ public class CloudSim {
 	 * @return the double last clock value
 	 */
 	public static double run() {
-		if (!running) {
-			runStart();
-		}
-		while (true) {
-			if (runClockTick() || abruptTerminate) {
-				break;
-			}
-
-			// this block allows termination of simulation at a specific time
-			if (terminateAt > 0.0 && clock >= terminateAt) {
-				terminateSimulation();
-				clock = terminateAt;
-				break;
-			}
-
-			if (pauseAt != -1
-					&& ((future.size() > 0 && clock <= pauseAt && pauseAt <= future.iterator().next()
-							.eventTime()) || future.size() == 0 && pauseAt <= clock)) {
-				pauseSimulation();
-				clock = pauseAt;
-			}
-
-			while (paused) {
-				try {
-					Thread.sleep(100);
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
-			}
-		}
-
-		double clock = clock();
-
-		finishSimulation();
-		runStop();
-
-		return clock;
+		return getSimulation().run();
 	}
 
 	/**
@@ -919,48 +623,14 @@ public class CloudSim {
 	 * in user simulations.
 	 */
 	public static void finishSimulation() {
-		// Allow all entities to exit their body method
-		if (!abruptTerminate) {
-			for (SimEntity ent : entities) {
-				if (ent.getState() != SimEntity.FINISHED) {
-					ent.run();
-				}
-			}
-		}
-
-		for (SimEntity ent : entities) {
-			ent.shutdownEntity();
-		}
-
-		// reset all static variables
-		// Private data members
-		entities = null;
-		entitiesByName = null;
-		future = null;
-		deferred = null;
-		clock = 0L;
-		running = false;
-
-		waitPredicates = null;
-		paused = false;
-		pauseAt = -1;
-		abruptTerminate = false;
+		getSimulation().finishSimulation();
 	}
 
 	/**
 	 * Abruptally terminate.
 	 */
 	public static void abruptallyTerminate() {
-		abruptTerminate = true;
-	}
-
-	/**
-	 * Prints a message about the progress of the simulation.
-	 * 
-	 * @param message the message
-	 */
-	private static void printMessage(String message) {
-		Log.printLine(message);
+		getSimulation().abruptallyTerminate();
 	}
 
 	/**
@@ -969,7 +639,7 @@ public class CloudSim {
 	 * @return true, if is paused
 	 */
 	public static boolean isPaused() {
-		return paused;
+		return getSimulation().isPaused();
 	}
 
 }
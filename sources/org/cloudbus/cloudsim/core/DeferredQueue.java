@@ -8,15 +8,19 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateAny;
 
 /**
- * This class implements the deferred event queue used by {@link Simulation}. The event queue uses a
- * linked list to store the events.
- * 
+ * This class implements the deferred event queue used by {@link Simulation}. The events are kept
+ * in one bucket per destination entity, indexed by the entity id, and each bucket keeps its events
+ * in temporal order. Therefore, an entity looking for its own events only goes through its own
+ * backlog, and taking the first event of an entity takes constant time.
+ *
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  * @see Simulation
@@ -24,65 +28,305 @@ import java.util.ListIterator;
  */
 public class DeferredQueue {
 
-	/** The list. */
-	private final List<SimEvent> list = new LinkedList<SimEvent>();
+	/** The initial number of buckets. */
+	private static final int INITIAL_BUCKETS = 16;
 
-	/** The max time. */
-	private double maxTime = -1;
+	/** The buckets, indexed by the destination entity id. */
+	private Bucket[] buckets = new Bucket[INITIAL_BUCKETS];
 
 	/**
 	 * Adds a new event to the queue. Adding a new event to the queue preserves the temporal order
 	 * of the events.
-	 * 
+	 *
 	 * @param newEvent The event to be added to the queue.
 	 */
 	public void addEvent(SimEvent newEvent) {
-		// The event has to be inserted as the last of all events
-		// with the same event_time(). Yes, this matters.
-		double eventTime = newEvent.eventTime();
-		if (eventTime >= maxTime) {
-			list.add(newEvent);
-			maxTime = eventTime;
-			return;
+		int destination = newEvent.getDestination();
+		if (destination >= buckets.length) {
+			buckets = Arrays.copyOf(buckets, Math.max(destination + 1, buckets.length << 1));
+		}
+		Bucket bucket = buckets[destination];
+		if (bucket == null) {
+			bucket = new Bucket();
+			buckets[destination] = bucket;
 		}
+		bucket.add(newEvent);
+	}
 
-		ListIterator<SimEvent> iterator = list.listIterator();
-		SimEvent event;
-		while (iterator.hasNext()) {
-			event = iterator.next();
-			if (event.eventTime() > eventTime) {
-				iterator.previous();
-				iterator.add(newEvent);
-				return;
-			}
+	/**
+	 * Returns the first event waiting for a given entity that matches a predicate.
+	 *
+	 * @param destination the id of the destination entity
+	 * @param p the predicate
+	 * @return the event, or <tt>null</tt> if no event matches
+	 */
+	public SimEvent getFirst(int destination, Predicate p) {
+		Bucket bucket = getBucket(destination);
+		if (bucket == null) {
+			return null;
 		}
+		int index = bucket.indexOf(p);
+		return index < 0 ? null : bucket.get(index);
+	}
 
-		list.add(newEvent);
+	/**
+	 * Removes the first event waiting for a given entity that matches a predicate.
+	 *
+	 * @param destination the id of the destination entity
+	 * @param p the predicate
+	 * @return the removed event, or <tt>null</tt> if no event matches
+	 */
+	public SimEvent removeFirst(int destination, Predicate p) {
+		Bucket bucket = getBucket(destination);
+		if (bucket == null) {
+			return null;
+		}
+		int index = bucket.indexOf(p);
+		if (index < 0) {
+			return null;
+		}
+		return bucket.remove(index);
 	}
 
 	/**
-	 * Returns an iterator to the events in the queue.
-	 * 
+	 * Counts the events waiting for a given entity that match a predicate.
+	 *
+	 * @param destination the id of the destination entity
+	 * @param p the predicate
+	 * @return the number of matching events
+	 */
+	public int count(int destination, Predicate p) {
+		Bucket bucket = getBucket(destination);
+		if (bucket == null) {
+			return 0;
+		}
+		if (p instanceof PredicateAny) {
+			return bucket.size;
+		}
+		int count = 0;
+		for (int i = 0; i < bucket.size; i++) {
+			if (p.match(bucket.get(i))) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns an iterator to the events in the queue. The events are returned grouped by
+	 * destination entity, and in temporal order for each entity. The iterator supports removal.
+	 *
 	 * @return the iterator
 	 */
 	public Iterator<SimEvent> iterator() {
-		return list.iterator();
+		return new Iterator<SimEvent>() {
+
+			private int destination = 0;
+
+			private int index = 0;
+
+			/** The destination of the last event returned. */
+			private int lastDestination = -1;
+
+			/** The position of the last event returned, or -1 if there is none or it is removed. */
+			private int lastIndex = -1;
+
+			@Override
+			public boolean hasNext() {
+				while (destination < buckets.length
+						&& (buckets[destination] == null || index >= buckets[destination].size)) {
+					destination++;
+					index = 0;
+				}
+				return destination < buckets.length;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				lastDestination = destination;
+				lastIndex = index;
+				return buckets[destination].get(index++);
+			}
+
+			@Override
+			public void remove() {
+				if (lastIndex < 0) {
+					throw new IllegalStateException();
+				}
+				buckets[lastDestination].remove(lastIndex);
+				// the following events of the bucket move one position back
+				if (destination == lastDestination) {
+					index--;
+				}
+				lastIndex = -1;
+			}
+		};
 	}
 
 	/**
 	 * Returns the size of this event queue.
-	 * 
+	 *
 	 * @return the number of events in the queue.
 	 */
 	public int size() {
-		return list.size();
+		// not counted on the fly, so that entities running in parallel only touch their own buckets
+		int size = 0;
+		for (Bucket bucket : buckets) {
+			if (bucket != null) {
+				size += bucket.size;
+			}
+		}
+		return size;
 	}
 
 	/**
 	 * Clears the queue.
 	 */
 	public void clear() {
-		list.clear();
+		buckets = new Bucket[INITIAL_BUCKETS];
+	}
+
+	/**
+	 * Gets the bucket of a destination entity.
+	 *
+	 * @param destination the id of the destination entity
+	 * @return the bucket, or <tt>null</tt> if no event has been sent to the entity
+	 */
+	private Bucket getBucket(int destination) {
+		if (destination < 0 || destination >= buckets.length) {
+			return null;
+		}
+		return buckets[destination];
+	}
+
+	/**
+	 * The events waiting for one entity, kept in temporal order in a circular array. New events
+	 * normally arrive in temporal order and are appended at the tail.
+	 */
+	private static final class Bucket {
+
+		/** The events. */
+		private SimEvent[] events = new SimEvent[8];
+
+		/** The position of the first event. */
+		private int head;
+
+		/** The number of events. */
+		private int size;
+
+		/** The max time. */
+		private double maxTime = -1;
+
+		/**
+		 * Adds an event after all the events with the same or an earlier time.
+		 *
+		 * @param event the event
+		 */
+		void add(SimEvent event) {
+			if (size == events.length) {
+				SimEvent[] newEvents = new SimEvent[size << 1];
+				for (int i = 0; i < size; i++) {
+					newEvents[i] = get(i);
+				}
+				events = newEvents;
+				head = 0;
+			}
+
+			// The event has to be inserted as the last of all events
+			// with the same event_time(). Yes, this matters.
+			double eventTime = event.eventTime();
+			if (eventTime >= maxTime) {
+				events[(head + size) & (events.length - 1)] = event;
+				size++;
+				maxTime = eventTime;
+				return;
+			}
+
+			int low = 0;
+			int high = size;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (get(middle).eventTime() > eventTime) {
+					high = middle;
+				} else {
+					low = middle + 1;
+				}
+			}
+			for (int i = size; i > low; i--) {
+				set(i, get(i - 1));
+			}
+			set(low, event);
+			size++;
+		}
+
+		/**
+		 * Gets the index of the first event matching a predicate.
+		 *
+		 * @param p the predicate
+		 * @return the index, or -1 if no event matches
+		 */
+		int indexOf(Predicate p) {
+			if (size == 0) {
+				return -1;
+			}
+			if (p instanceof PredicateAny) {
+				return 0;
+			}
+			for (int i = 0; i < size; i++) {
+				if (p.match(get(i))) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Gets the event at a given position.
+		 *
+		 * @param index the position, from the first event
+		 * @return the event
+		 */
+		SimEvent get(int index) {
+			return events[(head + index) & (events.length - 1)];
+		}
+
+		/**
+		 * Removes the event at a given position.
+		 *
+		 * @param index the position, from the first event
+		 * @return the removed event
+		 */
+		SimEvent remove(int index) {
+			SimEvent event = get(index);
+			if (index == 0) {
+				events[head] = null;
+				head = (head + 1) & (events.length - 1);
+			} else {
+				for (int i = index; i < size - 1; i++) {
+					set(i, get(i + 1));
+				}
+				set(size - 1, null);
+			}
+			size--;
+			if (size == 0) {
+				maxTime = -1;
+			}
+			return event;
+		}
+
+		/**
+		 * Sets the event at a given position.
+		 *
+		 * @param index the position, from the first event
+		 * @param event the event
+		 */
+		private void set(int index, SimEvent event) {
+			events[(head + index) & (events.length - 1)] = event;
+		}
+
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,180 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+
+/**
+ * This class indexes the pending events of a {@link FutureQueueAbstract} by source entity and tag.
+ * The events with the same source and tag are chained through the events themselves, so indexing
+ * and unindexing an event takes constant time and does not allocate memory. For each source
+ * entity, only the tags with pending events are kept, which are usually a handful.
+ *
+ * @since CloudSim Toolkit 3.1
+ * @see FutureQueueAbstract#cancel(int, org.cloudbus.cloudsim.core.predicates.Predicate)
+ * @see FutureQueueAbstract#cancelAll(int, org.cloudbus.cloudsim.core.predicates.Predicate)
+ */
+final class FutureEventIndex {
+
+	/** The tags with pending events, for each source entity. */
+	private int[][] tags = new int[16][];
+
+	/** The first pending event of each tag, for each source entity. */
+	private SimEvent[][] heads = new SimEvent[16][];
+
+	/** The number of tags with pending events, for each source entity. */
+	private int[] tagCounts = new int[16];
+
+	/**
+	 * Adds a pending event to the index.
+	 *
+	 * @param event the event
+	 */
+	void add(SimEvent event) {
+		int source = getSlot(event.getSource());
+		if (source >= tags.length) {
+			int length = Math.max(source + 1, tags.length << 1);
+			tags = Arrays.copyOf(tags, length);
+			heads = Arrays.copyOf(heads, length);
+			tagCounts = Arrays.copyOf(tagCounts, length);
+		}
+		if (tags[source] == null) {
+			tags[source] = new int[4];
+			heads[source] = new SimEvent[4];
+		}
+
+		int index = indexOf(source, event.getTag());
+		if (index < 0) {
+			index = tagCounts[source]++;
+			if (index == tags[source].length) {
+				tags[source] = Arrays.copyOf(tags[source], index << 1);
+				heads[source] = Arrays.copyOf(heads[source], index << 1);
+			}
+			tags[source][index] = event.getTag();
+		}
+
+		SimEvent head = heads[source][index];
+		event.setPreviousPending(null);
+		event.setNextPending(head);
+		if (head != null) {
+			head.setPreviousPending(event);
+		}
+		heads[source][index] = event;
+	}
+
+	/**
+	 * Removes a pending event from the index.
+	 *
+	 * @param event the event
+	 */
+	void remove(SimEvent event) {
+		SimEvent previous = event.getPreviousPending();
+		SimEvent next = event.getNextPending();
+		if (next != null) {
+			next.setPreviousPending(previous);
+		}
+		if (previous != null) {
+			previous.setNextPending(next);
+		} else {
+			int source = getSlot(event.getSource());
+			int index = indexOf(source, event.getTag());
+			if (next != null) {
+				heads[source][index] = next;
+			} else {
+				// no more pending events with this tag
+				int last = --tagCounts[source];
+				tags[source][index] = tags[source][last];
+				heads[source][index] = heads[source][last];
+				heads[source][last] = null;
+			}
+		}
+		event.setPreviousPending(null);
+		event.setNextPending(null);
+	}
+
+	/**
+	 * Gets the first event of the chain of pending events with a given source and tag. The chain
+	 * is not in temporal order.
+	 *
+	 * @param source the id of the source entity
+	 * @param tag the tag
+	 * @return the first event of the chain, or <tt>null</tt> if there are no such events
+	 */
+	SimEvent getPending(int source, int tag) {
+		int slot = getSlot(source);
+		if (slot < 0 || slot >= tags.length || tags[slot] == null) {
+			return null;
+		}
+		int index = indexOf(slot, tag);
+		return index < 0 ? null : heads[slot][index];
+	}
+
+	/**
+	 * Gets the number of tags with pending events from a given source.
+	 *
+	 * @param source the id of the source entity
+	 * @return the number of tags
+	 */
+	int getNumberOfTags(int source) {
+		int slot = getSlot(source);
+		if (slot < 0 || slot >= tags.length) {
+			return 0;
+		}
+		return tagCounts[slot];
+	}
+
+	/**
+	 * Gets the first event of the chain of pending events with a given source and the i-th of
+	 * its tags.
+	 *
+	 * @param source the id of the source entity
+	 * @param index the index of the tag, between 0 and {@link #getNumberOfTags(int)}
+	 * @return the first event of the chain
+	 */
+	SimEvent getPendingByIndex(int source, int index) {
+		return heads[getSlot(source)][index];
+	}
+
+	/**
+	 * Clears the index.
+	 */
+	void clear() {
+		tags = new int[16][];
+		heads = new SimEvent[16][];
+		tagCounts = new int[16];
+	}
+
+	/**
+	 * Gets the index of a tag among the tags with pending events of a source.
+	 *
+	 * @param slot the slot of the source entity
+	 * @param tag the tag
+	 * @return the index, or -1 if there are no pending events with the tag
+	 */
+	private int indexOf(int slot, int tag) {
+		int[] sourceTags = tags[slot];
+		for (int i = tagCounts[slot] - 1; i >= 0; i--) {
+			if (sourceTags[i] == tag) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the slot of a source entity. Events without a source (id -1) use the first slot.
+	 *
+	 * @param source the id of the source entity
+	 * @return the slot
+	 */
+	private static int getSlot(int source) {
+		return source + 1;
+	}
+
+}
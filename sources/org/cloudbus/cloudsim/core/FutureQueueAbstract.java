@@ -0,0 +1,441 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+
+/**
+ * This class is the base of the future event queues used by {@link Simulation}. A future queue
+ * keeps the events ordered by their time and, for events with the same time, by the serial number
+ * assigned when the event is added to the queue. Concrete queues only have to keep this order; the
+ * serial numbers are assigned here, so every implementation delivers events in exactly the same
+ * order.
+ * <p>
+ * Events added with {@link #addEvent(SimEvent)} are served in FIFO order among the events with the
+ * same time. Events added with {@link #addEventFirst(SimEvent)} are served before all the other
+ * events with the same time, and in FIFO order among themselves.
+ *
+ * @since CloudSim Toolkit 3.1
+ * @see Simulation
+ * @see FutureQueue
+ * @see FutureQueueHeap
+ * @see FutureQueueCalendar
+ * @see FutureQueueTreeSet
+ */
+public abstract class FutureQueueAbstract {
+
+	/** The minimal number of cancelled events before the queue is purged. */
+	private static final int MIN_CANCELLED_TO_PURGE = 64;
+
+	/** The serial. */
+	private long serial = 0;
+
+	/** The serial of the events added to the head of the queue. */
+	private long headSerial = Long.MIN_VALUE;
+
+	/** The index of the pending events by source and tag. */
+	private final FutureEventIndex index = new FutureEventIndex();
+
+	/** The number of cancelled events still stored in the queue. */
+	private int cancelledCount = 0;
+
+	/**
+	 * Add a new event to the queue. Adding a new event to the queue preserves the temporal order of
+	 * the events in the queue.
+	 *
+	 * @param newEvent The event to be put in the queue.
+	 */
+	public void addEvent(SimEvent newEvent) {
+		// the first event shares its slot with the events added to the head of the queue
+		long eventSerial = serial++;
+		if (eventSerial == 0) {
+			eventSerial = headSerial++;
+		}
+		newEvent.setSerial(eventSerial);
+		index.add(newEvent);
+		insert(newEvent);
+	}
+
+	/**
+	 * Add a new event to the head of the queue.
+	 *
+	 * @param newEvent The event to be put in the queue.
+	 */
+	public void addEventFirst(SimEvent newEvent) {
+		newEvent.setSerial(headSerial++);
+		index.add(newEvent);
+		insert(newEvent);
+	}
+
+	/**
+	 * Returns the first event of the queue without removing it.
+	 *
+	 * @return the first event, or <tt>null</tt> if the queue is empty
+	 */
+	public SimEvent peek() {
+		SimEvent event = peekEvent();
+		while (event != null && event.isCancelled()) {
+			pollEvent();
+			cancelledCount--;
+			event = peekEvent();
+		}
+		return event;
+	}
+
+	/**
+	 * Removes and returns the first event of the queue.
+	 *
+	 * @return the first event, or <tt>null</tt> if the queue is empty
+	 */
+	public SimEvent poll() {
+		SimEvent event = peek();
+		if (event != null) {
+			pollEvent();
+			index.remove(event);
+		}
+		return event;
+	}
+
+	/**
+	 * Returns an iterator to the queue. Unless stated otherwise by the implementation, the events
+	 * are <b>not</b> returned in temporal order. The iterator does not support removal.
+	 *
+	 * @return the iterator
+	 */
+	public Iterator<SimEvent> iterator() {
+		final Iterator<SimEvent> iterator = eventIterator();
+		return new Iterator<SimEvent>() {
+
+			private SimEvent next = findNext();
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				SimEvent event = next;
+				next = findNext();
+				return event;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+
+			private SimEvent findNext() {
+				while (iterator.hasNext()) {
+					SimEvent event = iterator.next();
+					if (!event.isCancelled()) {
+						return event;
+					}
+				}
+				return null;
+			}
+		};
+	}
+
+	/**
+	 * Returns the size of this event queue.
+	 *
+	 * @return the size
+	 */
+	public int size() {
+		return eventCount() - cancelledCount;
+	}
+
+	/**
+	 * Removes the event from the queue.
+	 *
+	 * @param event the event
+	 * @return true, if successful
+	 */
+	public boolean remove(SimEvent event) {
+		if (event.isCancelled() || !removeEvent(event)) {
+			return false;
+		}
+		index.remove(event);
+		return true;
+	}
+
+	/**
+	 * Removes all the events from the queue.
+	 *
+	 * @param events the events
+	 * @return true, if successful
+	 */
+	public boolean removeAll(Collection<SimEvent> events) {
+		List<SimEvent> toRemove = new ArrayList<SimEvent>(events.size());
+		for (SimEvent event : events) {
+			if (!event.isCancelled()) {
+				toRemove.add(event);
+			}
+		}
+		if (toRemove.isEmpty() || !removeEvents(toRemove)) {
+			return false;
+		}
+		for (SimEvent event : toRemove) {
+			if (event.getNextPending() != null || event.getPreviousPending() != null
+					|| index.getPending(event.getSource(), event.getTag()) == event) {
+				index.remove(event);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Cancels the first event, in temporal order, sent by a given entity that matches a predicate.
+	 * Only the pending events of the entity are examined; if the predicate is a
+	 * {@link PredicateType}, only the pending events with its tags are examined.
+	 *
+	 * @param src the id of the source entity
+	 * @param p the predicate
+	 * @return the cancelled event, or <tt>null</tt> if no event matches
+	 */
+	public SimEvent cancel(int src, Predicate p) {
+		SimEvent first = findPending(src, p);
+		if (first != null) {
+			cancelEvent(first);
+		}
+		return first;
+	}
+
+	/**
+	 * Finds the first pending event, in temporal order, sent by a given entity that matches a
+	 * predicate, without cancelling it.
+	 *
+	 * @param src the id of the source entity
+	 * @param p the predicate
+	 * @return the event, or <tt>null</tt> if no event matches
+	 * @see #cancel(int, Predicate)
+	 */
+	SimEvent findPending(int src, Predicate p) {
+		SimEvent first = null;
+		if (p instanceof PredicateType) {
+			PredicateType predicate = (PredicateType) p;
+			for (int i = 0; i < predicate.getNumberOfTags(); i++) {
+				first = findFirst(index.getPending(src, predicate.getTag(i)), null, first);
+			}
+		} else {
+			for (int i = index.getNumberOfTags(src) - 1; i >= 0; i--) {
+				first = findFirst(index.getPendingByIndex(src, i), p, first);
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * Cancels a pending event of the queue.
+	 *
+	 * @param event the event
+	 */
+	void cancelEvent(SimEvent event) {
+		markCancelled(event);
+		purgeIfNeeded();
+	}
+
+	/**
+	 * Cancels all the events sent by a given entity that match a predicate. Only the pending events
+	 * of the entity are examined; if the predicate is a {@link PredicateType}, only the pending
+	 * events with its tags are examined.
+	 *
+	 * @param src the id of the source entity
+	 * @param p the predicate
+	 * @return the number of cancelled events
+	 */
+	public int cancelAll(int src, Predicate p) {
+		int count = 0;
+		if (p instanceof PredicateType) {
+			PredicateType predicate = (PredicateType) p;
+			for (int i = 0; i < predicate.getNumberOfTags(); i++) {
+				count += cancelAll(src, predicate.getTag(i));
+			}
+			return count;
+		}
+
+		for (int i = index.getNumberOfTags(src) - 1; i >= 0; i--) {
+			SimEvent event = index.getPendingByIndex(src, i);
+			while (event != null) {
+				SimEvent next = event.getNextPending();
+				if (p.match(event)) {
+					markCancelled(event);
+					count++;
+				}
+				event = next;
+			}
+		}
+		purgeIfNeeded();
+		return count;
+	}
+
+	/**
+	 * Cancels all the events with a given tag sent by a given entity. This takes constant time for
+	 * each cancelled event.
+	 *
+	 * @param src the id of the source entity
+	 * @param tag the tag
+	 * @return the number of cancelled events
+	 */
+	public int cancelAll(int src, int tag) {
+		int count = 0;
+		SimEvent event = index.getPending(src, tag);
+		while (event != null) {
+			SimEvent next = event.getNextPending();
+			markCancelled(event);
+			count++;
+			event = next;
+		}
+		purgeIfNeeded();
+		return count;
+	}
+
+	/**
+	 * Clears the queue.
+	 */
+	public void clear() {
+		clearEvents();
+		index.clear();
+		cancelledCount = 0;
+	}
+
+	/**
+	 * Inserts an event, whose serial has already been set, into the queue.
+	 *
+	 * @param event the event
+	 */
+	protected abstract void insert(SimEvent event);
+
+	/**
+	 * Returns the first stored event, which may have been cancelled, without removing it.
+	 *
+	 * @return the first event, or <tt>null</tt> if no events are stored
+	 */
+	protected abstract SimEvent peekEvent();
+
+	/**
+	 * Removes the first stored event, which may have been cancelled.
+	 */
+	protected abstract void pollEvent();
+
+	/**
+	 * Returns an iterator to the stored events, including the cancelled ones.
+	 *
+	 * @return the iterator
+	 */
+	protected abstract Iterator<SimEvent> eventIterator();
+
+	/**
+	 * Returns the number of stored events, including the cancelled ones.
+	 *
+	 * @return the number of events
+	 */
+	protected abstract int eventCount();
+
+	/**
+	 * Removes a stored event.
+	 *
+	 * @param event the event
+	 * @return true, if the event was stored in the queue
+	 */
+	protected abstract boolean removeEvent(SimEvent event);
+
+	/**
+	 * Removes stored events.
+	 *
+	 * @param events the events
+	 * @return true, if at least one event was stored in the queue
+	 */
+	protected boolean removeEvents(Collection<SimEvent> events) {
+		boolean removed = false;
+		for (SimEvent event : events) {
+			removed |= removeEvent(event);
+		}
+		return removed;
+	}
+
+	/**
+	 * Removes all the stored events.
+	 */
+	protected abstract void clearEvents();
+
+	/**
+	 * Compares two events in the order in which they have to be served.
+	 *
+	 * @param time1 the time of the first event
+	 * @param serial1 the serial of the first event
+	 * @param time2 the time of the second event
+	 * @param serial2 the serial of the second event
+	 * @return true, if the first event has to be served before the second one
+	 */
+	protected static boolean isBefore(double time1, long serial1, double time2, long serial2) {
+		return time1 < time2 || (time1 == time2 && serial1 < serial2);
+	}
+
+	/**
+	 * Finds the first event, in temporal order, of a chain of pending events that matches a
+	 * predicate.
+	 *
+	 * @param event the first event of the chain
+	 * @param p the predicate, or <tt>null</tt> to match any event
+	 * @param first the first matching event found so far, or <tt>null</tt>
+	 * @return the first matching event
+	 */
+	private static SimEvent findFirst(SimEvent event, Predicate p, SimEvent first) {
+		while (event != null) {
+			if ((p == null || p.match(event)) && (first == null || event.compareTo(first) < 0)) {
+				first = event;
+			}
+			event = event.getNextPending();
+		}
+		return first;
+	}
+
+	/**
+	 * Marks a pending event as cancelled and removes it from the index.
+	 *
+	 * @param event the event
+	 */
+	private void markCancelled(SimEvent event) {
+		index.remove(event);
+		event.setCancelled(true);
+		cancelledCount++;
+	}
+
+	/**
+	 * Removes the cancelled events from the queue if they make up more than half of it.
+	 */
+	private void purgeIfNeeded() {
+		if (cancelledCount < MIN_CANCELLED_TO_PURGE || cancelledCount * 2 < eventCount()) {
+			return;
+		}
+		List<SimEvent> cancelled = new ArrayList<SimEvent>(cancelledCount);
+		Iterator<SimEvent> iterator = eventIterator();
+		while (iterator.hasNext()) {
+			SimEvent event = iterator.next();
+			if (event.isCancelled()) {
+				cancelled.add(event);
+			}
+		}
+		removeEvents(cancelled);
+		cancelledCount = 0;
+	}
+
+}
@@ -0,0 +1,377 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements the future event queue as a calendar queue (R. Brown, "Calendar Queues: A
+ * Fast O(1) Priority Queue Implementation for the Simulation Event Set Problem", Communications of
+ * the ACM, 31(10), 1988). The time axis is divided into "days" of equal width that are mapped onto
+ * a circular array of buckets, so that adding and removing an event takes constant time on average
+ * when the events are spread densely over the event horizon, e.g. many hosts and VMs updated at
+ * every scheduling interval. The number of buckets and the width of a day are recomputed from the
+ * pending events whenever the queue doubles or halves its size.
+ * <p>
+ * Each bucket keeps its events in an array sorted in <b>descending</b> order, so the first event of
+ * a bucket is removed from the end of the array without shifting.
+ *
+ * @since CloudSim Toolkit 3.1
+ * @see FutureQueueAbstract
+ */
+public class FutureQueueCalendar extends FutureQueueAbstract {
+
+	/** The minimal number of buckets. */
+	private static final int MIN_BUCKETS = 16;
+
+	/** The initial capacity of a bucket. */
+	private static final int BUCKET_CAPACITY = 4;
+
+	/** The number of events sampled to estimate the width of a day. */
+	private static final int SAMPLE_SIZE = 25;
+
+	/** Orders the events as they have to be served. */
+	private static final Comparator<SimEvent> ORDER = new Comparator<SimEvent>() {
+
+		@Override
+		public int compare(SimEvent event1, SimEvent event2) {
+			return event1.compareTo(event2);
+		}
+	};
+
+	/** The buckets. */
+	private SimEvent[][] buckets;
+
+	/** The number of events in each bucket. */
+	private int[] bucketSizes;
+
+	/** The mask used to map a day onto a bucket. */
+	private int mask;
+
+	/** The width of a day. */
+	private double width;
+
+	/** The day of the last event removed from the queue. */
+	private long currentDay;
+
+	/** The number of events in the queue. */
+	private int size;
+
+	/** The first event of the queue, if already found. */
+	private SimEvent first;
+
+	/** The bucket of the first event of the queue. */
+	private int firstBucket = -1;
+
+	/**
+	 * Instantiates a new calendar queue.
+	 */
+	public FutureQueueCalendar() {
+		this(1.0);
+	}
+
+	/**
+	 * Instantiates a new calendar queue.
+	 *
+	 * @param width the initial width of a day, e.g. the scheduling interval of the simulation
+	 */
+	public FutureQueueCalendar(double width) {
+		if (width <= 0) {
+			throw new IllegalArgumentException("The width of a day should be positive, but is:" + width);
+		}
+		init(MIN_BUCKETS, width, 0);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#insert(org.cloudbus.cloudsim.core.SimEvent)
+	 */
+	@Override
+	protected void insert(SimEvent event) {
+		long day = getDay(event.eventTime());
+		if (day < currentDay) {
+			currentDay = day;
+		}
+		int bucket = (int) (day & mask);
+		insertIntoBucket(bucket, event);
+		size++;
+		if (first != null && event.compareTo(first) < 0) {
+			first = event;
+			firstBucket = bucket;
+		}
+		if (size > buckets.length << 1) {
+			resize(buckets.length << 1);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#peekEvent()
+	 */
+	@Override
+	protected SimEvent peekEvent() {
+		if (size == 0) {
+			return null;
+		}
+		if (first == null) {
+			findFirst();
+		}
+		return first;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#pollEvent()
+	 */
+	@Override
+	protected void pollEvent() {
+		if (peekEvent() == null) {
+			return;
+		}
+		int last = --bucketSizes[firstBucket];
+		buckets[firstBucket][last] = null;
+		size--;
+		first = null;
+		firstBucket = -1;
+		if (size < buckets.length >> 1 && buckets.length > MIN_BUCKETS) {
+			resize(buckets.length >> 1);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#eventIterator()
+	 */
+	@Override
+	protected Iterator<SimEvent> eventIterator() {
+		return new Iterator<SimEvent>() {
+
+			private int bucket = 0;
+
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				while (bucket < buckets.length && index >= bucketSizes[bucket]) {
+					bucket++;
+					index = 0;
+				}
+				return bucket < buckets.length;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return buckets[bucket][index++];
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#eventCount()
+	 */
+	@Override
+	protected int eventCount() {
+		return size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#removeEvent(org.cloudbus.cloudsim.core.SimEvent)
+	 */
+	@Override
+	protected boolean removeEvent(SimEvent event) {
+		int bucket = (int) (getDay(event.eventTime()) & mask);
+		SimEvent[] events = buckets[bucket];
+		int bucketSize = bucketSizes[bucket];
+		for (int i = 0; i < bucketSize; i++) {
+			if (events[i] == event) {
+				System.arraycopy(events, i + 1, events, i, bucketSize - i - 1);
+				events[--bucketSizes[bucket]] = null;
+				size--;
+				if (event == first) {
+					first = null;
+					firstBucket = -1;
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#clearEvents()
+	 */
+	@Override
+	protected void clearEvents() {
+		init(MIN_BUCKETS, width, 0);
+	}
+
+	/**
+	 * Finds the first event of the queue, starting from the bucket of the current day. If a whole
+	 * year passes without finding an event of the current year, the first event is searched
+	 * directly among the first events of all the buckets.
+	 */
+	private void findFirst() {
+		int bucketCount = buckets.length;
+		for (int i = 0; i < bucketCount; i++) {
+			long day = currentDay + i;
+			int bucket = (int) (day & mask);
+			int bucketSize = bucketSizes[bucket];
+			if (bucketSize > 0) {
+				SimEvent event = buckets[bucket][bucketSize - 1];
+				if (getDay(event.eventTime()) <= day) {
+					setFirst(event, bucket);
+					return;
+				}
+			}
+		}
+
+		SimEvent min = null;
+		int minBucket = -1;
+		for (int bucket = 0; bucket < bucketCount; bucket++) {
+			int bucketSize = bucketSizes[bucket];
+			if (bucketSize > 0) {
+				SimEvent event = buckets[bucket][bucketSize - 1];
+				if (min == null || event.compareTo(min) < 0) {
+					min = event;
+					minBucket = bucket;
+				}
+			}
+		}
+		setFirst(min, minBucket);
+	}
+
+	/**
+	 * Sets the first event of the queue and moves the current day to its day.
+	 *
+	 * @param event the event
+	 * @param bucket the bucket of the event
+	 */
+	private void setFirst(SimEvent event, int bucket) {
+		first = event;
+		firstBucket = bucket;
+		currentDay = getDay(event.eventTime());
+	}
+
+	/**
+	 * Inserts an event into a bucket, keeping the bucket sorted in descending order.
+	 *
+	 * @param bucket the bucket
+	 * @param event the event
+	 */
+	private void insertIntoBucket(int bucket, SimEvent event) {
+		SimEvent[] events = buckets[bucket];
+		int bucketSize = bucketSizes[bucket];
+		if (events == null) {
+			events = new SimEvent[BUCKET_CAPACITY];
+			buckets[bucket] = events;
+		} else if (bucketSize == events.length) {
+			events = Arrays.copyOf(events, bucketSize << 1);
+			buckets[bucket] = events;
+		}
+		double time = event.eventTime();
+		long serial = event.getSerial();
+		int i = bucketSize;
+		while (i > 0 && isBefore(events[i - 1].eventTime(), events[i - 1].getSerial(), time, serial)) {
+			events[i] = events[i - 1];
+			i--;
+		}
+		events[i] = event;
+		bucketSizes[bucket] = bucketSize + 1;
+	}
+
+	/**
+	 * Rebuilds the calendar with a new number of buckets, estimating the width of a day from the
+	 * separation of the first pending events.
+	 *
+	 * @param bucketCount the new number of buckets
+	 */
+	private void resize(int bucketCount) {
+		SimEvent[] events = new SimEvent[size];
+		int n = 0;
+		for (int bucket = 0; bucket < buckets.length; bucket++) {
+			if (bucketSizes[bucket] > 0) {
+				System.arraycopy(buckets[bucket], 0, events, n, bucketSizes[bucket]);
+				n += bucketSizes[bucket];
+			}
+		}
+		Arrays.sort(events, ORDER);
+
+		double newWidth = width;
+		int samples = Math.min(events.length, SAMPLE_SIZE);
+		if (samples > 1) {
+			double separation = (events[samples - 1].eventTime() - events[0].eventTime()) / (samples - 1);
+			if (separation > 0) {
+				// ignore the separations much larger than the average one
+				double total = 0;
+				int count = 0;
+				for (int i = 1; i < samples; i++) {
+					double gap = events[i].eventTime() - events[i - 1].eventTime();
+					if (gap <= 2 * separation) {
+						total += gap;
+						count++;
+					}
+				}
+				if (total > 0) {
+					newWidth = 3 * total / count;
+				}
+			}
+		}
+
+		long day = events.length > 0 ? (long) Math.floor(events[0].eventTime() / newWidth) : 0;
+		init(bucketCount, newWidth, day);
+		// inserting the events from the last one appends each of them at the end of its bucket
+		for (int i = events.length - 1; i >= 0; i--) {
+			insertIntoBucket((int) (getDay(events[i].eventTime()) & mask), events[i]);
+		}
+		size = events.length;
+	}
+
+	/**
+	 * Resets the calendar.
+	 *
+	 * @param bucketCount the number of buckets, a power of two
+	 * @param width the width of a day
+	 * @param day the current day
+	 */
+	private void init(int bucketCount, double width, long day) {
+		buckets = new SimEvent[bucketCount][];
+		bucketSizes = new int[bucketCount];
+		mask = bucketCount - 1;
+		this.width = width;
+		currentDay = day;
+		size = 0;
+		first = null;
+		firstBucket = -1;
+	}
+
+	/**
+	 * Gets the day of a given time.
+	 *
+	 * @param time the time
+	 * @return the day
+	 */
+	private long getDay(double time) {
+		return (long) Math.floor(time / width);
+	}
+
+}
@@ -0,0 +1,304 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements the future event queue as a d-ary heap. The keys of the heap (event time
+ * and serial) are kept in primitive arrays next to the events, so adding and removing an event
+ * neither allocates memory (apart from growing the arrays) nor calls
+ * {@link SimEvent#compareTo(SimEvent)}. The default arity of 4 keeps the heap shallow and the
+ * children of a node in the same cache line. Each event knows its position in the heap, so that
+ * removing an event does not search the heap for it.
+ *
+ * @since CloudSim Toolkit 3.1
+ * @see FutureQueueAbstract
+ */
+public class FutureQueueHeap extends FutureQueueAbstract {
+
+	/** The default arity of the heap. */
+	public static final int DEFAULT_ARITY = 4;
+
+	/** The default initial capacity of the heap. */
+	private static final int DEFAULT_CAPACITY = 1024;
+
+	/** The arity of the heap. */
+	private final int arity;
+
+	/** The events. */
+	private SimEvent[] events;
+
+	/** The times of the events. */
+	private double[] times;
+
+	/** The serials of the events. */
+	private long[] serials;
+
+	/** The number of events in the heap. */
+	private int size;
+
+	/**
+	 * Instantiates a new 4-ary heap queue.
+	 */
+	public FutureQueueHeap() {
+		this(DEFAULT_ARITY);
+	}
+
+	/**
+	 * Instantiates a new heap queue.
+	 *
+	 * @param arity the number of children of each node, 2 for a binary heap
+	 */
+	public FutureQueueHeap(int arity) {
+		if (arity < 2) {
+			throw new IllegalArgumentException("The arity of the heap should be at least 2, but is:" + arity);
+		}
+		this.arity = arity;
+		events = new SimEvent[DEFAULT_CAPACITY];
+		times = new double[DEFAULT_CAPACITY];
+		serials = new long[DEFAULT_CAPACITY];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#insert(org.cloudbus.cloudsim.core.SimEvent)
+	 */
+	@Override
+	protected void insert(SimEvent event) {
+		if (size == events.length) {
+			int capacity = size << 1;
+			events = Arrays.copyOf(events, capacity);
+			times = Arrays.copyOf(times, capacity);
+			serials = Arrays.copyOf(serials, capacity);
+		}
+		siftUp(size++, event, event.eventTime(), event.getSerial());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#peekEvent()
+	 */
+	@Override
+	protected SimEvent peekEvent() {
+		if (size == 0) {
+			return null;
+		}
+		return events[0];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#pollEvent()
+	 */
+	@Override
+	protected void pollEvent() {
+		if (size > 0) {
+			removeAt(0);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#eventIterator()
+	 */
+	@Override
+	protected Iterator<SimEvent> eventIterator() {
+		return new Iterator<SimEvent>() {
+
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public SimEvent next() {
+				if (index >= size) {
+					throw new NoSuchElementException();
+				}
+				return events[index++];
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#eventCount()
+	 */
+	@Override
+	protected int eventCount() {
+		return size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#removeEvent(org.cloudbus.cloudsim.core.SimEvent)
+	 */
+	@Override
+	protected boolean removeEvent(SimEvent event) {
+		int index = event.getQueuePosition();
+		if (index < 0 || index >= size || events[index] != event) {
+			return false;
+		}
+		removeAt(index);
+		return true;
+	}
+
+	/**
+	 * Removes all the given events with a single pass over the heap, and then restores the heap
+	 * order bottom-up.
+	 *
+	 * @param events the events
+	 * @return true, if successful
+	 */
+	@Override
+	protected boolean removeEvents(Collection<SimEvent> events) {
+		if (events.isEmpty()) {
+			return false;
+		}
+		Map<SimEvent, Boolean> toRemove = new IdentityHashMap<SimEvent, Boolean>();
+		for (SimEvent event : events) {
+			toRemove.put(event, Boolean.TRUE);
+		}
+		int newSize = 0;
+		for (int i = 0; i < size; i++) {
+			if (!toRemove.containsKey(this.events[i])) {
+				set(newSize++, this.events[i], times[i], serials[i]);
+			} else {
+				this.events[i].setQueuePosition(-1);
+			}
+		}
+		if (newSize == size) {
+			return false;
+		}
+		Arrays.fill(this.events, newSize, size, null);
+		size = newSize;
+		for (int i = size / arity; i >= 0; i--) {
+			if (i < size) {
+				siftDown(i, this.events[i], times[i], serials[i]);
+			}
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#clearEvents()
+	 */
+	@Override
+	protected void clearEvents() {
+		for (int i = 0; i < size; i++) {
+			events[i].setQueuePosition(-1);
+		}
+		Arrays.fill(events, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Removes the event at the given position of the heap.
+	 *
+	 * @param index the index
+	 */
+	private void removeAt(int index) {
+		events[index].setQueuePosition(-1);
+		int last = --size;
+		if (index == last) {
+			events[last] = null;
+			return;
+		}
+		SimEvent event = events[last];
+		double time = times[last];
+		long serial = serials[last];
+		events[last] = null;
+		if (index > 0 && isBefore(time, serial, times[(index - 1) / arity], serials[(index - 1) / arity])) {
+			siftUp(index, event, time, serial);
+		} else {
+			siftDown(index, event, time, serial);
+		}
+	}
+
+	/**
+	 * Moves an event up from the given position until its parent has to be served before it.
+	 *
+	 * @param index the index
+	 * @param event the event
+	 * @param time the time of the event
+	 * @param serial the serial of the event
+	 */
+	private void siftUp(int index, SimEvent event, double time, long serial) {
+		while (index > 0) {
+			int parent = (index - 1) / arity;
+			if (!isBefore(time, serial, times[parent], serials[parent])) {
+				break;
+			}
+			set(index, events[parent], times[parent], serials[parent]);
+			index = parent;
+		}
+		set(index, event, time, serial);
+	}
+
+	/**
+	 * Moves an event down from the given position until it has to be served before all its
+	 * children.
+	 *
+	 * @param index the index
+	 * @param event the event
+	 * @param time the time of the event
+	 * @param serial the serial of the event
+	 */
+	private void siftDown(int index, SimEvent event, double time, long serial) {
+		while (true) {
+			int firstChild = index * arity + 1;
+			if (firstChild >= size) {
+				break;
+			}
+			int lastChild = Math.min(firstChild + arity, size);
+			int min = firstChild;
+			for (int child = firstChild + 1; child < lastChild; child++) {
+				if (isBefore(times[child], serials[child], times[min], serials[min])) {
+					min = child;
+				}
+			}
+			if (!isBefore(times[min], serials[min], time, serial)) {
+				break;
+			}
+			set(index, events[min], times[min], serials[min]);
+			index = min;
+		}
+		set(index, event, time, serial);
+	}
+
+	/**
+	 * Stores an event at the given position of the heap.
+	 *
+	 * @param index the index
+	 * @param event the event
+	 * @param time the time of the event
+	 * @param serial the serial of the event
+	 */
+	private void set(int index, SimEvent event, double time, long serial) {
+		events[index] = event;
+		event.setQueuePosition(index);
+		times[index] = time;
+		serials[index] = serial;
+	}
+
+}
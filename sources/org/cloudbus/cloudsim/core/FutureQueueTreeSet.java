@@ -0,0 +1,105 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.TreeSet;
+
+/**
+ * This class implements the future event queue using a {@link TreeSet} in order to store the
+ * events. This is the queue used by the previous versions of CloudSim. The iterator of this queue
+ * returns the events in temporal order.
+ *
+ * @author Marcos Dias de Assuncao
+ * @since CloudSim Toolkit 3.1
+ * @see FutureQueueAbstract
+ * @see java.util.TreeSet
+ */
+public class FutureQueueTreeSet extends FutureQueueAbstract {
+
+	/** The sorted set. */
+	private final TreeSet<SimEvent> sortedSet = new TreeSet<SimEvent>();
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#insert(org.cloudbus.cloudsim.core.SimEvent)
+	 */
+	@Override
+	protected void insert(SimEvent event) {
+		sortedSet.add(event);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#peekEvent()
+	 */
+	@Override
+	protected SimEvent peekEvent() {
+		if (sortedSet.isEmpty()) {
+			return null;
+		}
+		return sortedSet.first();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#pollEvent()
+	 */
+	@Override
+	protected void pollEvent() {
+		sortedSet.pollFirst();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#eventIterator()
+	 */
+	@Override
+	protected Iterator<SimEvent> eventIterator() {
+		return sortedSet.iterator();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#eventCount()
+	 */
+	@Override
+	protected int eventCount() {
+		return sortedSet.size();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#removeEvent(org.cloudbus.cloudsim.core.SimEvent)
+	 */
+	@Override
+	protected boolean removeEvent(SimEvent event) {
+		return sortedSet.remove(event);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#removeEvents(java.util.Collection)
+	 */
+	@Override
+	protected boolean removeEvents(Collection<SimEvent> events) {
+		return sortedSet.removeAll(events);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.core.FutureQueueAbstract#clearEvents()
+	 */
+	@Override
+	protected void clearEvents() {
+		sortedSet.clear();
+	}
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of durations in nanoseconds, with buckets of logarithmic width as in HDR histograms.
+ * The values below {@value #SUB_BUCKETS} are counted exactly; each larger power of two is split in
+ * {@value #SUB_BUCKETS} buckets, so the values are known within about 6%. Recording a value takes
+ * constant time and does not allocate memory once the histogram has grown to the largest value.
+ *
+ * @see SimulationMetrics
+ * @since CloudSim Toolkit 3.1
+ */
+public class LatencyHistogram {
+
+	/** The number of buckets of each power of two. */
+	private static final int SUB_BUCKETS = 16;
+
+	/** The number of bits of the values of the first power of two split in buckets. */
+	private static final int SUB_BUCKET_BITS = 4;
+
+	/** The number of values of each bucket. */
+	private long[] counts = new long[4 * SUB_BUCKETS];
+
+	/** The number of values. */
+	private long count;
+
+	/** The sum of the values. */
+	private long total;
+
+	/** The smallest value. */
+	private long min = Long.MAX_VALUE;
+
+	/** The largest value. */
+	private long max;
+
+	/**
+	 * Records a value.
+	 *
+	 * @param value the value, in nanoseconds; negative values are counted as 0
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		int index = getIndex(value);
+		if (index >= counts.length) {
+			counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length << 1));
+		}
+		counts[index]++;
+		count++;
+		total += value;
+		if (value < min) {
+			min = value;
+		}
+		if (value > max) {
+			max = value;
+		}
+	}
+
+	/**
+	 * Gets the number of values.
+	 *
+	 * @return the number of values
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the sum of the values.
+	 *
+	 * @return the sum, in nanoseconds
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	/**
+	 * Gets the smallest value.
+	 *
+	 * @return the smallest value, in nanoseconds, or 0 if there are no values
+	 */
+	public long getMin() {
+		return count == 0 ? 0 : min;
+	}
+
+	/**
+	 * Gets the largest value.
+	 *
+	 * @return the largest value, in nanoseconds
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * Gets the mean of the values.
+	 *
+	 * @return the mean, in nanoseconds, or 0 if there are no values
+	 */
+	public double getMean() {
+		return count == 0 ? 0 : (double) total / count;
+	}
+
+	/**
+	 * Gets the value below which a given percentage of the values fall, with the precision of the
+	 * buckets.
+	 *
+	 * @param percentile the percentage, between 0 and 100
+	 * @return the largest value of the bucket that holds the percentile, in nanoseconds, or 0 if
+	 *         there are no values
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("The percentile should be between 0 and 100, but is: "
+					+ percentile);
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(getLowestValue(i + 1) - 1, max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Adds the values of another histogram to this one.
+	 *
+	 * @param other the other histogram
+	 */
+	public void add(LatencyHistogram other) {
+		if (other.counts.length > counts.length) {
+			counts = Arrays.copyOf(counts, other.counts.length);
+		}
+		for (int i = 0; i < other.counts.length; i++) {
+			counts[i] += other.counts[i];
+		}
+		count += other.count;
+		total += other.total;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	/**
+	 * Gets the bucket of a value.
+	 *
+	 * @param value the value
+	 * @return the index of the bucket
+	 */
+	private static int getIndex(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Gets the smallest value of a bucket.
+	 *
+	 * @param index the index of the bucket
+	 * @return the smallest value
+	 */
+	private static long getLowestValue(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		if (exponent >= 63) {
+			return Long.MAX_VALUE;
+		}
+		long subBucket = index % SUB_BUCKETS;
+		return (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS);
+	}
+
+}
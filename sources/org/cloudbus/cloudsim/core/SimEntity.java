@@ -42,6 +42,9 @@ public abstract class SimEntity implements Cloneable {
 	/** The entity's current state. */
 	private int state;
 
+	/** The simulation this entity belongs to. */
+	private final Simulation simulation;
+
 	/**
 	 * Creates a new entity.
 	 * 
@@ -54,7 +57,8 @@ public abstract class SimEntity implements Cloneable {
 		this.name = name;
 		id = -1;
 		state = RUNNABLE;
-		CloudSim.addEntity(this);
+		simulation = CloudSim.getSimulation();
+		simulation.addEntity(this);
 	}
 
 	/**
@@ -66,6 +70,16 @@ public abstract class SimEntity implements Cloneable {
 		return name;
 	}
 
+	/**
+	 * Gets the simulation this entity belongs to, which is the current simulation of the thread
+	 * that created the entity.
+	 * 
+	 * @return the simulation
+	 */
+	public Simulation getSimulation() {
+		return simulation;
+	}
+
 	/**
 	 * Get the unique id number assigned to this entity.
 	 * 
@@ -87,10 +101,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void schedule(int dest, double delay, int tag, Object data) {
-		if (!CloudSim.running()) {
+		if (!simulation.running()) {
 			return;
 		}
-		CloudSim.send(id, dest, delay, tag, data);
+		simulation.send(id, dest, delay, tag, data);
 	}
 
 	/**
@@ -115,7 +129,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void schedule(String dest, double delay, int tag, Object data) {
-		schedule(CloudSim.getEntityId(dest), delay, tag, data);
+		schedule(simulation.getEntityId(dest), delay, tag, data);
 	}
 
 	/**
@@ -162,7 +176,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void scheduleNow(String dest, int tag, Object data) {
-		schedule(CloudSim.getEntityId(dest), 0, tag, data);
+		schedule(simulation.getEntityId(dest), 0, tag, data);
 	}
 
 	/**
@@ -186,10 +200,10 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void scheduleFirst(int dest, double delay, int tag, Object data) {
-		if (!CloudSim.running()) {
+		if (!simulation.running()) {
 			return;
 		}
-		CloudSim.sendFirst(id, dest, delay, tag, data);
+		simulation.sendFirst(id, dest, delay, tag, data);
 	}
 
 	/**
@@ -214,7 +228,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void scheduleFirst(String dest, double delay, int tag, Object data) {
-		scheduleFirst(CloudSim.getEntityId(dest), delay, tag, data);
+		scheduleFirst(simulation.getEntityId(dest), delay, tag, data);
 	}
 
 	/**
@@ -261,7 +275,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @param data The data to be sent with the event.
 	 */
 	public void scheduleFirstNow(String dest, int tag, Object data) {
-		scheduleFirst(CloudSim.getEntityId(dest), 0, tag, data);
+		scheduleFirst(simulation.getEntityId(dest), 0, tag, data);
 	}
 
 	/**
@@ -284,10 +298,10 @@ public abstract class SimEntity implements Cloneable {
 		if (delay < 0) {
 			throw new IllegalArgumentException("Negative delay supplied.");
 		}
-		if (!CloudSim.running()) {
+		if (!simulation.running()) {
 			return;
 		}
-		CloudSim.pause(id, delay);
+		simulation.pause(id, delay);
 	}
 
 	/**
@@ -297,7 +311,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @return The count of matching events
 	 */
 	public int numEventsWaiting(Predicate p) {
-		return CloudSim.waiting(id, p);
+		return simulation.waiting(id, p);
 	}
 
 	/**
@@ -306,7 +320,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @return The count of events
 	 */
 	public int numEventsWaiting() {
-		return CloudSim.waiting(id, CloudSim.SIM_ANY);
+		return simulation.waiting(id, CloudSim.SIM_ANY);
 	}
 
 	/**
@@ -316,11 +330,11 @@ public abstract class SimEntity implements Cloneable {
 	 * @return the simulation event
 	 */
 	public SimEvent selectEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!simulation.running()) {
 			return null;
 		}
 
-		return CloudSim.select(id, p);
+		return simulation.select(id, p);
 	}
 
 	/**
@@ -330,11 +344,11 @@ public abstract class SimEntity implements Cloneable {
 	 * @return The number of events cancelled (0 or 1)
 	 */
 	public SimEvent cancelEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!simulation.running()) {
 			return null;
 		}
 
-		return CloudSim.cancel(id, p);
+		return simulation.cancel(id, p);
 	}
 
 	/**
@@ -345,7 +359,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @return the simulation event
 	 */
 	public SimEvent getNextEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!simulation.running()) {
 			return null;
 		}
 		if (numEventsWaiting(p) > 0) {
@@ -361,11 +375,11 @@ public abstract class SimEntity implements Cloneable {
 	 * @param p The predicate to match
 	 */
 	public void waitForEvent(Predicate p) {
-		if (!CloudSim.running()) {
+		if (!simulation.running()) {
 			return;
 		}
 
-		CloudSim.wait(id, p);
+		simulation.wait(id, p);
 		state = WAITING;
 	}
 
@@ -387,7 +401,9 @@ public abstract class SimEntity implements Cloneable {
 
 	/**
 	 * This method is invoked by the {@link Simulation} class whenever there is an event in the
-	 * deferred queue, which needs to be processed by the entity.
+	 * deferred queue, which needs to be processed by the entity. If the simulation recycles its
+	 * events (see {@link Simulation#setEventPooling(boolean)}), the event must not be used after
+	 * this method returns.
 	 * 
 	 * @param ev the event to be processed by the entity
 	 */
@@ -399,11 +415,34 @@ public abstract class SimEntity implements Cloneable {
 	 */
 	public abstract void shutdownEntity();
 
+	/**
+	 * Checks if the entity can run in parallel with other entities when the simulation has a
+	 * parallel tick pool (see {@link Simulation#setParallelTick(java.util.concurrent.ForkJoinPool)}).
+	 * An entity can do so only if, while processing its events, it does not change any state read
+	 * or changed by other entities in the same clock tick, e.g. shared counters, lists or output
+	 * files, other than through the events it sends. It must also not create entities nor stop
+	 * the simulation. The entities that cannot run in parallel run alone, in the order of their
+	 * ids.
+	 * 
+	 * @return true, if the entity can run in parallel; false by default
+	 */
+	public boolean isParallelizable() {
+		return false;
+	}
+
 	public void run() {
 		SimEvent ev = evbuf != null ? evbuf : getNextEvent();
 
 		while (ev != null) {
-			processEvent(ev);
+			if (simulation.metrics == null) {
+				processEvent(ev);
+			} else {
+				int tag = ev.getTag();
+				long start = System.nanoTime();
+				processEvent(ev);
+				simulation.eventProcessed(id, tag, System.nanoTime() - start);
+			}
+			simulation.releaseEvent(ev);
 			if (state != RUNNABLE) {
 				break;
 			}
@@ -575,7 +614,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @post $none
 	 */
 	protected void send(String entityName, double delay, int cloudSimTag, Object data) {
-		send(CloudSim.getEntityId(entityName), delay, cloudSimTag, data);
+		send(simulation.getEntityId(entityName), delay, cloudSimTag, data);
 	}
 
 	/**
@@ -643,7 +682,7 @@ public abstract class SimEntity implements Cloneable {
 	 * @post $none
 	 */
 	protected void sendNow(String entityName, int cloudSimTag, Object data) {
-		send(CloudSim.getEntityId(entityName), 0, cloudSimTag, data);
+		send(simulation.getEntityId(entityName), 0, cloudSimTag, data);
 	}
 
 	/**
@@ -18,10 +18,10 @@ package org.cloudbus.cloudsim.core;
 public class SimEvent implements Cloneable, Comparable<SimEvent> {
 
 	/** internal event type **/
-	private final int etype;
+	private int etype;
 
 	/** time at which event should occur **/
-	private final double time;
+	private double time;
 
 	/** time that the event was removed from the queue for service **/
 	private double endWaitingTime;
@@ -33,13 +33,25 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 	private int entDst;
 
 	/** the user defined type of the event **/
-	private final int tag;
+	private int tag;
 
 	/** any data the event is carrying **/
-	private final Object data;
+	private Object data;
 
 	private long serial = -1;
 
+	/** whether the event has been cancelled while waiting in the future queue **/
+	private boolean cancelled;
+
+	/** the previous pending event with the same source and tag **/
+	private SimEvent previousPending;
+
+	/** the next pending event with the same source and tag **/
+	private SimEvent nextPending;
+
+	/** the position of the event in the array of the future queue holding it, or -1 **/
+	private int queuePosition = -1;
+
 	// Internal event types
 
 	public static final int ENULL = 0;
@@ -82,10 +94,127 @@ public class SimEvent implements Cloneable, Comparable<SimEvent> {
 		data = null;
 	}
 
+	/**
+	 * Reinitialises a recycled event, as if it had just been created.
+	 * 
+	 * @see SimEventPool
+	 */
+	void reset(int evtype, double time, int src, int dest, int tag, Object edata) {
+		etype = evtype;
+		this.time = time;
+		endWaitingTime = 0;
+		entSrc = src;
+		entDst = dest;
+		this.tag = tag;
+		data = edata;
+		serial = -1;
+		cancelled = false;
+		previousPending = null;
+		nextPending = null;
+		queuePosition = -1;
+	}
+
+	/**
+	 * Drops the reference to the data of a recycled event, so that the data can be garbage
+	 * collected while the event waits in the pool.
+	 * 
+	 * @see SimEventPool
+	 */
+	void clearData() {
+		data = null;
+	}
+
 	protected void setSerial(long serial) {
 		this.serial = serial;
 	}
 
+	/**
+	 * Gets the serial used to order the events with the same time.
+	 * 
+	 * @return the serial
+	 */
+	long getSerial() {
+		return serial;
+	}
+
+	/**
+	 * Checks whether the event has been cancelled while waiting in the future queue.
+	 * 
+	 * @return true, if the event has been cancelled
+	 */
+	boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Sets whether the event has been cancelled while waiting in the future queue.
+	 * 
+	 * @param cancelled true, if the event has been cancelled
+	 */
+	void setCancelled(boolean cancelled) {
+		this.cancelled = cancelled;
+	}
+
+	/**
+	 * Gets the previous pending event with the same source and tag.
+	 * 
+	 * @return the previous pending event
+	 * @see FutureEventIndex
+	 */
+	SimEvent getPreviousPending() {
+		return previousPending;
+	}
+
+	/**
+	 * Sets the previous pending event with the same source and tag.
+	 * 
+	 * @param previousPending the previous pending event
+	 * @see FutureEventIndex
+	 */
+	void setPreviousPending(SimEvent previousPending) {
+		this.previousPending = previousPending;
+	}
+
+	/**
+	 * Gets the next pending event with the same source and tag.
+	 * 
+	 * @return the next pending event
+	 * @see FutureEventIndex
+	 */
+	SimEvent getNextPending() {
+		return nextPending;
+	}
+
+	/**
+	 * Sets the next pending event with the same source and tag.
+	 * 
+	 * @param nextPending the next pending event
+	 * @see FutureEventIndex
+	 */
+	void setNextPending(SimEvent nextPending) {
+		this.nextPending = nextPending;
+	}
+
+	/**
+	 * Gets the position of the event in the array of the future queue holding it.
+	 * 
+	 * @return the position, or -1 if the event is not held in an array
+	 * @see FutureQueueHeap
+	 */
+	int getQueuePosition() {
+		return queuePosition;
+	}
+
+	/**
+	 * Sets the position of the event in the array of the future queue holding it.
+	 * 
+	 * @param queuePosition the position, or -1 if the event is not held in an array
+	 * @see FutureQueueHeap
+	 */
+	void setQueuePosition(int queuePosition) {
+		this.queuePosition = queuePosition;
+	}
+
 	/**
 	 * Used to set the time at which this event finished waiting in the event
 	 * 
@@ -0,0 +1,71 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+
+/**
+ * This class keeps the events that have been delivered and processed, so that the
+ * {@link Simulation} can reuse them for new events instead of creating new objects. The pool is a
+ * stack, so the most recently released events, which are the most likely to be in the processor
+ * caches, are reused first. The pool keeps at most {@value #MAX_SIZE} events; the other released
+ * events are left to the garbage collector.
+ *
+ * @see Simulation#setEventPooling(boolean)
+ * @since CloudSim Toolkit 3.1
+ */
+final class SimEventPool {
+
+	/** The maximal number of events kept in the pool. */
+	static final int MAX_SIZE = 1 << 16;
+
+	/** The released events. */
+	private SimEvent[] events = new SimEvent[64];
+
+	/** The number of released events. */
+	private int size;
+
+	/**
+	 * Gets an event, reusing a released event if there is one.
+	 *
+	 * @param evtype the internal type of the event
+	 * @param time the time of the event
+	 * @param src the id of the source entity
+	 * @param dest the id of the destination entity
+	 * @param tag the tag
+	 * @param edata the data
+	 * @return the event
+	 */
+	SimEvent get(int evtype, double time, int src, int dest, int tag, Object edata) {
+		if (size == 0) {
+			return new SimEvent(evtype, time, src, dest, tag, edata);
+		}
+		SimEvent event = events[--size];
+		events[size] = null;
+		event.reset(evtype, time, src, dest, tag, edata);
+		return event;
+	}
+
+	/**
+	 * Returns an event that will not be used anymore to the pool.
+	 *
+	 * @param event the event
+	 */
+	void release(SimEvent event) {
+		if (size == events.length) {
+			if (size == MAX_SIZE) {
+				return;
+			}
+			events = Arrays.copyOf(events, size << 1);
+		}
+		event.clearData();
+		events[size++] = event;
+	}
+
+}
@@ -0,0 +1,1380 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+
+/**
+ * This class holds the whole state of a simulation: the clock, the entities, the future and
+ * deferred event queues, the wait predicates and the CIS. Entities are bound to the simulation that
+ * is current when they are created, and send their events through it.
+ * <p>
+ * The static methods of {@link CloudSim} delegate to the simulation bound to the calling thread,
+ * or to a default simulation if the thread has none. Independent simulations can therefore run
+ * concurrently in one JVM, one per thread:
+ * 
+ * <pre>
+ * CloudSim.setSimulation(new Simulation());
+ * CloudSim.init(numUser, calendar, traceFlag);
+ * // create the entities and run the simulation as usual
+ * </pre>
+ * 
+ * A simulation is not thread-safe: its entities and events must only be handled by one thread at a
+ * time. The only exception is the parallel tick (see {@link #setParallelTick(ForkJoinPool)}), in
+ * which the simulation itself runs independent entities on several threads.
+ * 
+ * @author Rodrigo N. Calheiros
+ * @author Anton Beloglazov
+ * @since CloudSim Toolkit 3.1
+ * @see CloudSim
+ */
+public class Simulation {
+
+	/** The Constant CLOUDSIM_VERSION_STRING. */
+	private static final String CLOUDSIM_VERSION_STRING = "3.0";
+
+	/** The id of CIS entity. */
+	private int cisId = -1;
+
+	/** The id of CloudSimShutdown entity. */
+	@SuppressWarnings("unused")
+	private int shutdownId = -1;
+
+	/** The CIS object. */
+	private CloudInformationService cis = null;
+
+	/** The Constant NOT_FOUND. */
+	private static final int NOT_FOUND = -1;
+
+	/** The trace flag. */
+	@SuppressWarnings("unused")
+	private boolean traceFlag = false;
+
+	/** The calendar. */
+	private Calendar calendar = null;
+
+	/** The termination time. */
+	private double terminateAt = -1;
+
+	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
+	private double minTimeBetweenEvents = 0.1;
+
+	/** The state of the modules outside the kernel, e.g. the network topology. */
+	private final Map<Class<?>, Object> attributes = new ConcurrentHashMap<Class<?>, Object>();
+
+	/** The pool running the parallelizable entities, or <tt>null</tt> to run them sequentially. */
+	private ForkJoinPool parallelTickPool = null;
+	
+	/**
+	 * Initialises all the common attributes.
+	 * 
+	 * @param _calendar the _calendar
+	 * @param _traceFlag the _trace flag
+	 * @param numUser number of users
+	 * @throws Exception This happens when creating this entity before initialising CloudSim package
+	 *             or this entity name is <tt>null</tt> or empty
+	 * @pre $none
+	 * @post $none
+	 */
+	private void initCommonVariable(Calendar _calendar, boolean _traceFlag, int numUser)
+			throws Exception {
+		// the entities created below have to be bound to this simulation
+		if (CloudSim.getSimulation() != this) {
+			CloudSim.setSimulation(this);
+		}
+		initialize();
+		// NOTE: the order for the below 3 lines are important
+		traceFlag = _traceFlag;
+
+		// Set the current Wall clock time as the starting time of
+		// simulation
+		if (_calendar == null) {
+			calendar = Calendar.getInstance();
+		} else {
+			calendar = _calendar;
+		}
+
+		// creates a CloudSimShutdown object
+		CloudSimShutdown shutdown = new CloudSimShutdown("CloudSimShutdown", numUser);
+		shutdownId = shutdown.getId();
+	}
+
+	/**
+	 * Initialises CloudSim parameters. This method should be called before creating any entities.
+	 * If this simulation is not the current simulation of the calling thread, it becomes so.
+	 * <p>
+	 * Inside this method, it will create the following CloudSim entities:
+	 * <ul>
+	 * <li>CloudInformationService.
+	 * <li>CloudSimShutdown
+	 * </ul>
+	 * <p>
+	 * 
+	 * @param numUser the number of User Entities created. This parameters indicates that
+	 *            {@link gridsim.CloudSimShutdown} first waits for all user entities's
+	 *            END_OF_SIMULATION signal before issuing terminate signal to other entities
+	 * @param cal starting time for this simulation. If it is <tt>null</tt>, then the time will be
+	 *            taken from <tt>Calendar.getInstance()</tt>
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @see gridsim.CloudSimShutdown
+	 * @see CloudInformationService.CloudInformationService
+	 * @pre numUser >= 0
+	 * @post $none
+	 */
+	public void init(int numUser, Calendar cal, boolean traceFlag) {
+		try {
+			initCommonVariable(cal, traceFlag, numUser);
+
+			// create a GIS object
+			cis = new CloudInformationService("CloudInformationService");
+
+			// set all the above entity IDs
+			cisId = cis.getId();
+		} catch (IllegalArgumentException s) {
+			Log.printLine("CloudSim.init(): The simulation has been terminated due to an unexpected error");
+			Log.printLine(s.getMessage());
+		} catch (Exception e) {
+			Log.printLine("CloudSim.init(): The simulation has been terminated due to an unexpected error");
+			Log.printLine(e.getMessage());
+		}
+	}
+
+	/**
+	 * Initialises CloudSim parameters. This method should be called before creating any entities.
+	 * <p>
+	 * Inside this method, it will create the following CloudSim entities:
+	 * <ul>
+	 * <li>CloudInformationService.
+	 * <li>CloudSimShutdown
+	 * </ul>
+	 * <p>
+	 * 
+	 * @param numUser the number of User Entities created. This parameters indicates that
+	 *            {@link gridsim.CloudSimShutdown} first waits for all user entities's
+	 *            END_OF_SIMULATION signal before issuing terminate signal to other entities
+	 * @param cal starting time for this simulation. If it is <tt>null</tt>, then the time will be
+	 *            taken from <tt>Calendar.getInstance()</tt>
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @param periodBetweenEvents - the minimal period between events. Events within shorter periods
+	 * after the last event are discarded.
+	 * @see gridsim.CloudSimShutdown
+	 * @see CloudInformationService.CloudInformationService
+	 * @pre numUser >= 0
+	 * @post $none
+	 */
+	public void init(int numUser, Calendar cal, boolean traceFlag, double periodBetweenEvents) {
+	    if (periodBetweenEvents <= 0) {
+		throw new IllegalArgumentException("The minimal time between events should be positive, but is:" + periodBetweenEvents);
+	    }
+	    
+	    init(numUser, cal, traceFlag);
+	    minTimeBetweenEvents = periodBetweenEvents;
+	}
+
+	/**
+	 * Initialises CloudSim parameters with a given future event queue. This method should be
+	 * called before creating any entities.
+	 * <p>
+	 * By default, the future events are kept in a {@link FutureQueueHeap}. A
+	 * {@link FutureQueueCalendar} is usually faster when many events are spread densely over the
+	 * event horizon, and a {@link FutureQueueTreeSet} is the queue used by previous versions of
+	 * CloudSim. All of them deliver the events in the same order.
+	 * 
+	 * @param numUser the number of User Entities created
+	 * @param cal starting time for this simulation. If it is <tt>null</tt>, then the time will be
+	 *            taken from <tt>Calendar.getInstance()</tt>
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @param futureQueue the empty future event queue to be used by the simulation
+	 * @see #init(int, Calendar, boolean)
+	 * @pre numUser >= 0
+	 * @pre futureQueue != null
+	 * @post $none
+	 */
+	public void init(
+			int numUser,
+			Calendar cal,
+			boolean traceFlag,
+			FutureQueueAbstract futureQueue) {
+		if (futureQueue == null || futureQueue.size() > 0) {
+			throw new IllegalArgumentException("The future event queue should be empty and not null.");
+		}
+
+		init(numUser, cal, traceFlag);
+		future = futureQueue;
+	}
+	
+	
+	
+	/**
+	 * Starts the execution of CloudSim simulation. It waits for complete execution of all entities,
+	 * i.e. until all entities threads reach non-RUNNABLE state or there are no more events in the
+	 * future event queue.
+	 * <p>
+	 * <b>Note</b>: This method should be called after all the entities have been setup and added.
+	 * 
+	 * @return the double
+	 * @throws NullPointerException This happens when creating this entity before initialising
+	 *             CloudSim package or this entity name is <tt>null</tt> or empty.
+	 * @see gridsim.CloudSim#init(int, Calendar, boolean)
+	 * @pre $none
+	 * @post $none
+	 */
+	public double startSimulation() throws NullPointerException {
+		Log.printLine("Starting CloudSim version " + CLOUDSIM_VERSION_STRING);
+		try {
+			double clock = run();
+
+			// reset all the variables
+			cisId = -1;
+			shutdownId = -1;
+			cis = null;
+			calendar = null;
+			traceFlag = false;
+
+			return clock;
+		} catch (IllegalArgumentException e) {
+			e.printStackTrace();
+			throw new NullPointerException("CloudSim.startCloudSimulation() :"
+					+ " Error - you haven't initialized CloudSim.");
+		}
+	}
+
+	/**
+	 * Stops Cloud Simulation (based on {@link Simulation#runStop()}). This should be only called if
+	 * any of the user defined entities <b>explicitly</b> want to terminate simulation during
+	 * execution.
+	 * 
+	 * @throws NullPointerException This happens when creating this entity before initialising
+	 *             CloudSim package or this entity name is <tt>null</tt> or empty
+	 * @see gridsim.CloudSim#init(int, Calendar, boolean)
+	 * @see Simulation#runStop()
+	 * @pre $none
+	 * @post $none
+	 */
+	public void stopSimulation() throws NullPointerException {
+		try {
+			runStop();
+		} catch (IllegalArgumentException e) {
+			throw new NullPointerException("CloudSim.stopCloudSimulation() : "
+					+ "Error - can't stop Cloud Simulation.");
+		}
+	}
+
+	/**
+	 * This method is called if one wants to terminate the simulation.
+	 * 
+	 * @return true, if successful; false otherwise.
+	 */
+	public boolean terminateSimulation() {
+		checkNotParallel();
+		running = false;
+		printMessage("Simulation: Reached termination time.");
+		return true;
+	}
+
+	/**
+	 * This method is called if one wants to terminate the simulation at a given time.
+	 * 
+	 * @param time the time at which the simulation has to be terminated
+	 * @return true, if successful otherwise.
+	 */
+	public boolean terminateSimulation(double time) {
+		if (time <= clock) {
+			return false;
+		} else {
+			terminateAt = time;
+		}
+		return true;
+	}
+
+
+	/**
+	 * Gets the time at which the simulation has to be terminated.
+	 * 
+	 * @return the termination time, or -1 if the simulation runs until there are no more events
+	 * @see #terminateSimulation(double)
+	 */
+	public double getTerminationTime() {
+		return terminateAt;
+	}
+	
+	/**
+	 * Returns the minimum time between events. Events within shorter periods after the last event are discarded. 
+	 * @return the minimum time between events.
+	 */
+	public double getMinTimeBetweenEvents() {
+	    return minTimeBetweenEvents;
+	}
+
+	/**
+	 * Gets a new copy of initial simulation Calendar.
+	 * 
+	 * @return a new copy of Calendar object or if CloudSim hasn't been initialized
+	 * @see gridsim.CloudSim#init(int, Calendar, boolean, String[], String[], String)
+	 * @see gridsim.CloudSim#init(int, Calendar, boolean)
+	 * @pre $none
+	 * @post $none
+	 */
+	public Calendar getSimulationCalendar() {
+		// make a new copy
+		Calendar clone = calendar;
+		if (calendar != null) {
+			clone = (Calendar) calendar.clone();
+		}
+
+		return clone;
+	}
+
+	/**
+	 * Gets the entity ID of <tt>CloudInformationService</tt>.
+	 * 
+	 * @return the Entity ID or if it is not found
+	 * @pre $none
+	 * @post $result >= -1
+	 */
+	public int getCloudInfoServiceEntityId() {
+		return cisId;
+	}
+
+	/**
+	 * Sends a request to Cloud Information Service (GIS) entity to get the list of all Cloud
+	 * hostList.
+	 * 
+	 * @return A List containing CloudResource ID (as an Integer object) or if a CIS entity hasn't
+	 *         been created before
+	 * @pre $none
+	 * @post $none
+	 */
+	public List<Integer> getCloudResourceList() {
+		if (cis == null) {
+			return null;
+		}
+
+		return cis.getList();
+	}
+
+	// ======== SIMULATION METHODS ===============//
+
+	/** The entities. */
+	private List<SimEntity> entities;
+
+	/** The future event queue. */
+	protected FutureQueueAbstract future;
+
+	/** The deferred event queue. */
+	protected DeferredQueue deferred;
+
+	/** The simulation clock. */
+	private double clock;
+
+	/** Flag for checking if the simulation is running. */
+	private boolean running;
+
+	/** The entities by name. */
+	private Map<String, SimEntity> entitiesByName;
+
+	// The predicates used in entity wait methods
+	/** The wait predicates. */
+	private Map<Integer, Predicate> waitPredicates;
+
+	/** The paused. */
+	private boolean paused = false;
+
+	/** The pause at. */
+	private long pauseAt = -1;
+
+	/** The abrupt terminate. */
+	private boolean abruptTerminate = false;
+
+	/** Flag for checking if entities are running in parallel. */
+	private boolean parallelPhase = false;
+
+	/** The changes made by the entity running in parallel on each thread. */
+	private final ThreadLocal<TickBuffer> tickBuffer = new ThreadLocal<TickBuffer>();
+
+	/** The buffers of the entities of a parallel batch, reused from one batch to the next. */
+	private final List<TickBuffer> tickBuffers = new ArrayList<TickBuffer>();
+
+	/** The entities of the current parallel batch. */
+	private final List<SimEntity> parallelBatch = new ArrayList<SimEntity>();
+
+	/** The pool of processed events, or <tt>null</tt> if the events are not recycled. */
+	private SimEventPool eventPool = null;
+
+	/** The metrics of the kernel, or <tt>null</tt> if they are not recorded. */
+	SimulationMetrics metrics = null;
+
+	/**
+	 * Initialise the simulation for stand alone simulations. This function should be called at the
+	 * start of the simulation.
+	 */
+	protected void initialize() {
+		Log.printLine("Initialising...");
+		entities = new ArrayList<SimEntity>();
+		entitiesByName = new LinkedHashMap<String, SimEntity>();
+		future = new FutureQueue();
+		deferred = new DeferredQueue();
+		waitPredicates = new HashMap<Integer, Predicate>();
+		attributes.clear();
+		clock = 0;
+		running = false;
+	}
+
+	// Public access methods
+
+	/**
+	 * Get the current simulation time.
+	 * 
+	 * @return the simulation time
+	 */
+	public double clock() {
+		return clock;
+	}
+
+	/**
+	 * Get the current number of entities in the simulation.
+	 * 
+	 * @return The number of entities
+	 */
+	public int getNumEntities() {
+		return entities.size();
+	}
+
+	/**
+	 * Get the entity with a given id.
+	 * 
+	 * @param id the entity's unique id number
+	 * @return The entity, or if it could not be found
+	 */
+	public SimEntity getEntity(int id) {
+		return entities.get(id);
+	}
+
+	/**
+	 * Get the entity with a given name.
+	 * 
+	 * @param name The entity's name
+	 * @return The entity
+	 */
+	public SimEntity getEntity(String name) {
+		return entitiesByName.get(name);
+	}
+
+	/**
+	 * Get the id of an entity with a given name.
+	 * 
+	 * @param name The entity's name
+	 * @return The entity's unique id number
+	 */
+	public int getEntityId(String name) {
+		SimEntity obj = entitiesByName.get(name);
+		if (obj == null) {
+			return NOT_FOUND;
+		} else {
+			return obj.getId();
+		}
+	}
+
+	/**
+	 * Gets name of the entity given its entity ID.
+	 * 
+	 * @param entityID the entity ID
+	 * @return the Entity name or if this object does not have one
+	 * @pre entityID > 0
+	 * @post $none
+	 */
+	public String getEntityName(int entityID) {
+		try {
+			return getEntity(entityID).getName();
+		} catch (IllegalArgumentException e) {
+			return null;
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Gets name of the entity given its entity ID.
+	 * 
+	 * @param entityID the entity ID
+	 * @return the Entity name or if this object does not have one
+	 * @pre entityID > 0
+	 * @post $none
+	 */
+	public String getEntityName(Integer entityID) {
+		if (entityID != null) {
+			return getEntityName(entityID.intValue());
+		}
+		return null;
+	}
+
+	/**
+	 * Returns a list of entities created for the simulation.
+	 * 
+	 * @return the entity iterator
+	 */
+	public List<SimEntity> getEntityList() {
+		// create a new list to prevent the user from changing
+		// the list of entities used by Simulation
+		List<SimEntity> list = new LinkedList<SimEntity>();
+		list.addAll(entities);
+		return list;
+	}
+
+	// Public update methods
+
+	/**
+	 * Add a new entity to the simulation. This is present for compatibility with existing
+	 * simulations since entities are automatically added to the simulation upon instantiation.
+	 * 
+	 * @param e The new entity
+	 */
+	public void addEntity(SimEntity e) {
+		if (parallelPhase) {
+			throw new IllegalStateException("Entities cannot be added by entities running in parallel.");
+		}
+		SimEvent evt;
+		if (running) {
+			// Post an event to make this entity
+			evt = new SimEvent(SimEvent.CREATE, clock, 1, 0, 0, e);
+			future.addEvent(evt);
+		}
+		if (e.getId() == -1) { // Only add once!
+			int id = entities.size();
+			e.setId(id);
+			entities.add(e);
+			entitiesByName.put(e.getName(), e);
+		}
+	}
+
+	/**
+	 * Internal method used to add a new entity to the simulation when the simulation is running. It
+	 * should <b>not</b> be called from user simulations.
+	 * 
+	 * @param e The new entity
+	 */
+	protected void addEntityDynamically(SimEntity e) {
+		if (e == null) {
+			throw new IllegalArgumentException("Adding null entity.");
+		} else {
+			printMessage("Adding: " + e.getName());
+		}
+		e.startEntity();
+	}
+
+	/**
+	 * Internal method used to run one tick of the simulation. This method should <b>not</b> be
+	 * called in simulations.
+	 * 
+	 * @return true, if successful otherwise
+	 */
+	public boolean runClockTick() {
+		SimEntity ent;
+		boolean queue_empty;
+		
+		int entities_size = entities.size();
+
+		if (metrics != null && metrics.isSampleDue(clock)) {
+			metrics.sample(clock, future.size(), deferred.size());
+		}
+
+		if (parallelTickPool != null) {
+			runEntitiesInParallel(entities_size);
+		} else {
+			for (int i = 0; i < entities_size; i++) {
+				ent = entities.get(i);
+				if (ent.getState() == SimEntity.RUNNABLE) {
+					ent.run();
+				}
+			}
+		}
+				
+		// If there are more future events then deal with them
+		if (future.size() > 0) {
+			queue_empty = false;
+			SimEvent first = future.poll();
+			double time = first.eventTime();
+			processEvent(first);
+
+			// Check if next events are at same time...
+			SimEvent next = future.peek();
+			while (next != null && next.eventTime() == time) {
+				processEvent(future.poll());
+				next = future.peek();
+			}
+
+		} else {
+			queue_empty = true;
+			running = false;
+			printMessage("Simulation: No more future events");
+		}
+
+		return queue_empty;
+	}
+
+	/**
+	 * Internal method used to stop the simulation. This method should <b>not</b> be used directly.
+	 */
+	public void runStop() {
+		printMessage("Simulation completed.");
+	}
+
+	/**
+	 * Used to hold an entity for some time.
+	 * 
+	 * @param src the src
+	 * @param delay the delay
+	 */
+	public void hold(int src, long delay) {
+		SimEvent e = newEvent(SimEvent.HOLD_DONE, clock + delay, src, -1, -1, null);
+		addFutureEvent(e, false);
+		entities.get(src).setState(SimEntity.HOLDING);
+	}
+
+	/**
+	 * Used to pause an entity for some time.
+	 * 
+	 * @param src the src
+	 * @param delay the delay
+	 */
+	public void pause(int src, double delay) {
+		SimEvent e = newEvent(SimEvent.HOLD_DONE, clock + delay, src, -1, -1, null);
+		addFutureEvent(e, false);
+		entities.get(src).setState(SimEntity.HOLDING);
+	}
+
+	/**
+	 * Used to send an event from one entity to another.
+	 * 
+	 * @param src the src
+	 * @param dest the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 */
+	public void send(int src, int dest, double delay, int tag, Object data) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Send delay can't be negative.");
+		}
+
+		SimEvent e = newEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
+		if (metrics != null) {
+			eventSent(src, tag);
+		}
+		addFutureEvent(e, false);
+	}
+
+	/**
+	 * Used to send an event from one entity to another, with priority in the queue.
+	 * 
+	 * @param src the src
+	 * @param dest the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 */
+	public void sendFirst(int src, int dest, double delay, int tag, Object data) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Send delay can't be negative.");
+		}
+
+		SimEvent e = newEvent(SimEvent.SEND, clock + delay, src, dest, tag, data);
+		if (metrics != null) {
+			eventSent(src, tag);
+		}
+		addFutureEvent(e, true);
+	}
+
+	/**
+	 * Sets an entity's state to be waiting. The predicate used to wait for an event is now passed
+	 * to Sim_system. Only events that satisfy the predicate will be passed to the entity. This is
+	 * done to avoid unnecessary context switches.
+	 * 
+	 * @param src the src
+	 * @param p the p
+	 */
+	public void wait(int src, Predicate p) {
+		entities.get(src).setState(SimEntity.WAITING);
+		if (p != CloudSim.SIM_ANY) {
+			// If a predicate has been used store it in order to check it
+			if (parallelPhase) {
+				tickBuffer.get().addWait(src, p);
+			} else {
+				waitPredicates.put(src, p);
+			}
+		}
+	}
+
+	/**
+	 * Checks if events for a specific entity are present in the deferred event queue.
+	 * 
+	 * @param d the d
+	 * @param p the p
+	 * @return the int
+	 */
+	public int waiting(int d, Predicate p) {
+		return deferred.count(d, p);
+	}
+
+	/**
+	 * Selects an event matching a predicate.
+	 * 
+	 * @param src the src
+	 * @param p the p
+	 * @return the sim event, or <tt>null</tt> if none matches
+	 */
+	public SimEvent select(int src, Predicate p) {
+		return deferred.removeFirst(src, p);
+	}
+
+	/**
+	 * Find first deferred event matching a predicate.
+	 * 
+	 * @param src the src
+	 * @param p the p
+	 * @return the sim event, or <tt>null</tt> if none matches
+	 */
+	public SimEvent findFirstDeferred(int src, Predicate p) {
+		return deferred.getFirst(src, p);
+	}
+
+	/**
+	 * Removes an event from the event queue.
+	 * 
+	 * @param src the src
+	 * @param p the p
+	 * @return the first matching event in temporal order, or <tt>null</tt> if none matches
+	 */
+	public SimEvent cancel(int src, Predicate p) {
+		if (parallelPhase) {
+			return cancelInParallel(src, p);
+		}
+		return future.cancel(src, p);
+	}
+
+	/**
+	 * Removes all events that match a given predicate from the future event queue returns true if
+	 * at least one event has been cancelled; false otherwise. Only the pending events sent by
+	 * <tt>src</tt> are examined.
+	 * 
+	 * @param src the src
+	 * @param p the p
+	 * @return true, if successful
+	 */
+	public boolean cancelAll(int src, Predicate p) {
+		if (parallelPhase) {
+			int count;
+			synchronized (future) {
+				count = future.cancelAll(src, p);
+			}
+			return count + tickBuffer.get().removeAll(src, p) > 0;
+		}
+		return future.cancelAll(src, p) > 0;
+	}
+
+	/**
+	 * Removes all events with a given tag sent by an entity from the future event queue. This is
+	 * equivalent to <tt>cancelAll(src, new PredicateType(tag))</tt>, but does not create a
+	 * predicate and takes constant time for each cancelled event.
+	 * 
+	 * @param src the src
+	 * @param tag the tag
+	 * @return true, if at least one event has been cancelled
+	 */
+	public boolean cancelAll(int src, int tag) {
+		if (parallelPhase) {
+			int count;
+			synchronized (future) {
+				count = future.cancelAll(src, tag);
+			}
+			return count + tickBuffer.get().removeAll(src, tag) > 0;
+		}
+		return future.cancelAll(src, tag) > 0;
+	}
+
+	//
+	// Private internal methods
+	//
+
+	/**
+	 * Creates an event, or reuses a processed event if event pooling is enabled. The entities
+	 * running in parallel always get new events.
+	 * 
+	 * @param evtype the internal type of the event
+	 * @param time the time of the event
+	 * @param src the src
+	 * @param dest the dest
+	 * @param tag the tag
+	 * @param data the data
+	 * @return the event
+	 */
+	private SimEvent newEvent(int evtype, double time, int src, int dest, int tag, Object data) {
+		if (eventPool == null || parallelPhase) {
+			return new SimEvent(evtype, time, src, dest, tag, data);
+		}
+		return eventPool.get(evtype, time, src, dest, tag, data);
+	}
+
+	/**
+	 * Returns an event that has been processed to the event pool, if event pooling is enabled.
+	 * The events released by entities running in parallel are left to the garbage collector.
+	 * 
+	 * @param e the event
+	 */
+	void releaseEvent(SimEvent e) {
+		if (eventPool != null && !parallelPhase) {
+			eventPool.release(e);
+		}
+	}
+
+	/**
+	 * Records an event sent, in the metrics of the kernel.
+	 * 
+	 * @param src the src
+	 * @param tag the tag
+	 */
+	private void eventSent(int src, int tag) {
+		if (parallelPhase) {
+			synchronized (metrics) {
+				metrics.eventSent(src, tag);
+			}
+		} else {
+			metrics.eventSent(src, tag);
+		}
+	}
+
+	/**
+	 * Records an event processed by an entity, in the metrics of the kernel.
+	 * 
+	 * @param dest the id of the entity
+	 * @param tag the tag of the event
+	 * @param time the time taken to process the event, in nanoseconds
+	 */
+	void eventProcessed(int dest, int tag, long time) {
+		if (parallelPhase) {
+			synchronized (metrics) {
+				metrics.eventProcessed(dest, tag, time);
+			}
+		} else {
+			metrics.eventProcessed(dest, tag, time);
+		}
+	}
+
+	/**
+	 * Adds an event to the future queue or, if the calling entity runs in parallel, to the changes
+	 * of the entity.
+	 * 
+	 * @param e the event
+	 * @param first whether the event is added to the head of the queue
+	 */
+	private void addFutureEvent(SimEvent e, boolean first) {
+		if (parallelPhase) {
+			tickBuffer.get().addEvent(e, first);
+		} else if (first) {
+			future.addEventFirst(e);
+		} else {
+			future.addEvent(e);
+		}
+	}
+
+	/**
+	 * Cancels the first event sent by an entity running in parallel that matches a predicate. The
+	 * event is either pending in the future queue or sent by the entity during the current batch.
+	 * 
+	 * @param src the src
+	 * @param p the p
+	 * @return the cancelled event, or <tt>null</tt> if none matches
+	 */
+	private SimEvent cancelInParallel(int src, Predicate p) {
+		TickBuffer buffer = tickBuffer.get();
+		int index = buffer.indexOf(src, p);
+		synchronized (future) {
+			SimEvent pending = future.findPending(src, p);
+			if (pending != null && (index < 0 || !buffer.isBefore(index, pending))) {
+				future.cancelEvent(pending);
+				return pending;
+			}
+		}
+		if (index < 0) {
+			return null;
+		}
+		SimEvent e = buffer.getEvent(index);
+		buffer.remove(index);
+		return e;
+	}
+
+	/**
+	 * Runs the runnable entities in the order of their ids, as the sequential tick does. Each run
+	 * of consecutive parallelizable entities that have events to process is run as a batch on the
+	 * parallel tick pool; the other entities run alone, after the batch that precedes them.
+	 * 
+	 * @param entities_size the number of entities at the start of the tick
+	 */
+	private void runEntitiesInParallel(int entities_size) {
+		List<SimEntity> batch = parallelBatch;
+		for (int i = 0; i < entities_size; i++) {
+			SimEntity ent = entities.get(i);
+			if (ent.getState() != SimEntity.RUNNABLE) {
+				continue;
+			}
+			if (ent.isParallelizable()) {
+				// an entity without events would not do anything
+				if (ent.getEventBuffer() != null || deferred.count(i, CloudSim.SIM_ANY) > 0) {
+					batch.add(ent);
+				}
+				continue;
+			}
+			runBatch(batch);
+			ent.run();
+		}
+		runBatch(batch);
+	}
+
+	/**
+	 * Runs a batch of entities on the parallel tick pool, and then applies their changes to the
+	 * future queue and to the wait predicates in the order of their ids.
+	 * 
+	 * @param batch the entities, in the order of their ids; cleared when the batch has run
+	 */
+	private void runBatch(List<SimEntity> batch) {
+		if (batch.size() < 2) {
+			for (SimEntity ent : batch) {
+				ent.run();
+			}
+			batch.clear();
+			return;
+		}
+
+		while (tickBuffers.size() < batch.size()) {
+			tickBuffers.add(new TickBuffer());
+		}
+		final EntityRun[] runs = new EntityRun[batch.size()];
+		for (int i = 0; i < runs.length; i++) {
+			runs[i] = new EntityRun(batch.get(i), tickBuffers.get(i));
+		}
+
+		parallelPhase = true;
+		try {
+			parallelTickPool.invoke(new RecursiveAction() {
+
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected void compute() {
+					invokeAll(runs);
+				}
+			});
+		} finally {
+			parallelPhase = false;
+		}
+
+		for (int i = 0; i < runs.length; i++) {
+			tickBuffers.get(i).flush(future, waitPredicates);
+		}
+		batch.clear();
+	}
+
+	/**
+	 * Processes an event.
+	 * 
+	 * @param e the e
+	 */
+	private void processEvent(SimEvent e) {
+		int dest, src;
+		SimEntity dest_ent;
+		// Update the system's clock
+		if (e.eventTime() < clock) {
+			throw new IllegalArgumentException("Past event detected.");
+		}
+		clock = e.eventTime();
+
+		// Ok now process it
+		switch (e.getType()) {
+			case SimEvent.ENULL:
+				throw new IllegalArgumentException("Event has a null type.");
+
+			case SimEvent.CREATE:
+				SimEntity newe = (SimEntity) e.getData();
+				addEntityDynamically(newe);
+				releaseEvent(e);
+				break;
+
+			case SimEvent.SEND:
+				// Check for matching wait
+				dest = e.getDestination();
+				if (dest < 0) {
+					throw new IllegalArgumentException("Attempt to send to a null entity detected.");
+				} else {
+					int tag = e.getTag();
+					dest_ent = entities.get(dest);
+					if (dest_ent.getState() == SimEntity.WAITING) {
+						Integer destObj = Integer.valueOf(dest);
+						Predicate p = waitPredicates.get(destObj);
+						if ((p == null) || (tag == 9999) || (p.match(e))) {
+							dest_ent.setEventBuffer(eventPool != null ? e : (SimEvent) e.clone());
+							dest_ent.setState(SimEntity.RUNNABLE);
+							waitPredicates.remove(destObj);
+						} else {
+							deferred.addEvent(e);
+						}
+					} else {
+						deferred.addEvent(e);
+					}
+				}
+				break;
+
+			case SimEvent.HOLD_DONE:
+				src = e.getSource();
+				if (src < 0) {
+					throw new IllegalArgumentException("Null entity holding.");
+				} else {
+					entities.get(src).setState(SimEntity.RUNNABLE);
+				}
+				releaseEvent(e);
+				break;
+
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Internal method used to start the simulation. This method should <b>not</b> be used by user
+	 * simulations.
+	 */
+	public void runStart() {
+		running = true;
+		// Start all the entities
+		for (SimEntity ent : entities) {
+			ent.startEntity();
+		}
+
+		printMessage("Entities started.");
+	}
+
+	/**
+	 * Check if the simulation is still running. This method should be used by entities to check if
+	 * they should continue executing.
+	 * 
+	 * @return if the simulation is still running, otherwise
+	 */
+	public boolean running() {
+		return running;
+	}
+
+	/**
+	 * This method is called if one wants to pause the simulation.
+	 * 
+	 * @return true, if successful otherwise.
+	 */
+	public boolean pauseSimulation() {
+		paused = true;
+		return paused;
+	}
+
+	/**
+	 * This method is called if one wants to pause the simulation at a given time.
+	 * 
+	 * @param time the time at which the simulation has to be paused
+	 * @return true, if successful otherwise.
+	 */
+	public boolean pauseSimulation(long time) {
+		if (time <= clock) {
+			return false;
+		} else {
+			pauseAt = time;
+		}
+		return true;
+	}
+
+	/**
+	 * This method is called if one wants to resume the simulation that has previously been paused.
+	 * 
+	 * @return if the simulation has been restarted or or otherwise.
+	 */
+	public boolean resumeSimulation() {
+		paused = false;
+
+		if (pauseAt <= clock) {
+			pauseAt = -1;
+		}
+
+		return !paused;
+	}
+
+	/**
+	 * Start the simulation running. This should be called after all the entities have been setup
+	 * and added, and their ports linked.
+	 * 
+	 * @return the double last clock value
+	 */
+	public double run() {
+		if (!running) {
+			runStart();
+		}
+		while (true) {
+			if (runClockTick() || abruptTerminate) {
+				break;
+			}
+
+			// this block allows termination of simulation at a specific time
+			if (terminateAt > 0.0 && clock >= terminateAt) {
+				terminateSimulation();
+				clock = terminateAt;
+				break;
+			}
+
+			if (pauseAt != -1
+					&& ((future.size() > 0 && clock <= pauseAt && pauseAt <= future.peek().eventTime()) || future
+							.size() == 0 && pauseAt <= clock)) {
+				pauseSimulation();
+				clock = pauseAt;
+			}
+
+			while (paused) {
+				try {
+					Thread.sleep(100);
+				} catch (InterruptedException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+
+		double clock = clock();
+
+		finishSimulation();
+		runStop();
+
+		return clock;
+	}
+
+	/**
+	 * Internal method that allows the entities to terminate. This method should <b>not</b> be used
+	 * in user simulations.
+	 */
+	public void finishSimulation() {
+		// Allow all entities to exit their body method
+		if (!abruptTerminate) {
+			for (SimEntity ent : entities) {
+				if (ent.getState() != SimEntity.FINISHED) {
+					ent.run();
+				}
+			}
+		}
+
+		for (SimEntity ent : entities) {
+			ent.shutdownEntity();
+		}
+
+		if (metrics != null) {
+			metrics.simulationFinished(clock, future.size(), deferred.size(), entities);
+		}
+
+		// reset all the variables
+		// Private data members
+		entities = null;
+		entitiesByName = null;
+		future = null;
+		deferred = null;
+		clock = 0L;
+		running = false;
+
+		waitPredicates = null;
+		paused = false;
+		pauseAt = -1;
+		abruptTerminate = false;
+	}
+
+	/**
+	 * Abruptally terminate.
+	 */
+	public void abruptallyTerminate() {
+		checkNotParallel();
+		abruptTerminate = true;
+	}
+
+	/**
+	 * Checks that the calling entity does not run in parallel with other entities.
+	 * 
+	 * @throws IllegalStateException if entities are running in parallel
+	 */
+	private void checkNotParallel() {
+		if (parallelPhase) {
+			throw new IllegalStateException("The simulation cannot be stopped by entities running in parallel.");
+		}
+	}
+
+	/**
+	 * Prints a message about the progress of the simulation.
+	 * 
+	 * @param message the message
+	 */
+	private void printMessage(String message) {
+		Log.printLine(message);
+	}
+
+	/**
+	 * Checks if is paused.
+	 * 
+	 * @return true, if is paused
+	 */
+	public boolean isPaused() {
+		return paused;
+	}
+
+	/**
+	 * Gets the state kept by a module outside the kernel for this simulation, e.g. the network
+	 * topology. The state is discarded when the simulation is initialised.
+	 * 
+	 * @param key the class that identifies the state
+	 * @return the state, or <tt>null</tt> if it has not been set
+	 */
+	public <T> T getAttribute(Class<T> key) {
+		return key.cast(attributes.get(key));
+	}
+
+	/**
+	 * Sets the state kept by a module outside the kernel for this simulation.
+	 * 
+	 * @param key the class that identifies the state
+	 * @param value the state
+	 */
+	public <T> void setAttribute(Class<T> key, T value) {
+		attributes.put(key, value);
+	}
+
+	/**
+	 * Sets the pool used to run the entities in parallel within a clock tick, or <tt>null</tt> to
+	 * run them sequentially, which is the default.
+	 * <p>
+	 * In each tick, the runnable entities are still run in the order of their ids, but each run of
+	 * consecutive entities whose {@link SimEntity#isParallelizable()} returns true is run as a
+	 * batch on the pool. The events sent, cancelled and waited for by the entities of a batch are
+	 * applied to the simulation after the whole batch has run, in the order of the entity ids, so
+	 * the events are served in exactly the same order as in a sequential run and the results are
+	 * the same. Only the order of the log messages of the entities of a batch may differ.
+	 * 
+	 * @param pool the pool, or <tt>null</tt>
+	 * @see SimEntity#isParallelizable()
+	 */
+	public void setParallelTick(ForkJoinPool pool) {
+		parallelTickPool = pool;
+	}
+
+	/**
+	 * Sets whether the events are recycled, which is disabled by default. With event pooling, the
+	 * events that have been delivered to an entity and processed by {@link SimEntity#run()} are
+	 * reused for the next events sent, so a running simulation creates almost no event objects.
+	 * <p>
+	 * The events then belong to the simulation: an entity must not keep a reference to an event
+	 * passed to its {@link SimEntity#processEvent(SimEvent)} method after the method returns, but
+	 * copy the data it needs, or the event itself with {@link SimEvent#clone()}. The events that an
+	 * entity takes itself, e.g. with {@link SimEntity#selectEvent(Predicate)} or
+	 * {@link SimEntity#cancelEvent(Predicate)}, are never recycled.
+	 * 
+	 * @param pooling true, to recycle the events
+	 */
+	public void setEventPooling(boolean pooling) {
+		if (!pooling) {
+			eventPool = null;
+		} else if (eventPool == null) {
+			eventPool = new SimEventPool();
+		}
+	}
+
+	/**
+	 * Checks if the events are recycled.
+	 * 
+	 * @return true, if event pooling is enabled
+	 */
+	public boolean isEventPooling() {
+		return eventPool != null;
+	}
+
+	/**
+	 * Sets the metrics recorded by the kernel, or <tt>null</tt> to not record any, which is the
+	 * default. Without metrics, the kernel does not measure anything.
+	 * 
+	 * @param metrics the metrics, or <tt>null</tt>
+	 * @see SimulationMetrics
+	 */
+	public void setMetrics(SimulationMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Gets the metrics recorded by the kernel.
+	 * 
+	 * @return the metrics, or <tt>null</tt> if they are not recorded
+	 */
+	public SimulationMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Gets the pool used to run the entities in parallel within a clock tick.
+	 * 
+	 * @return the pool, or <tt>null</tt> if the entities run sequentially
+	 */
+	public ForkJoinPool getParallelTick() {
+		return parallelTickPool;
+	}
+
+	/**
+	 * Runs an entity of a parallel batch, bound to the simulation, and records its changes.
+	 */
+	private final class EntityRun extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/** The entity. */
+		private final SimEntity entity;
+
+		/** The changes of the entity. */
+		private final TickBuffer buffer;
+
+		/**
+		 * Instantiates a new entity run.
+		 * 
+		 * @param entity the entity
+		 * @param buffer the changes of the entity
+		 */
+		EntityRun(SimEntity entity, TickBuffer buffer) {
+			this.entity = entity;
+			this.buffer = buffer;
+		}
+
+		@Override
+		protected void compute() {
+			Simulation previous = CloudSim.getSimulation();
+			CloudSim.setSimulation(Simulation.this);
+			tickBuffer.set(buffer);
+			try {
+				entity.run();
+			} finally {
+				tickBuffer.remove();
+				CloudSim.setSimulation(previous);
+			}
+		}
+
+	}
+
+}
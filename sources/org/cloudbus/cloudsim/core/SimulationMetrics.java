@@ -0,0 +1,590 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.cloudbus.cloudsim.Log;
+
+/**
+ * This class records metrics of the simulation kernel while a simulation runs: the number of
+ * events sent and processed by each entity for each tag, the time taken by the entities to process
+ * their events, in nanoseconds, and samples of the sizes of the future and deferred queues and of
+ * the number of events processed per simulated second. It helps finding the entities and the tags
+ * that make a simulation slow.
+ * <p>
+ * The metrics are recorded only while they are attached to a simulation with
+ * {@link Simulation#setMetrics(SimulationMetrics)}; a simulation without metrics only checks that
+ * it has none. An event is counted as sent by its source when it is sent, and as processed by its
+ * destination when {@link SimEntity#run()} passes it to {@link SimEntity#processEvent(SimEvent)}.
+ * When the simulation finishes, the metrics are written to the output folder, if one has been set,
+ * as <tt>metrics-events.csv</tt>, <tt>metrics-queues.csv</tt> and <tt>metrics.json</tt>.
+ * <p>
+ * A metrics object records a single run of a single simulation.
+ *
+ * @see Simulation#setMetrics(SimulationMetrics)
+ * @see LatencyHistogram
+ * @since CloudSim Toolkit 3.1
+ */
+public class SimulationMetrics {
+
+	/** The header of the CSV output of the events. */
+	public static final String EVENTS_CSV_HEADER = "entity_id,entity,tag,sent,processed,"
+			+ "handler_time_total_ns,handler_time_mean_ns,handler_time_p50_ns,handler_time_p99_ns,"
+			+ "handler_time_max_ns";
+
+	/** The header of the CSV output of the queue samples. */
+	public static final String QUEUES_CSV_HEADER = "time,future_queue_size,deferred_queue_size,"
+			+ "processed_events,events_per_second";
+
+	/** The statistics of each entity, indexed by the entity id. */
+	private EntityStats[] entities = new EntityStats[16];
+
+	/** The simulated time between the samples of the queues. */
+	private double sampleInterval = 1.0;
+
+	/** The time of the next sample of the queues. */
+	private double nextSampleTime = 0;
+
+	/** The time of the last sample of the queues. */
+	private double lastSampleTime = 0;
+
+	/** The number of events processed since the last sample of the queues. */
+	private long processedSinceSample;
+
+	/** The samples: time, future queue size, deferred queue size, processed events. */
+	private final List<double[]> samples = new ArrayList<double[]>();
+
+	/** The names of the entities, known when the simulation finishes. */
+	private String[] entityNames = new String[0];
+
+	/** The folder the metrics are written to when the simulation finishes, or <tt>null</tt>. */
+	private String outputFolder;
+
+	/**
+	 * Gets the simulated time between the samples of the queues.
+	 *
+	 * @return the sample interval
+	 */
+	public double getSampleInterval() {
+		return sampleInterval;
+	}
+
+	/**
+	 * Sets the simulated time between the samples of the queues. The queues are sampled at the
+	 * first clock tick after each interval.
+	 *
+	 * @param sampleInterval the sample interval
+	 */
+	public void setSampleInterval(double sampleInterval) {
+		if (sampleInterval <= 0) {
+			throw new IllegalArgumentException("The sample interval should be positive, but is: "
+					+ sampleInterval);
+		}
+		this.sampleInterval = sampleInterval;
+	}
+
+	/**
+	 * Gets the folder the metrics are written to when the simulation finishes.
+	 *
+	 * @return the output folder, or <tt>null</tt> if the metrics are not written
+	 */
+	public String getOutputFolder() {
+		return outputFolder;
+	}
+
+	/**
+	 * Sets the folder the metrics are written to when the simulation finishes.
+	 *
+	 * @param outputFolder the output folder, or <tt>null</tt> to not write the metrics
+	 */
+	public void setOutputFolder(String outputFolder) {
+		this.outputFolder = outputFolder;
+	}
+
+	/**
+	 * Gets the number of events with a given tag sent by an entity.
+	 *
+	 * @param entityId the id of the entity
+	 * @param tag the tag
+	 * @return the number of events
+	 */
+	public long getSentCount(int entityId, int tag) {
+		TagStats stats = getTagStats(entityId, tag, false);
+		return stats == null ? 0 : stats.sent;
+	}
+
+	/**
+	 * Gets the number of events with a given tag processed by an entity.
+	 *
+	 * @param entityId the id of the entity
+	 * @param tag the tag
+	 * @return the number of events
+	 */
+	public long getProcessedCount(int entityId, int tag) {
+		TagStats stats = getTagStats(entityId, tag, false);
+		return stats == null ? 0 : stats.handlerTime.getCount();
+	}
+
+	/**
+	 * Gets the times taken by an entity to process the events with a given tag.
+	 *
+	 * @param entityId the id of the entity
+	 * @param tag the tag
+	 * @return the histogram of the times, in nanoseconds, or <tt>null</tt> if the entity has not
+	 *         processed any event with the tag
+	 */
+	public LatencyHistogram getHandlerTime(int entityId, int tag) {
+		TagStats stats = getTagStats(entityId, tag, false);
+		return stats == null || stats.handlerTime.getCount() == 0 ? null : stats.handlerTime;
+	}
+
+	/**
+	 * Gets the times taken by an entity to process its events, whatever their tag.
+	 *
+	 * @param entityId the id of the entity
+	 * @return the histogram of the times, in nanoseconds
+	 */
+	public LatencyHistogram getHandlerTime(int entityId) {
+		LatencyHistogram histogram = new LatencyHistogram();
+		if (entityId >= 0 && entityId < entities.length && entities[entityId] != null) {
+			EntityStats entity = entities[entityId];
+			for (int i = 0; i < entity.size; i++) {
+				histogram.add(entity.stats[i].handlerTime);
+			}
+		}
+		return histogram;
+	}
+
+	/**
+	 * Gets the total number of processed events.
+	 *
+	 * @return the number of events
+	 */
+	public long getProcessedCount() {
+		long count = 0;
+		for (EntityStats entity : entities) {
+			if (entity != null) {
+				for (int i = 0; i < entity.size; i++) {
+					count += entity.stats[i].handlerTime.getCount();
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Writes the events sent and processed by each entity for each tag as CSV, one line per entity
+	 * and tag.
+	 *
+	 * @param output the output
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @see #EVENTS_CSV_HEADER
+	 */
+	public void writeEventsCsv(Writer output) throws IOException {
+		output.write(EVENTS_CSV_HEADER + "\n");
+		for (int id = 0; id < entities.length; id++) {
+			EntityStats entity = entities[id];
+			if (entity == null) {
+				continue;
+			}
+			for (TagStats stats : entity.getSortedStats()) {
+				LatencyHistogram time = stats.handlerTime;
+				output.write(String.format(
+						Locale.US,
+						"%d,%s,%d,%d,%d,%d,%.1f,%d,%d,%d\n",
+						id,
+						quoteCsv(getEntityName(id)),
+						stats.tag,
+						stats.sent,
+						time.getCount(),
+						time.getTotal(),
+						time.getMean(),
+						time.getValueAtPercentile(50),
+						time.getValueAtPercentile(99),
+						time.getMax()));
+			}
+		}
+	}
+
+	/**
+	 * Writes the samples of the queues as CSV, one line per sample.
+	 *
+	 * @param output the output
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @see #QUEUES_CSV_HEADER
+	 */
+	public void writeQueuesCsv(Writer output) throws IOException {
+		output.write(QUEUES_CSV_HEADER + "\n");
+		double previousTime = 0;
+		for (double[] sample : samples) {
+			output.write(String.format(
+					Locale.US,
+					"%.4f,%d,%d,%d,%.4f\n",
+					sample[0],
+					(long) sample[1],
+					(long) sample[2],
+					(long) sample[3],
+					getRate(sample, previousTime)));
+			previousTime = sample[0];
+		}
+	}
+
+	/**
+	 * Writes all the metrics as a JSON object, with an <tt>events</tt> array and a
+	 * <tt>queues</tt> array holding the same fields as the CSV outputs.
+	 *
+	 * @param output the output
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public void writeJson(Writer output) throws IOException {
+		output.write("{\n  \"events\": [");
+		String separator = "\n";
+		for (int id = 0; id < entities.length; id++) {
+			EntityStats entity = entities[id];
+			if (entity == null) {
+				continue;
+			}
+			for (TagStats stats : entity.getSortedStats()) {
+				LatencyHistogram time = stats.handlerTime;
+				output.write(separator);
+				output.write(String.format(
+						Locale.US,
+						"    {\"entity_id\": %d, \"entity\": %s, \"tag\": %d, \"sent\": %d, \"processed\": %d, "
+								+ "\"handler_time_ns\": {\"total\": %d, \"mean\": %.1f, \"min\": %d, "
+								+ "\"p50\": %d, \"p90\": %d, \"p99\": %d, \"max\": %d}}",
+						id,
+						quoteJson(getEntityName(id)),
+						stats.tag,
+						stats.sent,
+						time.getCount(),
+						time.getTotal(),
+						time.getMean(),
+						time.getMin(),
+						time.getValueAtPercentile(50),
+						time.getValueAtPercentile(90),
+						time.getValueAtPercentile(99),
+						time.getMax()));
+				separator = ",\n";
+			}
+		}
+		output.write("\n  ],\n  \"queues\": [");
+		separator = "\n";
+		double previousTime = 0;
+		for (double[] sample : samples) {
+			output.write(separator);
+			output.write(String.format(
+					Locale.US,
+					"    {\"time\": %.4f, \"future_queue_size\": %d, \"deferred_queue_size\": %d, "
+							+ "\"processed_events\": %d, \"events_per_second\": %.4f}",
+					sample[0],
+					(long) sample[1],
+					(long) sample[2],
+					(long) sample[3],
+					getRate(sample, previousTime)));
+			previousTime = sample[0];
+			separator = ",\n";
+		}
+		output.write("\n  ]\n}\n");
+	}
+
+	/**
+	 * Records an event sent by an entity.
+	 *
+	 * @param src the id of the source entity
+	 * @param tag the tag
+	 */
+	void eventSent(int src, int tag) {
+		getTagStats(src, tag, true).sent++;
+	}
+
+	/**
+	 * Records an event processed by an entity.
+	 *
+	 * @param dest the id of the destination entity
+	 * @param tag the tag
+	 * @param time the time taken to process the event, in nanoseconds
+	 */
+	void eventProcessed(int dest, int tag, long time) {
+		getTagStats(dest, tag, true).handlerTime.record(time);
+		processedSinceSample++;
+	}
+
+	/**
+	 * Checks if the queues have to be sampled at a given time.
+	 *
+	 * @param clock the simulation time
+	 * @return true, if a sample is due
+	 */
+	boolean isSampleDue(double clock) {
+		return clock >= nextSampleTime;
+	}
+
+	/**
+	 * Records a sample of the queues.
+	 *
+	 * @param clock the simulation time
+	 * @param futureSize the size of the future queue
+	 * @param deferredSize the size of the deferred queue
+	 */
+	void sample(double clock, int futureSize, int deferredSize) {
+		samples.add(new double[] { clock, futureSize, deferredSize, processedSinceSample });
+		processedSinceSample = 0;
+		lastSampleTime = clock;
+		nextSampleTime = (Math.floor(clock / sampleInterval) + 1) * sampleInterval;
+	}
+
+	/**
+	 * Records the end of the simulation, and writes the metrics to the output folder if one has
+	 * been set.
+	 *
+	 * @param clock the simulation time
+	 * @param futureSize the size of the future queue
+	 * @param deferredSize the size of the deferred queue
+	 * @param entityList the entities of the simulation
+	 */
+	void simulationFinished(double clock, int futureSize, int deferredSize, List<SimEntity> entityList) {
+		if (processedSinceSample > 0 || clock > lastSampleTime) {
+			sample(clock, futureSize, deferredSize);
+		}
+		entityNames = new String[entityList.size()];
+		for (SimEntity entity : entityList) {
+			entityNames[entity.getId()] = entity.getName();
+		}
+		if (outputFolder == null) {
+			return;
+		}
+
+		try {
+			File folder = new File(outputFolder);
+			if (!folder.exists()) {
+				folder.mkdirs();
+			}
+			Writer output = new BufferedWriter(new FileWriter(new File(folder, "metrics-events.csv")));
+			try {
+				writeEventsCsv(output);
+			} finally {
+				output.close();
+			}
+			output = new BufferedWriter(new FileWriter(new File(folder, "metrics-queues.csv")));
+			try {
+				writeQueuesCsv(output);
+			} finally {
+				output.close();
+			}
+			output = new BufferedWriter(new FileWriter(new File(folder, "metrics.json")));
+			try {
+				writeJson(output);
+			} finally {
+				output.close();
+			}
+		} catch (IOException e) {
+			Log.printLine("Problem in writing the simulation metrics. Error: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Gets the statistics of an entity for a tag.
+	 *
+	 * @param entityId the id of the entity
+	 * @param tag the tag
+	 * @param create whether to create the statistics if they do not exist
+	 * @return the statistics, or <tt>null</tt> if they do not exist and are not created
+	 */
+	private TagStats getTagStats(int entityId, int tag, boolean create) {
+		if (entityId < 0) {
+			return create ? new TagStats(tag) : null;
+		}
+		if (entityId >= entities.length) {
+			if (!create) {
+				return null;
+			}
+			entities = Arrays.copyOf(entities, Math.max(entityId + 1, entities.length << 1));
+		}
+		EntityStats entity = entities[entityId];
+		if (entity == null) {
+			if (!create) {
+				return null;
+			}
+			entity = new EntityStats();
+			entities[entityId] = entity;
+		}
+		return entity.get(tag, create);
+	}
+
+	/**
+	 * Gets the name of an entity.
+	 *
+	 * @param entityId the id of the entity
+	 * @return the name, or an empty string if it is not known yet
+	 */
+	private String getEntityName(int entityId) {
+		if (entityId < entityNames.length && entityNames[entityId] != null) {
+			return entityNames[entityId];
+		}
+		return "";
+	}
+
+	/**
+	 * Gets the number of events processed per simulated second before a sample.
+	 *
+	 * @param sample the sample
+	 * @param previousTime the time of the previous sample
+	 * @return the number of events per second
+	 */
+	private static double getRate(double[] sample, double previousTime) {
+		double interval = sample[0] - previousTime;
+		return interval > 0 ? sample[3] / interval : 0;
+	}
+
+	/**
+	 * Quotes a field of the CSV output.
+	 *
+	 * @param field the field
+	 * @return the quoted field
+	 */
+	private static String quoteCsv(String field) {
+		return "\"" + field.replace("\"", "\"\"") + "\"";
+	}
+
+	/**
+	 * Quotes a string of the JSON output.
+	 *
+	 * @param string the string
+	 * @return the quoted string
+	 */
+	private static String quoteJson(String string) {
+		StringBuilder quoted = new StringBuilder("\"");
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c == '"' || c == '\\') {
+				quoted.append('\\').append(c);
+			} else if (c < 0x20) {
+				quoted.append(String.format("\\u%04x", (int) c));
+			} else {
+				quoted.append(c);
+			}
+		}
+		return quoted.append('"').toString();
+	}
+
+	/**
+	 * The statistics of one entity, by tag, in a small open addressing hash table.
+	 */
+	private static final class EntityStats {
+
+		/** The statistics, in the order in which the tags were first seen. */
+		private TagStats[] stats = new TagStats[8];
+
+		/** The number of tags. */
+		private int size;
+
+		/** The hash table of the positions of the tags in {@link #stats}, plus one; 0 is empty. */
+		private int[] table = new int[16];
+
+		/**
+		 * Gets the statistics of a tag.
+		 *
+		 * @param tag the tag
+		 * @param create whether to create the statistics if they do not exist
+		 * @return the statistics, or <tt>null</tt> if they do not exist and are not created
+		 */
+		TagStats get(int tag, boolean create) {
+			int mask = table.length - 1;
+			int slot = (tag * 0x9E3779B9) >>> 16 & mask;
+			while (table[slot] != 0) {
+				TagStats tagStats = stats[table[slot] - 1];
+				if (tagStats.tag == tag) {
+					return tagStats;
+				}
+				slot = (slot + 1) & mask;
+			}
+			if (!create) {
+				return null;
+			}
+
+			TagStats tagStats = new TagStats(tag);
+			if (size == stats.length) {
+				stats = Arrays.copyOf(stats, size << 1);
+			}
+			stats[size++] = tagStats;
+			table[slot] = size;
+			if (size * 2 > table.length) {
+				rehash();
+			}
+			return tagStats;
+		}
+
+		/**
+		 * Gets the statistics, ordered by tag.
+		 *
+		 * @return the statistics
+		 */
+		TagStats[] getSortedStats() {
+			TagStats[] sorted = Arrays.copyOf(stats, size);
+			Arrays.sort(sorted);
+			return sorted;
+		}
+
+		/**
+		 * Doubles the size of the hash table.
+		 */
+		private void rehash() {
+			table = new int[table.length << 1];
+			int mask = table.length - 1;
+			for (int i = 0; i < size; i++) {
+				int slot = (stats[i].tag * 0x9E3779B9) >>> 16 & mask;
+				while (table[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				table[slot] = i + 1;
+			}
+		}
+
+	}
+
+	/**
+	 * The statistics of the events with one tag of one entity.
+	 */
+	private static final class TagStats implements Comparable<TagStats> {
+
+		/** The tag. */
+		private final int tag;
+
+		/** The number of events sent. */
+		private long sent;
+
+		/** The times taken to process the events received. */
+		private final LatencyHistogram handlerTime = new LatencyHistogram();
+
+		/**
+		 * Instantiates new statistics.
+		 *
+		 * @param tag the tag
+		 */
+		TagStats(int tag) {
+			this.tag = tag;
+		}
+
+		@Override
+		public int compareTo(TagStats other) {
+			return tag < other.tag ? -1 : (tag == other.tag ? 0 : 1);
+		}
+
+	}
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+
+/**
+ * This class records the changes that an entity run in parallel with other entities makes to the
+ * future events and to the wait predicates of its {@link Simulation}. The changes are applied
+ * after all the entities of the parallel batch have run, in the order of the entity ids, so that
+ * the events get the same serial numbers as when the entities run one after the other.
+ *
+ * @see Simulation#setParallelTick(java.util.concurrent.ForkJoinPool)
+ * @since CloudSim Toolkit 3.1
+ */
+final class TickBuffer {
+
+	/** An event added with {@link FutureQueueAbstract#addEvent(SimEvent)}. */
+	private static final byte ADD = 0;
+
+	/** An event added with {@link FutureQueueAbstract#addEventFirst(SimEvent)}. */
+	private static final byte ADD_FIRST = 1;
+
+	/** A wait predicate. */
+	private static final byte WAIT = 2;
+
+	/** A recorded change that has been undone, i.e. a cancelled event. */
+	private static final byte REMOVED = 3;
+
+	/** The kinds of the recorded changes. */
+	private byte[] kinds = new byte[8];
+
+	/** The events, or the wait predicates, of the recorded changes. */
+	private Object[] items = new Object[8];
+
+	/** The entities waiting, for the wait predicates. */
+	private int[] entities = new int[8];
+
+	/** The number of recorded changes. */
+	private int size;
+
+	/**
+	 * Records an event added to the future queue.
+	 *
+	 * @param event the event
+	 * @param first whether the event is added to the head of the queue
+	 */
+	void addEvent(SimEvent event, boolean first) {
+		add(first ? ADD_FIRST : ADD, event, -1);
+	}
+
+	/**
+	 * Records a wait predicate.
+	 *
+	 * @param src the id of the waiting entity
+	 * @param p the predicate
+	 */
+	void addWait(int src, Predicate p) {
+		add(WAIT, p, src);
+	}
+
+	/**
+	 * Finds the first recorded event, in the order in which the future queue would serve it, sent
+	 * by a given entity that matches a predicate.
+	 *
+	 * @param src the id of the source entity
+	 * @param p the predicate
+	 * @return the position of the event, or -1 if no event matches
+	 */
+	int indexOf(int src, Predicate p) {
+		int first = -1;
+		for (int i = 0; i < size; i++) {
+			if (kinds[i] != ADD && kinds[i] != ADD_FIRST) {
+				continue;
+			}
+			SimEvent event = (SimEvent) items[i];
+			if (event.getSource() != src || !p.match(event)) {
+				continue;
+			}
+			if (first < 0 || isBefore(i, first)) {
+				first = i;
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * Checks if a recorded event is served before a pending event of the future queue. The
+	 * recorded event is added after all the pending events: if it has the same time, it is served
+	 * first only if it is added to the head of the queue and the pending event was not.
+	 *
+	 * @param index the position of the recorded event
+	 * @param pending the pending event
+	 * @return true, if the recorded event is served first
+	 */
+	boolean isBefore(int index, SimEvent pending) {
+		SimEvent event = (SimEvent) items[index];
+		if (event.eventTime() != pending.eventTime()) {
+			return event.eventTime() < pending.eventTime();
+		}
+		return kinds[index] == ADD_FIRST && pending.getSerial() >= 0;
+	}
+
+	/**
+	 * Gets a recorded event.
+	 *
+	 * @param index the position of the event
+	 * @return the event
+	 */
+	SimEvent getEvent(int index) {
+		return (SimEvent) items[index];
+	}
+
+	/**
+	 * Removes a recorded event.
+	 *
+	 * @param index the position of the event
+	 */
+	void remove(int index) {
+		kinds[index] = REMOVED;
+		items[index] = null;
+	}
+
+	/**
+	 * Removes all the recorded events sent by a given entity that match a predicate.
+	 *
+	 * @param src the id of the source entity
+	 * @param p the predicate
+	 * @return the number of removed events
+	 */
+	int removeAll(int src, Predicate p) {
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			if (kinds[i] != ADD && kinds[i] != ADD_FIRST) {
+				continue;
+			}
+			SimEvent event = (SimEvent) items[i];
+			if (event.getSource() == src && p.match(event)) {
+				remove(i);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Removes all the recorded events with a given tag sent by a given entity.
+	 *
+	 * @param src the id of the source entity
+	 * @param tag the tag
+	 * @return the number of removed events
+	 */
+	int removeAll(int src, int tag) {
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			if (kinds[i] != ADD && kinds[i] != ADD_FIRST) {
+				continue;
+			}
+			SimEvent event = (SimEvent) items[i];
+			if (event.getSource() == src && event.getTag() == tag) {
+				remove(i);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Applies the recorded changes, in the order in which they were made, and clears the buffer.
+	 *
+	 * @param future the future queue
+	 * @param waitPredicates the wait predicates
+	 */
+	void flush(FutureQueueAbstract future, Map<Integer, Predicate> waitPredicates) {
+		for (int i = 0; i < size; i++) {
+			switch (kinds[i]) {
+				case ADD:
+					future.addEvent((SimEvent) items[i]);
+					break;
+				case ADD_FIRST:
+					future.addEventFirst((SimEvent) items[i]);
+					break;
+				case WAIT:
+					waitPredicates.put(entities[i], (Predicate) items[i]);
+					break;
+				default:
+					break;
+			}
+			items[i] = null;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Checks if a recorded event is served before another one.
+	 *
+	 * @param index1 the position of the first event
+	 * @param index2 the position of the second event, recorded before the first one
+	 * @return true, if the first event is served first
+	 */
+	private boolean isBefore(int index1, int index2) {
+		double time1 = ((SimEvent) items[index1]).eventTime();
+		double time2 = ((SimEvent) items[index2]).eventTime();
+		if (time1 != time2) {
+			return time1 < time2;
+		}
+		return kinds[index1] == ADD_FIRST && kinds[index2] == ADD;
+	}
+
+	/**
+	 * Records a change.
+	 *
+	 * @param kind the kind of change
+	 * @param item the event or the predicate
+	 * @param entity the waiting entity, for a wait predicate
+	 */
+	private void add(byte kind, Object item, int entity) {
+		if (size == kinds.length) {
+			kinds = Arrays.copyOf(kinds, size << 1);
+			items = Arrays.copyOf(items, size << 1);
+			entities = Arrays.copyOf(entities, size << 1);
+		}
+		kinds[size] = kind;
+		items[size] = item;
+		entities[size] = entity;
+		size++;
+	}
+
+}
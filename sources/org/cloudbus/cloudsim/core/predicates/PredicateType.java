@@ -41,6 +41,34 @@ public class PredicateType extends Predicate {
 		this.tags = tags.clone();
 	}
 
+	/**
+	 * Gets the tags selected by this predicate.
+	 * 
+	 * @return a copy of the tags
+	 */
+	public int[] getTags() {
+		return tags.clone();
+	}
+
+	/**
+	 * Gets the number of tags selected by this predicate.
+	 * 
+	 * @return the number of tags
+	 */
+	public int getNumberOfTags() {
+		return tags.length;
+	}
+
+	/**
+	 * Gets a tag selected by this predicate, without copying the tags as {@link #getTags()} does.
+	 * 
+	 * @param index the index of the tag
+	 * @return the tag
+	 */
+	public int getTag(int index) {
+		return tags[index];
+	}
+
 	/**
 	 * The match function called by <code>Sim_system</code>, not used directly by the user.
 	 * 
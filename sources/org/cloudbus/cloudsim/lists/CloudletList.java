@@ -30,6 +30,9 @@ public class CloudletList {
 	 * @return the by id
 	 */
 	public static <T extends Cloudlet> T getById(List<T> cloudletList, int id) {
+		if (cloudletList instanceof IndexedList) {
+			return ((IndexedList<T>) cloudletList).getById(id);
+		}
 		for (T cloudlet : cloudletList) {
 			if (cloudlet.getCloudletId() == id) {
 				return cloudlet;
@@ -88,4 +91,27 @@ public class CloudletList {
 		});
 	}
 
+	/**
+	 * Creates an empty list of cloudlets, in which {@link #getById(List, int)} takes constant time.
+	 * 
+	 * @param <T> the type of the cloudlets
+	 * @return the list
+	 * @see IndexedList
+	 */
+	public static <T extends Cloudlet> List<T> createIndexedList() {
+		return new IndexedList<T>() {
+
+			@Override
+			protected int getId(T cloudlet) {
+				return cloudlet.getCloudletId();
+			}
+
+			@Override
+			protected int getUserId(T cloudlet) {
+				return cloudlet.getUserId();
+			}
+
+		};
+	}
+
 }
@@ -32,6 +32,9 @@ public class HostList {
 	 * @post $none
 	 */
 	public static <T extends Host> T getById(List<T> hostList, int id) {
+		if (hostList instanceof IndexedList) {
+			return ((IndexedList<T>) hostList).getById(id);
+		}
 		for (T host : hostList) {
 			if (host.getId() == id) {
 				return host;
@@ -145,4 +148,27 @@ public class HostList {
 		return host.setPeStatus(peId, status);
 	}
 
+	/**
+	 * Creates an empty list of hosts, in which {@link #getById(List, int)} takes constant time.
+	 * 
+	 * @param <T> the type of the hosts
+	 * @return the list
+	 * @see IndexedList
+	 */
+	public static <T extends Host> List<T> createIndexedList() {
+		return new IndexedList<T>() {
+
+			@Override
+			protected int getId(T host) {
+				return host.getId();
+			}
+
+			@Override
+			protected int getUserId(T host) {
+				return 0;
+			}
+
+		};
+	}
+
 }
@@ -0,0 +1,328 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.lists;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.cloudbus.cloudsim.util.LongObjectMap;
+
+/**
+ * A list of entities that can be looked up by their id, or by their id and the id of their user,
+ * in constant time. It is used by the lists of the brokers and the hosts that are searched on each
+ * submission, so that {@link VmList#getById(List, int)},
+ * {@link VmList#getByIdAndUserId(List, int, int)}, {@link HostList#getById(List, int)},
+ * {@link CloudletList#getById(List, int)} and
+ * {@link ResCloudletList#getByIdAndUserId(List, int, int)} do not scan the whole list.
+ * <p>
+ * The list behaves like an {@link ArrayList}. Each index is built when it is first used and then
+ * kept in sync by all the modifications of the list, including the ones made through iterators and
+ * sub lists. If several elements share a key, the lookups return the first of them, as the list
+ * helpers did, by scanning the list. The ids of the elements must not change while they are in the
+ * list.
+ *
+ * @param <T> the type of the elements
+ * @since CloudSim Toolkit 3.1
+ */
+public abstract class IndexedList<T> extends AbstractList<T> implements RandomAccess {
+
+	/** The elements. */
+	private final List<T> elements = new ArrayList<T>();
+
+	/** The index by id, or null if it has not been used yet. */
+	private Index byId;
+
+	/** The index by id and user id, or null if it has not been used yet. */
+	private Index byIdAndUserId;
+
+	/**
+	 * Gets the id of an element.
+	 *
+	 * @param element the element
+	 * @return the id
+	 */
+	protected abstract int getId(T element);
+
+	/**
+	 * Gets the id of the user of an element.
+	 *
+	 * @param element the element
+	 * @return the user id
+	 */
+	protected abstract int getUserId(T element);
+
+	/**
+	 * Gets the first element with a given id.
+	 *
+	 * @param id the id
+	 * @return the element, or null if there is none
+	 */
+	public T getById(int id) {
+		if (byId == null) {
+			byId = new Index(false);
+		}
+		return byId.get(id, 0);
+	}
+
+	/**
+	 * Gets the first element with a given id and user id.
+	 *
+	 * @param id the id
+	 * @param userId the user id
+	 * @return the element, or null if there is none
+	 */
+	public T getByIdAndUserId(int id, int userId) {
+		if (byIdAndUserId == null) {
+			byIdAndUserId = new Index(true);
+		}
+		return byIdAndUserId.get(id, userId);
+	}
+
+	@Override
+	public T get(int index) {
+		return elements.get(index);
+	}
+
+	@Override
+	public int size() {
+		return elements.size();
+	}
+
+	@Override
+	public T set(int index, T element) {
+		T previous = elements.set(index, element);
+		removed(previous);
+		added(element);
+		return previous;
+	}
+
+	@Override
+	public void add(int index, T element) {
+		elements.add(index, element);
+		modCount++;
+		added(element);
+	}
+
+	@Override
+	public T remove(int index) {
+		T previous = elements.remove(index);
+		modCount++;
+		removed(previous);
+		return previous;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		return batchRemove(c, false);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		return batchRemove(c, true);
+	}
+
+	@Override
+	public void clear() {
+		elements.clear();
+		modCount++;
+		if (byId != null) {
+			byId.clear();
+		}
+		if (byIdAndUserId != null) {
+			byIdAndUserId.clear();
+		}
+	}
+
+	/**
+	 * Removes the elements that are, or are not, in a collection, in a single pass over the list.
+	 *
+	 * @param c the collection
+	 * @param retain whether the elements of the collection are kept rather than removed
+	 * @return true, if the list changed
+	 */
+	private boolean batchRemove(Collection<?> c, boolean retain) {
+		int kept = 0;
+		int size = elements.size();
+		for (int i = 0; i < size; i++) {
+			T element = elements.get(i);
+			if (c.contains(element) == retain) {
+				elements.set(kept++, element);
+			} else {
+				removed(element);
+			}
+		}
+		if (kept == size) {
+			return false;
+		}
+		elements.subList(kept, size).clear();
+		modCount++;
+		return true;
+	}
+
+	/**
+	 * Updates the indexes after an element has been added.
+	 *
+	 * @param element the element
+	 */
+	private void added(T element) {
+		if (byId != null) {
+			byId.added(element);
+		}
+		if (byIdAndUserId != null) {
+			byIdAndUserId.added(element);
+		}
+	}
+
+	/**
+	 * Updates the indexes after an element has been removed.
+	 *
+	 * @param element the element
+	 */
+	private void removed(T element) {
+		if (byId != null) {
+			byId.removed(element);
+		}
+		if (byIdAndUserId != null) {
+			byIdAndUserId.removed(element);
+		}
+	}
+
+	/**
+	 * An index of the elements by their id, or by their id and user id. While several elements share
+	 * a key, the index cannot tell which one is first in the list, so the lookups scan the list.
+	 */
+	private final class Index {
+
+		/** Whether the user id is part of the key. */
+		private final boolean withUserId;
+
+		/** The first element added of each key. */
+		private final LongObjectMap<T> map = new LongObjectMap<T>();
+
+		/** The number of elements that share their key with an element of the map. */
+		private int duplicates;
+
+		/** Whether the index has to be rebuilt before the next lookup. */
+		private boolean stale = true;
+
+		/**
+		 * Instantiates a new index, which is built on the first lookup.
+		 *
+		 * @param withUserId whether the user id is part of the key
+		 */
+		Index(boolean withUserId) {
+			this.withUserId = withUserId;
+		}
+
+		/**
+		 * Gets the first element with a given id and, if it is part of the key, user id.
+		 *
+		 * @param id the id
+		 * @param userId the user id
+		 * @return the element, or null if there is none
+		 */
+		T get(int id, int userId) {
+			if (stale) {
+				rebuild();
+			}
+			if (duplicates == 0) {
+				return map.get(getKey(id, userId));
+			}
+			for (T element : elements) {
+				if (getId(element) == id && (!withUserId || getUserId(element) == userId)) {
+					return element;
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Updates the index after an element has been added.
+		 *
+		 * @param element the element
+		 */
+		void added(T element) {
+			if (stale) {
+				return;
+			}
+			long key = getKey(element);
+			if (map.containsKey(key)) {
+				duplicates++;
+			} else {
+				map.put(key, element);
+			}
+		}
+
+		/**
+		 * Updates the index after an element has been removed. If it was the mapped element of a key
+		 * shared with other elements, the index is rebuilt on the next lookup to map another one.
+		 *
+		 * @param element the element
+		 */
+		void removed(T element) {
+			if (stale) {
+				return;
+			}
+			long key = getKey(element);
+			if (map.get(key) == element && duplicates == 0) {
+				map.remove(key);
+			} else {
+				stale = true;
+			}
+		}
+
+		/**
+		 * Empties the index.
+		 */
+		void clear() {
+			map.clear();
+			duplicates = 0;
+			stale = false;
+		}
+
+		/**
+		 * Rebuilds the index from the elements of the list.
+		 */
+		private void rebuild() {
+			clear();
+			for (T element : elements) {
+				added(element);
+			}
+		}
+
+		/**
+		 * Gets the key of an element.
+		 *
+		 * @param element the element
+		 * @return the key
+		 */
+		private long getKey(T element) {
+			return getKey(getId(element), withUserId ? getUserId(element) : 0);
+		}
+
+		/**
+		 * Gets the key of an id and a user id.
+		 *
+		 * @param id the id
+		 * @param userId the user id, ignored if it is not part of the key
+		 * @return the key
+		 */
+		private long getKey(int id, int userId) {
+			if (!withUserId) {
+				return id;
+			}
+			return (long) userId << 32 | id & 0xFFFFFFFFL;
+		}
+
+	}
+
+}
@@ -38,6 +38,9 @@ public class ResCloudletList {
 			List<T> list,
 			int cloudletId,
 			int userId) {
+		if (list instanceof IndexedList) {
+			return ((IndexedList<T>) list).getByIdAndUserId(cloudletId, userId);
+		}
 		for (T rcl : list) {
 			if (rcl.getCloudletId() == cloudletId && rcl.getUserId() == userId) {
 				return rcl;
@@ -105,4 +108,28 @@ public class ResCloudletList {
 		}
 		return -1;
 	}
+
+	/**
+	 * Creates an empty list of cloudlets, in which {@link #getByIdAndUserId(List, int, int)} takes
+	 * constant time.
+	 * 
+	 * @param <T> the type of the cloudlets
+	 * @return the list
+	 * @see IndexedList
+	 */
+	public static <T extends ResCloudlet> List<T> createIndexedList() {
+		return new IndexedList<T>() {
+
+			@Override
+			protected int getId(T rcl) {
+				return rcl.getCloudletId();
+			}
+
+			@Override
+			protected int getUserId(T rcl) {
+				return rcl.getUserId();
+			}
+
+		};
+	}
 }
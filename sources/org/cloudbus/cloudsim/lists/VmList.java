@@ -30,6 +30,9 @@ public class VmList {
 	 * @post $none
 	 */
 	public static <T extends Vm> T getById(List<T> vmList, int id) {
+		if (vmList instanceof IndexedList) {
+			return ((IndexedList<T>) vmList).getById(id);
+		}
 		for (T vm : vmList) {
 			if (vm.getId() == id) {
 				return vm;
@@ -49,6 +52,9 @@ public class VmList {
 	 * @post $none
 	 */
 	public static <T extends Vm> T getByIdAndUserId(List<T> vmList, int id, int userId) {
+		if (vmList instanceof IndexedList) {
+			return ((IndexedList<T>) vmList).getByIdAndUserId(id, userId);
+		}
 		for (T vm : vmList) {
 			if (vm.getId() == id && vm.getUserId() == userId) {
 				return vm;
@@ -57,4 +63,28 @@ public class VmList {
 		return null;
 	}
 
+	/**
+	 * Creates an empty list of VMs, in which {@link #getById(List, int)} and
+	 * {@link #getByIdAndUserId(List, int, int)} take constant time.
+	 * 
+	 * @param <T> the type of the VMs
+	 * @return the list
+	 * @see IndexedList
+	 */
+	public static <T extends Vm> List<T> createIndexedList() {
+		return new IndexedList<T>() {
+
+			@Override
+			protected int getId(T vm) {
+				return vm.getId();
+			}
+
+			@Override
+			protected int getUserId(T vm) {
+				return vm.getUserId();
+			}
+
+		};
+	}
+
 }
@@ -12,10 +12,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEvent;
-import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
  * This class allows to simulate aggregate switch for Datacenter network. It interacts with other
@@ -67,7 +65,7 @@ public class AggregateSwitch extends Switch {
 		// add packet in the host list
 		NetworkPacket hspkt = (NetworkPacket) ev.getData();
 		int recvVMid = hspkt.pkt.reciever;
-		CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.Network_Event_send));
+		getSimulation().cancelAll(getId(), CloudSimTags.Network_Event_send);
 		schedule(getId(), latency, CloudSimTags.Network_Event_send);
 
 		if (level == NetworkConstants.Agg_LEVEL) {
@@ -100,7 +98,7 @@ public class AggregateSwitch extends Switch {
 		// int src=ev.getSource();
 		NetworkPacket hspkt = (NetworkPacket) ev.getData();
 		int recvVMid = hspkt.pkt.reciever;
-		CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.Network_Event_send));
+		getSimulation().cancelAll(getId(), CloudSimTags.Network_Event_send);
 		schedule(getId(), switching_delay, CloudSimTags.Network_Event_send);
 
 		if (level == NetworkConstants.Agg_LEVEL) {
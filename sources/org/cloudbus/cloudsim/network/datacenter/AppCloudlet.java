@@ -77,7 +77,7 @@ public class AppCloudlet {
 			UtilizationModel utilizationModel = new UtilizationModelFull();
 			// HPCCloudlet cl=new HPCCloudlet();
 			NetworkCloudlet cl = new NetworkCloudlet(
-					NetworkConstants.currentCloudletId,
+					NetworkConstants.nextCloudletId(),
 					length,
 					pesNumber,
 					fileSize,
@@ -87,7 +87,6 @@ public class AppCloudlet {
 					utilizationModel,
 					utilizationModel);
 			// setting the owner of these Cloudlets
-			NetworkConstants.currentCloudletId++;
 			cl.setUserId(userId);
 			cl.submittime = CloudSim.clock();
 			cl.currStagenum = -1;
@@ -18,11 +18,11 @@ import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.DatacenterCharacteristics;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.distributions.UniformDistr;
+import org.cloudbus.cloudsim.lists.CloudletList;
 import org.cloudbus.cloudsim.lists.VmList;
 
 /**
@@ -101,9 +101,9 @@ public class NetDatacenterBroker extends SimEntity {
 	public NetDatacenterBroker(String name) throws Exception {
 		super(name);
 
-		setVmList(new ArrayList<NetworkVm>());
-		setVmsCreatedList(new ArrayList<NetworkVm>());
-		setCloudletList(new ArrayList<NetworkCloudlet>());
+		setVmList(VmList.<NetworkVm> createIndexedList());
+		setVmsCreatedList(VmList.<NetworkVm> createIndexedList());
+		setCloudletList(CloudletList.<NetworkCloudlet> createIndexedList());
 		setAppCloudletList(new ArrayList<AppCloudlet>());
 		setCloudletSubmittedList(new ArrayList<Cloudlet>());
 		setCloudletReceivedList(new ArrayList<Cloudlet>());
@@ -220,10 +220,10 @@ public class NetDatacenterBroker extends SimEntity {
 	 */
 
 	protected void processResourceCharacteristicsRequest(SimEvent ev) {
-		setDatacenterIdsList(CloudSim.getCloudResourceList());
+		setDatacenterIdsList(getSimulation().getCloudResourceList());
 		setDatacenterCharacteristicsList(new HashMap<Integer, DatacenterCharacteristics>());
 
-		Log.printLine(CloudSim.clock() + ": " + getName() + ": Cloud Resource List received with "
+		Log.printLine(getSimulation().clock() + ": " + getName() + ": Cloud Resource List received with "
 				+ getDatacenterIdsList().size() + " resource(s)");
 
 		for (Integer datacenterId : getDatacenterIdsList()) {
@@ -253,8 +253,8 @@ public class NetDatacenterBroker extends SimEntity {
 		getCloudletReceivedList().add(cloudlet);
 		cloudletsSubmitted--;
 		// all cloudlets executed
-		if (getCloudletList().size() == 0 && cloudletsSubmitted == 0 && NetworkConstants.iteration > 10) {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": All Cloudlets executed. Finishing...");
+		if (getCloudletList().size() == 0 && cloudletsSubmitted == 0 && NetworkConstants.getIteration() > 10) {
+			Log.printLine(getSimulation().clock() + ": " + getName() + ": All Cloudlets executed. Finishing...");
 			clearDatacenters();
 			finishExecution();
 		} else { // some cloudlets haven't finished yet
@@ -309,8 +309,7 @@ public class NetDatacenterBroker extends SimEntity {
 		// generate Application execution Requests
 		for (int i = 0; i < 100; i++) {
 			this.getAppCloudletList().add(
-					new WorkflowApp(AppCloudlet.APP_Workflow, NetworkConstants.currentAppId, 0, 0, getId()));
-			NetworkConstants.currentAppId++;
+					new WorkflowApp(AppCloudlet.APP_Workflow, NetworkConstants.nextAppId(), 0, 0, getId()));
 
 		}
 		int k = 0;
@@ -344,15 +343,16 @@ public class NetDatacenterBroker extends SimEntity {
 								CloudSimTags.CLOUDLET_SUBMIT,
 								app.clist.get(i));
 					}
-					System.out.println("app" + (k++));
+					Log.printConcatLine(Log.Category.NETWORK, Log.Level.DEBUG, "app", k);
+					k++;
 				}
 			}
 
 		}
 		setAppCloudletList(new ArrayList<AppCloudlet>());
-		if (NetworkConstants.iteration < 10) {
+		if (NetworkConstants.getIteration() < 10) {
 
-			NetworkConstants.iteration++;
+			NetworkConstants.nextIteration();
 			this.schedule(getId(), NetworkConstants.nexttime, CloudSimTags.NextCycle);
 		}
 
@@ -402,7 +402,8 @@ public class NetDatacenterBroker extends SimEntity {
 	 */
 	protected void clearDatacenters() {
 		for (Vm vm : getVmsCreatedList()) {
-			Log.printLine(CloudSim.clock() + ": " + getName() + ": Destroying VM #" + vm.getId());
+			Log.printConcatLine(Log.Category.NETWORK, Log.Level.DEBUG, getSimulation().clock(), ": ", getName(),
+					": Destroying VM #", vm.getId());
 			sendNow(getVmsToDatacentersMap().get(vm.getId()), CloudSimTags.VM_DESTROY, vm);
 		}
 
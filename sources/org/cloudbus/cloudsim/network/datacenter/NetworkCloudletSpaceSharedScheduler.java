@@ -17,7 +17,6 @@ import java.util.Map;
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.CloudletScheduler;
 import org.cloudbus.cloudsim.ResCloudlet;
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 
 /**
@@ -122,7 +121,7 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 				if (st.type == NetworkConstants.EXECUTION) {
 
 					// update the time
-					cl.timespentInStage = Math.round(CloudSim.clock() - cl.timetostartStage);
+					cl.timespentInStage = Math.round(getSimulation().clock() - cl.timetostartStage);
 					if (cl.timespentInStage >= st.time) {
 						changetonextstage(cl, st);
 						// change the stage
@@ -138,8 +137,8 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 							pkt = it.next();
 							// Asumption packet will not arrive in the same cycle
 							if (pkt.reciever == cl.getVmId()) {
-								pkt.recievetime = CloudSim.clock();
-								st.time = CloudSim.clock() - pkt.sendtime;
+								pkt.recievetime = getSimulation().clock();
+								st.time = getSimulation().clock() - pkt.sendtime;
 								changetonextstage(cl, st);
 								pkttoremove.add(pkt);
 							}
@@ -152,7 +151,7 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 
 			} else {
 				cl.currStagenum = 0;
-				cl.timetostartStage = CloudSim.clock();
+				cl.timetostartStage = getSimulation().clock();
 
 				if (cl.stages.get(0).type == NetworkConstants.EXECUTION) {
 					NetDatacenterBroker.linkDC.schedule(
@@ -183,7 +182,7 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 			// rounding issue...
 			if (((NetworkCloudlet) (rcl.getCloudlet())).currStagenum == NetworkConstants.FINISH) {
 				// stage is changed and packet to send
-				((NetworkCloudlet) (rcl.getCloudlet())).finishtime = CloudSim.clock();
+				((NetworkCloudlet) (rcl.getCloudlet())).finishtime = getSimulation().clock();
 				toRemove.add(rcl);
 				cloudletFinish(rcl);
 				finished++;
@@ -218,8 +217,8 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 		for (ResCloudlet rcl : getCloudletExecList()) {
 			double remainingLength = rcl.getRemainingCloudletLength();
 			double estimatedFinishTime = currentTime + (remainingLength / (capacity * rcl.getNumberOfPes()));
-			if (estimatedFinishTime - currentTime < CloudSim.getMinTimeBetweenEvents()) {
-				estimatedFinishTime = currentTime + CloudSim.getMinTimeBetweenEvents();
+			if (estimatedFinishTime - currentTime < getSimulation().getMinTimeBetweenEvents()) {
+				estimatedFinishTime = currentTime + getSimulation().getMinTimeBetweenEvents();
 			}
 			if (estimatedFinishTime < nextEvent) {
 				nextEvent = estimatedFinishTime;
@@ -231,7 +230,7 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 
 	private void changetonextstage(NetworkCloudlet cl, TaskStage st) {
 		cl.timespentInStage = 0;
-		cl.timetostartStage = CloudSim.clock();
+		cl.timetostartStage = getSimulation().clock();
 		int currstage = cl.currStagenum;
 		if (currstage >= (cl.stages.size() - 1)) {
 			cl.currStagenum = NetworkConstants.FINISH;
@@ -244,7 +243,7 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 							cl.getVmId(),
 							cl.stages.get(i).peer,
 							cl.stages.get(i).data,
-							CloudSim.clock(),
+							getSimulation().clock(),
 							-1,
 							cl.getCloudletId(),
 							cl.stages.get(i).vpeer);
@@ -461,7 +460,7 @@ public class NetworkCloudletSpaceSharedScheduler extends CloudletScheduler {
 				capacity /= cpus;
 
 				long remainingLength = rcl.getRemainingCloudletLength();
-				double estimatedFinishTime = CloudSim.clock()
+				double estimatedFinishTime = getSimulation().clock()
 						+ (remainingLength / (capacity * rcl.getNumberOfPes()));
 
 				return estimatedFinishTime;
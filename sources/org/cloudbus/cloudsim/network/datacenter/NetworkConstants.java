@@ -8,6 +8,9 @@
 
 package org.cloudbus.cloudsim.network.datacenter;
 
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
+
 public class NetworkConstants {
 
 	public static int maxhostVM = 2;
@@ -15,7 +18,21 @@ public class NetworkConstants {
 
 	public static double maxMemperVM = 1024 * 1024;// kb
 
+	/**
+	 * The id of the next cloudlet of the default simulation.
+	 * 
+	 * @deprecated use {@link #nextCloudletId()}, which also works for the simulations bound to a
+	 *             thread by {@link CloudSim#setSimulation(Simulation)}
+	 */
+	@Deprecated
 	public static int currentCloudletId = 0;
+
+	/**
+	 * The id of the next application of the default simulation.
+	 * 
+	 * @deprecated use {@link #nextAppId()}, which also works for the simulations bound to a thread
+	 */
+	@Deprecated
 	public static int currentAppId = 0;
 
 	// stage type
@@ -55,8 +72,149 @@ public class NetworkConstants {
 
 	public static boolean logflag = false;
 
+	/**
+	 * The number of application generation cycles of the default simulation.
+	 * 
+	 * @deprecated use {@link #getIteration()}, which also works for the simulations bound to a
+	 *             thread
+	 */
+	@Deprecated
 	public static int iteration = 10;
+
 	public static int nexttime = 1000;
 
+	/**
+	 * The total amount of data transferred between hosts in the default simulation.
+	 * 
+	 * @deprecated use {@link #getTotalDataTransfer()}, which also works for the simulations bound
+	 *             to a thread
+	 */
+	@Deprecated
 	public static int totaldatatransfer = 0;
+
+	/**
+	 * Gets the id of the next cloudlet of the current simulation, without consuming it.
+	 * 
+	 * @return the id of the next cloudlet
+	 */
+	public static int getCurrentCloudletId() {
+		Counters counters = getCounters();
+		if (counters == null) {
+			return currentCloudletId;
+		}
+		return counters.currentCloudletId;
+	}
+
+	/**
+	 * Consumes the id of the next cloudlet of the current simulation.
+	 * 
+	 * @return the id of the cloudlet
+	 */
+	public static int nextCloudletId() {
+		Counters counters = getCounters();
+		if (counters == null) {
+			return currentCloudletId++;
+		}
+		return counters.currentCloudletId++;
+	}
+
+	/**
+	 * Consumes the id of the next application of the current simulation.
+	 * 
+	 * @return the id of the application
+	 */
+	public static int nextAppId() {
+		Counters counters = getCounters();
+		if (counters == null) {
+			return currentAppId++;
+		}
+		return counters.currentAppId++;
+	}
+
+	/**
+	 * Gets the number of application generation cycles of the current simulation.
+	 * 
+	 * @return the iteration
+	 */
+	public static int getIteration() {
+		Counters counters = getCounters();
+		if (counters == null) {
+			return iteration;
+		}
+		return counters.iteration;
+	}
+
+	/**
+	 * Increments the number of application generation cycles of the current simulation.
+	 */
+	public static void nextIteration() {
+		Counters counters = getCounters();
+		if (counters == null) {
+			iteration++;
+		} else {
+			counters.iteration++;
+		}
+	}
+
+	/**
+	 * Gets the total amount of data transferred between hosts in the current simulation.
+	 * 
+	 * @return the total data transfer
+	 */
+	public static int getTotalDataTransfer() {
+		Counters counters = getCounters();
+		if (counters == null) {
+			return totaldatatransfer;
+		}
+		return counters.totalDataTransfer;
+	}
+
+	/**
+	 * Adds to the total amount of data transferred between hosts in the current simulation.
+	 * 
+	 * @param data the data transferred
+	 */
+	public static void addDataTransfer(double data) {
+		Counters counters = getCounters();
+		if (counters == null) {
+			totaldatatransfer += data;
+		} else {
+			counters.totalDataTransfer += data;
+		}
+	}
+
+	/**
+	 * Gets the counters of the current simulation, creating them if needed. The counters of the
+	 * default simulation are the static fields of this class, which existing code may still read
+	 * and write directly.
+	 * 
+	 * @return the counters, or null for the default simulation
+	 */
+	private static Counters getCounters() {
+		Simulation simulation = CloudSim.getSimulation();
+		if (simulation == CloudSim.getDefaultSimulation()) {
+			return null;
+		}
+		Counters counters = simulation.getAttribute(Counters.class);
+		if (counters == null) {
+			counters = new Counters();
+			simulation.setAttribute(Counters.class, counters);
+		}
+		return counters;
+	}
+
+	/**
+	 * The counters of one simulation.
+	 */
+	private static final class Counters {
+
+		private int currentCloudletId = 0;
+
+		private int currentAppId = 0;
+
+		private int iteration = 10;
+
+		private int totalDataTransfer = 0;
+
+	}
 }
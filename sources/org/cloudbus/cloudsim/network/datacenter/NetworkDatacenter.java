@@ -117,11 +117,12 @@ public class NetworkDatacenter extends Datacenter {
 		if (result) {
 			VmToSwitchid.put(vm.getId(), ((NetworkHost) vm.getHost()).sw.getId());
 			VmtoHostlist.put(vm.getId(), vm.getHost().getId());
-			System.out.println(vm.getId() + " VM is created on " + vm.getHost().getId());
+			Log.printConcatLine(Log.Category.NETWORK, Log.Level.DEBUG, vm.getId(), " VM is created on ",
+					vm.getHost().getId());
 
 			getVmList().add(vm);
 
-			vm.updateVmProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(vm).getVmScheduler()
+			vm.updateVmProcessing(getSimulation().clock(), getVmAllocationPolicy().getHost(vm).getVmScheduler()
 					.getAllocatedMipsForVm(vm));
 		}
 		return result;
@@ -146,7 +147,7 @@ public class NetworkDatacenter extends Datacenter {
 
 			// checks whether this Cloudlet has finished or not
 			if (cl.isFinished()) {
-				String name = CloudSim.getEntityName(cl.getUserId());
+				String name = getSimulation().getEntityName(cl.getUserId());
 				Log.printLine(getName() + ": Warning - Cloudlet #" + cl.getCloudletId() + " owned by " + name
 						+ " is already completed/finished.");
 				Log.printLine("Therefore, it is not being executed again");
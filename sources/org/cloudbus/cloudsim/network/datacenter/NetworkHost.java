@@ -16,7 +16,6 @@ import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Pe;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmScheduler;
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.lists.PeList;
 import org.cloudbus.cloudsim.lists.VmList;
@@ -110,7 +109,7 @@ public class NetworkHost extends Host {
 	private void recvpackets() {
 
 		for (NetworkPacket hs : packetrecieved) {
-			hs.pkt.recievetime = CloudSim.clock();
+			hs.pkt.recievetime = getSimulation().clock();
 
 			// insertthe packet in recievedlist of VM
 			Vm vm = VmList.getById(getVmList(), hs.pkt.reciever);
@@ -161,7 +160,7 @@ public class NetworkHost extends Host {
 		for (NetworkPacket hs : packetTosendLocal) {
 			flag = true;
 			hs.stime = hs.rtime;
-			hs.pkt.recievetime = CloudSim.clock();
+			hs.pkt.recievetime = getSimulation().clock();
 			// insertthe packet in recievedlist
 			Vm vm = VmList.getById(getVmList(), hs.pkt.reciever);
 
@@ -178,7 +177,7 @@ public class NetworkHost extends Host {
 		}
 		if (flag) {
 			for (Vm vm : super.getVmList()) {
-				vm.updateVmProcessing(CloudSim.clock(), getVmScheduler().getAllocatedMipsForVm(vm));
+				vm.updateVmProcessing(getSimulation().clock(), getVmScheduler().getAllocatedMipsForVm(vm));
 			}
 		}
 
@@ -187,9 +186,9 @@ public class NetworkHost extends Host {
 		double avband = bandwidth / packetTosendGlobal.size();
 		for (NetworkPacket hs : packetTosendGlobal) {
 			double delay = (1000 * hs.pkt.data) / avband;
-			NetworkConstants.totaldatatransfer += hs.pkt.data;
+			NetworkConstants.addDataTransfer(hs.pkt.data);
 
-			CloudSim.send(getDatacenter().getId(), sw.getId(), delay, CloudSimTags.Network_Event_UP, hs);
+			getSimulation().send(getDatacenter().getId(), sw.getId(), delay, CloudSimTags.Network_Event_UP, hs);
 			// send to switch with delay
 		}
 		packetTosendGlobal.clear();
@@ -9,7 +9,6 @@
 package org.cloudbus.cloudsim.network.datacenter;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -17,7 +16,7 @@ import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
-import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.VmMap;
 
 /**
  * NetworkVmAllocationPolicy is an VmAllocationPolicy that chooses, as the host for a VM, the host
@@ -31,10 +30,10 @@ import org.cloudbus.cloudsim.core.CloudSim;
 public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 
 	/** The vm table. */
-	private Map<String, Host> vmTable;
+	private VmMap<Host> vmTable;
 
 	/** The used pes. */
-	private Map<String, Integer> usedPes;
+	private VmMap<Integer> usedPes;
 
 	/** The free pes. */
 	private List<Integer> freePes;
@@ -56,8 +55,8 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 
 		}
 
-		setVmTable(new HashMap<String, Host>());
-		setUsedPes(new HashMap<String, Integer>());
+		setVmTable(new VmMap<Host>());
+		setUsedPes(new VmMap<Integer>());
 	}
 
 	/**
@@ -81,7 +80,7 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 			freePesTmp.add(freePes);
 		}
 
-		if (!getVmTable().containsKey(vm.getUid())) { // if this vm was not created
+		if (!getVmTable().containsKey(vm.getKey())) { // if this vm was not created
 			do {// we still trying until we find a host or until we try all of them
 				int moreFree = Integer.MIN_VALUE;
 				int idx = -1;
@@ -98,8 +97,8 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 				result = host.vmCreate(vm);
 
 				if (result) { // if vm were succesfully created in the host
-					getVmTable().put(vm.getUid(), host);
-					getUsedPes().put(vm.getUid(), requiredPes);
+					getVmTable().put(vm.getKey(), host);
+					getUsedPes().put(vm.getKey(), requiredPes);
 					getFreePes().set(idx, getFreePes().get(idx) - requiredPes);
 					result = true;
 					break;
@@ -147,9 +146,9 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 	 */
 	@Override
 	public void deallocateHostForVm(Vm vm) {
-		Host host = getVmTable().remove(vm.getUid());
+		Host host = getVmTable().remove(vm.getKey());
 		int idx = getHostList().indexOf(host);
-		int pes = getUsedPes().remove(vm.getUid());
+		int pes = getUsedPes().remove(vm.getKey());
 		if (host != null) {
 			host.vmDestroy(vm);
 			getFreePes().set(idx, getFreePes().get(idx) + pes);
@@ -168,7 +167,7 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 	 */
 	@Override
 	public Host getHost(Vm vm) {
-		return getVmTable().get(vm.getUid());
+		return getVmTable().get(vm.getKey());
 	}
 
 	/**
@@ -184,7 +183,7 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 	 */
 	@Override
 	public Host getHost(int vmId, int userId) {
-		return getVmTable().get(Vm.getUid(userId, vmId));
+		return getVmTable().get(Vm.getKey(userId, vmId));
 	}
 
 	/**
@@ -192,17 +191,18 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 	 * 
 	 * @return the vm table
 	 */
-	public Map<String, Host> getVmTable() {
+	public VmMap<Host> getVmTable() {
 		return vmTable;
 	}
 
 	/**
-	 * Sets the vm table.
+	 * Sets the vm table. A map that is not a {@link VmMap} is copied into a new one, so that the
+	 * changes made to it afterwards are not seen here.
 	 * 
 	 * @param vmTable the vm table
 	 */
 	protected void setVmTable(Map<String, Host> vmTable) {
-		this.vmTable = vmTable;
+		this.vmTable = VmMap.of(vmTable);
 	}
 
 	/**
@@ -210,17 +210,18 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 	 * 
 	 * @return the used pes
 	 */
-	protected Map<String, Integer> getUsedPes() {
+	protected VmMap<Integer> getUsedPes() {
 		return usedPes;
 	}
 
 	/**
-	 * Sets the used pes.
+	 * Sets the used pes. A map that is not a {@link VmMap} is copied into a new one, so that the
+	 * changes made to it afterwards are not seen here.
 	 * 
 	 * @param usedPes the used pes
 	 */
 	protected void setUsedPes(Map<String, Integer> usedPes) {
-		this.usedPes = usedPes;
+		this.usedPes = VmMap.of(usedPes);
 	}
 
 	/**
@@ -259,16 +260,16 @@ public class NetworkVmAllocationPolicy extends VmAllocationPolicy {
 	@Override
 	public boolean allocateHostForVm(Vm vm, Host host) {
 		if (host.vmCreate(vm)) { // if vm has been succesfully created in the host
-			getVmTable().put(vm.getUid(), host);
+			getVmTable().put(vm.getKey(), host);
 
 			int requiredPes = vm.getNumberOfPes();
 			int idx = getHostList().indexOf(host);
-			getUsedPes().put(vm.getUid(), requiredPes);
+			getUsedPes().put(vm.getKey(), requiredPes);
 			getFreePes().set(idx, getFreePes().get(idx) - requiredPes);
 
 			Log.formatLine(
 					"%.2f: VM #" + vm.getId() + " has been allocated to the host #" + host.getId(),
-					CloudSim.clock());
+					host.getSimulation().clock());
 			return true;
 		}
 
@@ -12,10 +12,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
-import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEvent;
-import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
  * This class allows to simulate Root switch which connects Datacenter to external network. It
@@ -65,7 +64,7 @@ public class RootSwitch extends Switch {
 
 		NetworkPacket hspkt = (NetworkPacket) ev.getData();
 		int recvVMid = hspkt.pkt.reciever;
-		CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.Network_Event_send));
+		getSimulation().cancelAll(getId(), CloudSimTags.Network_Event_send);
 		schedule(getId(), switching_delay, CloudSimTags.Network_Event_send);
 
 		if (level == NetworkConstants.ROOT_LEVEL) {
@@ -83,7 +82,7 @@ public class RootSwitch extends Switch {
 				}
 			}
 			if (aggSwtichid < 0) {
-				System.out.println(" No destination for this packet");
+				Log.printConcatLine(Log.Category.NETWORK, Log.Level.WARNING, " No destination for this packet");
 			} else {
 				List<NetworkPacket> pktlist = downlinkswitchpktlist.get(aggSwtichid);
 				if (pktlist == null) {
@@ -18,11 +18,9 @@ import java.util.TreeMap;
 
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEntity;
 import org.cloudbus.cloudsim.core.SimEvent;
-import org.cloudbus.cloudsim.core.predicates.PredicateType;
 import org.cloudbus.cloudsim.lists.VmList;
 
 public class Switch extends SimEntity {
@@ -84,9 +82,18 @@ public class Switch extends SimEntity {
 		schedule(getId(), 0, CloudSimTags.RESOURCE_CHARACTERISTICS_REQUEST);
 	}
 
+	/**
+	 * A switch only changes its own packet lists and the packets received by the hosts of its
+	 * ports, so the switches can forward their packets in parallel.
+	 */
+	@Override
+	public boolean isParallelizable() {
+		return true;
+	}
+
 	@Override
 	public void processEvent(SimEvent ev) {
-		// Log.printLine(CloudSim.clock()+"[Broker]: event received:"+ev.getTag());
+		// Log.printLine(getSimulation().clock()+"[Broker]: event received:"+ev.getTag());
 		switch (ev.getTag()) {
 		// Resource characteristics request
 			case CloudSimTags.Network_Event_UP:
@@ -131,7 +138,7 @@ public class Switch extends SimEntity {
 		// int src=ev.getSource();
 		NetworkPacket hspkt = (NetworkPacket) ev.getData();
 		int recvVMid = hspkt.pkt.reciever;
-		CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.Network_Event_send));
+		getSimulation().cancelAll(getId(), CloudSimTags.Network_Event_send);
 		schedule(getId(), latency, CloudSimTags.Network_Event_send);
 		if (level == NetworkConstants.EDGE_LEVEL) {
 			// packet is to be recieved by host
@@ -169,7 +176,7 @@ public class Switch extends SimEntity {
 		// int src=ev.getSource();
 		NetworkPacket hspkt = (NetworkPacket) ev.getData();
 		int recvVMid = hspkt.pkt.reciever;
-		CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.Network_Event_send));
+		getSimulation().cancelAll(getId(), CloudSimTags.Network_Event_send);
 		schedule(getId(), switching_delay, CloudSimTags.Network_Event_send);
 		if (level == NetworkConstants.EDGE_LEVEL) {
 			// packet is recieved from host
@@ -246,7 +253,7 @@ public class Switch extends SimEntity {
 				}
 			}
 			if (aggSwtichid < 0) {
-				System.out.println(" No destination for this packet");
+				Log.printConcatLine(Log.Category.NETWORK, Log.Level.WARNING, " No destination for this packet");
 			} else {
 				List<NetworkPacket> pktlist = downlinkswitchpktlist.get(aggSwtichid);
 				if (pktlist == null) {
@@ -265,7 +272,7 @@ public class Switch extends SimEntity {
 
 	protected void processpacket(SimEvent ev) {
 		// send packet to itself with switching delay (discarding other)
-		CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.Network_Event_UP));
+		getSimulation().cancelAll(getId(), CloudSimTags.Network_Event_UP);
 		schedule(getId(), switching_delay, CloudSimTags.Network_Event_UP);
 		pktlist.add((NetworkPacket) ev.getData());
 
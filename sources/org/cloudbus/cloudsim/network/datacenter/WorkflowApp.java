@@ -44,7 +44,7 @@ public class WorkflowApp extends AppCloudlet {
 		int i = 0;
 		// Task A
 		NetworkCloudlet cl = new NetworkCloudlet(
-				NetworkConstants.currentCloudletId,
+				NetworkConstants.nextCloudletId(),
 				0,
 				1,
 				fileSize,
@@ -54,7 +54,6 @@ public class WorkflowApp extends AppCloudlet {
 				utilizationModel,
 				utilizationModel);
 		cl.numStage = 2;
-		NetworkConstants.currentCloudletId++;
 		cl.setUserId(userId);
 		cl.submittime = CloudSim.clock();
 		cl.currStagenum = -1;
@@ -69,7 +68,7 @@ public class WorkflowApp extends AppCloudlet {
 		i++;
 		// Task B
 		NetworkCloudlet clb = new NetworkCloudlet(
-				NetworkConstants.currentCloudletId,
+				NetworkConstants.nextCloudletId(),
 				0,
 				1,
 				fileSize,
@@ -79,7 +78,6 @@ public class WorkflowApp extends AppCloudlet {
 				utilizationModel,
 				utilizationModel);
 		clb.numStage = 2;
-		NetworkConstants.currentCloudletId++;
 		clb.setUserId(userId);
 		clb.submittime = CloudSim.clock();
 		clb.currStagenum = -1;
@@ -102,7 +100,7 @@ public class WorkflowApp extends AppCloudlet {
 
 		// Task C
 		NetworkCloudlet clc = new NetworkCloudlet(
-				NetworkConstants.currentCloudletId,
+				NetworkConstants.nextCloudletId(),
 				0,
 				1,
 				fileSize,
@@ -112,7 +110,6 @@ public class WorkflowApp extends AppCloudlet {
 				utilizationModel,
 				utilizationModel);
 		clc.numStage = 2;
-		NetworkConstants.currentCloudletId++;
 		clc.setUserId(userId);
 		clc.submittime = CloudSim.clock();
 		clc.currStagenum = -1;
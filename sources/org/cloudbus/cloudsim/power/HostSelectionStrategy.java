@@ -0,0 +1,45 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.Set;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * A strategy to select the host to which a VM is migrated when a migration-based VM allocation
+ * policy places the VMs of the over-utilized hosts.
+ * <p>
+ * A strategy finds its candidates through the {@link PowerHostIndex} of the policy, which is up to
+ * date when the strategy is called, and uses the policy to check whether a candidate would be
+ * over-utilized after the allocation. A strategy breaks ties by the order of the host list of the
+ * policy.
+ *
+ * @see PowerVmAllocationPolicyMigrationAbstract#setHostSelectionStrategy(HostSelectionStrategy)
+ * @since CloudSim Toolkit 3.1
+ */
+public interface HostSelectionStrategy {
+
+	/**
+	 * Finds a host for a VM.
+	 *
+	 * @param policy the VM allocation policy
+	 * @param index the index of the hosts of the policy
+	 * @param vm the vm
+	 * @param excludedHosts the excluded hosts
+	 * @return the host, or null if no host is found
+	 */
+	PowerHost findHostForVm(
+			PowerVmAllocationPolicyMigrationAbstract policy,
+			PowerHostIndex index,
+			Vm vm,
+			Set<? extends Host> excludedHosts);
+
+}
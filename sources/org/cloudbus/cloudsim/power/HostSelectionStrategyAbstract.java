@@ -0,0 +1,57 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.Set;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * The base class of the host selection strategies, with the checks they share.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public abstract class HostSelectionStrategyAbstract implements HostSelectionStrategy {
+
+	/**
+	 * Checks whether a host is a candidate for a VM: it is not excluded, it is suitable for the VM,
+	 * and it is either idle or not over-utilized after the allocation of the VM.
+	 *
+	 * @param policy the VM allocation policy
+	 * @param host the host
+	 * @param vm the vm
+	 * @param excludedHosts the excluded hosts
+	 * @return true, if the host is a candidate
+	 */
+	protected boolean isCandidate(
+			PowerVmAllocationPolicyMigrationAbstract policy,
+			PowerHost host,
+			Vm vm,
+			Set<? extends Host> excludedHosts) {
+		if (!isAvailable(host, vm, excludedHosts)) {
+			return false;
+		}
+		return policy.getUtilizationOfCpuMips(host) == 0 || !policy.isHostOverUtilizedAfterAllocation(host, vm);
+	}
+
+	/**
+	 * Checks whether a host is available for a VM: it is not excluded and it is suitable for the
+	 * VM, whatever its utilization after the allocation.
+	 *
+	 * @param host the host
+	 * @param vm the vm
+	 * @param excludedHosts the excluded hosts
+	 * @return true, if the host is available
+	 */
+	protected boolean isAvailable(PowerHost host, Vm vm, Set<? extends Host> excludedHosts) {
+		return !excludedHosts.contains(host) && host.isSuitableForVm(vm);
+	}
+
+}
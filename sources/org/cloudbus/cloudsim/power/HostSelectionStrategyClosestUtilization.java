@@ -0,0 +1,100 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * The Modified First Fit Power Efficiency Decreasing (MFPED) host selection strategy: the VM goes
+ * to the host whose CPU utilization is the closest to a target of 60%, ties broken by the most
+ * MIPS per watt at full utilization.
+ * <p>
+ * The utilization of the hosts does not change while the VMs are placed, so that the strategy
+ * sorts the hosts once after each refresh of the {@link PowerHostIndex} and stops at the first
+ * candidate.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class HostSelectionStrategyClosestUtilization extends HostSelectionStrategyAbstract {
+
+	/** The target utilization. */
+	private static final double TARGET_UTILIZATION = 0.60;
+
+	/** The index the order was built from. */
+	private PowerHostIndex sortedIndex;
+
+	/** The refresh count of the index when the order was built. */
+	private long sortedRefreshCount;
+
+	/** The positions of the hosts in order of preference. */
+	private int[] order;
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.power.HostSelectionStrategy#findHostForVm(
+	 * org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract,
+	 * org.cloudbus.cloudsim.power.PowerHostIndex, org.cloudbus.cloudsim.Vm, java.util.Set)
+	 */
+	@Override
+	public PowerHost findHostForVm(
+			PowerVmAllocationPolicyMigrationAbstract policy,
+			PowerHostIndex index,
+			Vm vm,
+			Set<? extends Host> excludedHosts) {
+		if (index != sortedIndex || index.getRefreshCount() != sortedRefreshCount) {
+			sort(index);
+		}
+		for (int position : order) {
+			PowerHost host = index.getHost(position);
+			if (isCandidate(policy, host, vm, excludedHosts)) {
+				return host;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Sorts the hosts by increasing distance of their utilization to the target, then by
+	 * decreasing power efficiency, then by list order.
+	 *
+	 * @param index the index of the hosts
+	 */
+	private void sort(final PowerHostIndex index) {
+		int size = index.size();
+		final double[] distances = new double[size];
+		Integer[] positions = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			distances[i] = Math.abs(index.getHost(i).getUtilizationOfCpu() - TARGET_UTILIZATION);
+			positions[i] = i;
+		}
+		Arrays.sort(positions, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer a, Integer b) {
+				int result = Double.compare(distances[a], distances[b]);
+				if (result == 0) {
+					result = Double.compare(index.getPowerEfficiency(b), index.getPowerEfficiency(a));
+				}
+				return result != 0 ? result : a.compareTo(b);
+			}
+		});
+		order = new int[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = positions[i];
+		}
+		sortedIndex = index;
+		sortedRefreshCount = index.getRefreshCount();
+	}
+
+}
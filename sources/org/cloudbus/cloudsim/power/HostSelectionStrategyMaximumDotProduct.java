@@ -0,0 +1,75 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.Set;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * The Maximum Fit VM Placement (MFVMP) host selection strategy: the VM goes to the host whose
+ * available MIPS and RAM have the largest dot product with the MIPS and RAM of the VM, above a
+ * threshold that starts at {@link Double#MAX_VALUE}. A host that is neither idle in MIPS nor in
+ * RAM must not be over-utilized after the allocation.
+ * <p>
+ * The dot product of a host is bounded by that of the maximum available MIPS and RAM of any group
+ * of hosts containing it, so that the {@link PowerHostIndex} skips the groups that cannot beat the
+ * current best host without checking them.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class HostSelectionStrategyMaximumDotProduct extends HostSelectionStrategyAbstract {
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.power.HostSelectionStrategy#findHostForVm(
+	 * org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract,
+	 * org.cloudbus.cloudsim.power.PowerHostIndex, org.cloudbus.cloudsim.Vm, java.util.Set)
+	 */
+	@Override
+	public PowerHost findHostForVm(
+			PowerVmAllocationPolicyMigrationAbstract policy,
+			PowerHostIndex index,
+			Vm vm,
+			Set<? extends Host> excludedHosts) {
+		double requestedTotalMips = vm.getCurrentRequestedTotalMips();
+		double requestedTotalRam = vm.getCurrentAllocatedRam();
+		double minDotProduct = Double.MAX_VALUE;
+		PowerHost allocatedHost = null;
+
+		int position = index.nextWithDotProductAbove(
+				0,
+				requestedTotalMips,
+				requestedTotalMips,
+				requestedTotalRam,
+				minDotProduct);
+		while (position >= 0) {
+			PowerHost host = index.getHost(position);
+			if (isAvailable(host, vm, excludedHosts)) {
+				if (policy.getUtilizationOfCpuMips(host) == 0 || policy.getUtilizationOfRam(host) == 0
+						|| !policy.isHostOverUtilizedAfterAllocation(host, vm)) {
+					double dotProduct = policy.dotProduct(host, vm);
+					if (dotProduct > minDotProduct) {
+						minDotProduct = dotProduct;
+						allocatedHost = host;
+					}
+				}
+			}
+			position = index.nextWithDotProductAbove(
+					position + 1,
+					requestedTotalMips,
+					requestedTotalMips,
+					requestedTotalRam,
+					minDotProduct);
+		}
+		return allocatedHost;
+	}
+
+}
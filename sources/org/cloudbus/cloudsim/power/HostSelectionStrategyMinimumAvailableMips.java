@@ -0,0 +1,74 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.BitSet;
+import java.util.Set;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * The Modified Best Fit Decreasing (MBFD) host selection strategy: the VM goes to the active host
+ * with the least available MIPS, ties broken by the least available RAM. If no active host is a
+ * candidate, the VM goes to the idle host with the least available MIPS.
+ * <p>
+ * The strategy walks the hosts in increasing order of available MIPS from the MIPS requested by
+ * the VM, so that it stops at the first active candidate.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class HostSelectionStrategyMinimumAvailableMips extends HostSelectionStrategyAbstract {
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.power.HostSelectionStrategy#findHostForVm(
+	 * org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract,
+	 * org.cloudbus.cloudsim.power.PowerHostIndex, org.cloudbus.cloudsim.Vm, java.util.Set)
+	 */
+	@Override
+	public PowerHost findHostForVm(
+			PowerVmAllocationPolicyMigrationAbstract policy,
+			PowerHostIndex index,
+			Vm vm,
+			Set<? extends Host> excludedHosts) {
+		PowerHost inactiveHost = null;
+		int inactivePosition = -1;
+		BitSet visited = new BitSet(index.size());
+
+		double mips = vm.getCurrentRequestedTotalMips();
+		double ram = Double.NEGATIVE_INFINITY;
+		int position = -1;
+		while ((position = index.nextByAvailableMips(mips, ram, position)) >= 0) {
+			mips = index.getAvailableMips(position);
+			ram = index.getAvailableRam(position);
+			// a policy checking a host by allocating the VM may move it further in the order
+			if (visited.get(position)) {
+				continue;
+			}
+			visited.set(position);
+
+			PowerHost host = index.getHost(position);
+			if (!isCandidate(policy, host, vm, excludedHosts)) {
+				continue;
+			}
+			if (host.getUtilizationMips() != 0) {
+				return host;
+			}
+			// the idle hosts are only ordered by available MIPS, then by list order
+			if (inactiveHost == null || host.getAvailableMips() < inactiveHost.getAvailableMips()
+					|| host.getAvailableMips() == inactiveHost.getAvailableMips() && position < inactivePosition) {
+				inactiveHost = host;
+				inactivePosition = position;
+			}
+		}
+		return inactiveHost;
+	}
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.Set;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * The Power Aware Best Fit Decreasing (PABFD) host selection strategy: the VM goes to the host
+ * whose power consumption increases the least, as found by
+ * {@link PowerVmAllocationPolicyMigrationAbstract#findHostForVm(Vm, Set)}. The power increase
+ * depends on the power model of each host, so that the strategy evaluates every suitable host.
+ *
+ * If you are using any algorithms, policies or workload included in the power package, please cite
+ * the following paper:
+ *
+ * Anton Beloglazov, and Rajkumar Buyya, "Optimal Online Deterministic Algorithms and Adaptive
+ * Heuristics for Energy and Performance Efficient Dynamic Consolidation of Virtual Machines in
+ * Cloud Data Centers", Concurrency and Computation: Practice and Experience (CCPE), Volume 24,
+ * Issue 13, Pages: 1397-1420, John Wiley & Sons, Ltd, New York, USA, 2012
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class HostSelectionStrategyMinimumPowerIncrease extends HostSelectionStrategyAbstract {
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.power.HostSelectionStrategy#findHostForVm(
+	 * org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract,
+	 * org.cloudbus.cloudsim.power.PowerHostIndex, org.cloudbus.cloudsim.Vm, java.util.Set)
+	 */
+	@Override
+	public PowerHost findHostForVm(
+			PowerVmAllocationPolicyMigrationAbstract policy,
+			PowerHostIndex index,
+			Vm vm,
+			Set<? extends Host> excludedHosts) {
+		return policy.findHostForVm(vm, excludedHosts);
+	}
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.Set;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * The Power Efficiency Best Fit Decreasing (PEBFD) host selection strategy: the VM goes to the
+ * most power-efficient active host, that is the one with the most MIPS per watt at full
+ * utilization, ties broken by the least available MIPS. If no active host is a candidate, the VM
+ * goes to the most power-efficient idle host.
+ * <p>
+ * The strategy walks the hosts in decreasing order of power efficiency, so that it stops after the
+ * hosts as efficient as the first active candidate.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class HostSelectionStrategyPowerEfficiencyBestFit extends HostSelectionStrategyAbstract {
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.power.HostSelectionStrategy#findHostForVm(
+	 * org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract,
+	 * org.cloudbus.cloudsim.power.PowerHostIndex, org.cloudbus.cloudsim.Vm, java.util.Set)
+	 */
+	@Override
+	public PowerHost findHostForVm(
+			PowerVmAllocationPolicyMigrationAbstract policy,
+			PowerHostIndex index,
+			Vm vm,
+			Set<? extends Host> excludedHosts) {
+		double requestedTotalMips = vm.getCurrentRequestedTotalMips();
+		PowerHost allocatedHost = null;
+		double bestPowerEfficiency = 0;
+		PowerHost inactiveHost = null;
+
+		for (int rank = index.nextByPowerEfficiency(0, requestedTotalMips); rank >= 0; rank = index
+				.nextByPowerEfficiency(rank + 1, requestedTotalMips)) {
+			int position = index.getPositionByPowerEfficiency(rank);
+			double powerEfficiency = index.getPowerEfficiency(position);
+			if (allocatedHost != null && powerEfficiency != bestPowerEfficiency) {
+				break;
+			}
+			PowerHost host = index.getHost(position);
+			if (!(powerEfficiency > Double.MIN_VALUE) || !isCandidate(policy, host, vm, excludedHosts)) {
+				continue;
+			}
+			if (host.getUtilizationMips() == 0) {
+				if (inactiveHost == null) {
+					inactiveHost = host;
+				}
+				continue;
+			}
+			if (allocatedHost == null || host.getAvailableMips() < allocatedHost.getAvailableMips()) {
+				allocatedHost = host;
+				bestPowerEfficiency = powerEfficiency;
+			}
+		}
+		return allocatedHost != null ? allocatedHost : inactiveHost;
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.Set;
+
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * The Power Efficiency First Fit Decreasing (PEFFD) host selection strategy: the VM goes to the
+ * most power-efficient active host, that is the one with the most MIPS per watt at full
+ * utilization. If no active host is a candidate, the VM goes to the most power-efficient idle
+ * host.
+ * <p>
+ * The strategy walks the hosts in decreasing order of power efficiency, so that it stops at the
+ * first active candidate.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class HostSelectionStrategyPowerEfficiencyFirstFit extends HostSelectionStrategyAbstract {
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.power.HostSelectionStrategy#findHostForVm(
+	 * org.cloudbus.cloudsim.power.PowerVmAllocationPolicyMigrationAbstract,
+	 * org.cloudbus.cloudsim.power.PowerHostIndex, org.cloudbus.cloudsim.Vm, java.util.Set)
+	 */
+	@Override
+	public PowerHost findHostForVm(
+			PowerVmAllocationPolicyMigrationAbstract policy,
+			PowerHostIndex index,
+			Vm vm,
+			Set<? extends Host> excludedHosts) {
+		double requestedTotalMips = vm.getCurrentRequestedTotalMips();
+		PowerHost inactiveHost = null;
+
+		for (int rank = index.nextByPowerEfficiency(0, requestedTotalMips); rank >= 0; rank = index
+				.nextByPowerEfficiency(rank + 1, requestedTotalMips)) {
+			int position = index.getPositionByPowerEfficiency(rank);
+			PowerHost host = index.getHost(position);
+			if (!(index.getPowerEfficiency(position) > Double.MIN_VALUE)
+					|| !isCandidate(policy, host, vm, excludedHosts)) {
+				continue;
+			}
+			if (host.getUtilizationMips() != 0) {
+				return host;
+			}
+			if (inactiveHost == null) {
+				inactiveHost = host;
+			}
+		}
+		return inactiveHost;
+	}
+
+}
@@ -17,7 +17,6 @@ import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Storage;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
-import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
 import org.cloudbus.cloudsim.core.SimEvent;
 import org.cloudbus.cloudsim.core.predicates.PredicateType;
@@ -50,6 +49,18 @@ public class PowerDatacenter extends Datacenter {
 	/** The migration count. */
 	private int migrationCount;
 
+	/** Whether the scheduling intervals in which nothing changes are skipped. */
+	private boolean fastForward;
+
+	/** The time of the update after which scheduling intervals are being skipped, or -1. */
+	private double fastForwardStart = -1;
+
+	/** The number of scheduling intervals until the next update, if intervals are being skipped. */
+	private int fastForwardIntervals;
+
+	/** The number of skipped scheduling intervals. */
+	private long skippedIntervals;
+
 	/**
 	 * Instantiates a new datacenter.
 	 * 
@@ -85,24 +96,27 @@ public class PowerDatacenter extends Datacenter {
 	 */
 	@Override
 	protected void updateCloudletProcessing() {
-		if (getCloudletSubmitted() == -1 || getCloudletSubmitted() == CloudSim.clock()) {
-			CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.VM_DATACENTER_EVENT));
+		if (getCloudletSubmitted() == -1 || getCloudletSubmitted() == getSimulation().clock()) {
+			updateSkippedIntervals(getSimulation().clock());
+			getSimulation().cancelAll(getId(), CloudSimTags.VM_DATACENTER_EVENT);
 			schedule(getId(), getSchedulingInterval(), CloudSimTags.VM_DATACENTER_EVENT);
 			return;
 		}
-		double currentTime = CloudSim.clock();
+		double currentTime = getSimulation().clock();
 
 		// if some time passed since last processing
 		if (currentTime > getLastProcessTime()) {
-			System.out.print(currentTime + " ");
+			Log.printConcat(Log.Category.POWER, Log.Level.DEBUG, currentTime, " ");
 
 			double minTime = updateCloudetProcessingWithoutSchedulingFutureEventsForce();
+			boolean migrationsStarted = false;
 
 			if (!isDisableMigrations()) {
 				List<Map<String, Object>> migrationMap = getVmAllocationPolicy().optimizeAllocation(
 						getVmList());
 
 				if (migrationMap != null) {
+					migrationsStarted = !migrationMap.isEmpty();
 					for (Map<String, Object> migrate : migrationMap) {
 						Vm vm = (Vm) migrate.get("vm");
 						PowerHost targetHost = (PowerHost) migrate.get("host");
@@ -110,12 +124,16 @@ public class PowerDatacenter extends Datacenter {
 
 						if (oldHost == null) {
 							Log.formatLine(
+									Log.Category.POWER,
+									Log.Level.DEBUG,
 									"%.2f: Migration of VM #%d to Host #%d is started",
 									currentTime,
 									vm.getId(),
 									targetHost.getId());
 						} else {
 							Log.formatLine(
+									Log.Category.POWER,
+									Log.Level.DEBUG,
 									"%.2f: Migration of VM #%d from Host #%d to Host #%d is started",
 									currentTime,
 									vm.getId(),
@@ -141,21 +159,152 @@ public class PowerDatacenter extends Datacenter {
 
 			// schedules an event to the next time
 			if (minTime != Double.MAX_VALUE) {
-				CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.VM_DATACENTER_EVENT));
-				send(getId(), getSchedulingInterval(), CloudSimTags.VM_DATACENTER_EVENT);
+				getSimulation().cancelAll(getId(), CloudSimTags.VM_DATACENTER_EVENT);
+				int intervals = 1;
+				if (isFastForward()
+						&& !migrationsStarted
+						&& (isDisableMigrations() || getVmAllocationPolicy().supportsFastForward())) {
+					intervals = getSteadyIntervals(currentTime, minTime);
+				}
+				if (intervals > 1) {
+					double time = getIntervalEnd(currentTime, intervals);
+					fastForwardStart = currentTime;
+					fastForwardIntervals = intervals;
+					send(getId(), getDelay(currentTime, time), CloudSimTags.VM_DATACENTER_EVENT);
+				} else {
+					send(getId(), getSchedulingInterval(), CloudSimTags.VM_DATACENTER_EVENT);
+				}
 			}
 
 			setLastProcessTime(currentTime);
 		}
 	}
 
+	/**
+	 * Gets the number of scheduling intervals after which the next update is needed, that is 1
+	 * unless the data center is in a steady state. The data center is in a steady state when no VM
+	 * is migrating, the mips allocated to the VMs did not change in the current update, and the
+	 * utilization of all the running cloudlets is known not to change (see
+	 * {@link org.cloudbus.cloudsim.UtilizationModelPredictable}). The next update is then needed at
+	 * the end of the last scheduling interval before the utilization of a cloudlet changes or a
+	 * cloudlet finishes, or at the end of the last interval that ends strictly before the
+	 * termination time of the simulation, which is the last update the simulation handles.
+	 * 
+	 * @param currentTime the time of the current update
+	 * @param completionTime the predicted completion time of the earliest finishing cloudlet
+	 * @return the number of scheduling intervals
+	 */
+	protected int getSteadyIntervals(double currentTime, double completionTime) {
+		if (isInMigration()) {
+			return 1;
+		}
+		for (PowerHost host : this.<PowerHost> getHostList()) {
+			if (!host.getVmsMigratingIn().isEmpty()) {
+				return 1;
+			}
+		}
+		double minSteadyTime = currentTime + 2 * getSchedulingInterval();
+		double steadyUntil = completionTime;
+		for (Vm vm : getVmList()) {
+			// the completion time is predicted with the mips share of the previous update
+			List<Double> mipsShare = vm.getCloudletScheduler().getCurrentMipsShare();
+			if (vm.getHost() == null || !vm.getHost().getAllocatedMipsForVm(vm).equals(mipsShare)) {
+				return 1;
+			}
+			steadyUntil = Math.min(steadyUntil, vm.getCloudletScheduler().getSteadyUntil(currentTime));
+			if (steadyUntil < minSteadyTime) {
+				return 1;
+			}
+		}
+		int intervals = (int) Math.floor((steadyUntil - currentTime) / getSchedulingInterval());
+		double terminationTime = getSimulation().getTerminationTime();
+		if (terminationTime > 0) {
+			// the simulation stops before handling an update at or after the termination time, so
+			// the last update must be strictly before it, as without skipping
+			intervals = (int) Math.min(
+					intervals,
+					Math.floor((terminationTime - currentTime) / getSchedulingInterval()));
+			while (intervals > 1 && getIntervalEnd(currentTime, intervals) >= terminationTime) {
+				intervals--;
+			}
+		}
+		return Math.max(1, intervals);
+	}
+
+	/**
+	 * Adds to the utilization and state histories of the hosts and the VMs the entries that the
+	 * updates at the end of the scheduling intervals skipped since the last update would have
+	 * added. The energy consumption and the progress of the cloudlets need no such correction:
+	 * the next update integrates them over the whole skipped period, exactly since the
+	 * utilization did not change.
+	 * 
+	 * @param currentTime the time of the update that ends the skipped period
+	 */
+	protected void updateSkippedIntervals(double currentTime) {
+		if (fastForwardStart < 0) {
+			return;
+		}
+		double time = fastForwardStart;
+		for (int i = 1; i < fastForwardIntervals; i++) {
+			time += getSchedulingInterval();
+			if (time >= currentTime) {
+				break;
+			}
+			for (PowerHost host : this.<PowerHost> getHostList()) {
+				host.addSkippedStateHistoryEntry(time);
+			}
+			for (Vm vm : getVmList()) {
+				if (vm instanceof PowerVm) {
+					((PowerVm) vm).updateSkippedUtilizationHistory(time);
+				}
+			}
+			skippedIntervals++;
+		}
+		fastForwardStart = -1;
+		fastForwardIntervals = 0;
+	}
+
+	/**
+	 * Gets the end of a number of scheduling intervals, computed as the successive updates of the
+	 * data center would, so that it is exactly one of the times at which the data center would
+	 * have been updated.
+	 * 
+	 * @param time the start of the first interval
+	 * @param intervals the number of intervals
+	 * @return the end of the last interval
+	 */
+	private double getIntervalEnd(double time, int intervals) {
+		for (int i = 0; i < intervals; i++) {
+			time += getSchedulingInterval();
+		}
+		return time;
+	}
+
+	/**
+	 * Gets the delay after which an event sent at a time happens exactly at another time.
+	 * 
+	 * @param currentTime the current time
+	 * @param time the time of the event
+	 * @return the delay
+	 */
+	private static double getDelay(double currentTime, double time) {
+		double delay = time - currentTime;
+		while (currentTime + delay < time) {
+			delay = Math.nextUp(delay);
+		}
+		while (currentTime + delay > time) {
+			delay = Math.nextAfter(delay, 0);
+		}
+		return delay;
+	}
+
 	/**
 	 * Update cloudet processing without scheduling future events.
 	 * 
 	 * @return the double
 	 */
 	protected double updateCloudetProcessingWithoutSchedulingFutureEvents() {
-		if (CloudSim.clock() > getLastProcessTime()) {
+		if (getSimulation().clock() > getLastProcessTime()) {
 			return updateCloudetProcessingWithoutSchedulingFutureEventsForce();
 		}
 		return 0;
@@ -167,34 +316,45 @@ public class PowerDatacenter extends Datacenter {
 	 * @return the double
 	 */
 	protected double updateCloudetProcessingWithoutSchedulingFutureEventsForce() {
-		double currentTime = CloudSim.clock();
+		double currentTime = getSimulation().clock();
 		double minTime = Double.MAX_VALUE;
 		double timeDiff = currentTime - getLastProcessTime();
 		double timeFrameDatacenterEnergy = 0.0;
 
-		Log.printLine("\n\n--------------------------------------------------------------\n\n");
-		Log.formatLine("New resource usage for the time frame starting at %.2f:", currentTime);
+		updateSkippedIntervals(currentTime);
+
+		boolean debug = Log.isEnabled(Log.Category.POWER, Log.Level.DEBUG);
+		if (debug) {
+			Log.printLine("\n\n--------------------------------------------------------------\n\n");
+			Log.formatLine("New resource usage for the time frame starting at %.2f:", currentTime);
+		}
 
 		for (PowerHost host : this.<PowerHost> getHostList()) {
-			Log.printLine();
+			if (debug) {
+				Log.printLine();
+			}
 
 			double time = host.updateVmsProcessing(currentTime); // inform VMs to update processing
 			if (time < minTime) {
 				minTime = time;
 			}
 
-			Log.formatLine(
-					"%.2f: [Host #%d] utilization is %.2f%%",
-					currentTime,
-					host.getId(),
-					host.getUtilizationOfCpu() * 100);
+			if (debug) {
+				Log.formatLine(
+						"%.2f: [Host #%d] utilization is %.2f%%",
+						currentTime,
+						host.getId(),
+						host.getUtilizationOfCpu() * 100);
+			}
 		}
 
 		if (timeDiff > 0) {
-			Log.formatLine(
-					"\nEnergy consumption for the last time frame from %.2f to %.2f:",
-					getLastProcessTime(),
-					currentTime);
+			if (debug) {
+				Log.formatLine(
+						"\nEnergy consumption for the last time frame from %.2f to %.2f:",
+						getLastProcessTime(),
+						currentTime);
+			}
 
 			for (PowerHost host : this.<PowerHost> getHostList()) {
 				double previousUtilizationOfCpu = host.getPreviousUtilizationOfCpu();
@@ -205,25 +365,29 @@ public class PowerDatacenter extends Datacenter {
 						timeDiff);
 				timeFrameDatacenterEnergy += timeFrameHostEnergy;
 
-				Log.printLine();
-				Log.formatLine(
-						"%.2f: [Host #%d] utilization at %.2f was %.2f%%, now is %.2f%%",
-						currentTime,
-						host.getId(),
-						getLastProcessTime(),
-						previousUtilizationOfCpu * 100,
-						utilizationOfCpu * 100);
+				if (debug) {
+					Log.printLine();
+					Log.formatLine(
+							"%.2f: [Host #%d] utilization at %.2f was %.2f%%, now is %.2f%%",
+							currentTime,
+							host.getId(),
+							getLastProcessTime(),
+							previousUtilizationOfCpu * 100,
+							utilizationOfCpu * 100);
+					Log.formatLine(
+							"%.2f: [Host #%d] energy is %.2f W*sec",
+							currentTime,
+							host.getId(),
+							timeFrameHostEnergy);
+				}
+			}
+
+			if (debug) {
 				Log.formatLine(
-						"%.2f: [Host #%d] energy is %.2f W*sec",
+						"\n%.2f: Data center's energy is %.2f W*sec\n",
 						currentTime,
-						host.getId(),
-						timeFrameHostEnergy);
+						timeFrameDatacenterEnergy);
 			}
-
-			Log.formatLine(
-					"\n%.2f: Data center's energy is %.2f W*sec\n",
-					currentTime,
-					timeFrameDatacenterEnergy);
 		}
 
 		setPower(getPower() + timeFrameDatacenterEnergy);
@@ -235,11 +399,14 @@ public class PowerDatacenter extends Datacenter {
 			for (Vm vm : host.getCompletedVms()) {
 				getVmAllocationPolicy().deallocateHostForVm(vm);
 				getVmList().remove(vm);
-				Log.printLine("VM #" + vm.getId() + " has been deallocated from host #" + host.getId());
+				Log.printConcatLine(Log.Category.POWER, Log.Level.DEBUG, "VM #", vm.getId(),
+						" has been deallocated from host #", host.getId());
 			}
 		}
 
-		Log.printLine();
+		if (debug) {
+			Log.printLine();
+		}
 
 		setLastProcessTime(currentTime);
 		return minTime;
@@ -254,8 +421,8 @@ public class PowerDatacenter extends Datacenter {
 	protected void processVmMigrate(SimEvent ev, boolean ack) {
 		updateCloudetProcessingWithoutSchedulingFutureEvents();
 		super.processVmMigrate(ev, ack);
-		SimEvent event = CloudSim.findFirstDeferred(getId(), new PredicateType(CloudSimTags.VM_MIGRATE));
-		if (event == null || event.eventTime() > CloudSim.clock()) {
+		SimEvent event = getSimulation().findFirstDeferred(getId(), new PredicateType(CloudSimTags.VM_MIGRATE));
+		if (event == null || event.eventTime() > getSimulation().clock()) {
 			updateCloudetProcessingWithoutSchedulingFutureEventsForce();
 		}
 	}
@@ -267,7 +434,7 @@ public class PowerDatacenter extends Datacenter {
 	@Override
 	protected void processCloudletSubmit(SimEvent ev, boolean ack) {
 		super.processCloudletSubmit(ev, ack);
-		setCloudletSubmitted(CloudSim.clock());
+		setCloudletSubmitted(getSimulation().clock());
 	}
 
 	/**
@@ -340,6 +507,42 @@ public class PowerDatacenter extends Datacenter {
 		this.cloudletSubmitted = cloudletSubmitted;
 	}
 
+	/**
+	 * Checks if the scheduling intervals in which nothing changes are skipped.
+	 * 
+	 * @return true, if the scheduling intervals in which nothing changes are skipped
+	 */
+	public boolean isFastForward() {
+		return fastForward;
+	}
+
+	/**
+	 * Sets whether the scheduling intervals in which nothing changes are skipped. When the data
+	 * center is in a steady state (see {@link #getSteadyIntervals(double, double)}), it is updated
+	 * only at the end of the steady period instead of at the end of every scheduling interval. The
+	 * energy consumption, the progress of the cloudlets and the SLA violations are the same as
+	 * without skipping. The VM allocation policy is not called for the skipped intervals, so the
+	 * intervals are only skipped if the migrations are disabled or the policy does not depend on
+	 * the history of the hosts (see {@link VmAllocationPolicy#supportsFastForward()}); with the
+	 * adaptive policies, such as IQR, MAD, LR and LRR, the data center is updated at the end of
+	 * every scheduling interval.
+	 * 
+	 * @param fastForward whether the scheduling intervals in which nothing changes are skipped
+	 */
+	public void setFastForward(boolean fastForward) {
+		this.fastForward = fastForward;
+	}
+
+	/**
+	 * Gets the number of scheduling intervals that have been skipped.
+	 * 
+	 * @return the number of skipped scheduling intervals
+	 * @see #setFastForward(boolean)
+	 */
+	public long getSkippedIntervals() {
+		return skippedIntervals;
+	}
+
 	/**
 	 * Gets the migration count.
 	 * 
@@ -18,7 +18,6 @@ import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.core.CloudSimTags;
-import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
  * PowerDatacenterNonPowerAware is a class that represents a non-power aware data center in the
@@ -68,22 +67,27 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 	 */
 	@Override
 	protected void updateCloudletProcessing() {
-		if (getCloudletSubmitted() == -1 || getCloudletSubmitted() == CloudSim.clock()) {
-			CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.VM_DATACENTER_EVENT));
+		if (getCloudletSubmitted() == -1 || getCloudletSubmitted() == getSimulation().clock()) {
+			getSimulation().cancelAll(getId(), CloudSimTags.VM_DATACENTER_EVENT);
 			schedule(getId(), getSchedulingInterval(), CloudSimTags.VM_DATACENTER_EVENT);
 			return;
 		}
-		double currentTime = CloudSim.clock();
+		double currentTime = getSimulation().clock();
 		double timeframePower = 0.0;
 
 		if (currentTime > getLastProcessTime()) {
 			double timeDiff = currentTime - getLastProcessTime();
 			double minTime = Double.MAX_VALUE;
 
-			Log.printLine("\n");
+			boolean debug = Log.isEnabled(Log.Category.POWER, Log.Level.DEBUG);
+			if (debug) {
+				Log.printLine("\n");
+			}
 
 			for (PowerHost host : this.<PowerHost> getHostList()) {
-				Log.formatLine("%.2f: Host #%d", CloudSim.clock(), host.getId());
+				if (debug) {
+					Log.formatLine("%.2f: Host #%d", getSimulation().clock(), host.getId());
+				}
 
 				double hostPower = 0.0;
 
@@ -94,24 +98,29 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 					e.printStackTrace();
 				}
 
-				Log.formatLine(
-						"%.2f: Host #%d utilization is %.2f%%",
-						CloudSim.clock(),
-						host.getId(),
-						host.getUtilizationOfCpu() * 100);
-				Log.formatLine(
-						"%.2f: Host #%d energy is %.2f W*sec",
-						CloudSim.clock(),
-						host.getId(),
-						hostPower);
+				if (debug) {
+					Log.formatLine(
+							"%.2f: Host #%d utilization is %.2f%%",
+							getSimulation().clock(),
+							host.getId(),
+							host.getUtilizationOfCpu() * 100);
+					Log.formatLine(
+							"%.2f: Host #%d energy is %.2f W*sec",
+							getSimulation().clock(),
+							host.getId(),
+							hostPower);
+				}
 			}
 
-			Log.formatLine("\n%.2f: Consumed energy is %.2f W*sec\n", CloudSim.clock(), timeframePower);
-
-			Log.printLine("\n\n--------------------------------------------------------------\n\n");
+			if (debug) {
+				Log.formatLine("\n%.2f: Consumed energy is %.2f W*sec\n", getSimulation().clock(), timeframePower);
+				Log.printLine("\n\n--------------------------------------------------------------\n\n");
+			}
 
 			for (PowerHost host : this.<PowerHost> getHostList()) {
-				Log.formatLine("\n%.2f: Host #%d", CloudSim.clock(), host.getId());
+				if (debug) {
+					Log.formatLine("\n%.2f: Host #%d", getSimulation().clock(), host.getId());
+				}
 
 				double time = host.updateVmsProcessing(currentTime); // inform VMs to update
 																		// processing
@@ -129,11 +138,14 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 				for (Vm vm : host.getCompletedVms()) {
 					getVmAllocationPolicy().deallocateHostForVm(vm);
 					getVmList().remove(vm);
-					Log.printLine("VM #" + vm.getId() + " has been deallocated from host #" + host.getId());
+					Log.printConcatLine(Log.Category.POWER, Log.Level.DEBUG, "VM #", vm.getId(),
+							" has been deallocated from host #", host.getId());
 				}
 			}
 
-			Log.printLine();
+			if (debug) {
+				Log.printLine();
+			}
 
 			if (!isDisableMigrations()) {
 				List<Map<String, Object>> migrationMap = getVmAllocationPolicy().optimizeAllocation(
@@ -147,14 +159,18 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 
 						if (oldHost == null) {
 							Log.formatLine(
+									Log.Category.POWER,
+									Log.Level.DEBUG,
 									"%.2f: Migration of VM #%d to Host #%d is started",
-									CloudSim.clock(),
+									getSimulation().clock(),
 									vm.getId(),
 									targetHost.getId());
 						} else {
 							Log.formatLine(
+									Log.Category.POWER,
+									Log.Level.DEBUG,
 									"%.2f: Migration of VM #%d from Host #%d to Host #%d is started",
-									CloudSim.clock(),
+									getSimulation().clock(),
 									vm.getId(),
 									oldHost.getId(),
 									targetHost.getId());
@@ -175,8 +191,8 @@ public class PowerDatacenterNonPowerAware extends PowerDatacenter {
 
 			// schedules an event to the next time
 			if (minTime != Double.MAX_VALUE) {
-				CloudSim.cancelAll(getId(), new PredicateType(CloudSimTags.VM_DATACENTER_EVENT));
-				// CloudSim.cancelAll(getId(), CloudSim.SIM_ANY);
+				getSimulation().cancelAll(getId(), CloudSimTags.VM_DATACENTER_EVENT);
+				// getSimulation().cancelAll(getId(), CloudSim.SIM_ANY);
 				send(getId(), getSchedulingInterval(), CloudSimTags.VM_DATACENTER_EVENT);
 			}
 
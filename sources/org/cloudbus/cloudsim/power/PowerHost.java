@@ -78,8 +78,7 @@ public class PowerHost extends HostDynamicWorkload {
 		try {
 			power = getPowerModel().getPower(utilization);
 		} catch (Exception e) {
-			e.printStackTrace();
-			System.exit(0);
+			throw new IllegalStateException(e);
 		}
 		return power;
 	}
@@ -94,8 +93,7 @@ public class PowerHost extends HostDynamicWorkload {
 		try {
 			power = getPowerModel().getPower(1);
 		} catch (Exception e) {
-			e.printStackTrace();
-			System.exit(0);
+			throw new IllegalStateException(e);
 		}
 		return power;
 	}
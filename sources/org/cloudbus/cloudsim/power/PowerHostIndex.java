@@ -0,0 +1,516 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.cloudbus.cloudsim.Host;
+
+/**
+ * An index over the hosts of a VM allocation policy, which the host selection strategies share to
+ * find candidate hosts for a VM without scanning all the hosts. The hosts are identified by their
+ * position in the host list of the policy, which is also the order in which the strategies break
+ * ties.
+ * <p>
+ * The index keeps the available MIPS and RAM of each host in two segment trees of their maxima:
+ * one over the hosts in list order, and one over the hosts in decreasing order of power efficiency
+ * (total MIPS per watt at full utilization). A query descends only into the subtrees that may hold
+ * a host with enough available MIPS, so that finding the next candidate takes O(log H). The hosts
+ * can also be walked in increasing order of available MIPS, for best-fit strategies.
+ * <p>
+ * The index does not follow the hosts by itself: {@link #refresh()} reads all the hosts again, and
+ * {@link #update(Host)} reads a host whose allocation has changed. The host selection strategies
+ * expect the index to be up to date when they are called, and the policy updates a host after
+ * allocating a VM to it.
+ *
+ * @see HostSelectionStrategy
+ * @since CloudSim Toolkit 3.1
+ */
+public class PowerHostIndex {
+
+	/** The hosts, by position. */
+	private final PowerHost[] hosts;
+
+	/** The positions of the hosts. */
+	private final Map<Host, Integer> positions = new HashMap<Host, Integer>();
+
+	/** The power efficiencies of the hosts, by position. */
+	private final double[] powerEfficiencies;
+
+	/** The positions of the hosts in decreasing order of power efficiency. */
+	private final int[] powerEfficiencyOrder;
+
+	/** The ranks of the hosts in decreasing order of power efficiency, by position. */
+	private final int[] powerEfficiencyRanks;
+
+	/** The available MIPS of the hosts, by position. */
+	private final double[] availableMips;
+
+	/** The available RAM of the hosts, by position. */
+	private final double[] availableRam;
+
+	/** The tree over the hosts in list order. */
+	private final MaxTree listTree;
+
+	/** The tree over the hosts in decreasing order of power efficiency. */
+	private final MaxTree powerEfficiencyTree;
+
+	/** The keys of the hosts in the available MIPS order, by position. */
+	private final AvailableMipsKey[] availableMipsKeys;
+
+	/** The hosts in increasing order of available MIPS, built when first walked after a refresh. */
+	private TreeSet<AvailableMipsKey> availableMipsOrder;
+
+	/** The number of times the index has been refreshed. */
+	private long refreshCount;
+
+	/**
+	 * Instantiates a new index over hosts. The index has to be refreshed before it is queried.
+	 *
+	 * @param hostList the hosts
+	 */
+	public PowerHostIndex(List<? extends PowerHost> hostList) {
+		int size = hostList.size();
+		hosts = hostList.toArray(new PowerHost[size]);
+		powerEfficiencies = new double[size];
+		for (int i = 0; i < size; i++) {
+			positions.put(hosts[i], i);
+			powerEfficiencies[i] = hosts[i].getTotalMips() / hosts[i].getMaxPower();
+		}
+
+		Integer[] order = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer a, Integer b) {
+				int result = Double.compare(powerEfficiencies[b], powerEfficiencies[a]);
+				return result != 0 ? result : a.compareTo(b);
+			}
+		});
+		powerEfficiencyOrder = new int[size];
+		powerEfficiencyRanks = new int[size];
+		for (int rank = 0; rank < size; rank++) {
+			powerEfficiencyOrder[rank] = order[rank];
+			powerEfficiencyRanks[order[rank]] = rank;
+		}
+
+		availableMips = new double[size];
+		availableRam = new double[size];
+		availableMipsKeys = new AvailableMipsKey[size];
+		listTree = new MaxTree(size);
+		powerEfficiencyTree = new MaxTree(size);
+	}
+
+	/**
+	 * Reads the available MIPS and RAM of all the hosts again.
+	 */
+	public void refresh() {
+		for (int i = 0; i < hosts.length; i++) {
+			read(i);
+			listTree.set(i, availableMips[i], availableRam[i]);
+			powerEfficiencyTree.set(powerEfficiencyRanks[i], availableMips[i], availableRam[i]);
+		}
+		listTree.build();
+		powerEfficiencyTree.build();
+		availableMipsOrder = null;
+		refreshCount++;
+	}
+
+	/**
+	 * Reads the available MIPS and RAM of a host again, after its allocation has changed.
+	 *
+	 * @param host the host
+	 * @throws IllegalArgumentException if the host is not indexed
+	 */
+	public void update(Host host) {
+		int position = getPosition(host);
+		if (availableMipsOrder != null) {
+			availableMipsOrder.remove(availableMipsKeys[position]);
+		}
+		read(position);
+		if (availableMipsOrder != null) {
+			availableMipsOrder.add(availableMipsKeys[position]);
+		}
+		listTree.update(position, availableMips[position], availableRam[position]);
+		powerEfficiencyTree.update(
+				powerEfficiencyRanks[position],
+				availableMips[position],
+				availableRam[position]);
+	}
+
+	/**
+	 * Gets the number of times the index has been refreshed, which lets the strategies tell whether
+	 * what they derived from the index is still current.
+	 *
+	 * @return the refresh count
+	 */
+	public long getRefreshCount() {
+		return refreshCount;
+	}
+
+	/**
+	 * Gets the number of hosts.
+	 *
+	 * @return the number of hosts
+	 */
+	public int size() {
+		return hosts.length;
+	}
+
+	/**
+	 * Gets a host.
+	 *
+	 * @param position the position of the host
+	 * @return the host
+	 */
+	public PowerHost getHost(int position) {
+		return hosts[position];
+	}
+
+	/**
+	 * Gets the position of a host.
+	 *
+	 * @param host the host
+	 * @return the position
+	 * @throws IllegalArgumentException if the host is not indexed
+	 */
+	public int getPosition(Host host) {
+		Integer position = positions.get(host);
+		if (position == null) {
+			throw new IllegalArgumentException("Host #" + host.getId() + " is not indexed");
+		}
+		return position;
+	}
+
+	/**
+	 * Gets the power efficiency of a host, that is its total MIPS per watt at full utilization.
+	 *
+	 * @param position the position of the host
+	 * @return the power efficiency
+	 */
+	public double getPowerEfficiency(int position) {
+		return powerEfficiencies[position];
+	}
+
+	/**
+	 * Gets the available MIPS of a host, as last read.
+	 *
+	 * @param position the position of the host
+	 * @return the available MIPS
+	 */
+	public double getAvailableMips(int position) {
+		return availableMips[position];
+	}
+
+	/**
+	 * Gets the available RAM of a host, as last read.
+	 *
+	 * @param position the position of the host
+	 * @return the available RAM
+	 */
+	public double getAvailableRam(int position) {
+		return availableRam[position];
+	}
+
+	/**
+	 * Finds the next host in list order with at least some available MIPS.
+	 *
+	 * @param from the position to start from
+	 * @param mips the MIPS
+	 * @return the position of the host, or -1 if there is none
+	 */
+	public int nextWithAvailableMips(int from, double mips) {
+		return listTree.next(from, mips, 0, 0, Double.NEGATIVE_INFINITY);
+	}
+
+	/**
+	 * Finds the next host in list order with at least some available MIPS, whose available MIPS
+	 * and RAM weighted by non-negative weights sum to more than a threshold. A host with a dot
+	 * product not above the threshold is never returned, so that a strategy maximizing the dot
+	 * product skips all the hosts that cannot beat its current best host.
+	 *
+	 * @param from the position to start from
+	 * @param mips the MIPS
+	 * @param mipsWeight the weight of the available MIPS
+	 * @param ramWeight the weight of the available RAM
+	 * @param threshold the threshold
+	 * @return the position of the host, or -1 if there is none
+	 * @throws IllegalArgumentException if a weight is negative
+	 */
+	public int nextWithDotProductAbove(
+			int from,
+			double mips,
+			double mipsWeight,
+			double ramWeight,
+			double threshold) {
+		if (!(mipsWeight >= 0) || !(ramWeight >= 0)) {
+			throw new IllegalArgumentException("The weights should not be negative, but are: " + mipsWeight
+					+ " and " + ramWeight);
+		}
+		return listTree.next(from, mips, mipsWeight, ramWeight, threshold);
+	}
+
+	/**
+	 * Finds the next host in decreasing order of power efficiency, ties broken by list order, with
+	 * at least some available MIPS.
+	 *
+	 * @param fromRank the rank to start from
+	 * @param mips the MIPS
+	 * @return the rank of the host, or -1 if there is none
+	 */
+	public int nextByPowerEfficiency(int fromRank, double mips) {
+		return powerEfficiencyTree.next(fromRank, mips, 0, 0, Double.NEGATIVE_INFINITY);
+	}
+
+	/**
+	 * Gets the position of a host from its rank in decreasing order of power efficiency.
+	 *
+	 * @param rank the rank
+	 * @return the position of the host
+	 */
+	public int getPositionByPowerEfficiency(int rank) {
+		return powerEfficiencyOrder[rank];
+	}
+
+	/**
+	 * Finds the next host in increasing order of available MIPS, ties broken by increasing
+	 * available RAM and then by list order. The walk starts after a key rather than after a host,
+	 * so that it carries on when the host last returned has been updated in the meantime.
+	 *
+	 * @param mips the available MIPS of the key
+	 * @param ram the available RAM of the key, or {@link Double#NEGATIVE_INFINITY} to find the
+	 *            first host with at least the available MIPS of the key
+	 * @param position the position of the key
+	 * @return the position of the host, or -1 if there is none
+	 */
+	public int nextByAvailableMips(double mips, double ram, int position) {
+		if (availableMipsOrder == null) {
+			availableMipsOrder = new TreeSet<AvailableMipsKey>(Arrays.asList(availableMipsKeys));
+		}
+		AvailableMipsKey key = availableMipsOrder.higher(new AvailableMipsKey(mips, ram, position));
+		return key == null ? -1 : key.position;
+	}
+
+	/**
+	 * Reads the available MIPS and RAM of a host.
+	 *
+	 * @param position the position of the host
+	 */
+	private void read(int position) {
+		availableMips[position] = hosts[position].getAvailableMips();
+		availableRam[position] = hosts[position].getAvailableRam();
+		availableMipsKeys[position] = new AvailableMipsKey(
+				availableMips[position],
+				availableRam[position],
+				position);
+	}
+
+	/**
+	 * The key of a host in increasing order of available MIPS.
+	 */
+	private static class AvailableMipsKey implements Comparable<AvailableMipsKey> {
+
+		/** The available MIPS. */
+		private final double mips;
+
+		/** The available RAM. */
+		private final double ram;
+
+		/** The position of the host. */
+		private final int position;
+
+		/**
+		 * Instantiates a new key.
+		 *
+		 * @param mips the available MIPS
+		 * @param ram the available RAM
+		 * @param position the position of the host
+		 */
+		public AvailableMipsKey(double mips, double ram, int position) {
+			this.mips = mips;
+			this.ram = ram;
+			this.position = position;
+		}
+
+		@Override
+		public int compareTo(AvailableMipsKey other) {
+			int result = Double.compare(mips, other.mips);
+			if (result == 0) {
+				result = Double.compare(ram, other.ram);
+			}
+			if (result == 0) {
+				result = position < other.position ? -1 : (position == other.position ? 0 : 1);
+			}
+			return result;
+		}
+
+	}
+
+	/**
+	 * A segment tree of the maxima of the available MIPS and RAM of a sequence of hosts.
+	 */
+	private static class MaxTree {
+
+		/** The number of leaves. */
+		private final int size;
+
+		/** The index of the first leaf. */
+		private final int leaves;
+
+		/** The maximum available MIPS of each node. */
+		private final double[] mips;
+
+		/** The maximum available RAM of each node. */
+		private final double[] ram;
+
+		/**
+		 * Instantiates a new tree.
+		 *
+		 * @param size the number of leaves
+		 */
+		public MaxTree(int size) {
+			this.size = size;
+			int leaves = 1;
+			while (leaves < size) {
+				leaves *= 2;
+			}
+			this.leaves = leaves;
+			mips = new double[2 * leaves];
+			ram = new double[2 * leaves];
+			Arrays.fill(mips, Double.NEGATIVE_INFINITY);
+			Arrays.fill(ram, Double.NEGATIVE_INFINITY);
+		}
+
+		/**
+		 * Sets a leaf without updating its ancestors, which {@link #build()} does for all the
+		 * leaves.
+		 *
+		 * @param index the index of the leaf
+		 * @param availableMips the available MIPS
+		 * @param availableRam the available RAM
+		 */
+		public void set(int index, double availableMips, double availableRam) {
+			mips[leaves + index] = availableMips;
+			ram[leaves + index] = availableRam;
+		}
+
+		/**
+		 * Updates the inner nodes from the leaves.
+		 */
+		public void build() {
+			for (int node = leaves - 1; node > 0; node--) {
+				pull(node);
+			}
+		}
+
+		/**
+		 * Sets a leaf and updates its ancestors.
+		 *
+		 * @param index the index of the leaf
+		 * @param availableMips the available MIPS
+		 * @param availableRam the available RAM
+		 */
+		public void update(int index, double availableMips, double availableRam) {
+			set(index, availableMips, availableRam);
+			for (int node = (leaves + index) / 2; node > 0; node /= 2) {
+				pull(node);
+			}
+		}
+
+		/**
+		 * Finds the first leaf from an index on that may hold enough MIPS and whose weighted sum of
+		 * MIPS and RAM is above a threshold. A subtree is skipped when its maxima do not satisfy
+		 * the conditions, which with non-negative weights bound those of its leaves.
+		 *
+		 * @param from the index to start from
+		 * @param minMips the minimum MIPS
+		 * @param mipsWeight the weight of the MIPS
+		 * @param ramWeight the weight of the RAM
+		 * @param threshold the threshold
+		 * @return the index of the leaf, or -1 if there is none
+		 */
+		public int next(int from, double minMips, double mipsWeight, double ramWeight, double threshold) {
+			if (from < 0 || from >= size) {
+				return -1;
+			}
+			int node = leaves + from;
+			// climb until a node covering leaves from the start index may match
+			while (!matches(node, minMips, mipsWeight, ramWeight, threshold)) {
+				// move to the next subtree to the right, climbing while the node is a right child
+				while (node % 2 == 1) {
+					node /= 2;
+					if (node == 0) {
+						return -1;
+					}
+				}
+				node++;
+			}
+			// descend to the leftmost matching leaf
+			while (node < leaves) {
+				node *= 2;
+				if (!matches(node, minMips, mipsWeight, ramWeight, threshold)) {
+					node++;
+					if (!matches(node, minMips, mipsWeight, ramWeight, threshold)) {
+						// the bound of the parent was loose, carry on to the right of it
+						return next(rightmostLeaf(node) + 1, minMips, mipsWeight, ramWeight, threshold);
+					}
+				}
+			}
+			int index = node - leaves;
+			return index < size ? index : -1;
+		}
+
+		/**
+		 * Checks whether a node may hold a matching leaf.
+		 *
+		 * @param node the node
+		 * @param minMips the minimum MIPS
+		 * @param mipsWeight the weight of the MIPS
+		 * @param ramWeight the weight of the RAM
+		 * @param threshold the threshold
+		 * @return true, if the node may hold a matching leaf
+		 */
+		private boolean matches(int node, double minMips, double mipsWeight, double ramWeight, double threshold) {
+			return mips[node] >= minMips && mipsWeight * mips[node] + ramWeight * ram[node] > threshold;
+		}
+
+		/**
+		 * Gets the index of the rightmost leaf of a node.
+		 *
+		 * @param node the node
+		 * @return the index of the leaf
+		 */
+		private int rightmostLeaf(int node) {
+			while (node < leaves) {
+				node = 2 * node + 1;
+			}
+			return node - leaves;
+		}
+
+		/**
+		 * Updates a node from its children.
+		 *
+		 * @param node the node
+		 */
+		private void pull(int node) {
+			mips[node] = Math.max(mips[2 * node], mips[2 * node + 1]);
+			ram[node] = Math.max(ram[2 * node], ram[2 * node + 1]);
+		}
+
+	}
+
+}
@@ -34,6 +34,24 @@ import org.cloudbus.cloudsim.util.MathUtil;
  */
 public class PowerHostUtilizationHistory extends PowerHost {
 
+	/**
+	 * The CPU utilization history of the host, summed from the histories of its VMs up to the
+	 * values they had when it was last synchronized.
+	 */
+	private final SortedUtilizationHistory utilizationHistory = new SortedUtilizationHistory(PowerVm.HISTORY_LENGTH);
+
+	/** The VMs of the host when the utilization history was last synchronized. */
+	private PowerVm[] syncedVms = new PowerVm[0];
+
+	/** The number of values added to the history of each VM when it was last synchronized. */
+	private long[] syncedCounts = new long[0];
+
+	/** The MIPS of each VM when the utilization history was last synchronized. */
+	private double[] syncedVmMips = new double[0];
+
+	/** The MIPS of the host when the utilization history was last synchronized. */
+	private double syncedHostMips;
+
 	/**
 	 * Instantiates a new power host utilization history.
 	 * 
@@ -57,19 +75,102 @@ public class PowerHostUtilizationHistory extends PowerHost {
 	}
 
 	/**
-	 * Gets the host utilization history.
+	 * Gets the host utilization history. The history is kept up to date with the histories of the
+	 * VMs as they grow: a value is added once for each sampling of the VMs, and the whole history is
+	 * only summed again when the VMs of the host change. The VMs placed on the host since, such as
+	 * a VM placed there to check whether the host would be over-utilized with it, are added when
+	 * the history is read. The array returned is a new one, which the caller may modify.
 	 * 
 	 * @return the host utilization history
 	 */
 	protected double[] getUtilizationHistory() {
-		double[] utilizationHistory = new double[PowerVm.HISTORY_LENGTH];
+		List<PowerVm> vms = this.<PowerVm> getVmList();
+		int synced = updateUtilizationHistory(vms);
+		double[] history = utilizationHistory.toDoubleArray();
 		double hostMips = getTotalMips();
-		for (PowerVm vm : this.<PowerVm> getVmList()) {		
-			for (int i = 0; i < vm.getUtilizationHistory().size(); i++) {
-				utilizationHistory[i] += vm.getUtilizationHistory().get(i) * vm.getMips() / hostMips;
+		for (int i = synced; i < vms.size(); i++) {
+			PowerVm vm = vms.get(i);
+			UtilizationHistory vmUtilizationHistory = vm.getUtilizationHistory();
+			for (int j = 0; j < vmUtilizationHistory.size(); j++) {
+				history[j] += vmUtilizationHistory.getValue(j) * vm.getMips() / hostMips;
 			}
 		}
-		return MathUtil.trimZeroTail(utilizationHistory);
+		return MathUtil.trimZeroTail(history);
+	}
+
+	/**
+	 * Gets the host utilization history kept sorted, if it holds the same values as the array
+	 * returned by {@link #getUtilizationHistory()}: that is, if all the VMs of the host are summed in
+	 * the history and its oldest value is not zero, so that no zero is trimmed from the array.
+	 * 
+	 * @return the sorted host utilization history, or null if the array has to be read instead
+	 */
+	protected SortedUtilizationHistory getSortedUtilizationHistory() {
+		List<PowerVm> vms = this.<PowerVm> getVmList();
+		if (updateUtilizationHistory(vms) < vms.size()) {
+			return null;
+		}
+		int size = utilizationHistory.size();
+		if (size == 0 || utilizationHistory.getValue(size - 1) == 0) {
+			return null;
+		}
+		return utilizationHistory;
+	}
+
+	/**
+	 * Brings the utilization history of the host up to date with the histories of its VMs. If the
+	 * VMs of the last update are still the first VMs of the host and each of them has added the
+	 * same number of values since, only these values are summed and added to the history of the
+	 * host; the VMs placed after them are left out until the VMs add values again. Otherwise, such
+	 * as when a VM was migrated from the host, the whole history of the host is summed again.
+	 * 
+	 * @param vms the VMs of the host
+	 * @return the number of the first VMs of the host summed in the history
+	 */
+	private int updateUtilizationHistory(List<PowerVm> vms) {
+		int n = vms.size();
+		int m = syncedVms.length;
+		double hostMips = getTotalMips();
+		boolean sumAll = n < m || (m == 0 && n > 0) || hostMips != syncedHostMips;
+		long samples = 0;
+		for (int i = 0; i < m && !sumAll; i++) {
+			PowerVm vm = vms.get(i);
+			long vmSamples = vm.getUtilizationHistory().getCount() - syncedCounts[i];
+			if (vm != syncedVms[i] || vm.getMips() != syncedVmMips[i] || (i > 0 && vmSamples != samples)) {
+				sumAll = true;
+			}
+			samples = vmSamples;
+		}
+		if (!sumAll && samples == 0) {
+			return m;
+		}
+		if (sumAll || n > m || samples > utilizationHistory.getCapacity()) {
+			utilizationHistory.clear();
+			samples = utilizationHistory.getCapacity();
+		}
+		for (int i = (int) samples - 1; i >= 0; i--) {
+			double utilization = 0;
+			for (PowerVm vm : vms) {
+				if (i < vm.getUtilizationHistory().size()) {
+					utilization += vm.getUtilizationHistory().getValue(i) * vm.getMips() / hostMips;
+				}
+			}
+			utilizationHistory.addValue(utilization);
+		}
+
+		if (m != n) {
+			syncedVms = new PowerVm[n];
+			syncedCounts = new long[n];
+			syncedVmMips = new double[n];
+		}
+		for (int i = 0; i < n; i++) {
+			PowerVm vm = vms.get(i);
+			syncedVms[i] = vm;
+			syncedCounts[i] = vm.getUtilizationHistory().getCount();
+			syncedVmMips[i] = vm.getMips();
+		}
+		syncedHostMips = hostMips;
+		return n;
 	}
 	
 	/** --------------------------------------------------------- */
@@ -82,8 +183,9 @@ public class PowerHostUtilizationHistory extends PowerHost {
 		double[] utilizationHistory = new double[PowerVm.HISTORY_LENGTH];
 		double hostRam = getRam();
 		for (PowerVm vm : this.<PowerVm> getVmList()) {		
-			for (int i = 0; i < vm.getRamUtilizationHistory().size(); i++) {
-				utilizationHistory[i] += vm.getRamUtilizationHistory().get(i) * vm.getCurrentAllocatedRam() / hostRam;
+			UtilizationHistory vmUtilizationHistory = vm.getRamUtilizationHistory();
+			for (int i = 0; i < vmUtilizationHistory.size(); i++) {
+				utilizationHistory[i] += vmUtilizationHistory.getValue(i) * getAllocatedRamForVm(vm) / hostRam;
 			}
 		}
 		return MathUtil.trimZeroTail(utilizationHistory);
@@ -103,8 +205,9 @@ public class PowerHostUtilizationHistory extends PowerHost {
 		double hostBW = getRam();
 	
 		for (PowerVm vm : this.<PowerVm> getVmList()) {		
-			for (int i = 0; i < vm.getBWUtilizationHistory().size(); i++) {
-				utilizationHistory[i] += vm.getBWUtilizationHistory().get(i) * vm.getCurrentRequestedBw() / hostBW;
+			UtilizationHistory vmUtilizationHistory = vm.getBWUtilizationHistory();
+			for (int i = 0; i < vmUtilizationHistory.size(); i++) {
+				utilizationHistory[i] += vmUtilizationHistory.getValue(i) * vm.getCurrentRequestedBw() / hostBW;
 			}
 		}
 		return MathUtil.trimZeroTail(utilizationHistory);
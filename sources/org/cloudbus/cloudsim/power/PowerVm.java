@@ -8,14 +8,11 @@
 
 package org.cloudbus.cloudsim.power;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import org.cloudbus.cloudsim.CloudletScheduler;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
-import org.cloudbus.cloudsim.core.CloudSim;
-import org.cloudbus.cloudsim.util.MathUtil;
 
 /**
  * The class of a VM that stores its CPU utilization history. The history is used by VM allocation
@@ -38,16 +35,16 @@ public class PowerVm extends Vm {
 	public static final int HISTORY_LENGTH = 30;
 
 	/** The utilization history. */
-	private final List<Double> utilizationHistory = new LinkedList<Double>();
+	private final SortedUtilizationHistory utilizationHistory = new SortedUtilizationHistory(HISTORY_LENGTH);
 
 	
 
 	/** The Ram utilization history. */
-	private final List<Double> RamutilizationHistory = new LinkedList<Double>();
+	private final UtilizationHistory RamutilizationHistory = new UtilizationHistory(HISTORY_LENGTH);
 	
 
 	/** The BW utilization history. */
-	private final List<Double> BWutilizationHistory = new LinkedList<Double>();
+	private final UtilizationHistory BWutilizationHistory = new UtilizationHistory(HISTORY_LENGTH);
 	
 	/** The previous time. */
 	private double previousTime;
@@ -106,7 +103,7 @@ public class PowerVm extends Vm {
 			double ramUtilization = getTotalUtilizationOfRam(getCloudletScheduler().getPreviousTime());
 			double bwUrilization = getTotalUtilizationOfBW(getCloudletScheduler().getPreviousTime());
 			
-			if (CloudSim.clock() != 0 || utilization != 0 || ramUtilization != 0 || bwUrilization !=0 ) {
+			if (getHost().getSimulation().clock() != 0 || utilization != 0 || ramUtilization != 0 || bwUrilization !=0 ) {
 				addUtilizationHistoryValue(utilization);
 				addRamUtilizationHistoryValue(ramUtilization);
 				addBWUtilizationHistoryValue(bwUrilization);
@@ -116,26 +113,30 @@ public class PowerVm extends Vm {
 		return time;
 	}
 
+	/**
+	 * Updates the utilization histories as {@link #updateVmProcessing(double, List)} would have at
+	 * the end of a scheduling interval in which the VM was not updated because its utilization did
+	 * not change (see {@link PowerDatacenter#setFastForward(boolean)}).
+	 * 
+	 * @param currentTime the end of the skipped scheduling interval
+	 */
+	public void updateSkippedUtilizationHistory(final double currentTime) {
+		if (currentTime > getPreviousTime() && (currentTime - 0.1) % getSchedulingInterval() == 0) {
+			double time = getCloudletScheduler().getPreviousTime();
+			addUtilizationHistoryValue(getTotalUtilizationOfCpu(time));
+			addRamUtilizationHistoryValue(getTotalUtilizationOfRam(time));
+			addBWUtilizationHistoryValue(getTotalUtilizationOfBW(time));
+			setPreviousTime(currentTime);
+		}
+	}
+
 	/**
 	 * Gets the utilization MAD in MIPS.
 	 * 
 	 * @return the utilization mean in MIPS
 	 */
 	public double getUtilizationMad() {
-		double mad = 0;
-		if (!getUtilizationHistory().isEmpty()) {
-			int n = HISTORY_LENGTH;
-			if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-				n = getUtilizationHistory().size();
-			}
-			double median = MathUtil.median(getUtilizationHistory());
-			double[] deviationSum = new double[n];
-			for (int i = 0; i < n; i++) {
-				deviationSum[i] = Math.abs(median - getUtilizationHistory().get(i));
-			}
-			mad = MathUtil.median(deviationSum);
-		}
-		return mad;
+		return getUtilizationHistory().getMad();
 	}
 
 	/**
@@ -145,13 +146,11 @@ public class PowerVm extends Vm {
 	 */
 	public double getUtilizationMean() {
 		double mean = 0;
-		if (!getUtilizationHistory().isEmpty()) {
-			int n = HISTORY_LENGTH;
-			if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-				n = getUtilizationHistory().size();
-			}
+		UtilizationHistory history = getUtilizationHistory();
+		int n = history.size();
+		if (n > 0) {
 			for (int i = 0; i < n; i++) {
-				mean += getUtilizationHistory().get(i);
+				mean += history.getValue(i);
 			}
 			mean /= n;
 		}
@@ -166,13 +165,11 @@ public class PowerVm extends Vm {
 	public double getUtilizationVariance() {
 		double mean = getUtilizationMean();
 		double variance = 0;
-		if (!getUtilizationHistory().isEmpty()) {
-			int n = HISTORY_LENGTH;
-			if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-				n = getUtilizationHistory().size();
-			}
+		UtilizationHistory history = getUtilizationHistory();
+		int n = history.size();
+		if (n > 0) {
 			for (int i = 0; i < n; i++) {
-				double tmp = getUtilizationHistory().get(i) * getMips() - mean;
+				double tmp = history.getValue(i) * getMips() - mean;
 				variance += tmp * tmp;
 			}
 			variance /= n;
@@ -186,11 +183,7 @@ public class PowerVm extends Vm {
 	 * @param utilization the utilization
 	 */
 	public void addUtilizationHistoryValue(final double utilization) {
-		getUtilizationHistory().add(0, utilization);
-	
-		if (getUtilizationHistory().size() > HISTORY_LENGTH) {
-			getUtilizationHistory().remove(HISTORY_LENGTH);
-		}
+		getUtilizationHistory().addValue(utilization);
 	}
 	
 	/**
@@ -198,7 +191,7 @@ public class PowerVm extends Vm {
 	 * 
 	 * @return the utilization history
 	 */
-	protected List<Double> getUtilizationHistory() {
+	protected SortedUtilizationHistory getUtilizationHistory() {
 		return utilizationHistory;
 	}
 	
@@ -209,18 +202,14 @@ public class PowerVm extends Vm {
 	 * @param utilization the utilization
 	 */
 	public void addRamUtilizationHistoryValue(final double RamUtilization) {
-		getRamUtilizationHistory().add(0, RamUtilization);
-	
-		if (getRamUtilizationHistory().size() > HISTORY_LENGTH) {
-			getRamUtilizationHistory().remove(HISTORY_LENGTH);
-		}
+		getRamUtilizationHistory().addValue(RamUtilization);
 	}
 	/**
 	 * Gets the utilization history.
 	 * 
 	 * @return the utilization history
 	 */
-	protected List<Double> getRamUtilizationHistory() {
+	protected UtilizationHistory getRamUtilizationHistory() {
 		return RamutilizationHistory;
 	}
 	/** ---------------------------------------------------- */
@@ -231,11 +220,7 @@ public class PowerVm extends Vm {
 	 * @param utilization the utilization
 	 */
 	public void addBWUtilizationHistoryValue(final double BWUtilization) {
-		getBWUtilizationHistory().add(0, BWUtilization);
-	
-		if (getBWUtilizationHistory().size() > HISTORY_LENGTH) {
-			getBWUtilizationHistory().remove(HISTORY_LENGTH);
-		}
+		getBWUtilizationHistory().addValue(BWUtilization);
 	}
 	
 	/**
@@ -243,7 +228,7 @@ public class PowerVm extends Vm {
 	 * 
 	 * @return the utilization history
 	 */
-	protected List<Double> getBWUtilizationHistory() {
+	protected UtilizationHistory getBWUtilizationHistory() {
 		return BWutilizationHistory;
 	}
 	/** ---------------------------------------------------- */
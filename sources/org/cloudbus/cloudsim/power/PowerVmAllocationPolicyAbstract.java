@@ -8,14 +8,13 @@
 
 package org.cloudbus.cloudsim.power;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
+import org.cloudbus.cloudsim.VmMap;
 import org.cloudbus.cloudsim.core.CloudSim;
 
 /**
@@ -35,7 +34,7 @@ import org.cloudbus.cloudsim.core.CloudSim;
 public abstract class PowerVmAllocationPolicyAbstract extends VmAllocationPolicy {
 
 	/** The vm table. */
-	private final Map<String, Host> vmTable = new HashMap<String, Host>();
+	private final VmMap<Host> vmTable = new VmMap<Host>();
 
 	/**
 	 * Instantiates a new power vm allocation policy abstract.
@@ -63,19 +62,28 @@ public abstract class PowerVmAllocationPolicyAbstract extends VmAllocationPolicy
 	@Override
 	public boolean allocateHostForVm(Vm vm, Host host) {
 		if (host == null) {
-			Log.formatLine("%.2f: No suitable host found for VM #" + vm.getId() + "\n", CloudSim.clock());
+			Log.formatLine(Log.Category.POWER, Log.Level.WARNING, "%.2f: No suitable host found for VM #%d\n",
+					CloudSim.clock(), vm.getId());
 			return false;
 		}
 		if (host.vmCreate(vm)) { // if vm has been succesfully created in the host
-			getVmTable().put(vm.getUid(), host);
+			getVmTable().put(vm.getKey(), host);
 			Log.formatLine(
-					"%.2f: VM #" + vm.getId() + " has been allocated to the host #" + host.getId(),
-					CloudSim.clock());
+					Log.Category.POWER,
+					Log.Level.DEBUG,
+					"%.2f: VM #%d has been allocated to the host #%d",
+					host.getSimulation().clock(),
+					vm.getId(),
+					host.getId());
 			return true;
 		}
 		Log.formatLine(
-				"%.2f: Creation of VM #" + vm.getId() + " on the host #" + host.getId() + " failed\n",
-				CloudSim.clock());
+				Log.Category.POWER,
+				Log.Level.WARNING,
+				"%.2f: Creation of VM #%d on the host #%d failed\n",
+				host.getSimulation().clock(),
+				vm.getId(),
+				host.getId());
 		return false;
 	}
 
@@ -100,7 +108,7 @@ public abstract class PowerVmAllocationPolicyAbstract extends VmAllocationPolicy
 	 */
 	@Override
 	public void deallocateHostForVm(Vm vm) {
-		Host host = getVmTable().remove(vm.getUid());
+		Host host = getVmTable().remove(vm.getKey());
 		if (host != null) {
 			host.vmDestroy(vm);
 		}
@@ -112,7 +120,7 @@ public abstract class PowerVmAllocationPolicyAbstract extends VmAllocationPolicy
 	 */
 	@Override
 	public Host getHost(Vm vm) {
-		return getVmTable().get(vm.getUid());
+		return getVmTable().get(vm.getKey());
 	}
 
 	/*
@@ -121,7 +129,7 @@ public abstract class PowerVmAllocationPolicyAbstract extends VmAllocationPolicy
 	 */
 	@Override
 	public Host getHost(int vmId, int userId) {
-		return getVmTable().get(Vm.getUid(userId, vmId));
+		return getVmTable().get(Vm.getKey(userId, vmId));
 	}
 
 	/**
@@ -129,7 +137,7 @@ public abstract class PowerVmAllocationPolicyAbstract extends VmAllocationPolicy
 	 * 
 	 * @return the vm table
 	 */
-	public Map<String, Host> getVmTable() {
+	public VmMap<Host> getVmTable() {
 		return vmTable;
 	}
 
@@ -9,18 +9,22 @@
 package org.cloudbus.cloudsim.power;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.HostDynamicWorkload;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
 import org.cloudbus.cloudsim.power.lists.PowerVmList;
 import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
 
@@ -44,8 +48,23 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	/** The vm selection policy. */
 	private PowerVmSelectionPolicy vmSelectionPolicy;
 
-	/** The saved allocation. */
-	private final List<Map<String, Object>> savedAllocation = new ArrayList<Map<String, Object>>();
+	/** The host selection strategy. */
+	private HostSelectionStrategy hostSelectionStrategy = new HostSelectionStrategyMaximumDotProduct();
+
+	/** The host selection strategy of the VMs migrated from the under-utilized hosts. */
+	private HostSelectionStrategy underUtilizedHostSelectionStrategy = new HostSelectionStrategyMinimumPowerIncrease();
+
+	/** The index of the hosts, created when first used. */
+	private PowerHostIndex hostIndex;
+
+	/** The pool that checks the hosts for over-utilization in parallel, or null. */
+	private ForkJoinPool overUtilizationDetectionPool = null;
+
+	/** The VMs of each host changed by the optimization of the allocation, before the change. */
+	private final Map<Host, List<Vm>> savedAllocation = new HashMap<Host, List<Vm>>();
+
+	/** The number of allocation changes of each host when the allocation was saved. */
+	private long[] savedAllocationChanges = new long[0];
 
 	/** The utilization history. */
 	private final Map<Integer, List<Double>> utilizationHistory = new HashMap<Integer, List<Double>>();
@@ -105,13 +124,13 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		List<? extends Vm> vmsToMigrate = getVmsToMigrateFromHosts(overUtilizedHosts);
 		getExecutionTimeHistoryVmSelection().add(ExecutionTimeMeasurer.end("optimizeAllocationVmSelection"));
 
-		Log.printLine("Reallocation of VMs from the over-utilized hosts:");
+		Log.printConcatLine(Log.Category.POWER, Log.Level.DEBUG, "Reallocation of VMs from the over-utilized hosts:");
 		ExecutionTimeMeasurer.start("optimizeAllocationVmReallocation");
 		List<Map<String, Object>> migrationMap = getNewVmPlacement(vmsToMigrate, new HashSet<Host>(
 				overUtilizedHosts));
 		getExecutionTimeHistoryVmReallocation().add(
 				ExecutionTimeMeasurer.end("optimizeAllocationVmReallocation"));
-		Log.printLine();
+		Log.printConcatLine(Log.Category.POWER, Log.Level.DEBUG);
 
 		migrationMap.addAll(getMigrationMapFromUnderUtilizedHosts(overUtilizedHosts));
 
@@ -156,7 +175,8 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 				break;
 			}
 
-			Log.printLine("Under-utilized host: host #" + underUtilizedHost.getId() + "\n");
+			Log.printConcatLine(Log.Category.POWER, Log.Level.DEBUG, "Under-utilized host: host #",
+					underUtilizedHost.getId(), "\n");
 
 			excludedHostsForFindingUnderUtilizedHost.add(underUtilizedHost);
 			excludedHostsForFindingNewVmPlacement.add(underUtilizedHost);
@@ -166,13 +186,13 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 				continue;
 			}
 
-			Log.print("Reallocation of VMs from the under-utilized host: ");
-			if (!Log.isDisabled()) {
+			if (Log.isEnabled(Log.Category.POWER, Log.Level.DEBUG)) {
+				Log.print("Reallocation of VMs from the under-utilized host: ");
 				for (Vm vm : vmsToMigrateFromUnderUtilizedHost) {
 					Log.print(vm.getId() + " ");
 				}
+				Log.printLine();
 			}
-			Log.printLine();
 
 			List<Map<String, Object>> newVmPlacement = getNewVmPlacementFromUnderUtilizedHost(
 					vmsToMigrateFromUnderUtilizedHost,
@@ -181,7 +201,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 			excludedHostsForFindingUnderUtilizedHost.addAll(extractHostListFromMigrationMap(newVmPlacement));
 
 			migrationMap.addAll(newVmPlacement);
-			Log.printLine();
+			Log.printConcatLine(Log.Category.POWER, Log.Level.DEBUG);
 		}
 
 		return migrationMap;
@@ -193,7 +213,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 * @param overUtilizedHosts the over utilized hosts
 	 */
 	protected void printOverUtilizedHosts(List<PowerHostUtilizationHistory> overUtilizedHosts) {
-		if (!Log.isDisabled()) {
+		if (Log.isEnabled(Log.Category.POWER, Log.Level.DEBUG)) {
 			Log.printLine("Over-utilized hosts:");
 			for (PowerHostUtilizationHistory host : overUtilizedHosts) {
 				Log.printLine("Host #" + host.getId());
@@ -245,32 +265,21 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 * @return the power host
 	 */
 	public PowerHost findHostBased_MFVMP(Vm vm, Set<? extends Host> excludedHosts) {
-		double minDotProduct = Double.MAX_VALUE;
-		PowerHost allocatedHost = null;
+		return findHostForVm(vm, excludedHosts, new HostSelectionStrategyMaximumDotProduct());
+	}
 
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			if (excludedHosts.contains(host)) {
-				continue;
-			}
-			if (host.isSuitableForVm(vm)) {
-				if (getUtilizationOfCpuMips(host) != 0 && getUtilizationOfRam(host) !=0 && isHostOverUtilizedAfterAllocation(host, vm)) {
-					continue;
-				}
-				
-				try {
-					double dtProduct = dotProduct(host, vm);
-					if(dtProduct > minDotProduct)
-					{
-						minDotProduct = dtProduct;
-						allocatedHost = host;
-					}
-				} catch (Exception e) {
-				}
-			}
-		}
-		return allocatedHost;
+	/**
+	 * Finds a host for a vm with a host selection strategy, after refreshing the host index.
+	 * 
+	 * @param vm the vm
+	 * @param excludedHosts the excluded hosts
+	 * @param strategy the host selection strategy
+	 * @return the power host
+	 */
+	protected PowerHost findHostForVm(Vm vm, Set<? extends Host> excludedHosts, HostSelectionStrategy strategy) {
+		getHostIndex().refresh();
+		return strategy.findHostForVm(this, getHostIndex(), vm, excludedHosts);
 	}
-	
 
 	/**
 	 * Find host for vm.
@@ -280,43 +289,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 * @return the power host
 	 */
 	public PowerHost findHostBased_MBFD(Vm vm, Set<? extends Host> excludedHosts) {
-		double minCPU = Double.MAX_VALUE;
-		double inactiveCPU = Double.MAX_VALUE;
-		PowerHost allocatedHost = null;
-		PowerHost inactiveHost = null;
-
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			if (excludedHosts.contains(host)) {
-				continue;
-			}
-			if (host.isSuitableForVm(vm)) {				
-				if (getUtilizationOfCpuMips(host) != 0 && isHostOverUtilizedAfterAllocation(host, vm)) {
-					continue;
-				}
-				
-				double availableCPU = host.getAvailableMips();
-				if(host.getUtilizationMips() == 0) {			
-					if (availableCPU < inactiveCPU ) {
-						inactiveCPU = availableCPU;
-						inactiveHost = host;
-						}	
-					continue;
-					}			
-				
-				if (availableCPU < minCPU ) {
-					minCPU = availableCPU;
-					allocatedHost = host;
-					}
-				else if (availableCPU == minCPU ) {
-					if (host.getRamProvisioner().getAvailableRam() < allocatedHost.getRamProvisioner().getAvailableRam()) {
-						allocatedHost = host;							
-					}
-				}
-				
-			}
-		}
-		
-		return (allocatedHost!=null) ?allocatedHost:inactiveHost;
+		return findHostForVm(vm, excludedHosts, new HostSelectionStrategyMinimumAvailableMips());
 	}
 	
 	/**
@@ -327,36 +300,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 * @return the power host
 	 */
 	public PowerHost findHostBased_MFPED(Vm vm, Set<? extends Host> excludedHosts) {
-		double minDiff = Double.MAX_VALUE;
-		PowerHost allocatedHost = null;
-
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			if (excludedHosts.contains(host)) {
-				continue;
-			}
-			if (host.isSuitableForVm(vm)) {
-				double utilization = host.getUtilizationOfCpu();
-				if ( getUtilizationOfCpuMips(host)!= 0 && isHostOverUtilizedAfterAllocation(host, vm)) {
-					continue;
-				}
-				
-				double diff = Math.abs(utilization - 0.60);
-				try {
-					if (diff < minDiff ) {
-						minDiff = diff;
-						allocatedHost = host;
-						}
-					if (diff == minDiff) {
-						if (allocatedHost.getTotalMips()/allocatedHost.getMaxPower() < host.getTotalMips()/host.getMaxPower()) allocatedHost = host;
-					} 
-									
-					
-				} catch (Exception e) {
-				}
-			}
-		}
-		
-		return allocatedHost;
+		return findHostForVm(vm, excludedHosts, new HostSelectionStrategyClosestUtilization());
 	}
 	
 	/**
@@ -367,43 +311,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 * @return the power host
 	 */
 	public PowerHost findHostBased_PEBFD(Vm vm, Set<? extends Host> excludedHosts) {
-		double bestPowerEfficiency = Double.MIN_VALUE;
-		double inactiveEff = Double.MIN_VALUE;
-		PowerHost allocatedHost = null;
-		PowerHost inactiveHost = null;
-
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			if (excludedHosts.contains(host)) {
-				continue;
-			}
-			if (host.isSuitableForVm(vm)) {
-				if (getUtilizationOfCpuMips(host) != 0 && isHostOverUtilizedAfterAllocation(host, vm)) {
-					continue;
-				}
-				
-			try {
-				double powerEfficiency = host.getTotalMips() / host.getMaxPower();
-				if(host.getUtilizationMips() == 0) {			
-					if (powerEfficiency > inactiveEff ) {
-						inactiveEff = powerEfficiency;
-						inactiveHost = host;
-						}	
-					continue;
-					}				
-
-			       if (powerEfficiency > bestPowerEfficiency) {
-			    	   bestPowerEfficiency = powerEfficiency;
-			           allocatedHost = host;
-			            }
-			       else if (powerEfficiency == bestPowerEfficiency) {
-			    	   if(host.getAvailableMips() < allocatedHost.getAvailableMips()) allocatedHost = host;  
-			            }
-										
-					} catch (Exception e) {
-				}
-			}
-		}
-		return (allocatedHost!=null) ?allocatedHost:inactiveHost;
+		return findHostForVm(vm, excludedHosts, new HostSelectionStrategyPowerEfficiencyBestFit());
 	}
 	
 	/**
@@ -414,54 +322,24 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 * @return the power host
 	 */
 	public PowerHost findHostBased_PEFFD(Vm vm, Set<? extends Host> excludedHosts) {
-		double bestPowerEfficiency = Double.MIN_VALUE;
-		double inactiveEff = Double.MIN_VALUE;
-		PowerHost allocatedHost = null;
-		PowerHost inactiveHost = null;
-
-		for (PowerHost host : this.<PowerHost> getHostList()) {
-			if (excludedHosts.contains(host)) {
-				continue;
-			}
-			if (host.isSuitableForVm(vm)) {
-				if (getUtilizationOfCpuMips(host) != 0 && isHostOverUtilizedAfterAllocation(host, vm)) {
-					continue;
-				}
-				
-			try {
-				double powerEfficiency = host.getTotalMips() / host.getMaxPower();
-				if(host.getUtilizationMips() == 0) {			
-					if (powerEfficiency > inactiveEff ) {
-						inactiveEff = powerEfficiency;
-						inactiveHost = host;
-						}	
-					continue;
-					}				
-
-			       if (powerEfficiency > bestPowerEfficiency) {
-			    	   bestPowerEfficiency = powerEfficiency;
-			           allocatedHost = host;
-			            }
-										
-					} catch (Exception e) {
-				}
-			}
-		}
-		return (allocatedHost!=null) ?allocatedHost:inactiveHost;
+		return findHostForVm(vm, excludedHosts, new HostSelectionStrategyPowerEfficiencyFirstFit());
 	}
 
 	/**
-	 * Checks if is host over utilized after allocation.
+	 * Checks if is host over utilized after allocation. The VM is only tentatively created in the
+	 * host, as the over-utilization checks read the VMs of the host rather than the MIPS allocated
+	 * to them, so that the scheduler of the host is neither updated nor rolled back.
 	 * 
 	 * @param host the host
 	 * @param vm the vm
 	 * @return true, if is host over utilized after allocation
+	 * @see Host#vmCreateTentative(Vm)
 	 */
 	protected boolean isHostOverUtilizedAfterAllocation(PowerHost host, Vm vm) {
 		boolean isHostOverUtilizedAfterAllocation = true;
-		if (host.vmCreate(vm)) {
+		if (host.vmCreateTentative(vm)) {
 			isHostOverUtilizedAfterAllocation = isHostOverUtilized(host);
-			host.vmDestroy(vm);
+			host.vmDestroyTentative(vm);
 		}
 		return isHostOverUtilizedAfterAllocation;
 	}
@@ -523,20 +401,19 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 
 		//Step.3. Placement
 		
+		getHostIndex().refresh();
 		for (Vm vm : vmsToMigrate) {
-			
-			//PowerHost allocatedHost = findHostForVm(vm, excludedHosts);
-			PowerHost allocatedHost = findHostBased_MFVMP(vm, excludedHosts);
-			
-			
-			//PowerHost allocatedHost = findHostBased_PEFFD(vm, excludedHosts);
-						//PowerHost allocatedHost = findHostBased_MBFD(vm, excludedHosts);
-			//PowerHost allocatedHost = findHostBased_MFPED(vm, excludedHosts);
-			//PowerHost allocatedHost = findHostBased_PEBFD(vm, excludedHosts);
-			
+			PowerHost allocatedHost = getHostSelectionStrategy().findHostForVm(
+					this,
+					getHostIndex(),
+					vm,
+					excludedHosts);
 			if (allocatedHost != null) {
+				saveAllocation(allocatedHost);
 				allocatedHost.vmCreate(vm);
-				Log.printLine("VM #" + vm.getId() + " allocated to host #" + allocatedHost.getId());
+				getHostIndex().update(allocatedHost);
+				Log.printConcatLine(Log.Category.POWER, Log.Level.DEBUG, "VM #", vm.getId(),
+						" allocated to host #", allocatedHost.getId());
 
 				Map<String, Object> migrate = new HashMap<String, Object>();
 				migrate.put("vm", vm);
@@ -559,20 +436,30 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 			Set<? extends Host> excludedHosts) {
 		List<Map<String, Object>> migrationMap = new LinkedList<Map<String, Object>>();
 		PowerVmList.sortByCpuUtilization(vmsToMigrate);
+		getHostIndex().refresh();
 		for (Vm vm : vmsToMigrate) {
-			PowerHost allocatedHost = findHostForVm(vm, excludedHosts);
+			PowerHost allocatedHost = getUnderUtilizedHostSelectionStrategy().findHostForVm(
+					this,
+					getHostIndex(),
+					vm,
+					excludedHosts);
 			if (allocatedHost != null) {
+				saveAllocation(allocatedHost);
 				allocatedHost.vmCreate(vm);
-				Log.printLine("VM #" + vm.getId() + " allocated to host #" + allocatedHost.getId());
+				getHostIndex().update(allocatedHost);
+				Log.printConcatLine(Log.Category.POWER, Log.Level.DEBUG, "VM #", vm.getId(),
+						" allocated to host #", allocatedHost.getId());
 
 				Map<String, Object> migrate = new HashMap<String, Object>();
 				migrate.put("vm", vm);
 				migrate.put("host", allocatedHost);
 				migrationMap.add(migrate);
 			} else {
-				Log.printLine("Not all VMs can be reallocated from the host, reallocation cancelled");
+				Log.printConcatLine(Log.Category.POWER, Log.Level.DEBUG,
+						"Not all VMs can be reallocated from the host, reallocation cancelled");
 				for (Map<String, Object> map : migrationMap) {
 					((Host) map.get("host")).vmDestroy((Vm) map.get("vm"));
+					getHostIndex().update((Host) map.get("host"));
 				}
 				migrationMap.clear();
 				break;
@@ -598,6 +485,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 					break;
 				}
 				vmsToMigrate.add(vm);
+				saveAllocation(host);
 				host.vmDestroy(vm);
 				if (!isHostOverUtilized(host)) {
 					break;
@@ -630,9 +518,38 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 */
 	protected List<PowerHostUtilizationHistory> getOverUtilizedHosts() {
 		List<PowerHostUtilizationHistory> overUtilizedHosts = new LinkedList<PowerHostUtilizationHistory>();
-		for (PowerHostUtilizationHistory host : this.<PowerHostUtilizationHistory> getHostList()) {
-			if (isHostOverUtilized(host)) {
-				overUtilizedHosts.add(host);
+		if (overUtilizationDetectionPool == null) {
+			for (PowerHostUtilizationHistory host : this.<PowerHostUtilizationHistory> getHostList()) {
+				if (isHostOverUtilized(host)) {
+					overUtilizedHosts.add(host);
+				}
+			}
+			return overUtilizedHosts;
+		}
+
+		List<PowerHostUtilizationHistory> hosts = this.<PowerHostUtilizationHistory> getHostList();
+		boolean[] isOverUtilized = new boolean[hosts.size()];
+		// a VM in migration is on two hosts: the hosts it migrates to are checked first, so that
+		// the VMs read concurrently are each on one host only
+		BitSet checked = new BitSet(hosts.size());
+		for (int i = 0; i < hosts.size(); i++) {
+			if (!hosts.get(i).getVmsMigratingIn().isEmpty()) {
+				isOverUtilized[i] = isHostOverUtilized(hosts.get(i));
+				checked.set(i);
+			}
+		}
+		int batchSize = Math.max(1, hosts.size() / (overUtilizationDetectionPool.getParallelism() * 4));
+		overUtilizationDetectionPool.invoke(new OverUtilizationDetection(
+				CloudSim.getSimulation(),
+				hosts,
+				checked,
+				isOverUtilized,
+				0,
+				hosts.size(),
+				batchSize));
+		for (int i = 0; i < isOverUtilized.length; i++) {
+			if (isOverUtilized[i]) {
+				overUtilizedHosts.add(hosts.get(i));
 			}
 		}
 		return overUtilizedHosts;
@@ -705,12 +622,14 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	protected abstract boolean isHostOverUtilized(PowerHost host);
 
 	/**
-	 * Adds the history value.
+	 * Adds the history value. The histories are shared by the hosts, so the value is added under
+	 * the lock of the policy, as the hosts may be checked in parallel.
 	 * 
 	 * @param host the host
 	 * @param metric the metric
+	 * @see #setParallelOverUtilizationDetection(ForkJoinPool)
 	 */
-	protected void addHistoryEntry(HostDynamicWorkload host, double metric) {
+	protected synchronized void addHistoryEntry(HostDynamicWorkload host, double metric) {
 		int hostId = host.getId();
 		if (!getTimeHistory().containsKey(hostId)) {
 			getTimeHistory().put(hostId, new LinkedList<Double>());
@@ -721,8 +640,9 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		if (!getMetricHistory().containsKey(hostId)) {
 			getMetricHistory().put(hostId, new LinkedList<Double>());
 		}
-		if (!getTimeHistory().get(hostId).contains(CloudSim.clock())) {
-			getTimeHistory().get(hostId).add(CloudSim.clock());
+		double time = host.getSimulation().clock();
+		if (!getTimeHistory().get(hostId).contains(time)) {
+			getTimeHistory().get(hostId).add(time);
 			getUtilizationHistory().get(hostId).add(host.getUtilizationOfCpu());
 			getUtilizationHistory().get(hostId).add(host.getUtilizationOfRam());
 			getUtilizationHistory().get(hostId).add(host.getUtilizationOfBw());
@@ -731,42 +651,110 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	}
 
 	/**
-	 * Save allocation.
+	 * Save allocation. Only the number of allocation changes of each host is saved here: the VMs of
+	 * a host are saved by {@link #saveAllocation(Host)} when the host is first changed.
 	 */
 	protected void saveAllocation() {
 		getSavedAllocation().clear();
-		for (Host host : getHostList()) {
-			for (Vm vm : host.getVmList()) {
-				if (host.getVmsMigratingIn().contains(vm)) {
-					continue;
-				}
-				Map<String, Object> map = new HashMap<String, Object>();
-				map.put("host", host);
-				map.put("vm", vm);
-				getSavedAllocation().add(map);
+		List<Host> hosts = this.<Host> getHostList();
+		if (savedAllocationChanges.length != hosts.size()) {
+			savedAllocationChanges = new long[hosts.size()];
+		}
+		for (int i = 0; i < hosts.size(); i++) {
+			savedAllocationChanges[i] = hosts.get(i).getAllocationChanges();
+		}
+	}
+
+	/**
+	 * Saves the VMs of a host, other than the VMs migrating in, unless they are already saved. It
+	 * must be called before the optimization of the allocation first creates or destroys a VM in
+	 * the host; the VMs only tentatively created are rolled back by the host itself.
+	 * 
+	 * @param host the host
+	 */
+	protected void saveAllocation(Host host) {
+		if (getSavedAllocation().containsKey(host)) {
+			return;
+		}
+		List<Vm> vms = new ArrayList<Vm>(host.getVmList().size());
+		for (Vm vm : host.getVmList()) {
+			if (!host.getVmsMigratingIn().contains(vm)) {
+				vms.add(vm);
 			}
 		}
+		getSavedAllocation().put(host, vms);
 	}
 
 	/**
-	 * Restore allocation.
+	 * Restore allocation. The hosts whose VMs were saved are emptied and their saved VMs created
+	 * again, after their VMs migrating in. Creating the VMs again also allocates them the RAM and
+	 * BW they currently request, and puts the VMs migrating in first; so that the other hosts end
+	 * up the same, they are only allocated these RAM and BW again, and their VMs are given back
+	 * their host, which placing them elsewhere may have changed. The hosts whose VMs migrating in
+	 * are not their first VMs are created again as well.
 	 */
 	protected void restoreAllocation() {
-		for (Host host : getHostList()) {
-			host.vmDestroyAll();
-			host.reallocateMigratingInVms();
-		}
-		for (Map<String, Object> map : getSavedAllocation()) {
-			Vm vm = (Vm) map.get("vm");
-			PowerHost host = (PowerHost) map.get("host");
-			if (!host.vmCreate(vm)) {
-				Log.printLine("Couldn't restore VM #" + vm.getId() + " on host #" + host.getId());
-				System.exit(0);
+		List<Host> hosts = this.<Host> getHostList();
+		for (int i = 0; i < hosts.size(); i++) {
+			Host host = hosts.get(i);
+			boolean saved = getSavedAllocation().containsKey(host);
+			if (!saved && host.getAllocationChanges() != savedAllocationChanges[i]) {
+				throw new IllegalStateException("The VMs of host #" + host.getId()
+						+ " were changed without being saved");
+			}
+			if (saved || !hasVmsMigratingInFirst(host)) {
+				saveAllocation(host);
+				host.vmDestroyAll();
+				host.reallocateMigratingInVms();
+			}
+		}
+		for (Host host : hosts) {
+			if (getSavedAllocation().containsKey(host)) {
+				continue;
+			}
+			if (!host.reallocateRamAndBwForVms()) {
+				throw new IllegalStateException("Couldn't restore the VMs on host #" + host.getId());
+			}
+			List<Vm> vms = host.getVmList();
+			for (int i = host.getVmsMigratingIn().size(); i < vms.size(); i++) {
+				vms.get(i).setHost(host);
+			}
+		}
+		for (Host host : hosts) {
+			List<Vm> vms = getSavedAllocation().get(host);
+			if (vms == null) {
+				continue;
+			}
+			for (Vm vm : vms) {
+				if (!host.vmCreate(vm)) {
+					throw new IllegalStateException("Couldn't restore VM #" + vm.getId() + " on host #"
+							+ host.getId());
+				}
+				getVmTable().put(vm.getKey(), host);
 			}
-			getVmTable().put(vm.getUid(), host);
 		}
 	}
 
+	/**
+	 * Checks whether the VMs migrating in a host are its first VMs, in the same order.
+	 * 
+	 * @param host the host
+	 * @return true, if the VMs migrating in come first
+	 */
+	private static boolean hasVmsMigratingInFirst(Host host) {
+		List<Vm> vmsMigratingIn = host.getVmsMigratingIn();
+		List<Vm> vms = host.getVmList();
+		if (vms.size() < vmsMigratingIn.size()) {
+			return false;
+		}
+		for (int i = 0; i < vmsMigratingIn.size(); i++) {
+			if (vms.get(i) != vmsMigratingIn.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Gets the power after allocation.
 	 * 
@@ -780,8 +768,7 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		try {
 			power = host.getPowerModel().getPower(getMaxUtilizationAfterAllocation(host, vm));
 		} catch (Exception e) {
-			e.printStackTrace();
-			System.exit(0);
+			throw new IllegalStateException(e);
 		}
 		return power;
 	}
@@ -824,61 +811,37 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 * @return the utilization of the CPU in MIPS
 	 */
 	protected double getUtilizationOfCpuMips(PowerHost host) {
-		double hostUtilizationMips = 0;
-		for (Vm vm2 : host.getVmList()) {
-			if (host.getVmsMigratingIn().contains(vm2)) {
-				// calculate additional potential CPU usage of a migrating in VM
-				hostUtilizationMips += host.getTotalAllocatedMipsForVm(vm2) * 0.9 / 0.1;
-			}
-			hostUtilizationMips += host.getTotalAllocatedMipsForVm(vm2);
-		}
-		return hostUtilizationMips;
+		return host.getPotentialAllocatedMips();
 	}
 	
 	/**
-	 * Gets the utilization of the CPU in MIPS for the current potentially allocated VMs.
+	 * Gets the utilization of the RAM for the current potentially allocated VMs.
 	 *
 	 * @param host the host
 	 *
-	 * @return the utilization of the CPU in MIPS
+	 * @return the utilization of the RAM
 	 */
 	protected double getUtilizationOfRam(PowerHost host) {
-		double hostUtilizationRam = 0;
-		for (Vm vm2 : host.getVmList()) {
-			if (host.getVmsMigratingIn().contains(vm2)) {
-				// calculate additional potential Ram usage of a migrating in VM
-				hostUtilizationRam += host.getRamProvisioner().getAllocatedRamForVm(vm2) * 0.9 / 0.1;
-			}
-			hostUtilizationRam += host.getRamProvisioner().getAllocatedRamForVm(vm2);
-		}
-		return hostUtilizationRam;
+		return host.getPotentialAllocatedRam();
 	}
 
 	/**
-	 * Gets the utilization of the CPU in MIPS for the current potentially allocated VMs.
+	 * Gets the utilization of the BW for the current potentially allocated VMs.
 	 *
 	 * @param host the host
 	 *
-	 * @return the utilization of the CPU in MIPS
+	 * @return the utilization of the BW
 	 */
 	protected double getUtilizationOfBw(PowerHost host) {
-		double hostUtilizationBw = 0;
-		for (Vm vm2 : host.getVmList()) {
-			if (host.getVmsMigratingIn().contains(vm2)) {
-				// calculate additional potential Ram usage of a migrating in VM
-				hostUtilizationBw += host.getBwProvisioner().getAllocatedBwForVm(vm2) * 0.9 / 0.1;
-			}
-			hostUtilizationBw += host.getRamProvisioner().getAllocatedRamForVm(vm2);
-		}
-		return hostUtilizationBw;
+		return host.getPotentialAllocatedBw();
 	}
 	
 	/**
 	 * Gets the saved allocation.
 	 * 
-	 * @return the saved allocation
+	 * @return the saved VMs of each host changed by the optimization of the allocation
 	 */
-	protected List<Map<String, Object>> getSavedAllocation() {
+	protected Map<Host, List<Vm>> getSavedAllocation() {
 		return savedAllocation;
 	}
 
@@ -900,6 +863,95 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		return vmSelectionPolicy;
 	}
 
+	/**
+	 * Sets the host selection strategy, which selects the hosts of the VMs migrated from the
+	 * over-utilized hosts. The default strategy is {@link HostSelectionStrategyMaximumDotProduct}.
+	 * 
+	 * @param hostSelectionStrategy the host selection strategy
+	 * @throws IllegalArgumentException if the strategy is null
+	 */
+	public void setHostSelectionStrategy(HostSelectionStrategy hostSelectionStrategy) {
+		if (hostSelectionStrategy == null) {
+			throw new IllegalArgumentException("The host selection strategy should not be null");
+		}
+		this.hostSelectionStrategy = hostSelectionStrategy;
+	}
+
+	/**
+	 * Gets the host selection strategy.
+	 * 
+	 * @return the host selection strategy
+	 */
+	public HostSelectionStrategy getHostSelectionStrategy() {
+		return hostSelectionStrategy;
+	}
+
+	/**
+	 * Sets the host selection strategy of the VMs migrated from the under-utilized hosts. The
+	 * default strategy is {@link HostSelectionStrategyMinimumPowerIncrease}, which places them with
+	 * {@link #findHostForVm(Vm, Set)} as the policy always did, whatever the strategy of the VMs
+	 * migrated from the over-utilized hosts.
+	 * 
+	 * @param underUtilizedHostSelectionStrategy the host selection strategy
+	 * @throws IllegalArgumentException if the strategy is null
+	 */
+	public void setUnderUtilizedHostSelectionStrategy(HostSelectionStrategy underUtilizedHostSelectionStrategy) {
+		if (underUtilizedHostSelectionStrategy == null) {
+			throw new IllegalArgumentException("The host selection strategy should not be null");
+		}
+		this.underUtilizedHostSelectionStrategy = underUtilizedHostSelectionStrategy;
+	}
+
+	/**
+	 * Gets the host selection strategy of the VMs migrated from the under-utilized hosts.
+	 * 
+	 * @return the host selection strategy
+	 */
+	public HostSelectionStrategy getUnderUtilizedHostSelectionStrategy() {
+		return underUtilizedHostSelectionStrategy;
+	}
+
+	/**
+	 * Sets the pool used to check the hosts for over-utilization in parallel, or <tt>null</tt> to
+	 * check them sequentially, which is the default.
+	 * <p>
+	 * The hosts are split into batches that {@link #isHostOverUtilized(PowerHost)} checks
+	 * concurrently, bound to the simulation of the calling thread, and the over-utilized hosts are
+	 * still returned in the order of the host list, so the results are the same as in a sequential
+	 * run. The hosts that VMs are migrating to are checked sequentially beforehand, as these VMs
+	 * are also on their source hosts. The check of a host must therefore only read the host and its
+	 * VMs, and record its history entries through
+	 * {@link #addHistoryEntry(HostDynamicWorkload, double)}; the VMs must not share mutable state,
+	 * such as a utilization model. The policies of this package, including their fallback policies,
+	 * meet these conditions.
+	 * 
+	 * @param pool the pool, or <tt>null</tt>
+	 */
+	public void setParallelOverUtilizationDetection(ForkJoinPool pool) {
+		overUtilizationDetectionPool = pool;
+	}
+
+	/**
+	 * Gets the pool used to check the hosts for over-utilization in parallel.
+	 * 
+	 * @return the pool, or <tt>null</tt> if the hosts are checked sequentially
+	 */
+	public ForkJoinPool getParallelOverUtilizationDetection() {
+		return overUtilizationDetectionPool;
+	}
+
+	/**
+	 * Gets the index of the hosts, which the host selection strategies use.
+	 * 
+	 * @return the host index
+	 */
+	protected PowerHostIndex getHostIndex() {
+		if (hostIndex == null) {
+			hostIndex = new PowerHostIndex(this.<PowerHost> getHostList());
+		}
+		return hostIndex;
+	}
+
 	/**
 	 * Gets the utilization history.
 	 * 
@@ -963,4 +1015,96 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		return executionTimeHistoryTotal;
 	}
 
+	/**
+	 * Checks a range of hosts for over-utilization, bound to a simulation, splitting the range in
+	 * halves down to a batch size.
+	 */
+	private final class OverUtilizationDetection extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		/** The simulation. */
+		private final Simulation simulation;
+
+		/** The hosts. */
+		private final List<PowerHostUtilizationHistory> hosts;
+
+		/** The hosts already checked. */
+		private final BitSet checked;
+
+		/** Whether each host is over-utilized. */
+		private final boolean[] isOverUtilized;
+
+		/** The first host of the range. */
+		private final int from;
+
+		/** The end of the range, exclusive. */
+		private final int to;
+
+		/** The largest range checked without splitting it. */
+		private final int batchSize;
+
+		/**
+		 * Instantiates a new over-utilization detection.
+		 * 
+		 * @param simulation the simulation
+		 * @param hosts the hosts
+		 * @param checked the hosts already checked
+		 * @param isOverUtilized whether each host is over-utilized
+		 * @param from the first host of the range
+		 * @param to the end of the range, exclusive
+		 * @param batchSize the largest range checked without splitting it
+		 */
+		OverUtilizationDetection(
+				Simulation simulation,
+				List<PowerHostUtilizationHistory> hosts,
+				BitSet checked,
+				boolean[] isOverUtilized,
+				int from,
+				int to,
+				int batchSize) {
+			this.simulation = simulation;
+			this.hosts = hosts;
+			this.checked = checked;
+			this.isOverUtilized = isOverUtilized;
+			this.from = from;
+			this.to = to;
+			this.batchSize = batchSize;
+		}
+
+		/**
+		 * Instantiates a new over-utilization detection of a part of the range of another one.
+		 * 
+		 * @param parent the other detection
+		 * @param from the first host of the range
+		 * @param to the end of the range, exclusive
+		 */
+		OverUtilizationDetection(OverUtilizationDetection parent, int from, int to) {
+			this(parent.simulation, parent.hosts, parent.checked, parent.isOverUtilized, from, to, parent.batchSize);
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > batchSize) {
+				int middle = (from + to) >>> 1;
+				invokeAll(
+						new OverUtilizationDetection(this, from, middle),
+						new OverUtilizationDetection(this, middle, to));
+				return;
+			}
+			Simulation previous = CloudSim.getSimulation();
+			CloudSim.setSimulation(simulation);
+			try {
+				for (int i = from; i < to; i++) {
+					if (!checked.get(i)) {
+						isOverUtilized[i] = isHostOverUtilized(hosts.get(i));
+					}
+				}
+			} finally {
+				CloudSim.setSimulation(previous);
+			}
+		}
+
+	}
+
 }
@@ -13,7 +13,6 @@ import java.util.List;
 
 import org.apache.commons.math3.stat.regression.OLSMultipleLinearRegression;
 import org.cloudbus.cloudsim.Host;
-import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.util.MathUtil;
 
@@ -107,6 +106,13 @@ public class PowerVmAllocationPolicyMigrationInterQuartileRange extends
 	 * @return the host utilization iqr
 	 */
 	protected double getHostUtilizationIqr(PowerHostUtilizationHistory host) throws IllegalArgumentException {
+		SortedUtilizationHistory history = host.getSortedUtilizationHistory();
+		if (history != null) {
+			if (history.size() >= 12) { // 12 has been suggested as a safe value
+				return history.getIqr();
+			}
+			throw new IllegalArgumentException();
+		}
 		double[] data = host.getUtilizationHistory();
 		if (MathUtil.countNonZeroBeginning(data) >= 12) { // 12 has been suggested as a safe value
 			return MathUtil.iqr(data);
@@ -118,12 +124,12 @@ public class PowerVmAllocationPolicyMigrationInterQuartileRange extends
 	 * Sets the safety parameter.
 	 * 
 	 * @param safetyParameter the new safety parameter
+	 * @throws IllegalArgumentException if the safety parameter is less than zero
 	 */
 	protected void setSafetyParameter(double safetyParameter) {
 		if (safetyParameter < 0) {
-			Log.printLine("The safety parameter cannot be less than zero. The passed value is: "
-					+ safetyParameter);
-			System.exit(0);
+			throw new IllegalArgumentException(
+					"The safety parameter cannot be less than zero. The passed value is: " + safetyParameter);
 		}
 		this.safetyParameter = safetyParameter;
 	}
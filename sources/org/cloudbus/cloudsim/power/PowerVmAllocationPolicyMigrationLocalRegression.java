@@ -11,7 +11,6 @@ package org.cloudbus.cloudsim.power;
 import java.util.Arrays;
 import java.util.List;
 
-import org.apache.commons.math3.stat.regression.OLSMultipleLinearRegression;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
@@ -98,8 +97,6 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 		double[] bwUtilizationHistory = removeZeros(_host.getBWUtilizationHistory());
 
 		
-		OLSMultipleLinearRegression regression = new OLSMultipleLinearRegression();
-
 		final List<double[]> utiLizationList = Arrays.asList(utilizationHistory, ramUtilizationHistory, bwUtilizationHistory);
 
 		double x[][] = new double[utilizationHistory.length][3];
@@ -130,8 +127,7 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 			return getFallbackVmAllocationPolicy().isHostOverUtilized(host); 
 		}
 
-		regression.newSampleData(y, x); double[] estimates =
-		regression.estimateRegressionParameters();
+		double[] estimates = MathUtil.getMultipleLinearRegressionParameterEstimates(x, y);
 
 		double predictedUtilization = 0;
 		for (int i = 0; i < utilizationHistory.length; i++) { 
@@ -11,7 +11,6 @@ package org.cloudbus.cloudsim.power;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Host;
-import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.util.MathUtil;
 
@@ -105,6 +104,13 @@ public class PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation extends
 	 * @return the host utilization mad
 	 */
 	protected double getHostUtilizationMad(PowerHostUtilizationHistory host) throws IllegalArgumentException {
+		SortedUtilizationHistory history = host.getSortedUtilizationHistory();
+		if (history != null) {
+			if (history.size() >= 12) { // 12 has been suggested as a safe value
+				return history.getMad();
+			}
+			throw new IllegalArgumentException();
+		}
 		double[] data = host.getUtilizationHistory();
 		if (MathUtil.countNonZeroBeginning(data) >= 12) { // 12 has been suggested as a safe value
 			return MathUtil.mad(data);
@@ -116,12 +122,12 @@ public class PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation extends
 	 * Sets the safety parameter.
 	 * 
 	 * @param safetyParameter the new safety parameter
+	 * @throws IllegalArgumentException if the safety parameter is less than zero
 	 */
 	protected void setSafetyParameter(double safetyParameter) {
 		if (safetyParameter < 0) {
-			Log.printLine("The safety parameter cannot be less than zero. The passed value is: "
-					+ safetyParameter);
-			System.exit(0);
+			throw new IllegalArgumentException(
+					"The safety parameter cannot be less than zero. The passed value is: " + safetyParameter);
 		}
 		this.safetyParameter = safetyParameter;
 	}
@@ -11,7 +11,6 @@ package org.cloudbus.cloudsim.power;
 import java.util.Arrays;
 import java.util.List;
 
-import org.apache.commons.math3.stat.regression.OLSMultipleLinearRegression;
 import org.cloudbus.cloudsim.Host;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
@@ -92,8 +91,6 @@ public class PowerVmAllocationPolicyMigrationOrdinaryLeastSquareMultipleRegressi
 		double[] ramUtilizationHistory = removeZeros(_host.getRamUtilizationHistory());
 		double[] bwUtilizationHistory = removeZeros(_host.getBWUtilizationHistory());
 
-		OLSMultipleLinearRegression regression = new OLSMultipleLinearRegression();
-
 		final List<double[]> utiLizationList = Arrays.asList(utilizationHistory, ramUtilizationHistory, bwUtilizationHistory);
 
 		double x[][] = new double[utilizationHistory.length][3];
@@ -115,8 +112,7 @@ public class PowerVmAllocationPolicyMigrationOrdinaryLeastSquareMultipleRegressi
 			return getFallbackVmAllocationPolicy().isHostOverUtilized(host); 
 		}
 
-		regression.newSampleData(y, x); double[] estimates =
-		regression.estimateRegressionParameters();
+		double[] estimates = MathUtil.getMultipleLinearRegressionParameterEstimates(x, y);
 
 		double predictedUtilization = 0;
 		for (int i = 0; i < utilizationHistory.length; i++) { 
@@ -130,9 +126,7 @@ public class PowerVmAllocationPolicyMigrationOrdinaryLeastSquareMultipleRegressi
 	}
 
 	double[] calculateRegressionParams(double[][] x, double[] y) {
-		OLSMultipleLinearRegression ols = new OLSMultipleLinearRegression();
-		ols.newSampleData(y, x);
-		return ols.estimateRegressionParameters();
+		return MathUtil.getMultipleLinearRegressionParameterEstimates(x, y);
 	}
 
 	/**
@@ -82,4 +82,15 @@ public class PowerVmAllocationPolicyMigrationStaticThreshold extends PowerVmAllo
 		return utilizationThreshold;
 	}
 
+	/**
+	 * Checks whether the policy can be skipped while the utilization does not change, which it can
+	 * since a host is over-utilized only depending on its current utilization.
+	 * 
+	 * @return true
+	 */
+	@Override
+	public boolean supportsFastForward() {
+		return true;
+	}
+
 }
@@ -50,4 +50,13 @@ public class PowerVmAllocationPolicySimple extends PowerVmAllocationPolicyAbstra
 		return null;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.cloudbus.cloudsim.VmAllocationPolicy#supportsFastForward()
+	 */
+	@Override
+	public boolean supportsFastForward() {
+		return true;
+	}
+
 }
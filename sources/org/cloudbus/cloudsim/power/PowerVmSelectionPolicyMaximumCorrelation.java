@@ -85,9 +85,9 @@ public class PowerVmSelectionPolicyMaximumCorrelation extends PowerVmSelectionPo
 		int m = getMinUtilizationHistorySize(vmList);
 		double[][] utilization = new double[n][m];
 		for (int i = 0; i < n; i++) {
-			List<Double> vmUtilization = vmList.get(i).getUtilizationHistory();
+			UtilizationHistory vmUtilization = vmList.get(i).getUtilizationHistory();
 			for (int j = 0; j < vmUtilization.size(); j++) {
-				utilization[i][j] = vmUtilization.get(j);
+				utilization[i][j] = vmUtilization.getValue(j);
 			}
 		}
 		return utilization;
@@ -11,7 +11,6 @@ package org.cloudbus.cloudsim.power;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Vm;
-import org.cloudbus.cloudsim.core.CloudSim;
 
 /**
  * The Minimum Utilization (MU) VM selection policy.
@@ -43,11 +42,12 @@ public class PowerVmSelectionPolicyMinimumUtilization extends PowerVmSelectionPo
 		}
 		Vm vmToMigrate = null;
 		double minMetric = Double.MAX_VALUE;
+		double time = host.getSimulation().clock();
 		for (Vm vm : migratableVms) {
 			if (vm.isInMigration()) {
 				continue;
 			}
-			double metric = vm.getTotalUtilizationOfCpuMips(CloudSim.clock()) / vm.getMips();
+			double metric = vm.getTotalUtilizationOfCpuMips(time) / vm.getMips();
 			if (metric < minMetric) {
 				minMetric = metric;
 				vmToMigrate = vm;
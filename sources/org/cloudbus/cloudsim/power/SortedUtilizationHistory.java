@@ -0,0 +1,186 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.Arrays;
+
+import org.cloudbus.cloudsim.util.MathUtil;
+
+/**
+ * A utilization history that also keeps its values sorted, so that its median, median absolute
+ * deviation and interquartile range are read without sorting the history again. Adding a value
+ * finds the slots of the dropped and of the added values by a binary search and moves the values
+ * in between, which for the short histories of the power package is cheaper than the heaps or the
+ * skip lists used for long sliding windows.
+ * <p>
+ * The statistics are the ones {@link MathUtil#median(double[])}, {@link MathUtil#mad(double[])}
+ * and {@link MathUtil#iqr(double[])} give for the values of the history. For the few histories
+ * for which the order of the sorted values may not give the same result, such as histories
+ * holding NaN values, they are computed by these methods.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class SortedUtilizationHistory extends UtilizationHistory {
+
+	/** The values, sorted in ascending order. */
+	private final double[] sorted;
+
+	/**
+	 * Instantiates a new sorted utilization history.
+	 *
+	 * @param capacity the number of values kept
+	 */
+	public SortedUtilizationHistory(int capacity) {
+		super(capacity);
+		sorted = new double[capacity];
+	}
+
+	/**
+	 * Adds the latest value, dropping the oldest one if the history is full.
+	 *
+	 * @param value the value
+	 */
+	@Override
+	public void addValue(double value) {
+		int n = size();
+		if (n == getCapacity()) {
+			int slot = Arrays.binarySearch(sorted, 0, n, getValue(n - 1));
+			System.arraycopy(sorted, slot + 1, sorted, slot, n - slot - 1);
+			n--;
+		}
+		int slot = Arrays.binarySearch(sorted, 0, n, value);
+		if (slot < 0) {
+			slot = -slot - 1;
+		}
+		System.arraycopy(sorted, slot, sorted, slot + 1, n - slot);
+		sorted[slot] = value;
+		super.addValue(value);
+	}
+
+	/**
+	 * Gets the median of the values, as {@link MathUtil#median(double[])} does.
+	 *
+	 * @return the median
+	 */
+	public double getMedian() {
+		int n = size();
+		// the median selected among zeros of both signs may not be the sorted one
+		if (n == 0 || Double.isNaN(sorted[n - 1]) || Arrays.binarySearch(sorted, 0, n, -0.0) >= 0) {
+			return MathUtil.median(toDoubleArray());
+		}
+		if (n == 1) {
+			return sorted[0];
+		}
+		double pos = 50.0 * (n + 1.0) / 100.0;
+		double fpos = Math.floor(pos);
+		int intPos = (int) fpos;
+		double lower = sorted[intPos - 1];
+		return lower + (pos - fpos) * (sorted[intPos] - lower);
+	}
+
+	/**
+	 * Gets the median absolute deviation of the values, as {@link MathUtil#mad(double[])} does.
+	 * The deviations of the values not greater than the median decrease with the values, and the
+	 * ones of the other values increase with them, so that the median of the deviations is found by
+	 * a binary search over these two sorted sequences.
+	 *
+	 * @return the median absolute deviation
+	 */
+	public double getMad() {
+		int n = size();
+		if (n == 0) {
+			return 0;
+		}
+		if (!isFinite(sorted[0]) || !isFinite(sorted[n - 1])) {
+			return MathUtil.mad(toDoubleArray());
+		}
+		double median = sorted[0];
+		if (n > 1) {
+			double pos = 50.0 * (n + 1.0) / 100.0;
+			double fpos = Math.floor(pos);
+			int intPos = (int) fpos;
+			double lower = sorted[intPos - 1];
+			median = lower + (pos - fpos) * (sorted[intPos] - lower);
+		}
+		int split = 0;
+		int end = n;
+		while (split < end) {
+			int middle = (split + end) >>> 1;
+			if (sorted[middle] <= median) {
+				split = middle + 1;
+			} else {
+				end = middle;
+			}
+		}
+		if (n == 1) {
+			return getDeviation(0, median, split);
+		}
+		double pos = 50.0 * (n + 1.0) / 100.0;
+		double fpos = Math.floor(pos);
+		int intPos = (int) fpos;
+		double lower = getDeviation(intPos - 1, median, split);
+		return lower + (pos - fpos) * (getDeviation(intPos, median, split) - lower);
+	}
+
+	/**
+	 * Gets the interquartile range of the values, as {@link MathUtil#iqr(double[])} does.
+	 *
+	 * @return the interquartile range
+	 */
+	public double getIqr() {
+		int n = size();
+		int q1 = (int) Math.round(0.25 * (n + 1)) - 1;
+		int q3 = (int) Math.round(0.75 * (n + 1)) - 1;
+		if (q1 < 0 || q3 >= n) {
+			return MathUtil.iqr(toDoubleArray());
+		}
+		return sorted[q3] - sorted[q1];
+	}
+
+	/**
+	 * Gets the k-th smallest absolute deviation of the values from the median.
+	 *
+	 * @param k the rank of the deviation, from 0
+	 * @param median the median
+	 * @param split the number of values not greater than the median
+	 * @return the deviation
+	 */
+	private double getDeviation(int k, double median, int split) {
+		// the number of deviations taken from the values not greater than the median
+		int low = Math.max(0, k + 1 - (size() - split));
+		int high = Math.min(k + 1, split);
+		while (low < high) {
+			int i = (low + high) >>> 1;
+			if (Math.abs(median - sorted[split - 1 - i]) < Math.abs(median - sorted[split + k - i])) {
+				low = i + 1;
+			} else {
+				high = i;
+			}
+		}
+		int j = k + 1 - low;
+		if (low == 0) {
+			return Math.abs(median - sorted[split + j - 1]);
+		}
+		if (j == 0) {
+			return Math.abs(median - sorted[split - low]);
+		}
+		return Math.max(Math.abs(median - sorted[split - low]), Math.abs(median - sorted[split + j - 1]));
+	}
+
+	/**
+	 * Checks if a value is neither infinite nor NaN.
+	 *
+	 * @param value the value
+	 * @return true, if the value is finite
+	 */
+	private static boolean isFinite(double value) {
+		return !Double.isInfinite(value) && !Double.isNaN(value);
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A utilization history of a fixed capacity, from the latest value to the oldest one. The values
+ * are kept in a primitive array used as a ring buffer, so that adding a value drops the oldest one
+ * when the history is full without moving the others, and that reading a value by its index takes
+ * constant time.
+ * <p>
+ * The history still reads as a <tt>List&lt;Double&gt;</tt>, so that the classes written against
+ * lists keep working, while {@link #getValue(int)} and {@link #toDoubleArray()} read the values
+ * without boxing them.
+ *
+ * @since CloudSim Toolkit 3.1
+ */
+public class UtilizationHistory extends AbstractList<Double> implements RandomAccess {
+
+	/** The values. */
+	private final double[] values;
+
+	/** The slot of the latest value. */
+	private int head;
+
+	/** The number of values. */
+	private int size;
+
+	/** The number of values added since the history was created. */
+	private long count;
+
+	/**
+	 * Instantiates a new utilization history.
+	 *
+	 * @param capacity the number of values kept
+	 */
+	public UtilizationHistory(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The capacity should be positive, but is: " + capacity);
+		}
+		values = new double[capacity];
+	}
+
+	/**
+	 * Adds the latest value, dropping the oldest one if the history is full.
+	 *
+	 * @param value the value
+	 */
+	public void addValue(double value) {
+		head = head == 0 ? values.length - 1 : head - 1;
+		values[head] = value;
+		if (size < values.length) {
+			size++;
+		}
+		count++;
+		modCount++;
+	}
+
+	/**
+	 * Gets a value.
+	 *
+	 * @param index the index of the value, 0 being the latest one
+	 * @return the value
+	 */
+	public double getValue(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		int slot = head + index;
+		return values[slot < values.length ? slot : slot - values.length];
+	}
+
+	/**
+	 * Gets the values in a new array, from the latest one to the oldest one.
+	 *
+	 * @return the values
+	 */
+	public double[] toDoubleArray() {
+		return toDoubleArray(size);
+	}
+
+	/**
+	 * Gets the latest values in a new array, from the latest one to the oldest one.
+	 *
+	 * @param length the number of values, not more than the size of the history
+	 * @return the values
+	 */
+	public double[] toDoubleArray(int length) {
+		if (length < 0 || length > size) {
+			throw new IndexOutOfBoundsException("Length: " + length + ", Size: " + size);
+		}
+		double[] result = new double[length];
+		int first = Math.min(length, values.length - head);
+		System.arraycopy(values, head, result, 0, first);
+		System.arraycopy(values, 0, result, first, length - first);
+		return result;
+	}
+
+	/**
+	 * Gets the number of values kept.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+		return values.length;
+	}
+
+	/**
+	 * Gets the number of values added since the history was created, including the dropped ones.
+	 *
+	 * @return the number of values added
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	@Override
+	public Double get(int index) {
+		return getValue(index);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Drops the values. The number of values added is kept.
+	 */
+	@Override
+	public void clear() {
+		head = 0;
+		size = 0;
+		modCount++;
+	}
+
+}
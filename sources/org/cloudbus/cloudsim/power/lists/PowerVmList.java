@@ -45,12 +45,13 @@ public class PowerVmList extends VmList {
 	 * @param vmList the vm list
 	 */
 	public static <T extends Vm> void sortByCpuUtilization(List<T> vmList) {
+		final double time = CloudSim.clock();
 		Collections.sort(vmList, new Comparator<T>() {
 
 			@Override
 			public int compare(T a, T b) throws ClassCastException {
-				Double aUtilization = a.getTotalUtilizationOfCpuMips(CloudSim.clock());
-				Double bUtilization = b.getTotalUtilizationOfCpuMips(CloudSim.clock());
+				Double aUtilization = a.getTotalUtilizationOfCpuMips(time);
+				Double bUtilization = b.getTotalUtilizationOfCpuMips(time);
 				return bUtilization.compareTo(aUtilization);
 			}
 		});
@@ -73,11 +74,12 @@ public class PowerVmList extends VmList {
 		ArrayList<Double> vmsAboveMean = new ArrayList<Double>();
 
 		
+		double time = CloudSim.clock();
 		for(Vm v: vmList)
 		{
-			double cpu = v.getTotalUtilizationOfCpuMips(CloudSim.clock());
-			double ram = v.getTotalUtilizationOfRam(CloudSim.clock());
-			double bw = v.getTotalUtilizationOfBW(CloudSim.clock());
+			double cpu = v.getTotalUtilizationOfCpuMips(time);
+			double ram = v.getTotalUtilizationOfRam(time);
+			double bw = v.getTotalUtilizationOfBW(time);
 		
 			size = (cpu + ram + bw / 3);
 			
@@ -8,10 +8,10 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmMap;
 
 /**
  * BwProvisionerSimple is a class that implements a simple best effort allocation policy: if there
@@ -24,7 +24,7 @@ import org.cloudbus.cloudsim.Vm;
 public class BwProvisionerSimple extends BwProvisioner {
 
 	/** The bw table. */
-	private Map<String, Long> bwTable;
+	private VmMap<Long> bwTable;
 
 	/**
 	 * Instantiates a new bw provisioner simple.
@@ -33,7 +33,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 */
 	public BwProvisionerSimple(long bw) {
 		super(bw);
-		setBwTable(new HashMap<String, Long>());
+		setBwTable(new VmMap<Long>());
 	}
 
 	/*
@@ -46,7 +46,7 @@ public class BwProvisionerSimple extends BwProvisioner {
 
 		if (getAvailableBw() >= bw) {
 			setAvailableBw(getAvailableBw() - bw);
-			getBwTable().put(vm.getUid(), bw);
+			getBwTable().put(vm.getKey(), bw);
 			vm.setCurrentAllocatedBw(getAllocatedBwForVm(vm));
 			return true;
 		}
@@ -61,8 +61,9 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 */
 	@Override
 	public long getAllocatedBwForVm(Vm vm) {
-		if (getBwTable().containsKey(vm.getUid())) {
-			return getBwTable().get(vm.getUid());
+		Long allocatedBw = getBwTable().get(vm.getKey());
+		if (allocatedBw != null) {
+			return allocatedBw;
 		}
 		return 0;
 	}
@@ -73,8 +74,8 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 */
 	@Override
 	public void deallocateBwForVm(Vm vm) {
-		if (getBwTable().containsKey(vm.getUid())) {
-			long amountFreed = getBwTable().remove(vm.getUid());
+		Long amountFreed = getBwTable().remove(vm.getKey());
+		if (amountFreed != null) {
 			setAvailableBw(getAvailableBw() + amountFreed);
 			vm.setCurrentAllocatedBw(0);
 		}
@@ -112,17 +113,17 @@ public class BwProvisionerSimple extends BwProvisioner {
 	 * 
 	 * @return the bw table
 	 */
-	protected Map<String, Long> getBwTable() {
+	protected VmMap<Long> getBwTable() {
 		return bwTable;
 	}
 
 	/**
 	 * Sets the bw table.
 	 * 
-	 * @param bwTable the bw table
+	 * @param bwTable the bw table, which is copied into a new {@link VmMap} if it is not one
 	 */
 	protected void setBwTable(Map<String, Long> bwTable) {
-		this.bwTable = bwTable;
+		this.bwTable = VmMap.of(bwTable);
 	}
 
 }
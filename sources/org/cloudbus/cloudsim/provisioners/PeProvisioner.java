@@ -65,6 +65,22 @@ public abstract class PeProvisioner {
 	 */
 	public abstract boolean allocateMipsForVm(String vmUid, double mips);
 
+	/**
+	 * Allocates MIPS for a given VM. The default implementation calls
+	 * {@link #allocateMipsForVm(String, double)} with the uid of the VM.
+	 * 
+	 * @param vmKey the key of the vm, see {@link Vm#getKey()}
+	 * @param mips the mips
+	 * 
+	 * @return $true if the MIPS could be allocated; $false otherwise
+	 * 
+	 * @pre $none
+	 * @post $none
+	 */
+	public boolean allocateMipsForVm(long vmKey, double mips) {
+		return allocateMipsForVm(Vm.getUid(vmKey), mips);
+	}
+
 	/**
 	 * Allocates MIPS for a given VM.
 	 * 
@@ -9,11 +9,11 @@
 package org.cloudbus.cloudsim.provisioners;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmMap;
 
 /**
  * The Class PeProvisionerSimple.
@@ -24,7 +24,7 @@ import org.cloudbus.cloudsim.Vm;
 public class PeProvisionerSimple extends PeProvisioner {
 
 	/** The pe table. */
-	private Map<String, List<Double>> peTable;
+	private VmMap<List<Double>> peTable;
 
 	/**
 	 * Creates the PeProvisionerSimple object.
@@ -36,7 +36,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	public PeProvisionerSimple(double availableMips) {
 		super(availableMips);
-		setPeTable(new HashMap<String, ArrayList<Double>>());
+		setPeTable(new VmMap<List<Double>>());
 	}
 
 	/*
@@ -45,7 +45,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	@Override
 	public boolean allocateMipsForVm(Vm vm, double mips) {
-		return allocateMipsForVm(vm.getUid(), mips);
+		return allocateMipsForVm(vm.getKey(), mips);
 	}
 
 	/*
@@ -54,22 +54,28 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	@Override
 	public boolean allocateMipsForVm(String vmUid, double mips) {
+		return allocateMipsForVm(Vm.getKey(vmUid), mips);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see cloudsim.provisioners.PeProvisioner#allocateMipsForVm(long, double)
+	 */
+	@Override
+	public boolean allocateMipsForVm(long vmKey, double mips) {
 		if (getAvailableMips() < mips) {
 			return false;
 		}
 
-		List<Double> allocatedMips;
-
-		if (getPeTable().containsKey(vmUid)) {
-			allocatedMips = getPeTable().get(vmUid);
-		} else {
+		List<Double> allocatedMips = getPeTable().get(vmKey);
+		if (allocatedMips == null) {
 			allocatedMips = new ArrayList<Double>();
+			getPeTable().put(vmKey, allocatedMips);
 		}
 
 		allocatedMips.add(mips);
 
 		setAvailableMips(getAvailableMips() - mips);
-		getPeTable().put(vmUid, allocatedMips);
 
 		return true;
 	}
@@ -92,7 +98,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 
 		setAvailableMips(getAvailableMips() + getTotalAllocatedMipsForVm(vm) - totalMipsToAllocate);
 
-		getPeTable().put(vm.getUid(), mips);
+		getPeTable().put(vm.getKey(), mips);
 
 		return true;
 	}
@@ -115,9 +121,10 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	@Override
 	public double getAllocatedMipsForVmByVirtualPeId(Vm vm, int peId) {
-		if (getPeTable().containsKey(vm.getUid())) {
+		List<Double> allocatedMips = getPeTable().get(vm.getKey());
+		if (allocatedMips != null) {
 			try {
-				return getPeTable().get(vm.getUid()).get(peId);
+				return allocatedMips.get(peId);
 			} catch (Exception e) {
 			}
 		}
@@ -130,10 +137,7 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	@Override
 	public List<Double> getAllocatedMipsForVm(Vm vm) {
-		if (getPeTable().containsKey(vm.getUid())) {
-			return getPeTable().get(vm.getUid());
-		}
-		return null;
+		return getPeTable().get(vm.getKey());
 	}
 
 	/*
@@ -142,9 +146,10 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	@Override
 	public double getTotalAllocatedMipsForVm(Vm vm) {
-		if (getPeTable().containsKey(vm.getUid())) {
+		List<Double> allocatedMips = getPeTable().get(vm.getKey());
+		if (allocatedMips != null) {
 			double totalAllocatedMips = 0.0;
-			for (double mips : getPeTable().get(vm.getUid())) {
+			for (double mips : allocatedMips) {
 				totalAllocatedMips += mips;
 			}
 			return totalAllocatedMips;
@@ -158,11 +163,11 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 */
 	@Override
 	public void deallocateMipsForVm(Vm vm) {
-		if (getPeTable().containsKey(vm.getUid())) {
-			for (double mips : getPeTable().get(vm.getUid())) {
+		List<Double> allocatedMips = getPeTable().remove(vm.getKey());
+		if (allocatedMips != null) {
+			for (double mips : allocatedMips) {
 				setAvailableMips(getAvailableMips() + mips);
 			}
-			getPeTable().remove(vm.getUid());
 		}
 	}
 
@@ -171,18 +176,19 @@ public class PeProvisionerSimple extends PeProvisioner {
 	 * 
 	 * @return the peTable
 	 */
-	protected Map<String, List<Double>> getPeTable() {
+	protected VmMap<List<Double>> getPeTable() {
 		return peTable;
 	}
 
 	/**
-	 * Sets the pe table.
+	 * Sets the pe table. A map that is not a {@link VmMap} is copied into a new one, so that the
+	 * changes made to it afterwards are not seen here.
 	 * 
 	 * @param peTable the peTable to set
 	 */
 	@SuppressWarnings("unchecked")
 	protected void setPeTable(Map<String, ? extends List<Double>> peTable) {
-		this.peTable = (Map<String, List<Double>>) peTable;
+		this.peTable = VmMap.of((Map<String, List<Double>>) peTable);
 	}
 
 }
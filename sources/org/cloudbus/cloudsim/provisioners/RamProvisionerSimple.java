@@ -8,10 +8,10 @@
 
 package org.cloudbus.cloudsim.provisioners;
 
-import java.util.HashMap;
 import java.util.Map;
 
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmMap;
 
 /**
  * RamProvisionerSimple is an extension of RamProvisioner which uses a best-effort policy to
@@ -24,7 +24,7 @@ import org.cloudbus.cloudsim.Vm;
 public class RamProvisionerSimple extends RamProvisioner {
 
 	/** The RAM table. */
-	private Map<String, Integer> ramTable;
+	private VmMap<Integer> ramTable;
 
 	/**
 	 * Instantiates a new ram provisioner simple.
@@ -33,7 +33,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 */
 	public RamProvisionerSimple(int availableRam) {
 		super(availableRam);
-		setRamTable(new HashMap<String, Integer>());
+		setRamTable(new VmMap<Integer>());
 	}
 
 	/*
@@ -52,7 +52,7 @@ public class RamProvisionerSimple extends RamProvisioner {
 
 		if (getAvailableRam() >= ram) {
 			setAvailableRam(getAvailableRam() - ram);
-			getRamTable().put(vm.getUid(), ram);
+			getRamTable().put(vm.getKey(), ram);
 			vm.setCurrentAllocatedRam(getAllocatedRamForVm(vm));
 			return true;
 		}
@@ -68,8 +68,9 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 */
 	@Override
 	public int getAllocatedRamForVm(Vm vm) {
-		if (getRamTable().containsKey(vm.getUid())) {
-			return getRamTable().get(vm.getUid());
+		Integer allocatedRam = getRamTable().get(vm.getKey());
+		if (allocatedRam != null) {
+			return allocatedRam;
 		}
 		return 0;
 	}
@@ -80,8 +81,8 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 */
 	@Override
 	public void deallocateRamForVm(Vm vm) {
-		if (getRamTable().containsKey(vm.getUid())) {
-			int amountFreed = getRamTable().remove(vm.getUid());
+		Integer amountFreed = getRamTable().remove(vm.getKey());
+		if (amountFreed != null) {
 			setAvailableRam(getAvailableRam() + amountFreed);
 			vm.setCurrentAllocatedRam(0);
 		}
@@ -117,17 +118,17 @@ public class RamProvisionerSimple extends RamProvisioner {
 	 * 
 	 * @return the ram table
 	 */
-	protected Map<String, Integer> getRamTable() {
+	protected VmMap<Integer> getRamTable() {
 		return ramTable;
 	}
 
 	/**
 	 * Sets the ram table.
 	 * 
-	 * @param ramTable the ram table
+	 * @param ramTable the ram table, which is copied into a new {@link VmMap} if it is not one
 	 */
 	protected void setRamTable(Map<String, Integer> ramTable) {
-		this.ramTable = ramTable;
+		this.ramTable = VmMap.of(ramTable);
 	}
 
 }
@@ -11,17 +11,18 @@ package org.cloudbus.cloudsim.util;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
+
 /**
- * The class for measuring the execution time.
+ * The class for measuring the execution time. The measurements belong to the current simulation,
+ * so simulations running in different threads do not interfere.
  * 
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 3.0
  */
 public class ExecutionTimeMeasurer {
 
-	/** The execution times. */
-	private final static Map<String, Long> executionTimes = new HashMap<String, Long>();
-
 	/**
 	 * Start.
 	 * 
@@ -49,7 +50,20 @@ public class ExecutionTimeMeasurer {
 	 * @return the execution times
 	 */
 	public static Map<String, Long> getExecutionTimes() {
+		Simulation simulation = CloudSim.getSimulation();
+		ExecutionTimes executionTimes = simulation.getAttribute(ExecutionTimes.class);
+		if (executionTimes == null) {
+			executionTimes = new ExecutionTimes();
+			simulation.setAttribute(ExecutionTimes.class, executionTimes);
+		}
 		return executionTimes;
 	}
 
+	/**
+	 * The start times of the measurements of one simulation, by name.
+	 */
+	@SuppressWarnings("serial")
+	private static final class ExecutionTimes extends HashMap<String, Long> {
+	}
+
 }
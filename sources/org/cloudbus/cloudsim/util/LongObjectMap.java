@@ -0,0 +1,241 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+
+/**
+ * A hash map from primitive <tt>long</tt> keys to objects. Unlike a
+ * <tt>HashMap&lt;Long, V&gt;</tt>, it neither boxes the keys nor creates an entry object for each
+ * mapping: the keys and the values are kept in two arrays with open addressing and linear probing.
+ * The map does not accept <tt>null</tt> values, so that <tt>null</tt> can mark the free slots.
+ *
+ * @param <V> the type of the values
+ * @since CloudSim Toolkit 3.1
+ */
+public class LongObjectMap<V> {
+
+	/** The smallest capacity of the arrays. */
+	private static final int MIN_CAPACITY = 8;
+
+	/** The keys. */
+	private long[] keys;
+
+	/** The values, <tt>null</tt> for the free slots. */
+	private Object[] values;
+
+	/** The number of mappings. */
+	private int size;
+
+	/** The number of bits of the capacity, which is a power of two. */
+	private int bits;
+
+	/**
+	 * Instantiates a new empty map.
+	 */
+	public LongObjectMap() {
+		this(MIN_CAPACITY);
+	}
+
+	/**
+	 * Instantiates a new empty map that can hold a given number of mappings without growing.
+	 *
+	 * @param expectedSize the expected number of mappings
+	 */
+	public LongObjectMap(int expectedSize) {
+		if (expectedSize < 0) {
+			throw new IllegalArgumentException("The expected size should not be negative, but is: "
+					+ expectedSize);
+		}
+		int capacity = MIN_CAPACITY;
+		while (capacity < expectedSize * 2 && capacity < 1 << 30) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	/**
+	 * Gets the value mapped to a key.
+	 *
+	 * @param key the key
+	 * @return the value, or <tt>null</tt> if the key is not mapped
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		int mask = keys.length - 1;
+		for (int i = slot(key); values[i] != null; i = i + 1 & mask) {
+			if (keys[i] == key) {
+				return (V) values[i];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether a key is mapped.
+	 *
+	 * @param key the key
+	 * @return true, if the key is mapped
+	 */
+	public boolean containsKey(long key) {
+		return get(key) != null;
+	}
+
+	/**
+	 * Maps a key to a value.
+	 *
+	 * @param key the key
+	 * @param value the value, not <tt>null</tt>
+	 * @return the value previously mapped to the key, or <tt>null</tt> if there was none
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		if (value == null) {
+			throw new IllegalArgumentException("The map does not accept null values");
+		}
+		int mask = keys.length - 1;
+		int i = slot(key);
+		for (; values[i] != null; i = i + 1 & mask) {
+			if (keys[i] == key) {
+				V previous = (V) values[i];
+				values[i] = value;
+				return previous;
+			}
+		}
+		keys[i] = key;
+		values[i] = value;
+		if (++size * 2 > keys.length) {
+			grow();
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the mapping of a key.
+	 *
+	 * @param key the key
+	 * @return the value that was mapped to the key, or <tt>null</tt> if there was none
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		int mask = keys.length - 1;
+		int i = slot(key);
+		for (; values[i] != null; i = i + 1 & mask) {
+			if (keys[i] == key) {
+				break;
+			}
+		}
+		if (values[i] == null) {
+			return null;
+		}
+		V removed = (V) values[i];
+
+		// shift back the following entries of the run that cannot be found anymore past the hole
+		int hole = i;
+		for (int j = hole + 1 & mask; values[j] != null; j = j + 1 & mask) {
+			int home = slot(keys[j]);
+			if ((j - home & mask) >= (j - hole & mask)) {
+				keys[hole] = keys[j];
+				values[hole] = values[j];
+				hole = j;
+			}
+		}
+		values[hole] = null;
+		size--;
+		return removed;
+	}
+
+	/**
+	 * Gets the number of mappings.
+	 *
+	 * @return the number of mappings
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks whether the map is empty.
+	 *
+	 * @return true, if there are no mappings
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets the mapped keys. The order of the keys depends only on the keys and on the history of
+	 * the capacity, so it is the same in all the runs of a simulation.
+	 *
+	 * @return a new array with the keys
+	 */
+	public long[] keys() {
+		long[] result = new long[size];
+		int j = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (values[i] != null) {
+				result[j++] = keys[i];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Removes all the mappings.
+	 */
+	public void clear() {
+		if (size > 0) {
+			Arrays.fill(values, null);
+			size = 0;
+		}
+	}
+
+	/**
+	 * Gets the home slot of a key, with Fibonacci hashing so that sequential keys spread over the
+	 * arrays.
+	 *
+	 * @param key the key
+	 * @return the slot
+	 */
+	private int slot(long key) {
+		return (int) (key * 0x9E3779B97F4A7C15L >>> 64 - bits);
+	}
+
+	/**
+	 * Allocates empty arrays.
+	 *
+	 * @param capacity the capacity, a power of two
+	 */
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new Object[capacity];
+		bits = Integer.numberOfTrailingZeros(capacity);
+	}
+
+	/**
+	 * Doubles the capacity of the arrays.
+	 */
+	private void grow() {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(keys.length << 1);
+		int mask = keys.length - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldValues[j] != null) {
+				int i = slot(oldKeys[j]);
+				while (values[i] != null) {
+					i = i + 1 & mask;
+				}
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+}
@@ -11,6 +11,7 @@ package org.cloudbus.cloudsim.util;
 import java.util.Arrays;
 import java.util.List;
 
+import org.apache.commons.math3.linear.SingularMatrixException;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.apache.commons.math3.stat.regression.OLSMultipleLinearRegression;
 import org.apache.commons.math3.stat.regression.SimpleRegression;
@@ -24,6 +25,46 @@ import org.cloudbus.cloudsim.Log;
  */
 public class MathUtil {
 
+	/** The largest number of values of the linear regressions over 1, 2, ..., n precomputed. */
+	private static final int LINEAR_REGRESSION_MAX_LENGTH = 256;
+
+	/** The difference between the i-th x value and the mean of the previous ones. */
+	private static final double[] LINEAR_REGRESSION_DX = new double[LINEAR_REGRESSION_MAX_LENGTH];
+
+	/** The factor dividing the updates of the means when the i-th value is added. */
+	private static final double[] LINEAR_REGRESSION_FACT1 = new double[LINEAR_REGRESSION_MAX_LENGTH];
+
+	/** The factor of the updates of the sums of products when the i-th value is added. */
+	private static final double[] LINEAR_REGRESSION_FACT2 = new double[LINEAR_REGRESSION_MAX_LENGTH];
+
+	/** The sum of the squared deviations of the first n x values, by n. */
+	private static final double[] LINEAR_REGRESSION_SUM_XX = new double[LINEAR_REGRESSION_MAX_LENGTH + 1];
+
+	/** The sum of the first n x values, by n. */
+	private static final double[] LINEAR_REGRESSION_SUM_X = new double[LINEAR_REGRESSION_MAX_LENGTH + 1];
+
+	static {
+		// the updates of SimpleRegression#addData(double, double) depending only on x
+		double xbar = 1;
+		double sumXX = 0.0;
+		double sumX = 0.0 + 1;
+		LINEAR_REGRESSION_SUM_X[1] = sumX;
+		for (int i = 1; i < LINEAR_REGRESSION_MAX_LENGTH; i++) {
+			double x = i + 1;
+			double fact1 = 1.0 + i;
+			double fact2 = i / (1.0 + i);
+			double dx = x - xbar;
+			sumXX += dx * dx * fact2;
+			xbar += dx / fact1;
+			sumX += x;
+			LINEAR_REGRESSION_DX[i] = dx;
+			LINEAR_REGRESSION_FACT1[i] = fact1;
+			LINEAR_REGRESSION_FACT2[i] = fact2;
+			LINEAR_REGRESSION_SUM_XX[i + 1] = sumXX;
+			LINEAR_REGRESSION_SUM_X[i + 1] = sumX;
+		}
+	}
+
 	/**
 	 * Sums a list of numbers.
 	 * 
@@ -231,12 +272,18 @@ public class MathUtil {
 
 	/**
 	 * Gets the loess parameter estimates.
+	 * <p>
+	 * As the tricube weights of three or more values are positive, the regression is not weighted,
+	 * so that its estimates are computed by {@link #getLinearRegressionParameterEstimates(double[])}.
 	 * 
 	 * @param y the y
 	 * @return the loess parameter estimates
 	 */
 	public static double[] getLoessParameterEstimates(final double[] y) {
 		int n = y.length;
+		if (n >= 3 && n <= LINEAR_REGRESSION_MAX_LENGTH) {
+			return getLinearRegressionParameterEstimates(y);
+		}
 		double[] x = new double[n];
 		for (int i = 0; i < n; i++) {
 			x[i] = i + 1;
@@ -245,6 +292,33 @@ public class MathUtil {
 				.regress().getParameterEstimates();
 	}
 
+	/**
+	 * Gets the parameter estimates of the linear regression of the values over 1, 2, ..., n.
+	 * <p>
+	 * The estimates are the ones of a {@link SimpleRegression} to which the values are added in
+	 * order: the updates depending only on the x values, which are the same for all the regressions,
+	 * are precomputed, and the updates depending on the y values are done in the same order, so
+	 * that the estimates are the same to the last bit.
+	 * 
+	 * @param y the values, from 3 to {@link #LINEAR_REGRESSION_MAX_LENGTH}
+	 * @return the intercept and the slope
+	 */
+	private static double[] getLinearRegressionParameterEstimates(final double[] y) {
+		int n = y.length;
+		double ybar = y[0];
+		double sumY = 0.0 + y[0];
+		double sumXY = 0.0;
+		for (int i = 1; i < n; i++) {
+			double dy = y[i] - ybar;
+			sumXY += LINEAR_REGRESSION_DX[i] * dy * LINEAR_REGRESSION_FACT2[i];
+			ybar += dy / LINEAR_REGRESSION_FACT1[i];
+			sumY += y[i];
+		}
+		double slope = sumXY / LINEAR_REGRESSION_SUM_XX[n];
+		double intercept = (sumY - slope * LINEAR_REGRESSION_SUM_X[n]) / n;
+		return new double[] { intercept, slope };
+	}
+
 	public static SimpleRegression createLinearRegression(final double[] x,
 			final double[] y) {
 		SimpleRegression regression = new SimpleRegression();
@@ -291,12 +365,32 @@ public class MathUtil {
 
 	/**
 	 * Gets the robust loess parameter estimates.
+	 * <p>
+	 * Unless at least 40% of the bisquare weights are zero, the second regression is not weighted
+	 * either, so that its estimates are the ones of the first one.
 	 * 
 	 * @param y the y
 	 * @return the robust loess parameter estimates
 	 */
 	public static double[] getRobustLoessParameterEstimates(final double[] y) {
 		int n = y.length;
+		if (n >= 3 && n <= LINEAR_REGRESSION_MAX_LENGTH) {
+			double[] estimates = getLinearRegressionParameterEstimates(y);
+			double[] residuals = new double[n];
+			for (int i = 0; i < n; i++) {
+				residuals[i] = y[i] - (estimates[0] + estimates[1] * (i + 1));
+			}
+			double[] weights = getTricubeBisquareWeigts(residuals);
+			int numZeroWeigths = 0;
+			for (int i = 0; i < n; i++) {
+				if (weights[i] <= 0) {
+					numZeroWeigths++;
+				}
+			}
+			if (numZeroWeigths < 0.4 * n) {
+				return estimates;
+			}
+		}
 		double[] x = new double[n];
 		for (int i = 0; i < n; i++) {
 			x[i] = i + 1;
@@ -318,6 +412,98 @@ public class MathUtil {
 		return estimates;
 	}
 
+	/**
+	 * Gets the parameter estimates of the ordinary least squares multiple linear regression with an
+	 * intercept, as {@link OLSMultipleLinearRegression#estimateRegressionParameters()} does.
+	 * <p>
+	 * The Householder QR decomposition and the solver of commons-math are run on arrays, with the
+	 * same operations in the same order, so that the estimates are the same to the last bit. The
+	 * samples not accepted by {@link OLSMultipleLinearRegression} are passed to it, so that it
+	 * throws the same exceptions.
+	 * 
+	 * @param x the samples, one row per observation
+	 * @param y the observations
+	 * @return the intercept followed by the coefficients of the variables
+	 * @throws SingularMatrixException if the design matrix is singular
+	 */
+	public static double[] getMultipleLinearRegressionParameterEstimates(
+			final double[][] x,
+			final double[] y) {
+		int m = x == null || y == null || x.length != y.length ? 0 : x.length;
+		int p = m == 0 || x[0] == null ? 0 : x[0].length + 1;
+		for (int i = 0; i < m && p != 0; i++) {
+			if (x[i] == null || x[i].length != p - 1) {
+				p = 0;
+			}
+		}
+		if (p == 0 || p > m) {
+			return createLinearRegression(x, y).estimateRegressionParameters();
+		}
+
+		// the transpose of the design matrix, decomposed in place
+		double[][] qrt = new double[p][m];
+		for (int i = 0; i < m; i++) {
+			qrt[0][i] = 1.0;
+			for (int j = 1; j < p; j++) {
+				qrt[j][i] = x[i][j - 1];
+			}
+		}
+		double[] rDiag = new double[p];
+		for (int minor = 0; minor < p; minor++) {
+			double[] qrtMinor = qrt[minor];
+			double xNormSqr = 0;
+			for (int row = minor; row < m; row++) {
+				double c = qrtMinor[row];
+				xNormSqr += c * c;
+			}
+			double a = qrtMinor[minor] > 0 ? -Math.sqrt(xNormSqr) : Math.sqrt(xNormSqr);
+			rDiag[minor] = a;
+			if (a != 0) {
+				qrtMinor[minor] -= a;
+				for (int col = minor + 1; col < p; col++) {
+					double[] qrtCol = qrt[col];
+					double alpha = 0;
+					for (int row = minor; row < m; row++) {
+						alpha -= qrtCol[row] * qrtMinor[row];
+					}
+					alpha /= a * qrtMinor[minor];
+					for (int row = minor; row < m; row++) {
+						qrtCol[row] -= alpha * qrtMinor[row];
+					}
+				}
+			}
+		}
+		for (int i = 0; i < p; i++) {
+			if (Math.abs(rDiag[i]) <= 0) {
+				throw new SingularMatrixException();
+			}
+		}
+
+		double[] z = y.clone();
+		for (int minor = 0; minor < p; minor++) {
+			double[] qrtMinor = qrt[minor];
+			double dotProduct = 0;
+			for (int row = minor; row < m; row++) {
+				dotProduct += z[row] * qrtMinor[row];
+			}
+			dotProduct /= rDiag[minor] * qrtMinor[minor];
+			for (int row = minor; row < m; row++) {
+				z[row] += dotProduct * qrtMinor[row];
+			}
+		}
+		double[] estimates = new double[p];
+		for (int row = p - 1; row >= 0; row--) {
+			z[row] /= rDiag[row];
+			double zRow = z[row];
+			double[] qrtRow = qrt[row];
+			estimates[row] = zRow;
+			for (int i = 0; i < row; i++) {
+				z[i] -= zRow * qrtRow[i];
+			}
+		}
+		return estimates;
+	}
+
 	/**
 	 * Gets the tricube weigts.
 	 * 
@@ -284,6 +284,10 @@ public class WorkloadFileReader implements WorkloadModel {
 				utilizationModel,
 				utilizationModel,
 				utilizationModel);
+		// the user estimated run time is IRRELEVANT when the trace does not have it
+		if (reqRunTime > 0) {
+			wgl.setRequestedLength((long) reqRunTime * rating);
+		}
 		jobs.add(wgl);
 	}
 